@@ -18,3 +18,13 @@
 package org.apache.linkis.common.listener
 
 trait Event
+
+/**
+ * The event dispatched by a partition key in the partitioned mode of ListenerEventBus, the events
+ * of the same key are handled in the order posted
+ */
+trait PartitionedEvent extends Event {
+
+  def getPartitionKey: Any
+
+}
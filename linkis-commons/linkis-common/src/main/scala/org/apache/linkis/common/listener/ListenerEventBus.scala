@@ -22,8 +22,16 @@ import org.apache.linkis.common.utils.{Logging, Utils}
 import org.apache.commons.lang3.time.DateFormatUtils
 
 import java.time.Duration
-import java.util.concurrent.{ArrayBlockingQueue, CopyOnWriteArrayList, Future, TimeoutException}
-import java.util.concurrent.atomic.{AtomicBoolean, AtomicLong}
+import java.util.concurrent.{
+  ArrayBlockingQueue,
+  CopyOnWriteArrayList,
+  ExecutorService,
+  Future,
+  Semaphore,
+  TimeoutException,
+  TimeUnit
+}
+import java.util.concurrent.atomic.{AtomicBoolean, AtomicInteger, AtomicLong}
 
 import scala.util.control.NonFatal
 
@@ -77,6 +85,14 @@ trait ListenerBus[L <: EventListener, E <: Event] extends Logging {
 
 }
 
+/**
+ * The asynchronous listener bus, which has two modes:
+ *   - shared mode (default): the events are taken from one queue by a dispatcher thread, and handed
+ *     off to any free consumer thread, so the events are not handled in order.
+ *   - partitioned mode: enabled when getPartitionNum is positive, the events are hashed to the
+ *     queues of the partitions by getPartitionKey, and every partition is consumed by its own
+ *     thread, so the events of the same key are handled in the order posted. (分区模式，同一key的事件按序处理)
+ */
 abstract class ListenerEventBus[L <: EventListener, E <: Event](
     val eventQueueCapacity: Int,
     name: String
@@ -94,11 +110,57 @@ abstract class ListenerEventBus[L <: EventListener, E <: Event](
   private val eventDealThreads =
     Array.tabulate(listenerConsumerThreadSize)(new ListenerEventThread(_))
 
+  /**
+   * The free consumer threads, the dispatcher thread waits on it rather than polling the threads
+   * when all of them are busy
+   */
+  private val freeDealThreads = new Semaphore(listenerConsumerThreadSize)
+
+  /**
+   * The events queued, held by the dispatcher thread or being handled in the shared mode, so that
+   * the event taken from the queue while waiting for a free consumer thread is counted
+   */
+  private val pendingEvents = new AtomicInteger(0)
+
   private val started = new AtomicBoolean(false)
   private val stopped = new AtomicBoolean(false)
 
   private var listenerThread: Future[_] = _
 
+  private lazy val partitions: Array[EventPartition] = {
+    val partitionNum = math.max(getPartitionNum, 0)
+    val partitionCapacity =
+      if (partitionNum > 0) math.max(eventQueueCapacity / partitionNum, 1) else 0
+    Array.tabulate(partitionNum)(new EventPartition(_, partitionCapacity))
+  }
+
+  private lazy val partitionExecutorService: ExecutorService =
+    Utils.newFixedThreadPool(partitions.length, name + "-Partition-Thread-", true)
+
+  private val nextPartition = new AtomicInteger(0)
+
+  /**
+   * The number of partitions, the partitioned mode is used if it is positive. Every partition has a
+   * consumer thread and a queue of eventQueueCapacity / partitionNum events.
+   */
+  protected def getPartitionNum: Int = 0
+
+  /**
+   * The partition key of the event in the partitioned mode, such as the job id or the service
+   * instance. The events without key(null) are dispatched to the partitions in turn.
+   */
+  protected def getPartitionKey(event: E): Any = event match {
+    case partitionedEvent: PartitionedEvent => partitionedEvent.getPartitionKey
+    case _ => null
+  }
+
+  def isPartitioned: Boolean = partitions.nonEmpty
+
+  /**
+   * Depth and latency of the partitions, empty in the shared mode
+   */
+  def getPartitionMetrics: Array[ListenerEventPartitionMetrics] = partitions.map(_.getMetrics)
+
   /**
    * Start sending events to attached listeners.
    *
@@ -107,29 +169,56 @@ abstract class ListenerEventBus[L <: EventListener, E <: Event](
    * should only be called once.
    */
   def start(): Unit = {
-    if (started.compareAndSet(false, true)) {
+    if (!started.compareAndSet(false, true)) {
+      throw new IllegalStateException(s"$name already started!")
+    } else if (isPartitioned) {
+      logger.info(s"start $name with ${partitions.length} partitions.")
+      partitions.foreach(_.start())
+    } else {
       listenerThread = executorService.submit(new Runnable {
         override def run(): Unit =
           while (!stopped.get) {
-            val event = Utils.tryCatch(eventQueue.take()) { case t: InterruptedException =>
+            val event = Utils.tryCatch {
+              val event = eventQueue.take()
+              freeDealThreads.acquire()
+              event
+            } { case t: InterruptedException =>
               logger.info(s"stopped $name thread.", t)
               return
             }
+            // A permit is only acquired when a thread is free, so this hardly loops
             while (!eventDealThreads.exists(_.putEvent(event)) && !stopped.get)
               Utils.tryAndError(Thread.sleep(1))
           }
       })
-    } else {
-      throw new IllegalStateException(s"$name already started!")
     }
   }
 
+  private def isListenerThreadDone: Boolean =
+    if (isPartitioned) partitions.exists(_.isDone) else listenerThread.isDone
+
+  private def offerEvent(event: E): Boolean = if (isPartitioned) {
+    val key = getPartitionKey(event)
+    val index =
+      if (key == null) nextPartition.getAndIncrement()
+      else {
+        val hash = key.hashCode()
+        hash ^ (hash >>> 16)
+      }
+    partitions(Math.floorMod(index, partitions.length)).offer(event)
+  } else {
+    pendingEvents.incrementAndGet()
+    val offered = eventQueue.offer(event)
+    if (!offered) pendingEvents.decrementAndGet()
+    offered
+  }
+
   protected val dropEvent: DropEvent = new IgnoreDropEvent
 
   def post(event: E): Unit = {
-    if (stopped.get || executorService.isTerminated || (listenerThread.isDone && started.get())) {
+    if (stopped.get || executorService.isTerminated || (started.get() && isListenerThreadDone)) {
       dropEvent.onBusStopped(event)
-    } else if (!eventQueue.offer(event)) {
+    } else if (!offerEvent(event)) {
       dropEvent.onDropEvent(event)
     }
   }
@@ -158,7 +247,7 @@ abstract class ListenerEventBus[L <: EventListener, E <: Event](
    * For testing only. Return whether the listener daemon thread is still alive. Exposed for
    * testing.
    */
-  def listenerThreadIsAlive: Boolean = !listenerThread.isDone
+  def listenerThreadIsAlive: Boolean = !isListenerThreadDone
 
   /**
    * Return whether the event queue is empty.
@@ -167,7 +256,8 @@ abstract class ListenerEventBus[L <: EventListener, E <: Event](
    * already been processed by all attached listeners, if this returns true.
    */
   private def queueIsEmpty: Boolean = synchronized {
-    eventQueue.isEmpty && !eventDealThreads.exists(_.isRunning)
+    if (isPartitioned) partitions.forall(_.isEmpty)
+    else pendingEvents.get == 0
   }
 
   /**
@@ -183,8 +273,13 @@ abstract class ListenerEventBus[L <: EventListener, E <: Event](
       // `stop` is called.
       logger.info(s"try to stop $name thread.")
       //      eventLock.release()
-      listenerThread.cancel(true)
-      eventDealThreads.foreach(_.shutdown())
+      if (isPartitioned) {
+        partitions.foreach(_.shutdown())
+        partitionExecutorService.shutdownNow()
+      } else {
+        listenerThread.cancel(true)
+        eventDealThreads.foreach(_.shutdown())
+      }
     } else {
       // Keep quiet
     }
@@ -312,10 +407,14 @@ abstract class ListenerEventBus[L <: EventListener, E <: Event](
               }
             )
         }
-        Utils.tryFinally(event.foreach(postToAll))(synchronized {
-          lastEventDealTime = System.currentTimeMillis()
-          event = None
-        })
+        Utils.tryFinally(event.foreach(postToAll)) {
+          synchronized {
+            lastEventDealTime = System.currentTimeMillis()
+            event = None
+          }
+          pendingEvents.decrementAndGet()
+          freeDealThreads.release()
+        }
       }
       threadRelease()
     }
@@ -327,4 +426,93 @@ abstract class ListenerEventBus[L <: EventListener, E <: Event](
 
   }
 
+  /**
+   * A partition of the partitioned mode, which has its own queue and consumer thread
+   */
+  private class EventPartition(index: Int, capacity: Int) extends Runnable {
+
+    private val queue = new ArrayBlockingQueue[PartitionEvent](capacity)
+
+    /** The events queued or being handled */
+    private val pendingEvents = new AtomicInteger(0)
+
+    private val handledEvents = new AtomicLong(0L)
+    private val totalLatency = new AtomicLong(0L)
+    private val maxLatency = new AtomicLong(0L)
+
+    private var future: Future[_] = _
+
+    def start(): Unit = future = partitionExecutorService.submit(this)
+
+    def isDone: Boolean = future == null || future.isDone
+
+    def isEmpty: Boolean = pendingEvents.get == 0
+
+    def offer(event: E): Boolean = {
+      pendingEvents.incrementAndGet()
+      val offered = queue.offer(new PartitionEvent(event, System.nanoTime()))
+      if (!offered) pendingEvents.decrementAndGet()
+      offered
+    }
+
+    override def run(): Unit = {
+      val currentThreadName = s"$name-Partition-$index"
+      Thread.currentThread().setName(currentThreadName)
+      logger.info(s"$currentThreadName begin.")
+      while (!stopped.get) {
+        val partitionEvent = Utils.tryCatch(queue.take()) { case _: InterruptedException =>
+          logger.info(s"$currentThreadName stopped.")
+          return
+        }
+        Utils.tryFinally(postToAll(partitionEvent.event)) {
+          val latency = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - partitionEvent.postTime)
+          handledEvents.incrementAndGet()
+          totalLatency.addAndGet(latency)
+          // Only updated by the consumer thread of this partition
+          if (latency > maxLatency.get) maxLatency.set(latency)
+          pendingEvents.decrementAndGet()
+        }
+      }
+    }
+
+    def shutdown(): Unit = if (future != null) future.cancel(true)
+
+    def getMetrics: ListenerEventPartitionMetrics = {
+      val handled = handledEvents.get
+      ListenerEventPartitionMetrics(
+        index,
+        queue.size(),
+        handled,
+        if (handled == 0) 0L else totalLatency.get / handled,
+        maxLatency.get
+      )
+    }
+
+  }
+
+  private class PartitionEvent(val event: E, val postTime: Long)
+
 }
+
+/**
+ * Metrics of a partition of ListenerEventBus, the latency is the time from posted to handled by all
+ * listeners.
+ *
+ * @param partition
+ *   index of the partition
+ * @param depth
+ *   events waiting in the queue of the partition
+ * @param handledEvents
+ *   events handled since started
+ * @param avgLatency
+ *   average latency of the handled events, in microseconds
+ * @param maxLatency
+ *   max latency of the handled events, in microseconds
+ */
+case class ListenerEventPartitionMetrics(
+    partition: Int,
+    depth: Int,
+    handledEvents: Long,
+    avgLatency: Long,
+    maxLatency: Long
+)
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.common.listener;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the shared mode of ListenerEventBus with the partitioned mode, a batch of events of 100
+ * jobs is posted and the invocation ends when all of them are handled by a listener doing a little
+ * work. Run main() to get the handled events per second of each mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListenerEventBusBenchmark {
+
+  private static final int BATCH_SIZE = 1000;
+
+  @Param({"0", "5"})
+  public int partitionNum;
+
+  private BenchmarkBus bus;
+
+  private volatile CountDownLatch handled;
+
+  @Setup
+  public void setup() {
+    bus = new BenchmarkBus(partitionNum);
+    bus.addListener(
+        new BenchmarkListener() {
+          @Override
+          public void onEvent(JobEvent event) {
+            Blackhole.consumeCPU(200);
+            handled.countDown();
+          }
+
+          @Override
+          public void onEventError(Event event, Throwable t) {
+            handled.countDown();
+          }
+        });
+    bus.start();
+  }
+
+  @TearDown
+  public void tearDown() {
+    bus.stop();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public void postAndHandle() throws InterruptedException {
+    handled = new CountDownLatch(BATCH_SIZE);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      bus.post(new JobEvent(i % 100));
+    }
+    handled.await();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options options =
+        new OptionsBuilder().include(ListenerEventBusBenchmark.class.getSimpleName()).build();
+    new Runner(options).run();
+  }
+
+  public static class JobEvent implements PartitionedEvent {
+
+    private final long jobId;
+
+    public JobEvent(long jobId) {
+      this.jobId = jobId;
+    }
+
+    @Override
+    public Object getPartitionKey() {
+      return jobId;
+    }
+  }
+
+  public interface BenchmarkListener extends EventListener {
+    void onEvent(JobEvent event);
+  }
+
+  public static class BenchmarkBus extends ListenerEventBus<BenchmarkListener, JobEvent> {
+
+    private final int partitionNum;
+
+    public BenchmarkBus(int partitionNum) {
+      super(BATCH_SIZE * 2, "ListenerEventBusBenchmark", 5, TimeUnit.MINUTES.toMillis(2));
+      this.partitionNum = partitionNum;
+    }
+
+    @Override
+    public int getPartitionNum() {
+      return partitionNum;
+    }
+
+    @Override
+    public void doPostEvent(BenchmarkListener listener, JobEvent event) {
+      listener.onEvent(event);
+    }
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.common.listener
+
+import java.util
+import java.util.concurrent.{ConcurrentHashMap, CopyOnWriteArrayList}
+import java.util.concurrent.atomic.AtomicInteger
+
+import scala.collection.JavaConverters._
+
+import org.junit.jupiter.api.{Assertions, DisplayName, Test}
+
+class ListenerEventBusTest {
+
+  @Test
+  @DisplayName("sharedModeTest")
+  def sharedModeTest(): Unit = {
+    val bus = new TestListenerEventBus(1000, 0)
+    val listener = new RecordingListener
+    bus.addListener(listener)
+    bus.start()
+    (1 to 200).foreach(i => bus.post(TestEvent(i % 10, i)))
+    bus.waitUntilEmpty(10000)
+    Assertions.assertEquals(200, listener.handled.get)
+    Assertions.assertFalse(bus.isPartitioned)
+    Assertions.assertTrue(bus.getPartitionMetrics.isEmpty)
+    bus.stop()
+  }
+
+  @Test
+  @DisplayName("sharedModeBusyTest")
+  def sharedModeBusyTest(): Unit = {
+    val bus = new TestListenerEventBus(1000, 0)
+    val listener = new RecordingListener
+    listener.sleepMillis = 50
+    bus.addListener(listener)
+    bus.start()
+    // Both consumer threads are busy, so the dispatcher holds the third event out of the queue
+    (1 to 3).foreach(i => bus.post(TestEvent(null, i)))
+    bus.waitUntilEmpty(10000)
+    Assertions.assertEquals(3, listener.handled.get)
+    bus.stop()
+  }
+
+  @Test
+  @DisplayName("partitionedOrderTest")
+  def partitionedOrderTest(): Unit = {
+    val bus = new TestListenerEventBus(1000, 4)
+    val listener = new RecordingListener
+    bus.addListener(listener)
+    bus.start()
+    (1 to 200).foreach(i => bus.post(TestEvent(i % 10, i)))
+    bus.waitUntilEmpty(10000)
+    Assertions.assertTrue(bus.isPartitioned)
+    Assertions.assertEquals(200, listener.handled.get)
+    listener.sequences.asScala.foreach { case (key, sequence) =>
+      val expected = (1 to 200).filter(_ % 10 == key).map(Integer.valueOf).asJava
+      Assertions.assertEquals(expected, sequence)
+    }
+    // The events of the same key go to one partition
+    listener.threads.asScala.values.foreach { names =>
+      Assertions.assertEquals(1, names.asScala.toSet.size)
+    }
+
+    val metrics = bus.getPartitionMetrics
+    Assertions.assertEquals(4, metrics.length)
+    Assertions.assertEquals(200L, metrics.map(_.handledEvents).sum)
+    Assertions.assertTrue(metrics.forall(_.depth == 0))
+    Assertions.assertTrue(metrics.forall(m => m.maxLatency >= m.avgLatency))
+    bus.stop()
+  }
+
+  @Test
+  @DisplayName("dropTest")
+  def dropTest(): Unit = {
+    val bus = new TestListenerEventBus(4, 2)
+    val listener = new RecordingListener
+    listener.sleepMillis = 200
+    bus.addListener(listener)
+    bus.start()
+    // 2 events in each partition queue, one more is taken by each consumer at most
+    (1 to 20).foreach(i => bus.post(TestEvent(null, i)))
+    Assertions.assertTrue(bus.dropped.get > 0)
+    bus.stop()
+    bus.post(TestEvent(1, 21))
+    Assertions.assertEquals(1, bus.stoppedEvents.get)
+  }
+
+  private case class TestEvent(key: Any, seq: Int) extends PartitionedEvent {
+    override def getPartitionKey: Any = key
+  }
+
+  private class RecordingListener extends EventListener {
+
+    val handled = new AtomicInteger(0)
+
+    val sequences = new ConcurrentHashMap[Any, util.List[Integer]]
+
+    val threads = new ConcurrentHashMap[Any, util.List[String]]
+
+    @volatile var sleepMillis = 0L
+
+    def onEvent(event: TestEvent): Unit = {
+      if (sleepMillis > 0) Thread.sleep(sleepMillis)
+      if (event.key != null) {
+        sequences.putIfAbsent(event.key, new CopyOnWriteArrayList[Integer])
+        sequences.get(event.key).add(event.seq)
+        threads.putIfAbsent(event.key, new CopyOnWriteArrayList[String])
+        threads.get(event.key).add(Thread.currentThread().getName)
+      }
+      handled.incrementAndGet()
+    }
+
+    override def onEventError(event: Event, t: Throwable): Unit = {}
+
+  }
+
+  private class TestListenerEventBus(capacity: Int, partitionNum: Int)
+      extends ListenerEventBus[RecordingListener, TestEvent](capacity, "TestBus")(2) {
+
+    val dropped = new AtomicInteger(0)
+
+    val stoppedEvents = new AtomicInteger(0)
+
+    override protected def getPartitionNum: Int = partitionNum
+
+    override protected def doPostEvent(listener: RecordingListener, event: TestEvent): Unit =
+      listener.onEvent(event)
+
+    override protected val dropEvent: DropEvent = new DropEvent {
+      override def onDropEvent(event: TestEvent): Unit = dropped.incrementAndGet()
+      override def onBusStopped(event: TestEvent): Unit = stoppedEvents.incrementAndGet()
+    }
+
+  }
+
+}
@@ -214,6 +214,7 @@ public class DataWorkCloudApplication extends SpringBootServletInitializer {
                 FilterHolder filterHolder = new FilterHolder(CharacterEncodingFilter.class);
                 filterHolder.setInitParameter("encoding", Configuration.BDP_ENCODING().getValue());
                 filterHolder.setInitParameter("forceEncoding", "true");
+                filterHolder.setAsyncSupported(true);
                 webApp.addFilter(filterHolder, "/*", EnumSet.allOf(DispatcherType.class));
 
                 // set servletHolder  for spring restful api
@@ -89,6 +89,8 @@ private[linkis] object BDPJettyServerHelper extends Logging {
 
     servletHolder.setName("springrestful")
     servletHolder.setForcedPath("springrestful")
+    // The restful apis returning DeferredResult are completed asynchronously
+    servletHolder.setAsyncSupported(true)
 
     // todo  file size  parameter configuration
     // val multipartConfigElement = new MultipartConfigElement(null, MAX_UPLOAD_SIZE, MAX_UPLOAD_SIZE * 2, MAX_UPLOAD_SIZE / 2)
@@ -104,6 +106,7 @@ private[linkis] object BDPJettyServerHelper extends Logging {
 
     webApp.addServlet(servletHolder, restfulPath)
     val filterHolder = new FilterHolder(getSecurityFilter())
+    filterHolder.setAsyncSupported(true)
     webApp.addFilter(filterHolder, restfulPath, EnumSet.allOf(classOf[DispatcherType]))
     webApp.setSessionHandler(new SessionHandler)
 
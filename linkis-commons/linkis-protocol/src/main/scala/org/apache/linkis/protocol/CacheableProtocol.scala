@@ -17,6 +17,46 @@
 
 package org.apache.linkis.protocol
 
+import java.util.{List => JList, Map => JMap, Set => JSet}
+
+import scala.collection.JavaConverters._
+
+/**
+ * The protocol whose reply is cached by the sender, the requests with equal cacheKey share the same
+ * reply. The owning service invalidates the cached replies by cacheGroup and cacheScope through
+ * RemoveCacheableResultRequest.
+ */
 trait CacheableProtocol extends Protocol {
   override def toString: String = super.toString
+
+  /**
+   * The key of the cached reply, built from the fields of the protocol by default (默认由协议的字段构成缓存key)
+   */
+  def cacheKey: Any = CacheableProtocol.structuralKey(this)
+
+  /** The group of the cached reply, such as the service owning it */
+  def cacheGroup: String = getClass.getName
+
+  /** The scope in the group, such as the user, null means the reply is shared by the group */
+  def cacheScope: String = null
+}
+
+object CacheableProtocol {
+
+  def structuralKey(protocol: CacheableProtocol): Any = protocol match {
+    case product: Product =>
+      (protocol.getClass, product.productIterator.map(structuralValue).toList)
+    case _ => (protocol.getClass, protocol.toString)
+  }
+
+  /** Arrays and java collections have no structural equals/hashCode, convert them to lists */
+  def structuralValue(value: Any): Any = value match {
+    case array: Array[_] => array.toList.map(structuralValue)
+    case list: JList[_] => list.asScala.toList.map(structuralValue)
+    case set: JSet[_] => set.asScala.toSet.map(structuralValue)
+    case map: JMap[_, _] =>
+      map.asScala.toMap.map { case (k, v) => (structuralValue(k), structuralValue(v)) }
+    case _ => value
+  }
+
 }
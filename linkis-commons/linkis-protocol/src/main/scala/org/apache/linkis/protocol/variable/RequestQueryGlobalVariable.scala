@@ -21,12 +21,25 @@ import org.apache.linkis.protocol.{CacheableProtocol, RetryableProtocol}
 
 trait VariableProtocol
 
+object VariableProtocol {
+
+  /** Group of the cached rpc replies of variables */
+  val CACHE_GROUP = "variable"
+
+}
+
 case class RequestQueryGlobalVariable(userName: String)
     extends CacheableProtocol
     with RetryableProtocol
-    with VariableProtocol
+    with VariableProtocol {
+  override def cacheGroup: String = VariableProtocol.CACHE_GROUP
+  override def cacheScope: String = userName
+}
 
 case class RequestQueryAppVariable(userName: String, creator: String, appName: String)
     extends CacheableProtocol
     with RetryableProtocol
-    with VariableProtocol
+    with VariableProtocol {
+  override def cacheGroup: String = VariableProtocol.CACHE_GROUP
+  override def cacheScope: String = userName
+}
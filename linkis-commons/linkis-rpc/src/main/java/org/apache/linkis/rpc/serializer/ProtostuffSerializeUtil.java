@@ -17,6 +17,8 @@
 
 package org.apache.linkis.rpc.serializer;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -42,27 +44,56 @@ public class ProtostuffSerializeUtil {
 
   private static Map<Class<?>, Schema<?>> schemaCache = new ConcurrentHashMap<>();
 
+  private static final int BUFFER_SIZE = 4096;
+
+  /**
+   * LinkedBuffer is not thread-safe, so every thread reuses its own one instead of allocating a new
+   * buffer for each message. The chained nodes grown for a large message are dropped by clear(),
+   * only the head buffer is retained.
+   */
+  private static final ThreadLocal<LinkedBuffer> bufferPool =
+      ThreadLocal.withInitial(() -> LinkedBuffer.allocate(BUFFER_SIZE));
+
   public static <T> String serialize(T obj) {
+    return toHexString(serializeToBytes(obj));
+  }
+
+  public static <T> byte[] serializeToBytes(T obj) {
 
     if (obj == null) {
       throw new NullPointerException();
     }
     Class<T> clazz = (Class<T>) obj.getClass();
     Schema<T> schema = getSchema(clazz);
-    byte[] data;
-    LinkedBuffer buffer = LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE);
+    LinkedBuffer buffer = bufferPool.get();
     try {
-      data = ProtostuffIOUtil.toByteArray(obj, schema, buffer);
+      return ProtostuffIOUtil.toByteArray(obj, schema, buffer);
     } finally {
       buffer.clear();
     }
-    return toHexString(data);
   }
 
   public static <T> T deserialize(String str, Class<T> clazz) {
+    return deserialize(toByteArray(str), clazz);
+  }
+
+  public static <T> T deserialize(byte[] bytes, Class<T> clazz) {
     Schema<T> schema = getSchema(clazz);
     T obj = schema.newMessage();
-    ProtostuffIOUtil.mergeFrom(toByteArray(str), obj, schema);
+    ProtostuffIOUtil.mergeFrom(bytes, obj, schema);
+    return obj;
+  }
+
+  /** Read the whole stream as one message, the stream is not closed */
+  public static <T> T deserialize(InputStream in, Class<T> clazz) throws IOException {
+    Schema<T> schema = getSchema(clazz);
+    T obj = schema.newMessage();
+    LinkedBuffer buffer = bufferPool.get();
+    try {
+      ProtostuffIOUtil.mergeFrom(in, obj, schema, buffer);
+    } finally {
+      buffer.clear();
+    }
     return obj;
   }
 
@@ -24,7 +24,8 @@ import org.apache.linkis.rpc.exception.{DWCRPCRetryException, RPCInitFailedExcep
 
 class AsynRPCMessageBus(capacity: Int, busName: String)(
     consumerThreadSize: Int,
-    threadMaxFreeTime: Long
+    threadMaxFreeTime: Long,
+    partitionNum: Int = 0
 ) extends ListenerEventBus[RPCMessageEventListener, RPCMessageEvent](capacity, busName)(
       consumerThreadSize,
       threadMaxFreeTime
@@ -39,6 +40,10 @@ class AsynRPCMessageBus(capacity: Int, busName: String)(
       event: RPCMessageEvent
   ): Unit = listener.onEvent(event)
 
+  override protected def getPartitionNum: Int = partitionNum
+
+  override protected def getPartitionKey(event: RPCMessageEvent): Any = event.serviceInstance
+
   override protected val dropEvent: DropEvent = new DropEvent {
 
     override def onDropEvent(event: RPCMessageEvent): Unit = throw new DWCRPCRetryException(
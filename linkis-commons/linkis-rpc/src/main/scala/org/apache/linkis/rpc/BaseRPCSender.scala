@@ -20,15 +20,18 @@ package org.apache.linkis.rpc
 import org.apache.linkis.DataWorkCloudApplication
 import org.apache.linkis.common.ServiceInstance
 import org.apache.linkis.common.exception.WarnException
-import org.apache.linkis.common.utils.Logging
+import org.apache.linkis.common.utils.{Logging, Utils}
 import org.apache.linkis.protocol.Protocol
 import org.apache.linkis.rpc.conf.RPCConfiguration.{
+  BDP_RPC_BINARY_ENABLE,
+  BDP_RPC_BINARY_RETRY_INTERVAL,
   BDP_RPC_SENDER_ASYN_CONSUMER_THREAD_FREE_TIME_MAX,
   BDP_RPC_SENDER_ASYN_CONSUMER_THREAD_MAX,
+  BDP_RPC_SENDER_ASYN_PARTITION_NUM,
   BDP_RPC_SENDER_ASYN_QUEUE_CAPACITY
 }
 import org.apache.linkis.rpc.interceptor._
-import org.apache.linkis.rpc.transform.{RPCConsumer, RPCProduct}
+import org.apache.linkis.rpc.transform.{RPCBinaryTransform, RPCConsumer, RPCProduct}
 import org.apache.linkis.server.Message
 import org.apache.linkis.server.conf.ServerConfiguration
 
@@ -37,12 +40,15 @@ import java.util
 import scala.concurrent.duration.Duration
 import scala.runtime.BoxedUnit
 
-import feign.{Feign, Retryer}
+import feign.{Contract, Feign, Response, Retryer}
+import feign.codec.Encoder
 import feign.slf4j.Slf4jLogger
 
 private[rpc] class BaseRPCSender extends Sender with Logging {
   private var name: String = _
   private var rpc: RPCReceiveRemote = _
+  private var binaryRPC: RPCBinaryReceiveRemote = _
+  @volatile private var binaryUnsupportedTime: Long = 0L
 
   protected def getRPCInterceptors: Array[RPCInterceptor] = Array.empty
 
@@ -72,13 +78,64 @@ private[rpc] class BaseRPCSender extends Sender with Logging {
   protected def doBuilder(builder: Feign.Builder): Unit =
     builder.retryer(Retryer.NEVER_RETRY)
 
+  private def getURL: String = {
+    var url = if (name.startsWith("http://")) name else "http://" + name
+    if (url.endsWith("/")) url = url.substring(0, url.length - 1)
+    url + ServerConfiguration.BDP_SERVER_RESTFUL_URI.getValue
+  }
+
   protected def newRPC: RPCReceiveRemote = {
     val builder = Feign.builder.logger(new Slf4jLogger()).logLevel(feign.Logger.Level.FULL)
     doBuilder(builder)
-    var url = if (name.startsWith("http://")) name else "http://" + name
-    if (url.endsWith("/")) url = url.substring(0, url.length - 1)
-    url += ServerConfiguration.BDP_SERVER_RESTFUL_URI.getValue
-    builder.target(classOf[RPCReceiveRemote], url)
+    builder.target(classOf[RPCReceiveRemote], getURL)
+  }
+
+  private def getBinaryRPC: RPCBinaryReceiveRemote = {
+    if (binaryRPC == null) this synchronized {
+      if (binaryRPC == null) binaryRPC = newBinaryRPC
+    }
+    binaryRPC
+  }
+
+  protected def newBinaryRPC: RPCBinaryReceiveRemote = {
+    // The binary body is not logged
+    val builder = Feign.builder.logger(new Slf4jLogger()).logLevel(feign.Logger.Level.HEADERS)
+    doBuilder(builder)
+    builder.contract(new Contract.Default).encoder(new Encoder.Default)
+    builder.target(classOf[RPCBinaryReceiveRemote], getURL)
+  }
+
+  protected def isBinaryRPCEnabled: Boolean = BDP_RPC_BINARY_ENABLE.getValue
+
+  /**
+   * Send the message by the binary endpoint, if the receiver is of an older version which does not
+   * support it, fall back to the json endpoint and not try the binary one again until
+   * BDP_RPC_BINARY_RETRY_INTERVAL passes. (优先使用二进制RPC，对端不支持时回退到json格式)
+   */
+  private def binaryOrElse(message: Any)(
+      op: (RPCBinaryReceiveRemote, util.Map[String, Object], Array[Byte]) => Response
+  )(fallback: => Any): Any = {
+    if (
+        !isBinaryRPCEnabled || System.currentTimeMillis - binaryUnsupportedTime <
+          BDP_RPC_BINARY_RETRY_INTERVAL.getValue.toLong
+    ) {
+      return fallback
+    }
+    val response = op(
+      getBinaryRPC,
+      RPCBinaryTransform.toHeaders(message),
+      RPCProduct.getRPCProduct.toBytes(message)
+    )
+    if (RPCBinaryTransform.isBinaryResponse(response)) {
+      RPCBinaryTransform.toObject(response)
+    } else {
+      Utils.tryQuietly(response.close())
+      binaryUnsupportedTime = System.currentTimeMillis
+      logger.warn(
+        s"$this replied status ${response.status()} for binary RPC, fall back to json RPC."
+      )
+      fallback
+    }
   }
 
   private def execute(message: Any)(op: => Any): Any = message match {
@@ -89,24 +146,34 @@ private[rpc] class BaseRPCSender extends Sender with Logging {
   }
 
   override def ask(message: Any): Any = execute(message) {
-    val msg = RPCProduct.getRPCProduct.toMessage(message)
-    BaseRPCSender.addInstanceInfo(msg.getData)
-    val response = getRPC.receiveAndReply(msg)
-    RPCConsumer.getRPCConsumer.toObject(response)
+    binaryOrElse(message)(_.receiveAndReply(_, _)) {
+      val msg = RPCProduct.getRPCProduct.toMessage(message)
+      BaseRPCSender.addInstanceInfo(msg.getData)
+      val response = getRPC.receiveAndReply(msg)
+      RPCConsumer.getRPCConsumer.toObject(response)
+    }
   }
 
   override def ask(message: Any, timeout: Duration): Any = execute(message) {
-    val msg = RPCProduct.getRPCProduct.toMessage(message)
-    msg.data("duration", timeout.toMillis)
-    BaseRPCSender.addInstanceInfo(msg.getData)
-    val response = getRPC.receiveAndReplyInMills(msg)
-    RPCConsumer.getRPCConsumer.toObject(response)
+    binaryOrElse(message) { (remote, headers, body) =>
+      headers.put(RPCBinaryTransform.DURATION_HEADER, timeout.toMillis.toString)
+      remote.receiveAndReplyInMills(headers, body)
+    } {
+      val msg = RPCProduct.getRPCProduct.toMessage(message)
+      msg.data("duration", timeout.toMillis)
+      BaseRPCSender.addInstanceInfo(msg.getData)
+      val response = getRPC.receiveAndReplyInMills(msg)
+      RPCConsumer.getRPCConsumer.toObject(response)
+    }
   }
 
   private def sendIt(message: Any, op: Message => Message): Unit = execute(message) {
-    val msg = RPCProduct.getRPCProduct.toMessage(message)
-    BaseRPCSender.addInstanceInfo(msg.getData)
-    RPCConsumer.getRPCConsumer.toObject(op(msg)) match {
+    val result = binaryOrElse(message)(_.receive(_, _)) {
+      val msg = RPCProduct.getRPCProduct.toMessage(message)
+      BaseRPCSender.addInstanceInfo(msg.getData)
+      RPCConsumer.getRPCConsumer.toObject(op(msg))
+    }
+    result match {
       case w: WarnException => logger.warn("RPC requests an alarm!(RPC请求出现告警！)", w)
       case _: BoxedUnit =>
     }
@@ -148,7 +215,8 @@ private[rpc] object BaseRPCSender extends Logging {
   private val rpcSenderListenerBus =
     new AsynRPCMessageBus(BDP_RPC_SENDER_ASYN_QUEUE_CAPACITY.getValue, "RPC-Sender-Asyn-Thread")(
       BDP_RPC_SENDER_ASYN_CONSUMER_THREAD_MAX.getValue,
-      BDP_RPC_SENDER_ASYN_CONSUMER_THREAD_FREE_TIME_MAX.getValue.toLong
+      BDP_RPC_SENDER_ASYN_CONSUMER_THREAD_FREE_TIME_MAX.getValue.toLong,
+      BDP_RPC_SENDER_ASYN_PARTITION_NUM.getValue
     )
 
   rpcSenderListenerBus.addListener(new RPCMessageEventListener {
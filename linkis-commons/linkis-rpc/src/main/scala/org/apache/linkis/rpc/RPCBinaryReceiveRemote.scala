@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.rpc
+
+import java.util
+
+import feign.{HeaderMap, Headers, RequestLine, Response}
+
+/**
+ * Feign client of the binary endpoints in RPCReceiveRestful, the raw Response is returned so that
+ * the sender can fall back to RPCReceiveRemote when the receiver does not support them.
+ */
+private[rpc] trait RPCBinaryReceiveRemote {
+
+  @RequestLine("POST /rpc/binary/receive")
+  @Headers(Array("Content-Type: application/x-protostuff"))
+  def receive(@HeaderMap headers: util.Map[String, Object], body: Array[Byte]): Response
+
+  @RequestLine("POST /rpc/binary/receiveAndReply")
+  @Headers(Array("Content-Type: application/x-protostuff"))
+  def receiveAndReply(@HeaderMap headers: util.Map[String, Object], body: Array[Byte]): Response
+
+  @RequestLine("POST /rpc/binary/replyInMills")
+  @Headers(Array("Content-Type: application/x-protostuff"))
+  def receiveAndReplyInMills(
+      @HeaderMap headers: util.Map[String, Object],
+      body: Array[Byte]
+  ): Response
+
+}
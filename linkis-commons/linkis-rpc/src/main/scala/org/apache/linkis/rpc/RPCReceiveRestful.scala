@@ -22,11 +22,12 @@ import org.apache.linkis.protocol.BroadcastProtocol
 import org.apache.linkis.rpc.conf.RPCConfiguration.{
   BDP_RPC_RECEIVER_ASYN_CONSUMER_THREAD_FREE_TIME_MAX,
   BDP_RPC_RECEIVER_ASYN_CONSUMER_THREAD_MAX,
+  BDP_RPC_RECEIVER_ASYN_PARTITION_NUM,
   BDP_RPC_RECEIVER_ASYN_QUEUE_CAPACITY
 }
 import org.apache.linkis.rpc.errorcode.LinkisRpcErrorCodeSummary.TIMEOUT_PERIOD
 import org.apache.linkis.rpc.exception.DWCURIException
-import org.apache.linkis.rpc.transform.{RPCConsumer, RPCProduct}
+import org.apache.linkis.rpc.transform.{RPCBinaryTransform, RPCConsumer, RPCProduct}
 import org.apache.linkis.server.{catchIt, Message}
 
 import org.apache.commons.lang3.StringUtils
@@ -40,6 +41,7 @@ import org.springframework.web.bind.annotation.{
 }
 
 import javax.annotation.PostConstruct
+import javax.servlet.http.{HttpServletRequest, HttpServletResponse}
 
 import java.util.concurrent.TimeUnit
 
@@ -102,7 +104,8 @@ private[rpc] class RPCReceiveRestful extends RPCReceiveRemote with Logging {
     val threadSize = BDP_RPC_RECEIVER_ASYN_CONSUMER_THREAD_MAX.acquireNew
     rpcReceiverListenerBus = new AsynRPCMessageBus(queueSize, "RPC-Receiver-Asyn-Thread")(
       threadSize,
-      BDP_RPC_RECEIVER_ASYN_CONSUMER_THREAD_FREE_TIME_MAX.getValue.toLong
+      BDP_RPC_RECEIVER_ASYN_CONSUMER_THREAD_FREE_TIME_MAX.getValue.toLong,
+      BDP_RPC_RECEIVER_ASYN_PARTITION_NUM.getValue
     )
     logger.info(
       s"init RPCReceiverListenerBus with queueSize $queueSize and consumeThreadSize $threadSize."
@@ -177,12 +180,78 @@ private[rpc] class RPCReceiveRestful extends RPCReceiveRemote with Logging {
 
   @RequestMapping(path = Array("/rpc/replyInMills"), method = Array(RequestMethod.POST))
   override def receiveAndReplyInMills(@RequestBody message: Message): Message = catchIt {
-    val duration = message.getData.get("duration")
+    val timeout = toDuration(message.getData.get("duration"))
+    receiveAndReplyWithMessage(message, _.receiveAndReply(_, timeout, _))
+  }
+
+  private def toDuration(duration: Any): Duration = {
     if (duration == null || StringUtils.isEmpty(duration.toString)) {
       throw new DWCURIException(TIMEOUT_PERIOD.getErrorCode, TIMEOUT_PERIOD.getErrorDesc)
     }
-    val timeout = Duration(duration.toString.toLong, TimeUnit.MILLISECONDS)
-    receiveAndReplyWithMessage(message, _.receiveAndReply(_, timeout, _))
+    Duration(duration.toString.toLong, TimeUnit.MILLISECONDS)
+  }
+
+  @RequestMapping(
+    path = Array("/rpc/binary/receive"),
+    method = Array(RequestMethod.POST),
+    consumes = Array("application/x-protostuff")
+  )
+  def receiveBinary(request: HttpServletRequest, response: HttpServletResponse): Unit = {
+    val message = catchIt {
+      val obj = RPCBinaryTransform.toObject(request)
+      val event = RPCMessageEvent(obj, RPCBinaryTransform.getServiceInstance(request))
+      rpcReceiverListenerBus.post(event)
+      toMessage(Unit)
+    }
+    RPCBinaryTransform.writeResponse(response, message, None)
   }
 
+  private def receiveAndReplyWithBinary(
+      request: HttpServletRequest,
+      response: HttpServletResponse,
+      opEvent: (Receiver, Any, Sender) => Any
+  ): Unit = {
+    var reply: Option[(String, Array[Byte])] = None
+    val message = catchIt {
+      val obj = RPCBinaryTransform.toObject(request)
+      val event = RPCMessageEvent(obj, RPCBinaryTransform.getServiceInstance(request))
+      event
+        .map(receiver => {
+          logger.debug("show the receiver {}", receiver.getClass)
+          reply = RPCBinaryTransform.toReply(opEvent(receiver, obj, event))
+          RPCProduct.getRPCProduct.ok()
+        })
+        .getOrElse(RPCProduct.getRPCProduct.notFound())
+    }
+    RPCBinaryTransform.writeResponse(response, message, reply)
+  }
+
+  @RequestMapping(
+    path = Array("/rpc/binary/receiveAndReply"),
+    method = Array(RequestMethod.POST),
+    consumes = Array("application/x-protostuff")
+  )
+  def receiveAndReplyBinary(request: HttpServletRequest, response: HttpServletResponse): Unit =
+    receiveAndReplyWithBinary(request, response, _.receiveAndReply(_, _))
+
+  @RequestMapping(
+    path = Array("/rpc/binary/replyInMills"),
+    method = Array(RequestMethod.POST),
+    consumes = Array("application/x-protostuff")
+  )
+  def receiveAndReplyInMillsBinary(
+      request: HttpServletRequest,
+      response: HttpServletResponse
+  ): Unit =
+    receiveAndReplyWithBinary(
+      request,
+      response,
+      (receiver, obj, sender) =>
+        receiver.receiveAndReply(
+          obj,
+          toDuration(request.getHeader(RPCBinaryTransform.DURATION_HEADER)),
+          sender
+        )
+    )
+
 }
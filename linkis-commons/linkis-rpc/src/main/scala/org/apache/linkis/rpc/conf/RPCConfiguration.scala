@@ -42,6 +42,13 @@ object RPCConfiguration {
   val BDP_RPC_RECEIVER_ASYN_QUEUE_CAPACITY: CommonVars[Int] =
     CommonVars("wds.linkis.rpc.receiver.asyn.queue.size.max", 5000)
 
+  /**
+   * Partitions of the async receiver bus, the messages from the same instance are handled in order
+   * if it is positive
+   */
+  val BDP_RPC_RECEIVER_ASYN_PARTITION_NUM: CommonVars[Int] =
+    CommonVars("linkis.rpc.receiver.asyn.partition.num", 0)
+
   val BDP_RPC_SENDER_ASYN_CONSUMER_THREAD_MAX: CommonVars[Int] =
     CommonVars("wds.linkis.rpc.sender.asyn.consumer.thread.max", 100)
 
@@ -51,6 +58,19 @@ object RPCConfiguration {
   val BDP_RPC_SENDER_ASYN_QUEUE_CAPACITY: CommonVars[Int] =
     CommonVars("wds.linkis.rpc.sender.asyn.queue.size.max", 2000)
 
+  /**
+   * Partitions of the async sender bus, the messages to the same instance are sent in order if it
+   * is positive
+   */
+  val BDP_RPC_SENDER_ASYN_PARTITION_NUM: CommonVars[Int] =
+    CommonVars("linkis.rpc.sender.asyn.partition.num", 0)
+
+  val BDP_RPC_BINARY_ENABLE: CommonVars[Boolean] =
+    CommonVars("linkis.rpc.binary.enable", true)
+
+  val BDP_RPC_BINARY_RETRY_INTERVAL: CommonVars[TimeType] =
+    CommonVars("linkis.rpc.binary.fallback.retry.interval", new TimeType("10m"))
+
   val PUBLIC_SERVICE_APP_PREFIX: String =
     CommonVars("wds.linkis.gateway.conf.publicservice.name", "linkis-ps-").getValue
 
@@ -112,6 +132,23 @@ object RPCConfiguration {
   val BDP_RPC_CACHE_CONF_EXPIRE_TIME: CommonVars[Long] =
     CommonVars("wds.linkis.rpc.cache.expire.time", 120000L)
 
+  /** The weight of a cached reply is the number of its elements, see CacheableRPCInterceptor */
+  val BDP_RPC_CACHE_MAX_WEIGHT: CommonVars[Long] =
+    CommonVars("wds.linkis.rpc.cache.max.weight", 100000L)
+
+  val BDP_RPC_CACHE_STATS_LOG_INTERVAL: CommonVars[TimeType] =
+    CommonVars("wds.linkis.rpc.cache.stats.log.interval", new TimeType("10m"))
+
+  /** The services caching the replies, which the owning service broadcasts invalidation to */
+  val BDP_RPC_CACHE_INVALIDATE_APPLICATIONS: CommonVars[String] =
+    CommonVars(
+      "wds.linkis.rpc.cache.invalidate.applications",
+      "linkis-cg-linkismanager,linkis-cg-entrance"
+    )
+
+  val BDP_RPC_CACHE_INVALIDATE_THREAD_SIZE: CommonVars[Int] =
+    CommonVars("wds.linkis.rpc.cache.invalidate.thread.num", 2)
+
   val CONTEXT_SERVICE_REQUEST_PREFIX = "contextservice"
 
   val CONTEXT_SERVICE_NAME: String =
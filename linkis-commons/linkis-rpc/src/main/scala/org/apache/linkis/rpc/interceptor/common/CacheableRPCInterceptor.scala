@@ -19,7 +19,8 @@ package org.apache.linkis.rpc.interceptor.common
 
 import org.apache.linkis.common.exception.WarnException
 import org.apache.linkis.common.utils.{Logging, Utils}
-import org.apache.linkis.protocol.CacheableProtocol
+import org.apache.linkis.protocol.{CacheableProtocol, RemoveCacheableResultRequest}
+import org.apache.linkis.rpc.Sender
 import org.apache.linkis.rpc.conf.RPCConfiguration
 import org.apache.linkis.rpc.interceptor.{
   RPCInterceptor,
@@ -30,34 +31,91 @@ import org.apache.linkis.rpc.interceptor.{
 import org.springframework.stereotype.Component
 import org.springframework.util.StringUtils
 
-import java.util.concurrent.{Callable, TimeUnit}
+import javax.annotation.{PostConstruct, PreDestroy}
 
-import com.google.common.cache.{Cache, CacheBuilder, RemovalListener, RemovalNotification}
+import java.util
+import java.util.concurrent.{Callable, ConcurrentHashMap, ScheduledFuture, TimeUnit}
+import java.util.concurrent.atomic.AtomicLong
 
+import com.google.common.cache.{
+  Cache,
+  CacheBuilder,
+  CacheStats,
+  RemovalListener,
+  RemovalNotification,
+  Weigher
+}
+
+/**
+ * Caches the replies of CacheableProtocol by the cacheKey of the protocol. The owning service
+ * invalidates the replies by broadcasting RemoveCacheableResultRequest, which bumps the version of
+ * the group or the scope, so that a reply loading while invalidated is not used any more.
+ *
+ * <p>The versions are taken from one sequence, so a version is never reused. The replies cached
+ * before a bump expire in wds.linkis.rpc.cache.expire.time, so a version not bumped for twice of it
+ * is dropped, and the group or scope falls back to the version 0 which no live reply uses.
+ */
 @Component
 class CacheableRPCInterceptor extends RPCInterceptor with Logging {
 
-  private val guavaCache: Cache[Any, Any] = CacheBuilder
+  import CacheableRPCInterceptor._
+
+  private val groupVersions = new ConcurrentHashMap[String, Version]
+
+  /** Versions of (cacheGroup, cacheScope), the null scope is the one shared by the group */
+  private val scopeVersions = new ConcurrentHashMap[(String, String), Version]
+
+  private[common] var versionRetainTime: Long =
+    2 * RPCConfiguration.BDP_RPC_CACHE_CONF_EXPIRE_TIME.getValue
+
+  private var statsLogFuture: ScheduledFuture[_] = _
+
+  private val guavaCache: Cache[CacheKey, AnyRef] = CacheBuilder
     .newBuilder()
     .concurrencyLevel(5)
-    .expireAfterAccess(
+    .expireAfterWrite(
       RPCConfiguration.BDP_RPC_CACHE_CONF_EXPIRE_TIME.getValue,
       TimeUnit.MILLISECONDS
     )
-    .initialCapacity(20) // TODO Make parameters(做成参数)
-    .maximumSize(1000)
+    .initialCapacity(20)
+    .maximumWeight(RPCConfiguration.BDP_RPC_CACHE_MAX_WEIGHT.getValue)
+    .weigher(new Weigher[CacheKey, AnyRef] {
+      override def weigh(key: CacheKey, value: AnyRef): Int = weightOf(value)
+    })
     .recordStats()
-    .removalListener(new RemovalListener[Any, Any] {
+    .removalListener(new RemovalListener[CacheKey, AnyRef] {
 
-      override def onRemoval(removalNotification: RemovalNotification[Any, Any]): Unit = {
+      override def onRemoval(removalNotification: RemovalNotification[CacheKey, AnyRef]): Unit = {
         logger.debug(
-          s"CacheSender removed key => ${removalNotification.getKey}, value => ${removalNotification.getValue}."
+          s"CacheSender removed key => ${removalNotification.getKey}, value => ${removalNotification.getValue}, cause => ${removalNotification.getCause}."
         )
       }
 
     })
-    .asInstanceOf[CacheBuilder[Any, Any]]
-    .build()
+    .build[CacheKey, AnyRef]()
+
+  @PostConstruct
+  def init(): Unit = {
+    val statsLogInterval = RPCConfiguration.BDP_RPC_CACHE_STATS_LOG_INTERVAL.getValue.toLong
+    if (statsLogInterval > 0) {
+      statsLogFuture = Utils.defaultScheduler.scheduleAtFixedRate(
+        new Runnable {
+          override def run(): Unit = Utils.tryAndWarn {
+            logger.info(s"RPC cache size: ${guavaCache.size()}, stats: ${guavaCache.stats()}")
+          }
+        },
+        statsLogInterval,
+        statsLogInterval,
+        TimeUnit.MILLISECONDS
+      )
+    }
+  }
+
+  @PreDestroy
+  def destroy(): Unit = if (statsLogFuture != null) {
+    statsLogFuture.cancel(false)
+    statsLogFuture = null
+  }
 
   override val order: Int = 10
 
@@ -67,16 +125,16 @@ class CacheableRPCInterceptor extends RPCInterceptor with Logging {
   ): Any = interceptorExchange.getProtocol match {
     case cacheable: CacheableProtocol =>
       guavaCache.get(
-        cacheable.toString,
-        new Callable[Any] {
+        getCacheKey(cacheable),
+        new Callable[AnyRef] {
 
-          override def call(): Any = {
+          override def call(): AnyRef = {
             val returnMsg = chain.handle(interceptorExchange)
             returnMsg match {
               case warn: WarnException =>
                 throw warn
               case _ =>
-                returnMsg
+                returnMsg.asInstanceOf[AnyRef]
             }
           }
 
@@ -85,10 +143,57 @@ class CacheableRPCInterceptor extends RPCInterceptor with Logging {
     case _ => chain.handle(interceptorExchange)
   }
 
+  private def getCacheKey(cacheable: CacheableProtocol): CacheKey = {
+    val group = cacheable.cacheGroup
+    val scope = cacheable.cacheScope
+    CacheKey(
+      cacheable.cacheKey,
+      group,
+      scope,
+      versionOf(groupVersions, group),
+      versionOf(scopeVersions, (group, scope))
+    )(cacheable)
+  }
+
+  /**
+   * Invalidate the cached replies in the group, only the ones in the scope and the ones shared by
+   * the group if the scope is not null
+   */
+  def invalidate(cacheGroup: String, cacheScope: String): Unit = {
+    removeStaleVersions(groupVersions)
+    removeStaleVersions(scopeVersions)
+    if (cacheScope == null) {
+      increaseVersion(groupVersions, cacheGroup)
+    } else {
+      increaseVersion(scopeVersions, (cacheGroup, cacheScope))
+      increaseVersion(scopeVersions, (cacheGroup, null))
+    }
+    val iterator = guavaCache.asMap().keySet().iterator()
+    while (iterator.hasNext) {
+      val key = iterator.next()
+      if (
+          key.group == cacheGroup && (cacheScope == null || key.scope == null || key.scope == cacheScope)
+      ) {
+        iterator.remove()
+      }
+    }
+    logger.info(s"Invalidated the RPC cache of group: $cacheGroup, scope: $cacheScope.")
+  }
+
+  /**
+   * Remove the cached reply by the toString of the protocol
+   *
+   * @deprecated
+   *   the replies are cached by cacheKey, use invalidate instead
+   */
+  @Deprecated
   def removeCache(cacheKey: String): Boolean = {
     Utils.tryCatch {
       if (!StringUtils.isEmpty(cacheKey)) {
-        guavaCache.invalidate(cacheKey)
+        val iterator = guavaCache.asMap().keySet().iterator()
+        while (iterator.hasNext) {
+          if (iterator.next().protocol.toString == cacheKey) iterator.remove()
+        }
       }
       true
     } { case exception: Exception =>
@@ -97,4 +202,104 @@ class CacheableRPCInterceptor extends RPCInterceptor with Logging {
     }
   }
 
+  private def removeStaleVersions[K](versions: util.Map[K, Version]): Unit = {
+    val staleTime = System.currentTimeMillis() - versionRetainTime
+    val iterator = versions.values().iterator()
+    while (iterator.hasNext) {
+      if (iterator.next().updateTime < staleTime) iterator.remove()
+    }
+  }
+
+  private[common] def versionCount: Int = groupVersions.size() + scopeVersions.size()
+
+  /** The hit, miss and eviction counts of the cache */
+  def getCacheStats: CacheStats = guavaCache.stats()
+
+}
+
+object CacheableRPCInterceptor extends Logging {
+
+  /**
+   * The key in cache, the protocol in the second parameter list is not a part of equals and
+   * hashCode
+   */
+  private[common] case class CacheKey(
+      key: Any,
+      group: String,
+      scope: String,
+      groupVersion: Long,
+      scopeVersion: Long
+  )(val protocol: CacheableProtocol)
+
+  private class Version(val value: Long, val updateTime: Long)
+
+  private val versionSequence = new AtomicLong(0)
+
+  private def versionOf[K](versions: util.Map[K, Version], key: K): Long = {
+    val version = versions.get(key)
+    if (version == null) 0L else version.value
+  }
+
+  private def increaseVersion[K](versions: util.Map[K, Version], key: K): Unit =
+    versions.put(key, new Version(versionSequence.incrementAndGet(), System.currentTimeMillis()))
+
+  private val pendingInvalidations = ConcurrentHashMap.newKeySet[(String, String, String)]()
+
+  /**
+   * Sends the invalidations, apart from the default scheduler, since the broadcast blocks until all
+   * the instances reply
+   */
+  private lazy val invalidateThreadPool = Utils.newCachedThreadPool(
+    RPCConfiguration.BDP_RPC_CACHE_INVALIDATE_THREAD_SIZE.getValue,
+    "RPC-Cache-Invalidate-ThreadPool-"
+  )
+
+  /** The weight of a reply is its elements counted in the collections, arrays and maps of it */
+  private[common] def weightOf(value: Any): Int = 1 + (value match {
+    case product: Product => product.productIterator.map(sizeOf).sum
+    case _ => sizeOf(value)
+  })
+
+  private def sizeOf(value: Any): Int = value match {
+    case collection: util.Collection[_] => collection.size()
+    case map: util.Map[_, _] => map.size()
+    case array: Array[_] => array.length
+    case _ => 0
+  }
+
+  /**
+   * Broadcast the invalidation to the services caching the replies, called by the owning service
+   * after the data changed. (数据变更后通知各服务失效缓存)
+   *
+   * @param cacheGroup
+   *   group of the cached replies
+   * @param cacheScope
+   *   scope in the group, null to invalidate the whole group
+   */
+  def broadcastInvalidation(cacheGroup: String, cacheScope: String): Unit =
+    RPCConfiguration.BDP_RPC_CACHE_INVALIDATE_APPLICATIONS.getValue
+      .split(",")
+      .map(_.trim)
+      .filter(_.nonEmpty)
+      .foreach { applicationName =>
+        val invalidation = (cacheGroup, cacheScope, applicationName)
+        // The same invalidation not sent yet covers this one, so a burst of writes sends once
+        if (pendingInvalidations.add(invalidation)) {
+          invalidateThreadPool.execute(new Runnable {
+            override def run(): Unit = {
+              pendingInvalidations.remove(invalidation)
+              Utils.tryAndWarn {
+                // A new request for each application, since the broadcast marks it as skipBroadcast
+                Sender
+                  .getSender(applicationName)
+                  .send(RemoveCacheableResultRequest(cacheGroup, cacheScope))
+                logger.info(
+                  s"Broadcast the invalidation of RPC cache group: $cacheGroup, scope: $cacheScope to $applicationName."
+                )
+              }
+            }
+          })
+        }
+      }
+
 }
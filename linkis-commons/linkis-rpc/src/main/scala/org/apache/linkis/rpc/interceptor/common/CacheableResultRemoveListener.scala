@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.rpc.interceptor.common
+
+import org.apache.linkis.common.utils.Logging
+import org.apache.linkis.protocol.{BroadcastProtocol, RemoveCacheableResultRequest}
+import org.apache.linkis.rpc.{BroadcastListener, Sender}
+
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.stereotype.Component
+
+/** Invalidates the RPC cache when the owning service broadcasts RemoveCacheableResultRequest */
+@Component
+class CacheableResultRemoveListener extends BroadcastListener with Logging {
+
+  @Autowired
+  private var cacheableRPCInterceptor: CacheableRPCInterceptor = _
+
+  override def onBroadcastEvent(protocol: BroadcastProtocol, sender: Sender): Unit =
+    protocol match {
+      case RemoveCacheableResultRequest(cacheGroup, cacheScope) =>
+        cacheableRPCInterceptor.invalidate(cacheGroup, cacheScope)
+      case _ =>
+    }
+
+}
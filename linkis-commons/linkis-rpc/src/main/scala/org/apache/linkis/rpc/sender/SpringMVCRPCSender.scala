@@ -28,7 +28,7 @@ import org.apache.linkis.rpc.interceptor.{
   ServiceInstanceRPCInterceptorChain
 }
 import org.apache.linkis.rpc.message.utils.LoadBalancerOptionsUtils
-import org.apache.linkis.rpc.transform.RPCConsumer
+import org.apache.linkis.rpc.transform.{RPCBinaryTransform, RPCConsumer}
 import org.apache.linkis.server.{BDPJettyServerHelper, Message}
 
 import org.apache.commons.lang3.StringUtils
@@ -40,6 +40,7 @@ import org.springframework.cloud.openfeign.ribbon.{
   LoadBalancerFeignClient
 }
 
+import java.io.ByteArrayInputStream
 import java.lang.reflect.Field
 
 import com.netflix.client.ClientRequest
@@ -83,11 +84,23 @@ private[rpc] class SpringMVCRPCSender private[rpc] (
               val instance =
                 if (getRPCLoadBalancers.isEmpty) None
                 else {
-                  val requestBody = SpringMVCRPCSender.getRequest(request).body()
-                  val requestStr = new String(requestBody, DWCConfiguration.BDP_ENCODING.getValue)
-                  val obj = RPCConsumer.getRPCConsumer.toObject(
-                    BDPJettyServerHelper.gson.fromJson(requestStr, classOf[Message])
-                  )
+                  val feignRequest = SpringMVCRPCSender.getRequest(request)
+                  val requestBody = feignRequest.body()
+                  val objectClass =
+                    feignRequest.headers().get(RPCBinaryTransform.CLASS_HEADER)
+                  val obj =
+                    if (objectClass != null && !objectClass.isEmpty) {
+                      RPCConsumer.getRPCConsumer.toObject(
+                        objectClass.iterator().next(),
+                        new ByteArrayInputStream(requestBody)
+                      )
+                    } else {
+                      val requestStr =
+                        new String(requestBody, DWCConfiguration.BDP_ENCODING.getValue)
+                      RPCConsumer.getRPCConsumer.toObject(
+                        BDPJettyServerHelper.gson.fromJson(requestStr, classOf[Message])
+                      )
+                    }
                   obj match {
                     case protocol: Protocol =>
                       var serviceInstance: Option[ServiceInstance] = None
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.rpc.transform
+
+import org.apache.linkis.DataWorkCloudApplication
+import org.apache.linkis.common.ServiceInstance
+import org.apache.linkis.common.utils.Utils
+import org.apache.linkis.server.{BDPJettyServerHelper, Message}
+
+import javax.servlet.http.{HttpServletRequest, HttpServletResponse}
+
+import java.io.ByteArrayInputStream
+import java.util
+
+import scala.runtime.BoxedUnit
+
+import feign.Response
+
+/**
+ * The binary transport of RPC: the protocol object is written as protostuff bytes into the http
+ * body, its class name and the sender are carried by the http headers, so it is neither hex encoded
+ * nor wrapped in a json Message. Empty replies and errors are still replied as json Message, and
+ * dealt by RPCConsumer as before. (二进制RPC传输：协议对象直接以protostuff字节作为http body，类名及发送方放在header中)
+ */
+private[rpc] object RPCBinaryTransform {
+
+  val PROTOSTUFF_CONTENT_TYPE = "application/x-protostuff"
+  val JSON_CONTENT_TYPE = "application/json;charset=UTF-8"
+
+  /** Only replied by the receivers which support the binary transport */
+  val BINARY_HEADER = "Linkis-RPC-Binary"
+  val CLASS_HEADER = "Linkis-RPC-Class"
+  val REQUEST_PROTOCOL_HEADER = "Linkis-RPC-Request-Protocol"
+  val NAME_HEADER = "Linkis-RPC-Name"
+  val INSTANCE_HEADER = "Linkis-RPC-Instance"
+  val DURATION_HEADER = "Linkis-RPC-Duration"
+
+  def toHeaders(t: Any): util.Map[String, Object] = {
+    val headers = new util.HashMap[String, Object]
+    headers.put(CLASS_HEADER, t.getClass.getName)
+    headers.put(REQUEST_PROTOCOL_HEADER, RPCProduct.isRequestProtocol(t).toString)
+    headers.put(NAME_HEADER, DataWorkCloudApplication.getApplicationName)
+    headers.put(INSTANCE_HEADER, DataWorkCloudApplication.getInstance)
+    headers
+  }
+
+  def getServiceInstance(request: HttpServletRequest): ServiceInstance =
+    ServiceInstance(request.getHeader(NAME_HEADER), request.getHeader(INSTANCE_HEADER))
+
+  def toObject(request: HttpServletRequest): Any =
+    RPCConsumer.getRPCConsumer.toObject(request.getHeader(CLASS_HEADER), request.getInputStream)
+
+  /**
+   * The receiver of an older version has no binary endpoint, it replies 404 without the binary
+   * header
+   */
+  def isBinaryResponse(response: Response): Boolean =
+    response.headers().containsKey(BINARY_HEADER)
+
+  def toObject(response: Response): Any = {
+    val contentType = getHeader(response, "Content-Type")
+    // An object without any field set is serialized to an empty body
+    val in =
+      if (response.body() == null) new ByteArrayInputStream(Array.emptyByteArray)
+      else response.body().asInputStream()
+    Utils.tryFinally {
+      if (contentType != null && contentType.startsWith(PROTOSTUFF_CONTENT_TYPE)) {
+        RPCConsumer.getRPCConsumer.toObject(getHeader(response, CLASS_HEADER), in)
+      } else {
+        RPCConsumer.getRPCConsumer.toObject(
+          BDPJettyServerHelper.jacksonJson.readValue(in, classOf[Message])
+        )
+      }
+    }(in.close())
+  }
+
+  /**
+   * Serialize the reply object, None means there is nothing to reply
+   */
+  def toReply(obj: Any): Option[(String, Array[Byte])] = obj match {
+    case Unit | () | null => None
+    case _: BoxedUnit => None
+    case _ => Some((obj.getClass.getName, RPCProduct.getRPCProduct.toBytes(obj)))
+  }
+
+  /**
+   * Write the reply as protostuff bytes, or the message as json if there is nothing to reply or the
+   * request failed.
+   */
+  def writeResponse(
+      response: HttpServletResponse,
+      message: Message,
+      reply: Option[(String, Array[Byte])]
+  ): Unit = {
+    response.setHeader(BINARY_HEADER, "true")
+    response.setStatus(Message.messageToHttpStatus(message))
+    val bytes = reply match {
+      case Some((objectClass, objectBytes)) if message.getStatus == 0 =>
+        response.setHeader(CLASS_HEADER, objectClass)
+        response.setContentType(PROTOSTUFF_CONTENT_TYPE)
+        objectBytes
+      case _ =>
+        response.setContentType(JSON_CONTENT_TYPE)
+        BDPJettyServerHelper.jacksonJson.writeValueAsBytes(message)
+    }
+    response.setContentLength(bytes.length)
+    val out = response.getOutputStream
+    out.write(bytes)
+    out.flush()
+  }
+
+  private def getHeader(response: Response, name: String): String = {
+    val values = response.headers().get(name)
+    if (values == null || values.isEmpty) null else values.iterator().next()
+  }
+
+}
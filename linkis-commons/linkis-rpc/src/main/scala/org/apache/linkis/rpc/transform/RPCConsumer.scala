@@ -25,6 +25,7 @@ import org.apache.linkis.rpc.exception.DWCURIException
 import org.apache.linkis.rpc.serializer.ProtostuffSerializeUtil
 import org.apache.linkis.server.{EXCEPTION_MSG, JMap, Message}
 
+import java.io.InputStream
 import java.text.MessageFormat
 
 import scala.runtime.BoxedUnit
@@ -35,6 +36,8 @@ private[linkis] trait RPCConsumer {
 
   def toObject(message: Message): Any
 
+  def toObject(objectClass: String, in: InputStream): Any
+
 }
 
 private[linkis] object RPCConsumer {
@@ -50,22 +53,7 @@ private[linkis] object RPCConsumer {
           if (data.isEmpty) return BoxedUnit.UNIT
           val objectStr = data.get(OBJECT_VALUE).toString
           val objectClass = data.get(CLASS_VALUE).toString
-          logger.debug("The corresponding anti-sequence is class {}", objectClass)
-          val clazz = Utils.tryThrow(Class.forName(objectClass)) {
-            case _: ClassNotFoundException =>
-              new DWCURIException(
-                CORRESPONDING_NOT_FOUND.getErrorCode,
-                MessageFormat.format(CORRESPONDING_NOT_FOUND.getErrorDesc, objectClass)
-              )
-            case t: ExceptionInInitializerError =>
-              val exception = new DWCURIException(
-                CORRESPONDING_TO_INITIALIZE.getErrorCode,
-                MessageFormat.format(CORRESPONDING_TO_INITIALIZE.getErrorDesc, objectClass)
-              )
-              exception.initCause(t)
-              exception
-            case t: Throwable => t
-          }
+          val clazz = getObjectClass(objectClass)
           ProtostuffSerializeUtil.deserialize(objectStr, clazz)
         case 4 =>
           val errorMsg = message.getData.get(EXCEPTION_MSG).asInstanceOf[JMap[String, Object]]
@@ -79,6 +67,28 @@ private[linkis] object RPCConsumer {
       }
     }
 
+    override def toObject(objectClass: String, in: InputStream): Any =
+      ProtostuffSerializeUtil.deserialize(in, getObjectClass(objectClass))
+
+    private def getObjectClass(objectClass: String): Class[_] = {
+      logger.debug("The corresponding anti-sequence is class {}", objectClass)
+      Utils.tryThrow(Class.forName(objectClass)) {
+        case _: ClassNotFoundException =>
+          new DWCURIException(
+            CORRESPONDING_NOT_FOUND.getErrorCode,
+            MessageFormat.format(CORRESPONDING_NOT_FOUND.getErrorDesc, objectClass)
+          )
+        case t: ExceptionInInitializerError =>
+          val exception = new DWCURIException(
+            CORRESPONDING_TO_INITIALIZE.getErrorCode,
+            MessageFormat.format(CORRESPONDING_TO_INITIALIZE.getErrorDesc, objectClass)
+          )
+          exception.initCause(t)
+          exception
+        case t: Throwable => t
+      }
+    }
+
   }
 
   def getRPCConsumer: RPCConsumer = rpcConsumer
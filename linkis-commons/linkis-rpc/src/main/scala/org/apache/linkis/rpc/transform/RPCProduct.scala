@@ -29,6 +29,8 @@ private[linkis] trait RPCProduct {
 
   def toMessage(t: Any): Message
 
+  def toBytes(t: Any): Array[Byte]
+
   def notFound(): Message
 
   def ok(): Message
@@ -61,6 +63,16 @@ private[linkis] object RPCProduct extends Logging {
       message.data(CLASS_VALUE, t.getClass.getName)
     }
 
+    override def toBytes(t: Any): Array[Byte] = {
+      if (t == null) {
+        throw new DWCURIException(
+          TRANSMITTED_BEAN_IS_NULL.getErrorCode,
+          TRANSMITTED_BEAN_IS_NULL.getErrorDesc
+        )
+      }
+      ProtostuffSerializeUtil.serializeToBytes(t)
+    }
+
     override def notFound(): Message = {
       val message = Message.error("RPC Message.")
       message.setMethod("/rpc/message")
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.rpc.interceptor.common
+
+import org.apache.linkis.protocol.CacheableProtocol
+import org.apache.linkis.rpc.interceptor.{BaseRPCInterceptorExchange, RPCInterceptorChain}
+
+import java.util
+import java.util.concurrent.atomic.AtomicInteger
+
+import org.junit.jupiter.api.{Assertions, DisplayName, Test}
+
+case class RequestTestCache(userName: String, ids: Array[Long]) extends CacheableProtocol {
+  override def cacheGroup: String = "test"
+  override def cacheScope: String = userName
+}
+
+case class RequestTestSharedCache(name: String) extends CacheableProtocol {
+  override def cacheGroup: String = "test"
+}
+
+class CacheableRPCInterceptorTest {
+
+  private val calls = new AtomicInteger()
+
+  private val chain = new RPCInterceptorChain {
+    override def getApplicationName: String = "test"
+
+    override def handle(exchange: org.apache.linkis.rpc.interceptor.RPCInterceptorExchange): Any =
+      "reply-" + calls.incrementAndGet()
+
+  }
+
+  private def ask(interceptor: CacheableRPCInterceptor, protocol: CacheableProtocol): Any =
+    interceptor.intercept(new BaseRPCInterceptorExchange(protocol, () => null), chain)
+
+  @Test
+  @DisplayName("structuralKeyTest")
+  def structuralKeyTest(): Unit = {
+    val interceptor = new CacheableRPCInterceptor
+    val reply = ask(interceptor, RequestTestCache("hadoop", Array(1L, 2L)))
+    Assertions.assertEquals(reply, ask(interceptor, RequestTestCache("hadoop", Array(1L, 2L))))
+    Assertions.assertNotEquals(reply, ask(interceptor, RequestTestCache("hadoop", Array(1L))))
+    Assertions.assertEquals(2, calls.get())
+    Assertions.assertEquals(1, interceptor.getCacheStats.hitCount())
+    Assertions.assertEquals(2, interceptor.getCacheStats.missCount())
+  }
+
+  @Test
+  @DisplayName("invalidateTest")
+  def invalidateTest(): Unit = {
+    val interceptor = new CacheableRPCInterceptor
+    ask(interceptor, RequestTestCache("hadoop", Array(1L)))
+    ask(interceptor, RequestTestCache("linkis", Array(1L)))
+    ask(interceptor, RequestTestSharedCache("default"))
+    Assertions.assertEquals(3, calls.get())
+
+    // The scope of hadoop and the shared one are invalidated
+    interceptor.invalidate("test", "hadoop")
+    ask(interceptor, RequestTestCache("hadoop", Array(1L)))
+    ask(interceptor, RequestTestCache("linkis", Array(1L)))
+    ask(interceptor, RequestTestSharedCache("default"))
+    Assertions.assertEquals(5, calls.get())
+
+    interceptor.invalidate("other", null)
+    ask(interceptor, RequestTestCache("linkis", Array(1L)))
+    Assertions.assertEquals(5, calls.get())
+
+    interceptor.invalidate("test", null)
+    ask(interceptor, RequestTestCache("linkis", Array(1L)))
+    Assertions.assertEquals(6, calls.get())
+  }
+
+  @Test
+  @DisplayName("staleVersionTest")
+  def staleVersionTest(): Unit = {
+    val interceptor = new CacheableRPCInterceptor
+    interceptor.invalidate("test", "hadoop")
+    interceptor.invalidate("test", "linkis")
+    Assertions.assertEquals(3, interceptor.versionCount)
+
+    // The versions older than the retain time are dropped by the next invalidation
+    interceptor.versionRetainTime = -1
+    interceptor.invalidate("other", null)
+    Assertions.assertEquals(1, interceptor.versionCount)
+
+    // A reply cached after the drop is still invalidated by the next bump
+    ask(interceptor, RequestTestCache("hadoop", Array(1L)))
+    interceptor.invalidate("test", "hadoop")
+    ask(interceptor, RequestTestCache("hadoop", Array(1L)))
+    Assertions.assertEquals(2, calls.get())
+  }
+
+  @Test
+  @DisplayName("weightOfTest")
+  def weightOfTest(): Unit = {
+    Assertions.assertEquals(1, CacheableRPCInterceptor.weightOf("reply"))
+    Assertions.assertEquals(4, CacheableRPCInterceptor.weightOf(util.Arrays.asList(1, 2, 3)))
+    Assertions.assertEquals(
+      3,
+      CacheableRPCInterceptor.weightOf(RequestTestCache("a", Array(1L, 2L)))
+    )
+  }
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.rpc.transform
+
+import org.apache.linkis.common.exception.ErrorException
+import org.apache.linkis.protocol.callback.YarnAPPIdCallbackProtocol
+import org.apache.linkis.rpc.exception.DWCURIException
+import org.apache.linkis.rpc.serializer.ProtostuffSerializeUtil
+import org.apache.linkis.server.{EXCEPTION_MSG, Message}
+
+import javax.servlet.{ServletOutputStream, WriteListener}
+import javax.servlet.http.HttpServletResponse
+
+import java.io.ByteArrayOutputStream
+import java.nio.charset.StandardCharsets
+import java.util
+
+import scala.runtime.BoxedUnit
+
+import feign.{Request, Response}
+import org.junit.jupiter.api.{Assertions, DisplayName, Test}
+import org.junit.jupiter.api.function.Executable
+import org.mockito.ArgumentMatchers.{anyInt, anyString}
+import org.mockito.Mockito
+import org.mockito.invocation.InvocationOnMock
+import org.mockito.stubbing.Answer
+
+class RPCBinaryTransformTest {
+
+  private val protocol = YarnAPPIdCallbackProtocol("node-1", "application_1_0001")
+
+  @Test
+  @DisplayName("serializeTest")
+  def serializeTest(): Unit = {
+    val bytes = ProtostuffSerializeUtil.serializeToBytes(protocol)
+    Assertions.assertEquals(
+      ProtostuffSerializeUtil.toHexString(bytes),
+      ProtostuffSerializeUtil.serialize(protocol)
+    )
+    Assertions.assertEquals(
+      protocol,
+      ProtostuffSerializeUtil.deserialize(bytes, classOf[YarnAPPIdCallbackProtocol])
+    )
+    Assertions.assertEquals(
+      protocol,
+      ProtostuffSerializeUtil.deserialize(
+        ProtostuffSerializeUtil.serialize(protocol),
+        classOf[YarnAPPIdCallbackProtocol]
+      )
+    )
+    // Larger than the pooled buffer
+    val large = YarnAPPIdCallbackProtocol("x" * 100000, "application_1_0002")
+    val largeBytes = RPCProduct.getRPCProduct.toBytes(large)
+    Assertions.assertEquals(
+      large,
+      RPCConsumer.getRPCConsumer
+        .toObject(large.getClass.getName, new java.io.ByteArrayInputStream(largeBytes))
+    )
+  }
+
+  @Test
+  @DisplayName("replyTest")
+  def replyTest(): Unit = {
+    val response =
+      reply(RPCProduct.getRPCProduct.ok(), RPCBinaryTransform.toReply(protocol))
+    Assertions.assertTrue(RPCBinaryTransform.isBinaryResponse(response))
+    Assertions.assertEquals(protocol, RPCBinaryTransform.toObject(response))
+
+    val unitResponse = reply(RPCProduct.getRPCProduct.ok(), RPCBinaryTransform.toReply(Unit))
+    Assertions.assertEquals(BoxedUnit.UNIT, RPCBinaryTransform.toObject(unitResponse))
+  }
+
+  @Test
+  @DisplayName("errorTest")
+  def errorTest(): Unit = {
+    val message = Message.error("RPC Message.")
+    message.data(EXCEPTION_MSG, new DWCURIException(10004, "test error").toMap)
+    val response = reply(message, None)
+    Assertions.assertEquals(400, response.status())
+    val exception = Assertions.assertThrows(
+      classOf[ErrorException],
+      new Executable {
+        override def execute(): Unit = RPCBinaryTransform.toObject(response)
+      }
+    )
+    Assertions.assertEquals(10004, exception.getErrCode)
+  }
+
+  @Test
+  @DisplayName("fallbackTest")
+  def fallbackTest(): Unit = {
+    val response = Response
+      .builder()
+      .status(404)
+      .headers(new util.HashMap[String, util.Collection[String]])
+      .body("Not Found", StandardCharsets.UTF_8)
+      .request(newRequest())
+      .build()
+    Assertions.assertFalse(RPCBinaryTransform.isBinaryResponse(response))
+  }
+
+  /** Write the reply by the receiver, then read it back as the feign response of the sender */
+  private def reply(message: Message, replyObj: Option[(String, Array[Byte])]): Response = {
+    val headers = new util.HashMap[String, util.Collection[String]]
+    val body = new ByteArrayOutputStream
+    var status = 200
+    val servletResponse = Mockito.mock(classOf[HttpServletResponse])
+    Mockito
+      .doAnswer(new Answer[Void] {
+        override def answer(invocation: InvocationOnMock): Void = {
+          headers.put(
+            invocation.getArgument[String](0),
+            util.Arrays.asList(invocation.getArgument[String](1))
+          )
+          null
+        }
+      })
+      .when(servletResponse)
+      .setHeader(anyString(), anyString())
+    Mockito
+      .doAnswer(new Answer[Void] {
+        override def answer(invocation: InvocationOnMock): Void = {
+          headers.put("Content-Type", util.Arrays.asList(invocation.getArgument[String](0)))
+          null
+        }
+      })
+      .when(servletResponse)
+      .setContentType(anyString())
+    Mockito
+      .doAnswer(new Answer[Void] {
+        override def answer(invocation: InvocationOnMock): Void = {
+          status = invocation.getArgument[Int](0)
+          null
+        }
+      })
+      .when(servletResponse)
+      .setStatus(anyInt())
+    Mockito
+      .when(servletResponse.getOutputStream)
+      .thenReturn(new ServletOutputStream {
+        override def isReady: Boolean = true
+        override def setWriteListener(writeListener: WriteListener): Unit = {}
+        override def write(b: Int): Unit = body.write(b)
+      })
+    RPCBinaryTransform.writeResponse(servletResponse, message, replyObj)
+    Response
+      .builder()
+      .status(status)
+      .headers(headers)
+      .body(body.toByteArray)
+      .request(newRequest())
+      .build()
+  }
+
+  private def newRequest(): Request = Request.create(
+    Request.HttpMethod.POST,
+    "http://localhost/api/rest_j/v1/rpc/binary/receiveAndReply",
+    new util.HashMap[String, util.Collection[String]],
+    Array.emptyByteArray,
+    StandardCharsets.UTF_8,
+    null
+  )
+
+}
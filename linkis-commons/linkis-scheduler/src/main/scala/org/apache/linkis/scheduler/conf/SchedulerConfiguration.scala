@@ -33,4 +33,16 @@ object SchedulerConfiguration {
   val FIFO_CONSUMER_IDLE_SCAN_INIT_TIME =
     CommonVars("wds.linkis.fifo.consumer.idle.scan.init.time", new TimeType("1s"))
 
+  // Consumers are woken up by the jobs which complete, this is only the interval to recheck the slots
+  val FIFO_CONSUMER_SLOT_CHECK_INTERVAL =
+    CommonVars("wds.linkis.fifo.consumer.slot.check.interval", new TimeType("10s")).getValue.toLong
+
+  val CONSUME_QUEUE_TYPE_LOOP = "loop"
+
+  val CONSUME_QUEUE_TYPE_CONCURRENT = "concurrent"
+
+  // loop: LoopArrayQueue, concurrent: ConcurrentConsumeQueue, can be overridden for each group
+  val CONSUME_QUEUE_TYPE =
+    CommonVars("wds.linkis.scheduler.consume.queue.type", CONSUME_QUEUE_TYPE_LOOP)
+
 }
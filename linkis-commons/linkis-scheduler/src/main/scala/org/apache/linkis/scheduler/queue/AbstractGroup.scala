@@ -17,6 +17,7 @@
 
 package org.apache.linkis.scheduler.queue
 
+import org.apache.linkis.scheduler.conf.SchedulerConfiguration
 import org.apache.linkis.scheduler.queue.GroupStatus.GroupStatus
 
 abstract class AbstractGroup extends Group {
@@ -24,6 +25,7 @@ abstract class AbstractGroup extends Group {
   private var _status: GroupStatus = _
   private var maxRunningJobs: Int = _
   private var maxAskExecutorTimes: Long = 0L
+  private var consumeQueueType: String = SchedulerConfiguration.CONSUME_QUEUE_TYPE.getValue
 
   def setMaxRunningJobs(maxRunningJobs: Int): Unit = this.maxRunningJobs = maxRunningJobs
   def getMaxRunningJobs: Int = maxRunningJobs
@@ -33,6 +35,10 @@ abstract class AbstractGroup extends Group {
 
   def getMaxAskExecutorTimes: Long = maxAskExecutorTimes
 
+  def setConsumeQueueType(consumeQueueType: String): Unit = this.consumeQueueType = consumeQueueType
+
+  def getConsumeQueueType: String = consumeQueueType
+
   override def getStatus: GroupStatus = _status
   def setStatus(status: GroupStatus): Unit = this._status = status
 }
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.scheduler.queue
+
+import org.apache.linkis.common.utils.Logging
+
+import java.util.concurrent.{ConcurrentHashMap, ConcurrentLinkedQueue, TimeUnit}
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.locks.ReentrantLock
+
+import scala.collection.JavaConverters._
+
+/**
+ * A ConsumeQueue without monitors on the offer/take path(无锁的ConsumeQueue). The waiting events are
+ * kept in a ConcurrentLinkedQueue bounded by an atomic counter, and every event is indexed by the
+ * index returned from offer, which is a part of the event id. Like LoopArrayQueue, the latest
+ * maximumCapacity events stay indexed after being taken, so that they can still be found by get.
+ * Takers and putters only park on a lock when the queue is empty or full.
+ */
+class ConcurrentConsumeQueue(var group: Group) extends ConsumeQueue with Logging {
+
+  private val maxCapacity: Int = group.getMaximumCapacity
+
+  private val waitingEvents = new ConcurrentLinkedQueue[SchedulerEvent]
+  private val waitingSize = new AtomicInteger(0)
+
+  private val indexedEvents = new ConcurrentHashMap[Integer, SchedulerEvent]
+  private val nextIndex = new AtomicInteger(0)
+
+  private val takeLock = new ReentrantLock
+  private val notEmpty = takeLock.newCondition()
+  private val blockedTakers = new AtomicInteger(0)
+
+  private val putLock = new ReentrantLock
+  private val notFull = putLock.newCondition()
+  private val blockedPutters = new AtomicInteger(0)
+
+  override def remove(event: SchedulerEvent): Unit = {
+    get(event).foreach(x => x.cancel())
+  }
+
+  override def getWaitingEvents: Array[SchedulerEvent] =
+    waitingEvents.asScala.filter(x => x.getState.equals(SchedulerEventState.Inited)).toArray
+
+  override def size: Int = waitingSize.get
+
+  override def isEmpty: Boolean = size == 0
+
+  override def isFull: Boolean = size >= maxCapacity
+
+  override def clearAll(): Unit = {
+    waitingEvents.clear()
+    waitingSize.set(0)
+    indexedEvents.clear()
+    signalNotFull()
+  }
+
+  override def get(event: SchedulerEvent): Option[SchedulerEvent] = {
+    val id = event.getId
+    if (id == null) return None
+    // The id is groupName_index, see AbstractScheduler
+    val index = id.substring(id.lastIndexOf('_') + 1)
+    val indexed =
+      if (index.nonEmpty && index.forall(Character.isDigit)) {
+        Option(indexedEvents.get(Integer.valueOf(index))).filter(_.getId == id)
+      } else None
+    indexed.orElse(indexedEvents.values().asScala.find(_.getId == id))
+  }
+
+  override def get(index: Int): Option[SchedulerEvent] = Option(indexedEvents.get(index))
+
+  override def getGroup: Group = group
+
+  override def setGroup(group: Group): Unit = {
+    this.group = group
+  }
+
+  override def put(event: SchedulerEvent): Int = {
+    var index = offer(event)
+    while (index.isEmpty) {
+      putLock.lockInterruptibly()
+      blockedPutters.incrementAndGet()
+      try {
+        if (isFull) notFull.await(1000, TimeUnit.MILLISECONDS)
+      } finally {
+        blockedPutters.decrementAndGet()
+        putLock.unlock()
+      }
+      index = offer(event)
+    }
+    index.get
+  }
+
+  override def offer(event: SchedulerEvent): Option[Int] = {
+    var size = waitingSize.get
+    while (size < maxCapacity) {
+      if (waitingSize.compareAndSet(size, size + 1)) {
+        val index = nextIndex.getAndIncrement()
+        indexedEvents.put(index, event)
+        indexedEvents.remove(index - maxCapacity)
+        waitingEvents.offer(event)
+        signalNotEmpty()
+        return Some(index)
+      }
+      size = waitingSize.get
+    }
+    None
+  }
+
+  override def take(): SchedulerEvent = {
+    var event = poll()
+    while (event.isEmpty) {
+      awaitNotEmpty(1000)
+      event = poll()
+    }
+    event.get
+  }
+
+  override def take(mills: Long): Option[SchedulerEvent] = {
+    val event = poll()
+    if (event.isDefined) event
+    else {
+      awaitNotEmpty(mills)
+      poll()
+    }
+  }
+
+  override def poll(): Option[SchedulerEvent] = {
+    val event = waitingEvents.poll()
+    if (event == null) None
+    else {
+      waitingSize.decrementAndGet()
+      signalNotFull()
+      Some(event)
+    }
+  }
+
+  override def peek(): Option[SchedulerEvent] = Option(waitingEvents.peek())
+
+  override def peek(op: SchedulerEvent => Boolean): Option[SchedulerEvent] = peek().filter(op)
+
+  /**
+   * Takers register themselves before checking the queue again, and offer reads the counter after
+   * adding, so that a taker is either signalled or sees the new event
+   */
+  private def awaitNotEmpty(mills: Long): Unit = {
+    takeLock.lockInterruptibly()
+    blockedTakers.incrementAndGet()
+    try {
+      if (waitingEvents.isEmpty) notEmpty.await(mills, TimeUnit.MILLISECONDS)
+    } finally {
+      blockedTakers.decrementAndGet()
+      takeLock.unlock()
+    }
+  }
+
+  private def signalNotEmpty(): Unit = if (blockedTakers.get > 0) {
+    takeLock.lock()
+    try notEmpty.signal()
+    finally takeLock.unlock()
+  }
+
+  private def signalNotFull(): Unit = if (blockedPutters.get > 0) {
+    putLock.lock()
+    try notFull.signal()
+    finally putLock.unlock()
+  }
+
+}
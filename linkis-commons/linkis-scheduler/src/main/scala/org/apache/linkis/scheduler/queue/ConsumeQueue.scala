@@ -17,6 +17,8 @@
 
 package org.apache.linkis.scheduler.queue
 
+import org.apache.linkis.scheduler.conf.SchedulerConfiguration
+
 abstract class ConsumeQueue {
   def remove(event: SchedulerEvent): Unit
   def getWaitingEvents: Array[SchedulerEvent]
@@ -83,3 +85,22 @@ abstract class ConsumeQueue {
    */
   def peek(op: SchedulerEvent => Boolean): Option[SchedulerEvent]
 }
+
+object ConsumeQueue {
+
+  /**
+   * Create the ConsumeQueue selected by the consume queue type of the
+   * group(根据group的配置创建ConsumeQueue)
+   * @param group
+   * @return
+   */
+  def apply(group: Group): ConsumeQueue = group match {
+    case g: AbstractGroup
+        if SchedulerConfiguration.CONSUME_QUEUE_TYPE_CONCURRENT.equalsIgnoreCase(
+          g.getConsumeQueueType
+        ) =>
+      new ConcurrentConsumeQueue(group)
+    case _ => new LoopArrayQueue(group)
+  }
+
+}
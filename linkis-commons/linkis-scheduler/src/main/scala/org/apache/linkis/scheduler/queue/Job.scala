@@ -45,6 +45,12 @@ abstract class Job extends Runnable with SchedulerEvent with Closeable with Logg
    */
   private[queue] var consumerFuture: BDPFuture = _
 
+  /**
+   * the listener of the consumer which runs the job, notified when the job waits for retry or
+   * completes, so that the consumer can reuse the slot without polling
+   */
+  @volatile private[queue] var consumerJobListener: Option[JobListener] = None
+
   protected var jobDaemon: Option[JobDaemon] = None
   private var eventListenerBus: ListenerEventBus[_ <: SchedulerListener, _ <: ScheduleEvent] = _
   private var executor: Executor = _
@@ -106,6 +112,8 @@ abstract class Job extends Runnable with SchedulerEvent with Closeable with Logg
       errorExecuteResponse = ErrorExecuteResponse(errorMsg, t)
       jobDaemon.foreach(_.kill())
       interrupt = true
+      // isCompleted turns true once interrupted, the slot can be released before the transition
+      consumerJobListener.foreach(_.onJobCompleted(this))
       if (future != null && !SchedulerEventState.isCompleted(getState)) {
         Utils.tryCatch(killByExecutor()) { t: Throwable =>
           logger.error(s"kill job $getName failed", t)
@@ -215,6 +223,15 @@ abstract class Job extends Runnable with SchedulerEvent with Closeable with Logg
     // TODO job end event
   }
 
+  override protected def transition(state: SchedulerEventState): Unit =
+    Utils.tryFinally(super.transition(state)) {
+      // Notified after afterStateChanged, which may be overridden or fail
+      if (getState == state) consumerJobListener.foreach { listener =>
+        if (isWaitForRetry) listener.onJobWaitForRetry(this)
+        else if (isCompleted) listener.onJobCompleted(this)
+      }
+    }
+
   protected def transitionCompleted(executeCompleted: CompletedExecuteResponse): Unit = {
     val state = getState
     executeCompleted match {
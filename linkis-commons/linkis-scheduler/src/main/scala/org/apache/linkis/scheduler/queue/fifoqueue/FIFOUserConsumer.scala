@@ -21,12 +21,15 @@ import org.apache.linkis.common.exception.{ErrorException, WarnException}
 import org.apache.linkis.common.log.LogUtils
 import org.apache.linkis.common.utils.Utils
 import org.apache.linkis.scheduler.SchedulerContext
+import org.apache.linkis.scheduler.conf.SchedulerConfiguration
 import org.apache.linkis.scheduler.errorcode.LinkisSchedulerErrorCodeSummary._
 import org.apache.linkis.scheduler.exception.SchedulerErrorException
 import org.apache.linkis.scheduler.executer.Executor
 import org.apache.linkis.scheduler.future.{BDPFuture, BDPFutureTask}
+import org.apache.linkis.scheduler.listener.JobListener
 import org.apache.linkis.scheduler.queue._
 
+import java.util
 import java.util.concurrent.{ExecutorService, Future}
 
 import scala.beans.BeanProperty
@@ -42,6 +45,29 @@ class FIFOUserConsumer(
   private var queue: ConsumeQueue = _
   private val maxRunningJobsNum = fifoGroup.getMaxRunningJobs
   private val runningJobs = new Array[Job](maxRunningJobsNum)
+
+  /**
+   * Indexes of the free slots of runningJobs, guarded by slotLock. A slot is released by the job
+   * itself when it completes, and the consumer waiting for a free slot is notified. Completed jobs
+   * stay in runningJobs until their slots are reused(空闲槽位列表)
+   */
+  private val freeSlots = new util.ArrayDeque[Integer](maxRunningJobsNum)
+  private val occupiedSlots = new Array[Boolean](maxRunningJobsNum)
+  (0 until maxRunningJobsNum).foreach(freeSlots.add(_))
+  private val slotLock = new Object
+
+  private val consumerJobListener: JobListener = new JobListener {
+    override def onJobScheduled(job: Job): Unit = {}
+    override def onJobInited(job: Job): Unit = {}
+    override def onJobRunning(job: Job): Unit = {}
+    override def onJobWaitForRetry(job: Job): Unit = slotLock synchronized slotLock.notifyAll()
+    override def onJobCompleted(job: Job): Unit = releaseSlot(job)
+  }
+
+  @volatile private var scheduledJobNum = 0L
+  @volatile private var totalQueueWaitTime = 0L
+  @volatile private var maxQueueWaitTime = 0L
+
   private var future: Future[_] = _
 
   private var bdpFutureTask: BDPFuture = _
@@ -83,8 +109,11 @@ class FIFOUserConsumer(
     Thread.currentThread().setName(s"${toString}Thread")
     logger.info(s"$toString thread started!")
     while (!terminate) {
-      Utils.tryAndError(loop())
-      Utils.tryAndError(Thread.sleep(10))
+      Utils.tryCatch(loop()) { t =>
+        if (!terminate) logger.error(s"$toString failed to consume the queue", t)
+        // Avoid a busy loop if the error keeps happening
+        Utils.tryQuietly(Thread.sleep(10))
+      }
     }
     logger.info(s"$toString thread stopped!")
   }
@@ -108,11 +137,7 @@ class FIFOUserConsumer(
     }
     var event: Option[SchedulerEvent] = getWaitForRetryEvent
     if (event.isEmpty) {
-      val completedNums = runningJobs.filter(job => job == null || job.isCompleted)
-      if (completedNums.length < 1) {
-        Utils.tryQuietly(Thread.sleep(1000)) // TODO 还可以优化，通过实现JobListener进行优化
-        return
-      }
+      if (!waitForFreeSlot()) return
       while (event.isEmpty) {
         val takeEvent = if (getRunningEvents.isEmpty) Option(queue.take()) else queue.take(3000)
         event =
@@ -124,11 +149,13 @@ class FIFOUserConsumer(
                 }
               )
           ) {
+            takeEvent.foreach(recordQueueWaitTime)
             takeEvent
           } else getWaitForRetryEvent
       }
     }
     event.foreach { case job: Job =>
+      job.consumerJobListener = Some(consumerJobListener)
       Utils.tryCatch {
         val (totalDuration, askDuration) =
           (fifoGroup.getMaxAskExecutorDuration, fifoGroup.getAskExecutorInterval)
@@ -183,9 +210,65 @@ class FIFOUserConsumer(
     }
   }
 
-  private def putToRunningJobs(job: Job): Unit = {
-    val index = runningJobs.indexWhere(f => f == null || f.isCompleted)
-    runningJobs(index) = job
+  /**
+   * Wait until a slot is free, woken up when a running job completes or waits for retry
+   * @return
+   *   false if there is still no free slot, the caller should check the jobs waiting for retry
+   */
+  private def waitForFreeSlot(): Boolean = slotLock synchronized {
+    if (freeSlots.isEmpty) {
+      slotLock.wait(SchedulerConfiguration.FIFO_CONSUMER_SLOT_CHECK_INTERVAL)
+    }
+    if (freeSlots.isEmpty) {
+      // Fallback for the jobs completed without notifying the consumer
+      runningJobs.indices
+        .filter(i => occupiedSlots(i) && runningJobs(i).isCompleted)
+        .foreach(i => releaseSlot(runningJobs(i)))
+    }
+    !freeSlots.isEmpty
+  }
+
+  private def putToRunningJobs(job: Job): Unit = slotLock synchronized {
+    // The job may have completed before it is put, then its slot is not taken at all
+    if (!job.isCompleted) {
+      val index = freeSlots.poll()
+      if (index == null) {
+        logger.warn(s"$toString has no free slot for job $job.")
+      } else {
+        runningJobs(index) = job
+        occupiedSlots(index) = true
+      }
+    }
+  }
+
+  private def releaseSlot(job: Job): Unit = slotLock synchronized {
+    val index = runningJobs.indices.indexWhere(i => occupiedSlots(i) && (runningJobs(i) eq job))
+    if (index >= 0) {
+      occupiedSlots(index) = false
+      freeSlots.add(index)
+      slotLock.notifyAll()
+    }
+  }
+
+  private def recordQueueWaitTime(event: SchedulerEvent): Unit = {
+    val waitTime = System.currentTimeMillis - event.createTime
+    scheduledJobNum += 1
+    totalQueueWaitTime += waitTime
+    if (waitTime > maxQueueWaitTime) maxQueueWaitTime = waitTime
+  }
+
+  def getMetrics: FIFOUserConsumerMetrics = {
+    val runningNum = slotLock synchronized (maxRunningJobsNum - freeSlots.size)
+    val scheduledNum = scheduledJobNum
+    new FIFOUserConsumerMetrics(
+      getGroup.getGroupName,
+      maxRunningJobsNum,
+      runningNum,
+      if (queue == null) 0 else queue.getWaitingEvents.length,
+      scheduledNum,
+      if (scheduledNum == 0) 0L else totalQueueWaitTime / scheduledNum,
+      maxQueueWaitTime
+    )
   }
 
   override def shutdown(): Unit = {
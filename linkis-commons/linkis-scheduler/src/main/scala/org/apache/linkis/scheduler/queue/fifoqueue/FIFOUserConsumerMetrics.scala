@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.scheduler.queue.fifoqueue
+
+import scala.beans.BeanProperty
+
+/**
+ * Snapshot of the metrics of a FIFOUserConsumer(消费者指标快照)
+ * @param groupName
+ *   group of the consumer
+ * @param maxRunningJobs
+ *   number of slots
+ * @param runningJobs
+ *   number of occupied slots, including the jobs waiting for retry
+ * @param waitingJobs
+ *   number of jobs in the consume queue
+ * @param scheduledJobs
+ *   number of jobs taken from the queue since the consumer started
+ * @param avgQueueWaitTime
+ *   average time in mills from the creation of a job to being taken from the queue
+ * @param maxQueueWaitTime
+ *   maximum queue wait time in mills
+ */
+class FIFOUserConsumerMetrics(
+    @BeanProperty val groupName: String,
+    @BeanProperty val maxRunningJobs: Int,
+    @BeanProperty val runningJobs: Int,
+    @BeanProperty val waitingJobs: Int,
+    @BeanProperty val scheduledJobs: Long,
+    @BeanProperty val avgQueueWaitTime: Long,
+    @BeanProperty val maxQueueWaitTime: Long
+) {
+
+  def getSlotUtilisation: Double =
+    if (maxRunningJobs <= 0) 0d else runningJobs.toDouble / maxRunningJobs
+
+}
@@ -106,7 +106,7 @@ class ParallelConsumerManager(maxParallelismUsers: Int, schedulerName: String)
                 val newConsumer = createConsumer(groupName)
                 val group = getSchedulerContext.getOrCreateGroupFactory.getGroup(groupName)
                 newConsumer.setGroup(group)
-                newConsumer.setConsumeQueue(new LoopArrayQueue(group))
+                newConsumer.setConsumeQueue(ConsumeQueue(group))
                 consumerListener.foreach(_.onConsumerCreated(newConsumer))
                 newConsumer.start()
                 newConsumer
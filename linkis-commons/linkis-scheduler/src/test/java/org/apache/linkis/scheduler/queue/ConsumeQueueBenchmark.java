@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.scheduler.queue;
+
+import org.apache.linkis.scheduler.queue.fifoqueue.FIFOGroup;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares LoopArrayQueue with ConcurrentConsumeQueue, several entrance threads offer jobs to one
+ * group while its consumer polls them, and a status query looks jobs up by index at the same time.
+ * Run main() to get ops/sec of each role and the allocation rate(gc.alloc.rate.norm).
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConsumeQueueBenchmark {
+
+  @Param({"loop", "concurrent"})
+  public String queueType;
+
+  private ConsumeQueue queue;
+
+  @Setup
+  public void setup() {
+    FIFOGroup group = new FIFOGroup("ConsumeQueueBenchmark", 1000, 1000);
+    group.setConsumeQueueType(queueType);
+    queue = ConsumeQueue.apply(group);
+  }
+
+  @Benchmark
+  @Group("queue")
+  @GroupThreads(4)
+  public void offer(Blackhole blackhole) {
+    blackhole.consume(queue.offer(new UserJob()));
+  }
+
+  @Benchmark
+  @Group("queue")
+  @GroupThreads(1)
+  public void poll(Blackhole blackhole) {
+    blackhole.consume(queue.poll());
+  }
+
+  @Benchmark
+  @Group("queue")
+  @GroupThreads(1)
+  public void get(Blackhole blackhole) {
+    blackhole.consume(queue.get(500));
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options options =
+        new OptionsBuilder()
+            .include(ConsumeQueueBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+    new Runner(options).run();
+  }
+}
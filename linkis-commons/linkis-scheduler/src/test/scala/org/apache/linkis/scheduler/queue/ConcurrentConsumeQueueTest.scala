@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.scheduler.queue
+
+import org.apache.linkis.scheduler.conf.SchedulerConfiguration
+import org.apache.linkis.scheduler.queue.fifoqueue.FIFOGroup
+
+import java.util.concurrent.{CountDownLatch, Executors, TimeUnit}
+import java.util.concurrent.atomic.AtomicInteger
+
+import org.junit.jupiter.api.Assertions._
+import org.junit.jupiter.api.Test
+
+class ConcurrentConsumeQueueTest {
+
+  private def newJob(groupName: String, queue: ConsumeQueue): UserJob = {
+    val job = UserJob()
+    queue.offer(job).foreach(index => job.setId(groupName + "_" + index))
+    job
+  }
+
+  @Test
+  def testOfferAndTake: Unit = {
+    val group = new FIFOGroup("ConcurrentConsumeQueueTest", 2, 3)
+    val queue = new ConcurrentConsumeQueue(group)
+    val jobs = (1 to 3).map(_ => newJob(group.getGroupName, queue))
+    assertTrue(queue.isFull)
+    assertTrue(queue.offer(UserJob()).isEmpty)
+    assertEquals(3, queue.getWaitingEvents.length)
+
+    assertEquals(jobs.head, queue.take())
+    assertEquals(Some(jobs(1)), queue.take(100))
+    assertEquals(Some(jobs(2)), queue.poll())
+    assertTrue(queue.isEmpty)
+    assertTrue(queue.take(100).isEmpty)
+
+    // Taken events can still be found by index or by id
+    assertEquals(Some(jobs(1)), queue.get(1))
+    assertEquals(Some(jobs(2)), queue.get(jobs(2)))
+
+    // Only the latest maxCapacity events stay indexed
+    val next = newJob(group.getGroupName, queue)
+    assertEquals(Some(next), queue.get(3))
+    assertTrue(queue.get(0).isEmpty)
+    assertTrue(queue.get(jobs.head).isEmpty)
+    assertTrue(queue.get(100).isEmpty)
+
+    queue.remove(next)
+    assertTrue(next.isCompleted)
+    assertTrue(queue.getWaitingEvents.isEmpty)
+  }
+
+  @Test
+  def testBlockedTakeAndPut: Unit = {
+    val group = new FIFOGroup("ConcurrentConsumeQueueTest", 1, 1)
+    val queue = new ConcurrentConsumeQueue(group)
+    val executorService = Executors.newFixedThreadPool(2)
+    val taken = new CountDownLatch(1)
+    executorService.submit(new Runnable {
+      override def run(): Unit = if (queue.take() != null) taken.countDown()
+    })
+    Thread.sleep(100)
+    queue.offer(UserJob())
+    assertTrue(taken.await(1, TimeUnit.SECONDS))
+
+    queue.offer(UserJob())
+    val put = new CountDownLatch(1)
+    executorService.submit(new Runnable {
+      override def run(): Unit = if (queue.put(UserJob()) >= 0) put.countDown()
+    })
+    assertFalse(put.await(100, TimeUnit.MILLISECONDS))
+    queue.poll()
+    assertTrue(put.await(1, TimeUnit.SECONDS))
+    executorService.shutdownNow()
+  }
+
+  @Test
+  def testConcurrentProducers: Unit = {
+    val producers = 4
+    val eventsPerProducer = 1000
+    val group = new FIFOGroup("ConcurrentConsumeQueueTest", 10, 10)
+    val queue = new ConcurrentConsumeQueue(group)
+    val executorService = Executors.newFixedThreadPool(producers)
+    (1 to producers).foreach { _ =>
+      executorService.submit(new Runnable {
+        override def run(): Unit = (1 to eventsPerProducer).foreach(_ => queue.put(UserJob()))
+      })
+    }
+    val consumed = new AtomicInteger(0)
+    while (consumed.get < producers * eventsPerProducer) {
+      if (queue.take(1000).isDefined) consumed.incrementAndGet()
+      else fail("Events lost, only " + consumed.get + " events are consumed")
+    }
+    assertTrue(queue.isEmpty)
+    assertTrue(queue.get(producers * eventsPerProducer - 1).isDefined)
+    executorService.shutdownNow()
+  }
+
+  @Test
+  def testCreateByGroup: Unit = {
+    val group = new FIFOGroup("ConcurrentConsumeQueueTest", 1, 10)
+    assertTrue(ConsumeQueue(group).isInstanceOf[LoopArrayQueue])
+    group.setConsumeQueueType(SchedulerConfiguration.CONSUME_QUEUE_TYPE_CONCURRENT)
+    assertTrue(ConsumeQueue(group).isInstanceOf[ConcurrentConsumeQueue])
+  }
+
+}
@@ -17,11 +17,47 @@
 
 package org.apache.linkis.scheduler.queue.fifoqueue
 
-import org.junit.jupiter.api.Assertions.{assertFalse, assertNotNull, assertTrue}
+import org.apache.linkis.scheduler.executer._
+import org.apache.linkis.scheduler.listener.ExecutorListener
+import org.apache.linkis.scheduler.queue.{LoopArrayQueue, SchedulerEvent, UserJob}
+
+import java.util.concurrent.Executors
+
+import scala.concurrent.duration.Duration
+
+import org.junit.jupiter.api.Assertions.{assertEquals, assertFalse, assertNotNull, assertTrue}
 import org.junit.jupiter.api.Test
 
 class FIFOUserConsumerTest {
 
+  private class TestExecutor extends Executor {
+    override def getId: Long = 1L
+
+    override def execute(executeRequest: ExecuteRequest): ExecuteResponse = {
+      Thread.sleep(100)
+      SuccessExecuteResponse()
+    }
+
+    override def state: ExecutorState.ExecutorState = ExecutorState.Idle
+    override def getExecutorInfo: ExecutorInfo = null
+    override def close(): Unit = {}
+  }
+
+  private class TestExecutorManager extends ExecutorManager {
+    private val executor = new TestExecutor
+    override def setExecutorListener(engineListener: ExecutorListener): Unit = {}
+    override protected def createExecutor(event: SchedulerEvent): Executor = executor
+    override def askExecutor(event: SchedulerEvent): Option[Executor] = Some(executor)
+
+    override def askExecutor(event: SchedulerEvent, wait: Duration): Option[Executor] =
+      Some(executor)
+
+    override def getById(id: Long): Option[Executor] = Some(executor)
+    override def getByGroup(groupName: String): Array[Executor] = Array(executor)
+    override def delete(executor: Executor): Unit = {}
+    override def shutdown(): Unit = {}
+  }
+
   @Test
   def testStart: Unit = {
     val schedulerContext = new FIFOSchedulerContextImpl(100)
@@ -36,4 +72,38 @@ class FIFOUserConsumerTest {
     assertTrue(consumer.terminate)
   }
 
+  @Test
+  def testWakeUpOnJobCompleted: Unit = {
+    val schedulerContext = new FIFOSchedulerContextImpl(10)
+    schedulerContext.setExecutorManager(new TestExecutorManager)
+    val group = new FIFOGroup("FIFOUserConsumerTest", 10, 100)
+    group.setMaxRunningJobs(1)
+    val executorService = Executors.newCachedThreadPool()
+    val consumer = new FIFOUserConsumer(schedulerContext, executorService, group)
+    consumer.setConsumeQueue(new LoopArrayQueue(group))
+    consumer.start()
+
+    val jobs = (1 to 5).map { i =>
+      val job = UserJob()
+      job.setId("job_" + i)
+      consumer.getConsumeQueue.offer(job)
+      job
+    }
+    // The jobs run one by one, each one is scheduled as soon as the previous one completes
+    val startTime = System.currentTimeMillis
+    while (!jobs.forall(_.isCompleted) && System.currentTimeMillis - startTime < 3000) {
+      Thread.sleep(10)
+    }
+    assertTrue(jobs.forall(_.isSucceed))
+
+    val metrics = consumer.getMetrics
+    assertEquals(1, metrics.getMaxRunningJobs)
+    assertEquals(0, metrics.getRunningJobs)
+    assertEquals(5, metrics.getScheduledJobs)
+    assertTrue(metrics.getMaxQueueWaitTime >= metrics.getAvgQueueWaitTime)
+
+    consumer.shutdown()
+    executorService.shutdownNow()
+  }
+
 }
@@ -36,6 +36,29 @@ public class LinkisStorageConf {
 
   public static final long ROW_BYTE_MAX_LEN = ByteTimeUtils.byteStringAsBytes(ROW_BYTE_MAX_LEN_STR);
 
+  /** Size of the chunks in which lines are streamed to the result set file */
+  public static final int RESULT_SET_WRITE_BUFFER_SIZE =
+      (int)
+          ByteTimeUtils.byteStringAsBytes(
+              CommonVars.apply("linkis.resultset.write.buffer.size", "64k").getValue());
+
+  /**
+   * Every how many records the offset is recorded in the row index file of a result set, 0 disables
+   * the index(结果集行索引的间隔行数)
+   */
+  public static final int RESULT_SET_INDEX_INTERVAL =
+      CommonVars.apply("linkis.resultset.index.interval", 1000).getValue();
+
+  /**
+   * Format version of table result set files, 1 is the original format and 2 is the binary format,
+   * can be overridden by the job with the same key
+   */
+  public static final String TABLE_RESULT_FORMAT_VERSION_KEY =
+      "linkis.resultset.table.format.version";
+
+  public static final int TABLE_RESULT_FORMAT_VERSION =
+      CommonVars.apply(TABLE_RESULT_FORMAT_VERSION_KEY, 1).getValue();
+
   public static final String FILE_TYPE =
       CommonVars.apply(
               "wds.linkis.storage.file.type",
@@ -24,6 +24,7 @@ import org.apache.linkis.storage.utils.StorageUtils;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 
 import org.slf4j.Logger;
@@ -63,6 +64,21 @@ public class Dolphin {
 
   public static final int FILE_EMPTY = 31;
 
+  /** The original format: decimal-ASCII lengths and values rendered as strings(原始格式) */
+  public static final int FORMAT_VERSION_V1 = 1;
+
+  /** Binary format: varint lengths and typed values, only supported by table result sets(二进制格式) */
+  public static final int FORMAT_VERSION_V2 = 2;
+
+  /**
+   * The type field of the header carries the format version in its high digits, eg:
+   * dolphin0000200002 is a table result set of version 2, while v1 files keep writing
+   * dolphin0000000002(文件头类型字段的高位记录格式版本)
+   */
+  public static final int FORMAT_VERSION_FACTOR = 100000;
+
+  private static final int VAR_INT_MAX_LEN = 5;
+
   public static byte[] getBytes(Object value) {
     return value.toString().getBytes(CHAR_SET);
   }
@@ -112,19 +128,116 @@ public class Dolphin {
     return Dolphin.getBytes(res.toString());
   }
 
-  public static String getType(InputStream inputStream) throws IOException {
+  /**
+   * Read an unsigned varint written by {@link #writeVarInt}, return -1 if the stream is already at
+   * the end(读取变长整数，流已结束时返回-1)
+   *
+   * @param inputStream
+   * @return
+   * @throws IOException
+   */
+  public static int readVarInt(InputStream inputStream) throws IOException {
+    int value = 0;
+    for (int i = 0; i < VAR_INT_MAX_LEN; i++) {
+      int b = inputStream.read();
+      if (b == -1) {
+        if (i == 0) return -1;
+        throw new StorageWarnException(
+            FAILED_TO_READ_INTEGER.getErrorCode(), FAILED_TO_READ_INTEGER.getErrorDesc());
+      }
+      value |= (b & 0x7F) << (7 * i);
+      if ((b & 0x80) == 0) return value;
+    }
+    throw new StorageWarnException(
+        FAILED_TO_READ_INTEGER.getErrorCode(), FAILED_TO_READ_INTEGER.getErrorDesc());
+  }
+
+  /**
+   * Write a non-negative integer as an unsigned varint, 7 bits per byte(按变长格式写入非负整数)
+   *
+   * @param buffer
+   * @param value
+   */
+  public static void writeVarInt(ByteBuffer buffer, int value) {
+    while ((value & ~0x7F) != 0) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  public static int readVarInt(ByteBuffer buffer) {
+    int value = 0;
+    for (int i = 0; i < VAR_INT_MAX_LEN; i++) {
+      byte b = buffer.get();
+      value |= (b & 0x7F) << (7 * i);
+      if ((b & 0x80) == 0) return value;
+    }
+    throw new StorageWarnException(
+        FAILED_TO_READ_INTEGER.getErrorCode(), FAILED_TO_READ_INTEGER.getErrorDesc());
+  }
+
+  public static int getVarIntLen(int value) {
+    int len = 1;
+    while ((value & ~0x7F) != 0) {
+      value >>>= 7;
+      len++;
+    }
+    return len;
+  }
+
+  /**
+   * Generate the file header of a result set type in the given format version(生成指定格式版本的文件头)
+   *
+   * @param resultSetType
+   * @param formatVersion
+   * @return
+   */
+  public static byte[] getHeaderBytes(String resultSetType, int formatVersion) {
+    int type = Integer.parseInt(resultSetType);
+    if (formatVersion != FORMAT_VERSION_V1) {
+      type += formatVersion * FORMAT_VERSION_FACTOR;
+    }
+    byte[] typeBytes = getIntBytes(type);
+    byte[] header = new byte[MAGIC_LEN + typeBytes.length];
+    System.arraycopy(MAGIC_BYTES, 0, header, 0, MAGIC_LEN);
+    System.arraycopy(typeBytes, 0, header, MAGIC_LEN, typeBytes.length);
+    return header;
+  }
+
+  /**
+   * Read the file header, return null if the stream is empty(读取文件头)
+   *
+   * @param inputStream
+   * @return
+   */
+  public static String readHeader(InputStream inputStream) {
     byte[] bytes = new byte[100];
     int len = StorageUtils.readBytes(inputStream, bytes, Dolphin.MAGIC_LEN + INT_LEN);
     if (len == -1) return null;
-    return getType(Dolphin.getString(bytes, 0, len));
+    return Dolphin.getString(bytes, 0, len);
+  }
+
+  public static String getType(InputStream inputStream) throws IOException {
+    String header = readHeader(inputStream);
+    if (header == null) return null;
+    return getType(header);
   }
 
   public static String getType(String content) {
+    return Integer.toString(getHeaderType(content) % FORMAT_VERSION_FACTOR);
+  }
+
+  public static int getFormatVersion(String content) {
+    int version = getHeaderType(content) / FORMAT_VERSION_FACTOR;
+    return version == 0 ? FORMAT_VERSION_V1 : version;
+  }
+
+  private static int getHeaderType(String content) {
     if (content.length() < MAGIC.length() || !content.substring(0, MAGIC.length()).equals(MAGIC)) {
       throw new RuntimeException(
           "File header type must be dolphin, content: " + content + " is not");
     }
-    return Integer.toString(
-        Integer.parseInt(content.substring(MAGIC.length(), MAGIC.length() + INT_LEN)));
+    return Integer.parseInt(content.substring(MAGIC.length(), MAGIC.length() + INT_LEN));
   }
 }
@@ -58,21 +58,21 @@ public class ResultSetReaderFactory {
       FsPath resPath = new FsPath(res);
       ResultSet<? extends MetaData, ? extends Record> resultSet =
           rsFactory.getResultSetByPath(resPath);
+      Fs fs = FSFactory.getFs(resPath);
       try {
-        FSFactory.getFs(resPath).init(null);
+        fs.init(null);
       } catch (IOException e) {
         logger.warn("ResultSetReaderFactory fs init failed", e);
       }
       ResultSetReader reader = null;
       try {
-        reader =
-            ResultSetReaderFactory.getResultSetReader(
-                resultSet, FSFactory.getFs(resPath).read(resPath));
+        reader = ResultSetReaderFactory.getResultSetReader(resultSet, fs.read(resPath));
       } catch (IOException e) {
         logger.warn("ResultSetReaderFactory fs read failed", e);
       }
       if (reader instanceof StorageResultSetReader) {
-        ((StorageResultSetReader<?, ?>) reader).setFs(FSFactory.getFs(resPath));
+        ((StorageResultSetReader<?, ?>) reader).setFs(fs);
+        ((StorageResultSetReader<?, ?>) reader).setRowIndex(fs, resPath);
       }
       return (StorageResultSetReader<?, ?>) reader;
     }
@@ -103,8 +103,10 @@ public class ResultSetReaderFactory {
         fs.init(null);
         InputStream read = fs.read(resPath);
 
-        return ResultSetReaderFactory.<TableMetaData, TableRecord>getResultSetReader(
-            (TableResultSet) resultSet, read);
+        StorageResultSetReader<TableMetaData, TableRecord> reader =
+            new StorageResultSetReader<>((TableResultSet) resultSet, read);
+        reader.setRowIndex(fs, resPath);
+        return reader;
       } catch (IOException e) {
         throw new StorageWarnException(
             LinkisStorageErrorCodeSummary.TABLE_ARE_NOT_SUPPORTED.getErrorCode(),
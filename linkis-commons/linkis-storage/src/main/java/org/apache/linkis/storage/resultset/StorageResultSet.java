@@ -20,6 +20,8 @@ package org.apache.linkis.storage.resultset;
 import org.apache.linkis.common.io.FsPath;
 import org.apache.linkis.common.io.MetaData;
 import org.apache.linkis.common.io.Record;
+import org.apache.linkis.common.io.resultset.ResultDeserializer;
+import org.apache.linkis.common.io.resultset.ResultSerializer;
 import org.apache.linkis.common.io.resultset.ResultSet;
 import org.apache.linkis.storage.domain.Dolphin;
 import org.apache.linkis.storage.utils.StorageConfiguration;
@@ -35,11 +37,7 @@ public abstract class StorageResultSet<K extends MetaData, V extends Record>
   private byte[] resultHeaderBytes = null;
 
   {
-    byte[] arr2 = Dolphin.getIntBytes(Integer.parseInt(resultSetType()));
-    byte[] mergedArray = new byte[Dolphin.MAGIC_BYTES.length + arr2.length];
-    System.arraycopy(Dolphin.MAGIC_BYTES, 0, mergedArray, 0, Dolphin.MAGIC_BYTES.length);
-    System.arraycopy(arr2, 0, mergedArray, Dolphin.MAGIC_BYTES.length, arr2.length);
-    resultHeaderBytes = mergedArray;
+    resultHeaderBytes = Dolphin.getHeaderBytes(resultSetType(), Dolphin.FORMAT_VERSION_V1);
   }
 
   @Override
@@ -62,6 +60,32 @@ public abstract class StorageResultSet<K extends MetaData, V extends Record>
     return resultHeaderBytes;
   }
 
+  public byte[] getResultSetHeader(int formatVersion) {
+    if (formatVersion == Dolphin.FORMAT_VERSION_V1) {
+      return resultHeaderBytes;
+    }
+    return Dolphin.getHeaderBytes(resultSetType(), formatVersion);
+  }
+
+  /**
+   * Whether the result set can be written and read in the given format version, only v1 by
+   * default(是否支持该格式版本)
+   *
+   * @param formatVersion
+   * @return
+   */
+  public boolean supportFormatVersion(int formatVersion) {
+    return formatVersion == Dolphin.FORMAT_VERSION_V1;
+  }
+
+  public ResultSerializer createResultSetSerializer(int formatVersion) {
+    return createResultSetSerializer();
+  }
+
+  public ResultDeserializer<K, V> createResultSetDeserializer(int formatVersion) {
+    return createResultSetDeserializer();
+  }
+
   @Override
   public boolean belongToPath(String path) {
     return path.endsWith(Dolphin.DOLPHIN_FILE_SUFFIX);
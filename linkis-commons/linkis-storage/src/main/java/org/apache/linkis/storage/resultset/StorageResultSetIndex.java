@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.resultset;
+
+import org.apache.linkis.common.io.Fs;
+import org.apache.linkis.common.io.FsPath;
+import org.apache.linkis.storage.domain.Dolphin;
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Row offset index of a result set file, stored next to it as a sidecar file(结果集文件的行偏移索引). The byte
+ * offset of every interval-th record is recorded, so that a reader can seek to the indexed record
+ * in front of the target and only skip the records of the last interval. Layout: magic,
+ * interval(int), record count(long), data length(long), then one offset(long) for each of the
+ * records interval, 2 * interval ...
+ */
+public class StorageResultSetIndex {
+
+  public static final String INDEX_FILE_SUFFIX = ".index";
+
+  private final int interval;
+
+  private long[] offsets = new long[16];
+
+  private int size = 0;
+
+  private long recordCount = 0;
+
+  public StorageResultSetIndex(int interval) {
+    this.interval = interval;
+  }
+
+  /**
+   * Record the offset of the next record, called before the record is written
+   *
+   * @param offset byte offset of the record in the file
+   */
+  public void addRecord(long offset) {
+    if (recordCount > 0 && recordCount % interval == 0) {
+      if (size == offsets.length) {
+        offsets = Arrays.copyOf(offsets, size << 1);
+      }
+      offsets[size++] = offset;
+    }
+    recordCount++;
+  }
+
+  /** Nothing worth indexing when all records are in the first interval */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void write(OutputStream outputStream, long dataLength) throws IOException {
+    DataOutputStream out = new DataOutputStream(outputStream);
+    out.write(Dolphin.MAGIC_BYTES);
+    out.writeInt(interval);
+    out.writeLong(recordCount);
+    out.writeLong(dataLength);
+    for (int i = 0; i < size; i++) {
+      out.writeLong(offsets[i]);
+    }
+    out.flush();
+  }
+
+  public static FsPath getIndexPath(FsPath resultSetPath) {
+    return new FsPath(resultSetPath.getSchemaPath() + INDEX_FILE_SUFFIX);
+  }
+
+  public static boolean isIndexPath(String path) {
+    return path != null && path.endsWith(Dolphin.DOLPHIN_FILE_SUFFIX + INDEX_FILE_SUFFIX);
+  }
+
+  /**
+   * Look up the last indexed record at or before the target record, only the header and one entry
+   * of the index file are read(查找目标行之前最近的索引行). The index is only used when the data length recorded
+   * in it is the length of the result set file.
+   *
+   * @param fs
+   * @param resultSetPath
+   * @param record index of the target record, 0 is the first record after the metadata
+   * @return {record, offset} of the indexed record, null if there is none before the target
+   * @throws IOException if the index file is broken or out of date
+   */
+  public static long[] lookup(Fs fs, FsPath resultSetPath, long record) throws IOException {
+    FsPath indexPath = getIndexPath(resultSetPath);
+    InputStream inputStream = fs.read(indexPath);
+    try {
+      DataInputStream in = new DataInputStream(inputStream);
+      byte[] magic = new byte[Dolphin.MAGIC_LEN];
+      in.readFully(magic);
+      if (!Arrays.equals(magic, Dolphin.MAGIC_BYTES)) {
+        throw new IOException("Not a result set index file: " + indexPath.getPath());
+      }
+      int interval = in.readInt();
+      long recordCount = in.readLong();
+      long dataLength = in.readLong();
+      if (interval <= 0) {
+        throw new IOException("Broken result set index file: " + indexPath.getPath());
+      }
+      // The result set file was rewritten or appended after the index was written
+      long fileLength = fs.get(resultSetPath.getPath()).getLength();
+      if (fileLength != dataLength) {
+        throw new IOException(
+            String.format(
+                "Result set index file %s is out of date, data length %d, file length %d",
+                indexPath.getPath(), dataLength, fileLength));
+      }
+      // Past the end, go to the last indexed record and let the reader count the rest
+      long target = Math.min(record, recordCount - 1);
+      long entry = target / interval;
+      if (entry <= 0) {
+        return null;
+      }
+      IOUtils.skipFully(in, (entry - 1) * Long.BYTES);
+      long offset = in.readLong();
+      if (offset <= 0 || offset >= dataLength) {
+        throw new IOException("Broken result set index file: " + indexPath.getPath());
+      }
+      return new long[] {entry * interval, offset};
+    } finally {
+      IOUtils.closeQuietly(inputStream);
+    }
+  }
+}
@@ -18,22 +18,27 @@
 package org.apache.linkis.storage.resultset;
 
 import org.apache.linkis.common.io.Fs;
+import org.apache.linkis.common.io.FsPath;
 import org.apache.linkis.common.io.MetaData;
 import org.apache.linkis.common.io.Record;
 import org.apache.linkis.common.io.resultset.ResultDeserializer;
 import org.apache.linkis.common.io.resultset.ResultSet;
 import org.apache.linkis.common.io.resultset.ResultSetReader;
+import org.apache.linkis.storage.conf.LinkisStorageConf;
 import org.apache.linkis.storage.domain.Dolphin;
 import org.apache.linkis.storage.exception.StorageWarnException;
 import org.apache.linkis.storage.utils.StorageUtils;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.hadoop.fs.Seekable;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Arrays;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,21 +49,32 @@ public class StorageResultSetReader<K extends MetaData, V extends Record>
   private static final Logger logger = LoggerFactory.getLogger(StorageResultSetReader.class);
 
   private final ResultSet<K, V> resultSet;
-  private final InputStream inputStream;
-  private final ResultDeserializer<K, V> deserializer;
+  private final InputStream rawInputStream;
+  private InputStream inputStream;
+  private ResultDeserializer<K, V> deserializer;
+  private int formatVersion = Dolphin.FORMAT_VERSION_V1;
   private K metaData;
   private Record row;
   private int colCount = 0;
   private int rowCount = 0;
+  private long recordIndex = 0;
   private Fs fs;
+  private Fs indexFs;
+  private FsPath resultSetPath;
+  private FsPath indexPath;
+  private boolean indexChecked = false;
 
-  private final int READ_CACHE = 1024;
-  private final byte[] bytes = new byte[READ_CACHE];
+  private static final int READ_BUFFER_SIZE = 64 * 1024;
 
   public StorageResultSetReader(ResultSet<K, V> resultSet, InputStream inputStream) {
     super(resultSet, inputStream);
     this.resultSet = resultSet;
-    this.inputStream = inputStream;
+    this.rawInputStream = inputStream;
+    // Lines are read by several small reads, so unbuffered file streams are buffered here
+    this.inputStream =
+        inputStream instanceof ByteArrayInputStream || inputStream instanceof BufferedInputStream
+            ? inputStream
+            : new BufferedInputStream(inputStream, READ_BUFFER_SIZE);
     this.deserializer = resultSet.createResultSetDeserializer();
   }
 
@@ -67,38 +83,63 @@ public class StorageResultSetReader<K extends MetaData, V extends Record>
   }
 
   public void init() throws IOException {
-    String resType = Dolphin.getType(inputStream);
+    String header = Dolphin.readHeader(inputStream);
+    String resType = header == null ? null : Dolphin.getType(header);
     if (!StringUtils.equals(resultSet.resultSetType(), resType)) {
       throw new RuntimeException(
           "File type does not match(文件类型不匹配): "
               + ResultSetFactory.resultSetType.getOrDefault(resType, "TABLE"));
     }
+    formatVersion = Dolphin.getFormatVersion(header);
+    if (formatVersion != Dolphin.FORMAT_VERSION_V1) {
+      if (!(resultSet instanceof StorageResultSet)
+          || !((StorageResultSet<K, V>) resultSet).supportFormatVersion(formatVersion)) {
+        throw new RuntimeException(
+            "Unsupported result set format version(不支持的结果集格式版本): " + formatVersion);
+      }
+      deserializer =
+          ((StorageResultSet<K, V>) resultSet).createResultSetDeserializer(formatVersion);
+    }
+  }
+
+  public int getFormatVersion() {
+    return formatVersion;
+  }
+
+  private int readLineLen() throws IOException {
+    if (formatVersion == Dolphin.FORMAT_VERSION_V1) {
+      return Dolphin.readInt(inputStream);
+    }
+    int rowLen = Dolphin.readVarInt(inputStream);
+    if (rowLen < 0) {
+      throw new IOException("end of the result set");
+    }
+    return rowLen;
   }
 
   public byte[] readLine() {
     int rowLen = 0;
     try {
-      rowLen = Dolphin.readInt(inputStream);
+      rowLen = readLineLen();
     } catch (StorageWarnException | IOException e) {
       logger.info("Read finished(读取完毕)");
       return null;
     }
+    // The length of a broken result set must not allocate more than the writer allows for a row
+    if (rowLen < 0 || rowLen > LinkisStorageConf.ROW_BYTE_MAX_LEN) {
+      throw new RuntimeException(
+          "Invalid row length "
+              + rowLen
+              + " beyond [0, "
+              + LinkisStorageConf.ROW_BYTE_MAX_LEN_STR
+              + "], the result set may be broken(结果集行长度非法，结果集可能已损坏)");
+    }
 
-    byte[] rowBuffer = new byte[0];
-    int len = 0;
-
-    while (rowLen > 0 && len >= 0) {
-      if (rowLen > READ_CACHE) {
-        len = StorageUtils.readBytes(inputStream, bytes, READ_CACHE);
-      } else {
-        len = StorageUtils.readBytes(inputStream, bytes, rowLen);
-      }
-
-      if (len > 0) {
-        rowLen -= len;
-        rowBuffer = Arrays.copyOf(rowBuffer, rowBuffer.length + len);
-        System.arraycopy(bytes, 0, rowBuffer, rowBuffer.length - len, len);
-      }
+    byte[] rowBuffer = new byte[rowLen];
+    int len = StorageUtils.readBytes(inputStream, rowBuffer, rowLen);
+    if (len != rowLen) {
+      logger.warn("The result set is truncated, expect {} bytes but read {}", rowLen, len);
+      return null;
     }
     rowCount++;
     return rowBuffer;
@@ -122,6 +163,20 @@ public class StorageResultSetReader<K extends MetaData, V extends Record>
     return fs;
   }
 
+  /**
+   * Use the row index written next to the result set file to seek in skip(), the index is only read
+   * when a skip goes past the first indexed record(设置结果集的行索引，用于skip时直接定位)
+   *
+   * @param fs file system of the result set, not closed by the reader
+   * @param resultSetPath
+   */
+  public void setRowIndex(Fs fs, FsPath resultSetPath) {
+    this.indexFs = fs;
+    this.resultSetPath = resultSetPath;
+    this.indexPath = StorageResultSetIndex.getIndexPath(resultSetPath);
+    this.indexChecked = false;
+  }
+
   @Override
   public MetaData getMetaData() {
     if (metaData == null) {
@@ -140,9 +195,11 @@ public class StorageResultSetReader<K extends MetaData, V extends Record>
     if (recordNum < 0) return -1;
 
     if (metaData == null) getMetaData();
-    for (int i = recordNum; i > 0; i--) {
+    int seeked = seekByIndex(recordNum);
+    for (int i = recordNum - seeked; i > 0; i--) {
       try {
-        inputStream.skip(Dolphin.readInt(inputStream));
+        skipBytes(readLineLen());
+        recordIndex++;
       } catch (Throwable t) {
         return recordNum - i;
       }
@@ -150,6 +207,61 @@ public class StorageResultSetReader<K extends MetaData, V extends Record>
     return recordNum;
   }
 
+  /**
+   * Seek to the last indexed record in front of the target, so that only the records after it are
+   * skipped one by one
+   *
+   * @return the number of records seeked over, 0 if the index is not usable
+   */
+  private int seekByIndex(int recordNum) {
+    if (indexPath == null
+        || recordNum < LinkisStorageConf.RESULT_SET_INDEX_INTERVAL
+        || !(rawInputStream instanceof Seekable || rawInputStream instanceof FileInputStream)) {
+      return 0;
+    }
+    try {
+      if (!indexChecked) {
+        indexChecked = true;
+        if (!indexFs.exists(indexPath)) {
+          indexPath = null;
+          return 0;
+        }
+      }
+      long[] indexed =
+          StorageResultSetIndex.lookup(indexFs, resultSetPath, recordIndex + recordNum);
+      if (indexed == null || indexed[0] <= recordIndex) {
+        return 0;
+      }
+      if (rawInputStream instanceof Seekable) {
+        ((Seekable) rawInputStream).seek(indexed[1]);
+      } else {
+        ((FileInputStream) rawInputStream).getChannel().position(indexed[1]);
+      }
+      // Drop the bytes buffered before the seek
+      inputStream = new BufferedInputStream(rawInputStream, READ_BUFFER_SIZE);
+      int seeked = (int) (indexed[0] - recordIndex);
+      recordIndex = indexed[0];
+      return seeked;
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Failed to use the row index {}, skip records one by one", indexPath, e);
+      indexPath = null;
+      return 0;
+    }
+  }
+
+  private void skipBytes(long len) throws IOException {
+    while (len > 0) {
+      long skipped = inputStream.skip(len);
+      if (skipped <= 0) {
+        if (inputStream.read() < 0) {
+          throw new EOFException("end of the result set");
+        }
+        skipped = 1;
+      }
+      len -= skipped;
+    }
+  }
+
   @Override
   public long getPosition() throws IOException {
     return rowCount;
@@ -162,6 +274,7 @@ public class StorageResultSetReader<K extends MetaData, V extends Record>
     if (line == null) return false;
     row = deserializer.createRecord(line);
     if (row == null) return false;
+    recordIndex++;
     return true;
   }
 
@@ -29,10 +29,10 @@ import org.apache.linkis.storage.utils.*;
 import org.apache.commons.io.IOUtils;
 import org.apache.hadoop.hdfs.client.HdfsDataOutputStream;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.charset.Charset;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,12 +44,15 @@ public class StorageResultSetWriter<K extends MetaData, V extends Record>
   private final ResultSet<K, V> resultSet;
   private final long maxCacheSize;
   private final FsPath storePath;
+  private final StorageResultSetIndex rowIndex;
 
-  private final ResultSerializer serializer;
+  private ResultSerializer serializer;
+  private int formatVersion = Dolphin.FORMAT_VERSION_V1;
   private boolean moveToWriteRow = false;
   private OutputStream outputStream = null;
   private int rowCount = 0;
-  private final List<Byte> buffer = new ArrayList<Byte>();
+  private long writtenLength = 0;
+  private final LineBuffer buffer = new LineBuffer(INIT_BUFFER_SIZE);
   private Fs fs = null;
   private MetaData rMetaData = null;
   private String proxyUser = StorageUtils.getJvmUser();
@@ -58,6 +61,23 @@ public class StorageResultSetWriter<K extends MetaData, V extends Record>
   private final Object WRITER_LOCK_CREATE = new Object();
   private final Object WRITER_LOCK_CLOSE = new Object();
 
+  private static final int INIT_BUFFER_SIZE = 1024;
+
+  /**
+   * A growable byte buffer which exposes its backing array, so that the cached lines can be turned
+   * into a string or written to the file without being copied again(可扩容的字节缓存)
+   */
+  private static class LineBuffer extends ByteArrayOutputStream {
+
+    LineBuffer(int size) {
+      super(size);
+    }
+
+    String toString(Charset charset) {
+      return new String(buf, 0, count, charset);
+    }
+  }
+
   public StorageResultSetWriter(ResultSet<K, V> resultSet, long maxCacheSize, FsPath storePath) {
     super(resultSet, maxCacheSize, storePath);
     this.resultSet = resultSet;
@@ -65,6 +85,10 @@ public class StorageResultSetWriter<K extends MetaData, V extends Record>
     this.storePath = storePath;
 
     this.serializer = resultSet.createResultSetSerializer();
+    this.rowIndex =
+        storePath != null && LinkisStorageConf.RESULT_SET_INDEX_INTERVAL > 0
+            ? new StorageResultSetIndex(LinkisStorageConf.RESULT_SET_INDEX_INTERVAL)
+            : null;
   }
 
   public MetaData getMetaData() {
@@ -75,13 +99,50 @@ public class StorageResultSetWriter<K extends MetaData, V extends Record>
     this.proxyUser = proxyUser;
   }
 
+  /**
+   * Select the format version of the result set file, must be called before the metadata is added.
+   * Binary formats can not be carried by a string, so they are only used when the writer has a
+   * store path and are always persisted to it(设置结果集文件格式版本，需在写入metadata前调用)
+   *
+   * @param formatVersion
+   */
+  public void setFormatVersion(int formatVersion) {
+    if (formatVersion == this.formatVersion) {
+      return;
+    }
+    if (moveToWriteRow) {
+      logger.warn("The metadata had been written, ignore format version {}", formatVersion);
+      return;
+    }
+    if (storePath == null
+        || !(resultSet instanceof StorageResultSet)
+        || !((StorageResultSet<K, V>) resultSet).supportFormatVersion(formatVersion)) {
+      logger.info(
+          "Result set type {} with store path {} does not support format version {}, use v1",
+          resultSet.resultSetType(),
+          storePath,
+          formatVersion);
+      return;
+    }
+    this.formatVersion = formatVersion;
+    this.serializer = ((StorageResultSet<K, V>) resultSet).createResultSetSerializer(formatVersion);
+  }
+
+  public int getFormatVersion() {
+    return formatVersion;
+  }
+
   public boolean isEmpty() {
     return rMetaData == null && buffer.size() <= Dolphin.FILE_EMPTY;
   }
 
   public void init() {
     try {
-      writeLine(resultSet.getResultSetHeader(), true);
+      if (formatVersion == Dolphin.FORMAT_VERSION_V1) {
+        writeLine(resultSet.getResultSetHeader(), true);
+      } else {
+        writeLine(((StorageResultSet<K, V>) resultSet).getResultSetHeader(formatVersion), true);
+      }
     } catch (IOException e) {
       logger.warn("StorageResultSetWriter init failed", e);
     }
@@ -98,6 +159,11 @@ public class StorageResultSetWriter<K extends MetaData, V extends Record>
               fs.init(null);
               FileSystemUtils.createNewFile(storePath, proxyUser, true);
               outputStream = fs.write(storePath, true);
+              // The row index of a previous file with the same path no longer matches
+              FsPath indexPath = StorageResultSetIndex.getIndexPath(storePath);
+              if (fs.exists(indexPath)) {
+                fs.delete(indexPath);
+              }
             } catch (IOException e) {
               logger.warn("StorageResultSetWriter createNewFile failed", e);
             }
@@ -121,40 +187,53 @@ public class StorageResultSetWriter<K extends MetaData, V extends Record>
           String.format(
               "A single row of data cannot exceed %s", LinkisStorageConf.ROW_BYTE_MAX_LEN_STR));
     }
-    if (buffer.size() > maxCacheSize && !cache) {
-      if (outputStream == null) {
-        createNewFile();
-      }
-      flush();
+    writtenLength += bytes.length;
+    if (cache || (outputStream == null && buffer.size() <= maxCacheSize)) {
+      buffer.write(bytes);
+      return;
+    }
+    if (outputStream == null) {
+      createNewFile();
+    }
+    if (outputStream == null) {
+      buffer.write(bytes);
+    } else if (buffer.size() == 0
+        && bytes.length >= LinkisStorageConf.RESULT_SET_WRITE_BUFFER_SIZE) {
       outputStream.write(bytes);
     } else {
-      for (byte b : bytes) {
-        buffer.add(b);
+      // Once the file is created, lines are streamed to it in chunks, only flush() syncs them
+      buffer.write(bytes);
+      if (buffer.size() >= LinkisStorageConf.RESULT_SET_WRITE_BUFFER_SIZE) {
+        writeBuffer();
       }
     }
   }
 
+  private void writeBuffer() throws IOException {
+    if (buffer.size() > 0) {
+      buffer.writeTo(outputStream);
+      buffer.reset();
+    }
+  }
+
   @Override
   public String toString() {
     if (outputStream == null) {
       if (isEmpty()) {
         return "";
       }
+      if (formatVersion != Dolphin.FORMAT_VERSION_V1) {
+        if (!fileCreated) {
+          flush();
+        }
+        return storePath.getSchemaPath();
+      }
 
-      byte[] byteArray = getBytes();
-      return new String(byteArray, Dolphin.CHAR_SET);
+      return buffer.toString(Dolphin.CHAR_SET);
     }
     return storePath.getSchemaPath();
   }
 
-  private byte[] getBytes() {
-    byte[] byteArray = new byte[buffer.size()];
-    for (int i = 0; i < buffer.size(); i++) {
-      byteArray[i] = buffer.get(i);
-    }
-    return byteArray;
-  }
-
   @Override
   public FsPath toFSPath() {
     return storePath;
@@ -195,7 +274,11 @@ public class StorageResultSetWriter<K extends MetaData, V extends Record>
     if (moveToWriteRow) {
       rowCount++;
       try {
+        long offset = writtenLength;
         writeLine(serializer.recordToBytes(record), false);
+        if (rowIndex != null && writtenLength > offset) {
+          rowIndex.addRecord(offset);
+        }
       } catch (IOException e) {
         logger.warn("addMetaDataAndRecordString failed", e);
       }
@@ -223,27 +306,42 @@ public class StorageResultSetWriter<K extends MetaData, V extends Record>
       }
     }
     try {
-      if (outputStream != null) {
+      if (outputStream != null || (formatVersion != Dolphin.FORMAT_VERSION_V1 && !isEmpty())) {
         flush();
       }
     } finally {
       if (outputStream != null) {
         IOUtils.closeQuietly(outputStream);
         outputStream = null;
+        writeRowIndex();
       }
       closeFs();
     }
   }
 
+  /** Write the row index next to the result set file, readers skip rows sequentially without it */
+  private void writeRowIndex() {
+    if (rowIndex == null || rowIndex.isEmpty() || fs == null) {
+      return;
+    }
+    FsPath indexPath = StorageResultSetIndex.getIndexPath(storePath);
+    OutputStream indexOutputStream = null;
+    try {
+      indexOutputStream = fs.write(indexPath, true);
+      rowIndex.write(indexOutputStream, writtenLength);
+    } catch (IOException e) {
+      logger.warn("Failed to write the row index of result set {}", storePath, e);
+    } finally {
+      IOUtils.closeQuietly(indexOutputStream);
+    }
+  }
+
   @Override
   public void flush() {
     createNewFile();
     if (outputStream != null) {
       try {
-        if (!buffer.isEmpty()) {
-          outputStream.write(getBytes());
-          buffer.clear();
-        }
+        writeBuffer();
         if (outputStream instanceof HdfsDataOutputStream) {
           ((HdfsDataOutputStream) outputStream).hflush();
         } else {
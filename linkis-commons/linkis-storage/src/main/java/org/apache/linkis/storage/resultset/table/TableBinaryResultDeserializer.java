@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.resultset.table;
+
+import org.apache.linkis.common.io.resultset.ResultDeserializer;
+import org.apache.linkis.storage.domain.Column;
+import org.apache.linkis.storage.domain.DataType;
+import org.apache.linkis.storage.domain.Dolphin;
+import org.apache.linkis.storage.exception.StorageWarnException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.apache.linkis.storage.errorcode.LinkisStorageErrorCodeSummary.PARSING_METADATA_FAILED;
+import static org.apache.linkis.storage.resultset.table.TableBinaryResultSerializer.*;
+
+/**
+ * Deserializer of the binary table format, see {@link TableBinaryResultSerializer}. The bytes
+ * passed in are one line without its length, values are decoded in place without going through
+ * String, except the columns written in their string form.
+ */
+public class TableBinaryResultDeserializer extends ResultDeserializer<TableMetaData, TableRecord> {
+
+  private TableMetaData metaData;
+
+  private DataType[] dataTypes = new DataType[0];
+
+  @Override
+  public TableMetaData createMetaData(byte[] bytes) {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    try {
+      int colCount = Dolphin.readVarInt(buffer);
+      Column[] columns = new Column[colCount];
+      dataTypes = new DataType[colCount];
+      for (int i = 0; i < colCount; i++) {
+        String colName = readString(buffer);
+        dataTypes[i] = DataType.toDataType(readString(buffer));
+        String colComment = readString(buffer);
+        columns[i] = new Column(colName, dataTypes[i], colComment);
+      }
+      metaData = new TableMetaData(columns);
+      return metaData;
+    } catch (RuntimeException e) {
+      throw new StorageWarnException(
+          PARSING_METADATA_FAILED.getErrorCode(), PARSING_METADATA_FAILED.getErrorDesc(), e);
+    }
+  }
+
+  @Override
+  public TableRecord createRecord(byte[] bytes) {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    int colCount = Dolphin.readVarInt(buffer);
+    int tagIndex = buffer.position();
+    buffer.position(tagIndex + colCount);
+    Object[] data = new Object[colCount];
+    for (int i = 0; i < colCount; i++) {
+      data[i] = readValue(i, bytes[tagIndex + i], buffer);
+    }
+    return new TableRecord(data);
+  }
+
+  private Object readValue(int index, byte tag, ByteBuffer buffer) {
+    switch (tag) {
+      case TAG_NULL:
+        return index < dataTypes.length
+            ? DataType.toValue(dataTypes[index], Dolphin.NULL)
+            : Dolphin.NULL;
+      case TAG_STRING:
+        String value = readString(buffer);
+        return index < dataTypes.length ? DataType.toValue(dataTypes[index], value) : value;
+      case TAG_BOOLEAN:
+        return buffer.get() != 0;
+      case TAG_SHORT:
+        return (short) unZigZag(readVarLong(buffer));
+      case TAG_INT:
+        return (int) unZigZag(readVarLong(buffer));
+      case TAG_LONG:
+        return unZigZag(readVarLong(buffer));
+      case TAG_FLOAT:
+        return buffer.getFloat();
+      case TAG_DOUBLE:
+        return buffer.getDouble();
+      case TAG_DECIMAL:
+        int scale = (int) unZigZag(readVarLong(buffer));
+        return new BigDecimal(new BigInteger(readBytes(buffer)), scale);
+      case TAG_DATE:
+        return Date.valueOf(LocalDate.ofEpochDay(unZigZag(readVarLong(buffer))));
+      case TAG_TIMESTAMP:
+        long seconds = unZigZag(readVarLong(buffer));
+        int nanos = (int) readVarLong(buffer);
+        // Keep the same string form as the v1 format, see DataType.toValue
+        String timestamp =
+            Timestamp.valueOf(LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC))
+                .toString();
+        return timestamp.endsWith(".0")
+            ? timestamp.substring(0, timestamp.length() - 2)
+            : timestamp;
+      case TAG_BYTES:
+        return readBytes(buffer);
+      default:
+        throw new StorageWarnException(
+            PARSING_METADATA_FAILED.getErrorCode(),
+            "Unknown value tag " + tag + " of column " + index + " in the result set");
+    }
+  }
+
+  private static String readString(ByteBuffer buffer) {
+    int len = Dolphin.readVarInt(buffer);
+    String value =
+        new String(
+            buffer.array(), buffer.arrayOffset() + buffer.position(), len, StandardCharsets.UTF_8);
+    buffer.position(buffer.position() + len);
+    return value;
+  }
+
+  private static byte[] readBytes(ByteBuffer buffer) {
+    byte[] bytes = new byte[Dolphin.readVarInt(buffer)];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  private static long readVarLong(ByteBuffer buffer) {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = buffer.get();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) return value;
+    }
+    throw new StorageWarnException(
+        PARSING_METADATA_FAILED.getErrorCode(), "Malformed varint in the result set");
+  }
+
+  private static long unZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
@@ -0,0 +1,275 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.resultset.table;
+
+import org.apache.linkis.common.io.MetaData;
+import org.apache.linkis.common.io.Record;
+import org.apache.linkis.common.io.resultset.ResultSerializer;
+import org.apache.linkis.storage.domain.Column;
+import org.apache.linkis.storage.domain.DataType;
+import org.apache.linkis.storage.domain.Dolphin;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Serializer of the binary table format(Dolphin.FORMAT_VERSION_V2). A line is written as: line
+ * length (varint) column count (varint) one type tag per column, then the values of all columns.
+ * Strings and bytes are prefixed by a varint length, integral numbers use zigzag varints, floating
+ * numbers are fixed length, dates are epoch days and timestamps are epoch seconds plus nanos of the
+ * local date time. A value is only written typed when it matches the DataType of its column,
+ * otherwise its string form is written, so that the deserializer returns the same values as the v1
+ * format. All lines are encoded in one reusable buffer. 二进制表格式的序列化：行长(varint) 列数(varint) 每列的类型标记
+ * 以及所有列的值
+ */
+public class TableBinaryResultSerializer extends ResultSerializer {
+
+  static final byte TAG_NULL = 0;
+  static final byte TAG_STRING = 1;
+  static final byte TAG_BOOLEAN = 2;
+  static final byte TAG_SHORT = 3;
+  static final byte TAG_INT = 4;
+  static final byte TAG_LONG = 5;
+  static final byte TAG_FLOAT = 6;
+  static final byte TAG_DOUBLE = 7;
+  static final byte TAG_DECIMAL = 8;
+  static final byte TAG_DATE = 9;
+  static final byte TAG_TIMESTAMP = 10;
+  static final byte TAG_BYTES = 11;
+
+  /** Space reserved in front of a line for its varint length */
+  private static final int LINE_LEN_RESERVED = 5;
+
+  private static final int INIT_BUFFER_SIZE = 4096;
+
+  private ByteBuffer buffer = ByteBuffer.allocate(INIT_BUFFER_SIZE);
+
+  private DataType[] dataTypes = new DataType[0];
+
+  @Override
+  public byte[] metaDataToBytes(MetaData metaData) {
+    Column[] columns = ((TableMetaData) metaData).columns;
+    dataTypes = new DataType[columns.length];
+    beginLine();
+    ensureCapacity(LINE_LEN_RESERVED);
+    Dolphin.writeVarInt(buffer, columns.length);
+    for (int i = 0; i < columns.length; i++) {
+      dataTypes[i] = columns[i].getDataType();
+      writeString(columns[i].getColumnName());
+      writeString(columns[i].getDataType());
+      writeString(columns[i].getComment());
+    }
+    return endLine();
+  }
+
+  @Override
+  public byte[] recordToBytes(Record record) {
+    Object[] row = ((TableRecord) record).row;
+    beginLine();
+    ensureCapacity(LINE_LEN_RESERVED + row.length);
+    Dolphin.writeVarInt(buffer, row.length);
+    int tagIndex = buffer.position();
+    buffer.position(tagIndex + row.length);
+    for (int i = 0; i < row.length; i++) {
+      DataType dataType = i < dataTypes.length ? dataTypes[i] : DataType.StringType;
+      byte tag = writeValue(dataType, row[i]);
+      buffer.put(tagIndex + i, tag);
+    }
+    return endLine();
+  }
+
+  private byte writeValue(DataType dataType, Object value) {
+    if (value == null) {
+      return TAG_NULL;
+    }
+    switch (dataType) {
+      case BooleanType:
+        if (value instanceof Boolean) {
+          ensureCapacity(1);
+          buffer.put((byte) (((Boolean) value) ? 1 : 0));
+          return TAG_BOOLEAN;
+        }
+        break;
+      case ShortIntType:
+        if (value instanceof Short) {
+          writeVarLong(zigZag((Short) value));
+          return TAG_SHORT;
+        }
+        break;
+      case IntType:
+        if (value instanceof Integer) {
+          writeVarLong(zigZag((Integer) value));
+          return TAG_INT;
+        }
+        break;
+      case LongType:
+      case BigIntType:
+        if (value instanceof Long) {
+          writeVarLong(zigZag((Long) value));
+          return TAG_LONG;
+        }
+        break;
+      case FloatType:
+        if (value instanceof Float) {
+          ensureCapacity(Float.BYTES);
+          buffer.putFloat((Float) value);
+          return TAG_FLOAT;
+        }
+        break;
+      case DoubleType:
+        if (value instanceof Double) {
+          ensureCapacity(Double.BYTES);
+          buffer.putDouble((Double) value);
+          return TAG_DOUBLE;
+        }
+        break;
+      case DecimalType:
+      case BigDecimalType:
+        if (value instanceof BigDecimal) {
+          BigDecimal decimal = (BigDecimal) value;
+          writeVarLong(zigZag(decimal.scale()));
+          writeBytes(decimal.unscaledValue().toByteArray());
+          return TAG_DECIMAL;
+        }
+        break;
+      case DateType:
+        if (value instanceof Date) {
+          writeVarLong(zigZag(((Date) value).toLocalDate().toEpochDay()));
+          return TAG_DATE;
+        }
+        break;
+      case TimestampType:
+        if (value instanceof Timestamp) {
+          LocalDateTime dateTime = ((Timestamp) value).toLocalDateTime();
+          writeVarLong(zigZag(dateTime.toEpochSecond(ZoneOffset.UTC)));
+          writeVarLong(dateTime.getNano());
+          return TAG_TIMESTAMP;
+        }
+        break;
+      case BinaryType:
+        if (value instanceof byte[]) {
+          writeBytes((byte[]) value);
+          return TAG_BYTES;
+        }
+        break;
+      default:
+        break;
+    }
+    writeString(value);
+    return TAG_STRING;
+  }
+
+  private void beginLine() {
+    buffer.clear();
+    buffer.position(LINE_LEN_RESERVED);
+  }
+
+  /** Write the line length in front of the line and copy the line out of the buffer */
+  private byte[] endLine() {
+    int end = buffer.position();
+    int len = end - LINE_LEN_RESERVED;
+    int start = LINE_LEN_RESERVED - Dolphin.getVarIntLen(len);
+    buffer.position(start);
+    Dolphin.writeVarInt(buffer, len);
+    return Arrays.copyOfRange(buffer.array(), start, end);
+  }
+
+  private void ensureCapacity(int len) {
+    if (buffer.remaining() < len) {
+      int capacity = Math.max(buffer.capacity() << 1, buffer.position() + len);
+      ByteBuffer newBuffer = ByteBuffer.allocate(capacity);
+      buffer.flip();
+      newBuffer.put(buffer);
+      buffer = newBuffer;
+    }
+  }
+
+  private void writeBytes(byte[] bytes) {
+    ensureCapacity(LINE_LEN_RESERVED + bytes.length);
+    Dolphin.writeVarInt(buffer, bytes.length);
+    buffer.put(bytes);
+  }
+
+  private void writeVarLong(long value) {
+    ensureCapacity(10);
+    while ((value & ~0x7FL) != 0) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  private static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  /** Encode the string form of a value as utf-8 straight into the buffer */
+  private void writeString(Object value) {
+    String str = value == null ? Dolphin.NULL : value.toString();
+    int len = str.length();
+    int utf8Len = 0;
+    for (int i = 0; i < len; i++) {
+      char c = str.charAt(i);
+      if (c < 0x80) {
+        utf8Len++;
+      } else if (c < 0x800) {
+        utf8Len += 2;
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < len
+          && Character.isLowSurrogate(str.charAt(i + 1))) {
+        utf8Len += 4;
+        i++;
+      } else if (Character.isSurrogate(c)) {
+        utf8Len++;
+      } else {
+        utf8Len += 3;
+      }
+    }
+    ensureCapacity(LINE_LEN_RESERVED + utf8Len);
+    Dolphin.writeVarInt(buffer, utf8Len);
+    for (int i = 0; i < len; i++) {
+      char c = str.charAt(i);
+      if (c < 0x80) {
+        buffer.put((byte) c);
+      } else if (c < 0x800) {
+        buffer.put((byte) (0xC0 | (c >> 6)));
+        buffer.put((byte) (0x80 | (c & 0x3F)));
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < len
+          && Character.isLowSurrogate(str.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, str.charAt(++i));
+        buffer.put((byte) (0xF0 | (codePoint >> 18)));
+        buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+        buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+        buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+      } else if (Character.isSurrogate(c)) {
+        // Malformed surrogate, replaced in the same way as String.getBytes
+        buffer.put((byte) '?');
+      } else {
+        buffer.put((byte) (0xE0 | (c >> 12)));
+        buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+        buffer.put((byte) (0x80 | (c & 0x3F)));
+      }
+    }
+  }
+}
@@ -85,26 +85,18 @@ public class TableResultSerializer extends ResultSerializer {
    */
   public static byte[] toByteArray(
       int length, int colByteLen, List<byte[]> colIndex, List<byte[]> dataBytes) {
-    List<Byte> row = new ArrayList<>();
-    colIndex.addAll(dataBytes);
-
-    for (byte intByte : Dolphin.getIntBytes(length)) {
-      row.add(intByte);
-    }
-
-    for (byte colByte : Dolphin.getIntBytes(colByteLen)) {
-      row.add(colByte);
+    // length does not include its own Dolphin.INT_LEN bytes
+    byte[] result = new byte[length + Dolphin.INT_LEN];
+    System.arraycopy(Dolphin.getIntBytes(length), 0, result, 0, Dolphin.INT_LEN);
+    System.arraycopy(Dolphin.getIntBytes(colByteLen), 0, result, Dolphin.INT_LEN, Dolphin.INT_LEN);
+    int index = Dolphin.INT_LEN * 2;
+    for (byte[] bytes : colIndex) {
+      System.arraycopy(bytes, 0, result, index, bytes.length);
+      index += bytes.length;
     }
-
-    colIndex.forEach(
-        bytes -> {
-          for (byte b : bytes) {
-            row.add(b);
-          }
-        });
-    byte[] result = new byte[row.size()];
-    for (int i = 0; i < result.length; i++) {
-      result[i] = row.get(i);
+    for (byte[] bytes : dataBytes) {
+      System.arraycopy(bytes, 0, result, index, bytes.length);
+      index += bytes.length;
     }
     return result;
   }
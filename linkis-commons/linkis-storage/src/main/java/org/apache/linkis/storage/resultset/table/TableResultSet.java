@@ -19,6 +19,7 @@ package org.apache.linkis.storage.resultset.table;
 
 import org.apache.linkis.common.io.resultset.ResultDeserializer;
 import org.apache.linkis.common.io.resultset.ResultSerializer;
+import org.apache.linkis.storage.domain.Dolphin;
 import org.apache.linkis.storage.resultset.ResultSetFactory;
 import org.apache.linkis.storage.resultset.StorageResultSet;
 
@@ -41,4 +42,26 @@ public class TableResultSet extends StorageResultSet<TableMetaData, TableRecord>
   public ResultDeserializer<TableMetaData, TableRecord> createResultSetDeserializer() {
     return new TableResultDeserializer();
   }
+
+  @Override
+  public boolean supportFormatVersion(int formatVersion) {
+    return formatVersion == Dolphin.FORMAT_VERSION_V1 || formatVersion == Dolphin.FORMAT_VERSION_V2;
+  }
+
+  @Override
+  public ResultSerializer createResultSetSerializer(int formatVersion) {
+    if (formatVersion == Dolphin.FORMAT_VERSION_V2) {
+      return new TableBinaryResultSerializer();
+    }
+    return createResultSetSerializer();
+  }
+
+  @Override
+  public ResultDeserializer<TableMetaData, TableRecord> createResultSetDeserializer(
+      int formatVersion) {
+    if (formatVersion == Dolphin.FORMAT_VERSION_V2) {
+      return new TableBinaryResultDeserializer();
+    }
+    return createResultSetDeserializer();
+  }
 }
@@ -24,6 +24,8 @@ import org.apache.linkis.storage.conf.LinkisStorageConf;
 import org.apache.linkis.storage.exception.StorageWarnException;
 import org.apache.linkis.storage.resultset.ResultSetFactory;
 import org.apache.linkis.storage.resultset.ResultSetReaderFactory;
+import org.apache.linkis.storage.resultset.StorageResultSetIndex;
+import org.apache.linkis.storage.resultset.StorageResultSetReader;
 import org.apache.linkis.storage.script.ScriptFsReader;
 import org.apache.linkis.storage.utils.StorageConfiguration;
 
@@ -91,6 +93,7 @@ public interface FileSource extends Closeable {
     // Filter non-table result sets
     FileSplit[] fileSplits =
         Arrays.stream(fsPaths)
+            .filter(fsPath -> !StorageResultSetIndex.isIndexPath(fsPath.getPath()))
             .map(fsPath -> createResultSetFileSplit(fsPath, fs))
             .filter(FileSource::isTableResultSet)
             .toArray(FileSplit[]::new);
@@ -141,6 +144,9 @@ public interface FileSource extends Closeable {
     ResultSetReader resultsetReader = null;
     try {
       resultsetReader = ResultSetReaderFactory.getResultSetReader(resultset, fs.read(fsPath));
+      if (resultsetReader instanceof StorageResultSetReader) {
+        ((StorageResultSetReader<?, ?>) resultsetReader).setRowIndex(fs, fsPath);
+      }
     } catch (IOException e) {
       logger.warn("FileSource createResultSetFileSplit failed", e);
     }
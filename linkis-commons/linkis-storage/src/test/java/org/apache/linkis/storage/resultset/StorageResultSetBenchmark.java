@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.resultset;
+
+import org.apache.linkis.storage.domain.Column;
+import org.apache.linkis.storage.domain.DataType;
+import org.apache.linkis.storage.domain.Dolphin;
+import org.apache.linkis.storage.resultset.table.TableMetaData;
+import org.apache.linkis.storage.resultset.table.TableRecord;
+import org.apache.linkis.storage.resultset.table.TableResultDeserializer;
+import org.apache.linkis.storage.resultset.table.TableResultSerializer;
+import org.apache.linkis.storage.resultset.table.TableResultSet;
+import org.apache.linkis.storage.utils.StorageUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the result set writer and reader with the previous implementation, which cached lines in
+ * a List of Byte and grew the row buffer by 1k chunks. Every invocation writes or reads ROWS_PER_OP
+ * rows, run main() to get rows/sec and the allocation rate(gc.alloc.rate.norm).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageResultSetBenchmark {
+
+  private static final int ROWS_PER_OP = 10000;
+
+  @Param({"5", "100"})
+  public int columnCount;
+
+  private TableMetaData metaData;
+
+  private TableRecord record;
+
+  private byte[] resultSetBytes;
+
+  @Setup
+  public void setup() throws IOException {
+    Column[] columns = new Column[columnCount];
+    Object[] row = new Object[columnCount];
+    for (int i = 0; i < columnCount; i++) {
+      columns[i] = new Column("col_" + i, DataType.StringType, "");
+      row[i] = "value_of_column_" + i;
+    }
+    metaData = new TableMetaData(columns);
+    record = new TableRecord(row);
+    resultSetBytes = writeRows().toString().getBytes(Dolphin.CHAR_SET);
+  }
+
+  @Benchmark
+  public void write(Blackhole blackhole) throws IOException {
+    blackhole.consume(writeRows().toString());
+  }
+
+  @Benchmark
+  public void writeLegacy(Blackhole blackhole) {
+    TableResultSerializer serializer = new TableResultSerializer();
+    List<Byte> buffer = new ArrayList<>();
+    addBytes(buffer, new TableResultSet().getResultSetHeader());
+    addBytes(buffer, serializer.metaDataToBytes(metaData));
+    for (int i = 0; i < ROWS_PER_OP; i++) {
+      addBytes(buffer, serializer.recordToBytes(record));
+    }
+    byte[] bytes = new byte[buffer.size()];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = buffer.get(i);
+    }
+    blackhole.consume(new String(bytes, Dolphin.CHAR_SET));
+  }
+
+  @Benchmark
+  public void read(Blackhole blackhole) throws IOException {
+    StorageResultSetReader<TableMetaData, TableRecord> reader =
+        new StorageResultSetReader<>(
+            new TableResultSet(), new ByteArrayInputStream(resultSetBytes));
+    reader.getMetaData();
+    while (reader.hasNext()) {
+      blackhole.consume(reader.getRecord());
+    }
+  }
+
+  @Benchmark
+  public void readLegacy(Blackhole blackhole) throws IOException {
+    InputStream inputStream = new ByteArrayInputStream(resultSetBytes);
+    Dolphin.getType(inputStream);
+    TableResultDeserializer deserializer = new TableResultDeserializer();
+    deserializer.createMetaData(readLineLegacy(inputStream));
+    byte[] line;
+    while ((line = readLineLegacy(inputStream)) != null) {
+      blackhole.consume(deserializer.createRecord(line));
+    }
+  }
+
+  private StorageResultSetWriter<TableMetaData, TableRecord> writeRows() throws IOException {
+    StorageResultSetWriter<TableMetaData, TableRecord> writer =
+        new StorageResultSetWriter<>(new TableResultSet(), Long.MAX_VALUE, null);
+    writer.addMetaData(metaData);
+    for (int i = 0; i < ROWS_PER_OP; i++) {
+      writer.addRecord(record);
+    }
+    return writer;
+  }
+
+  private static void addBytes(List<Byte> buffer, byte[] bytes) {
+    for (byte b : bytes) {
+      buffer.add(b);
+    }
+  }
+
+  private static byte[] readLineLegacy(InputStream inputStream) {
+    int rowLen;
+    try {
+      rowLen = Dolphin.readInt(inputStream);
+    } catch (RuntimeException | IOException e) {
+      return null;
+    }
+    byte[] bytes = new byte[1024];
+    byte[] rowBuffer = new byte[0];
+    int len = 0;
+    while (rowLen > 0 && len >= 0) {
+      len = StorageUtils.readBytes(inputStream, bytes, Math.min(rowLen, bytes.length));
+      if (len > 0) {
+        rowLen -= len;
+        rowBuffer = Arrays.copyOf(rowBuffer, rowBuffer.length + len);
+        System.arraycopy(bytes, 0, rowBuffer, rowBuffer.length - len, len);
+      }
+    }
+    return rowBuffer;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options options =
+        new OptionsBuilder()
+            .include(StorageResultSetBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.resultset;
+
+import org.apache.linkis.common.io.Fs;
+import org.apache.linkis.common.io.FsPath;
+import org.apache.linkis.common.io.resultset.ResultSetReader;
+import org.apache.linkis.storage.FSFactory;
+import org.apache.linkis.storage.conf.LinkisStorageConf;
+import org.apache.linkis.storage.domain.Column;
+import org.apache.linkis.storage.domain.DataType;
+import org.apache.linkis.storage.domain.Dolphin;
+import org.apache.linkis.storage.resultset.table.TableMetaData;
+import org.apache.linkis.storage.resultset.table.TableRecord;
+import org.apache.linkis.storage.resultset.table.TableResultSet;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StorageResultSetIndexTest {
+
+  private static final int ROWS = LinkisStorageConf.RESULT_SET_INDEX_INTERVAL * 3 + 7;
+
+  @Test
+  void testSkipWithRowIndex(@TempDir File tempDir) throws IOException {
+    testSkip(Dolphin.FORMAT_VERSION_V1, tempDir);
+  }
+
+  @Test
+  void testSkipWithRowIndexOfBinaryFormat(@TempDir File tempDir) throws IOException {
+    testSkip(Dolphin.FORMAT_VERSION_V2, tempDir);
+  }
+
+  @Test
+  void testSkipWithStaleRowIndex(@TempDir File tempDir) throws IOException {
+    File file = new File(tempDir, "_0.dolphin");
+    FsPath storePath = new FsPath("file://" + file.getAbsolutePath());
+    writeResultSet(storePath, Dolphin.FORMAT_VERSION_V1, "name_");
+    File indexFile = new File(tempDir, "_0.dolphin" + StorageResultSetIndex.INDEX_FILE_SUFFIX);
+    byte[] staleIndex = Files.readAllBytes(indexFile.toPath());
+    // Rewritten with longer rows, the offsets of the index left behind point into the rows
+    writeResultSet(storePath, Dolphin.FORMAT_VERSION_V1, "longer_name_");
+    Files.write(indexFile.toPath(), staleIndex);
+
+    Fs fs = FSFactory.getFs(storePath);
+    fs.init(null);
+    Assertions.assertThrows(
+        IOException.class, () -> StorageResultSetIndex.lookup(fs, storePath, ROWS - 3));
+    fs.close();
+    // Skipped one by one
+    Assertions.assertEquals(ROWS - 3, readAfterSkip(storePath, ROWS - 3));
+  }
+
+  private static void writeResultSet(FsPath storePath, int formatVersion, String namePrefix)
+      throws IOException {
+    StorageResultSetWriter<TableMetaData, TableRecord> writer =
+        new StorageResultSetWriter<>(new TableResultSet(), 0, storePath);
+    writer.setFormatVersion(formatVersion);
+    writer.addMetaData(
+        new TableMetaData(
+            new Column[] {
+              new Column("id", DataType.IntType, ""), new Column("name", DataType.StringType, "")
+            }));
+    for (int i = 0; i < ROWS; i++) {
+      writer.addRecord(new TableRecord(new Object[] {i, namePrefix + i}));
+    }
+    writer.close();
+  }
+
+  private static void testSkip(int formatVersion, File tempDir) throws IOException {
+    File file = new File(tempDir, "_0.dolphin");
+    FsPath storePath = new FsPath("file://" + file.getAbsolutePath());
+    writeResultSet(storePath, formatVersion, "name_");
+    File indexFile = new File(tempDir, "_0.dolphin" + StorageResultSetIndex.INDEX_FILE_SUFFIX);
+    Assertions.assertTrue(indexFile.exists());
+    Fs fs = FSFactory.getFs(storePath);
+    fs.init(null);
+    long[] indexed = StorageResultSetIndex.lookup(fs, storePath, ROWS - 3);
+    fs.close();
+    Assertions.assertEquals(LinkisStorageConf.RESULT_SET_INDEX_INTERVAL * 3L, indexed[0]);
+
+    int[] targets = {0, 5, LinkisStorageConf.RESULT_SET_INDEX_INTERVAL, ROWS - 3};
+    for (int target : targets) {
+      Assertions.assertEquals(target, readAfterSkip(storePath, target));
+    }
+    ResultSetReader reader = ResultSetReaderFactory.getResultSetReader(storePath.getSchemaPath());
+    Assertions.assertEquals(ROWS, reader.skip(Integer.MAX_VALUE));
+    reader.close();
+
+    // A second skip continues from the current record
+    reader = ResultSetReaderFactory.getResultSetReader(storePath.getSchemaPath());
+    Assertions.assertEquals(10, reader.skip(10));
+    Assertions.assertEquals(ROWS - 20, reader.skip(ROWS - 20));
+    Assertions.assertTrue(reader.hasNext());
+    Assertions.assertEquals(ROWS - 10, ((TableRecord) reader.getRecord()).row[0]);
+    reader.close();
+
+    // Without the index the records are skipped one by one
+    Assertions.assertTrue(indexFile.delete());
+    Assertions.assertEquals(ROWS - 3, readAfterSkip(storePath, ROWS - 3));
+  }
+
+  private static Object readAfterSkip(FsPath storePath, int recordNum) throws IOException {
+    ResultSetReader reader = ResultSetReaderFactory.getResultSetReader(storePath.getSchemaPath());
+    try {
+      Assertions.assertEquals(recordNum, reader.skip(recordNum));
+      Assertions.assertTrue(reader.hasNext());
+      return ((TableRecord) reader.getRecord()).row[0];
+    } finally {
+      reader.close();
+    }
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.storage.resultset.table;
+
+import org.apache.linkis.common.io.FsPath;
+import org.apache.linkis.common.io.resultset.ResultSetReader;
+import org.apache.linkis.storage.domain.Column;
+import org.apache.linkis.storage.domain.DataType;
+import org.apache.linkis.storage.domain.Dolphin;
+import org.apache.linkis.storage.resultset.ResultSetFactory;
+import org.apache.linkis.storage.resultset.ResultSetReaderFactory;
+import org.apache.linkis.storage.resultset.StorageResultSetReader;
+import org.apache.linkis.storage.resultset.StorageResultSetWriter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.Date;
+import java.sql.Timestamp;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TableBinaryResultSerializerTest {
+
+  private static final TableMetaData META_DATA =
+      new TableMetaData(
+          new Column[] {
+            new Column("name", DataType.StringType, "名字"),
+            new Column("age", DataType.IntType, null),
+            new Column("score", DataType.DoubleType, ""),
+            new Column("amount", DataType.DecimalType, ""),
+            new Column("birthday", DataType.DateType, ""),
+            new Column("updated", DataType.TimestampType, ""),
+            new Column("total", DataType.BigIntType, ""),
+            new Column("valid", DataType.BooleanType, "")
+          });
+
+  private static final Object[][] ROWS =
+      new Object[][] {
+        {
+          "peace\t😀中文",
+          18,
+          1.5d,
+          new BigDecimal("-12345678901234567890.123"),
+          Date.valueOf("2022-02-03"),
+          Timestamp.valueOf("2022-02-03 10:11:12.345"),
+          Long.MIN_VALUE,
+          true
+        },
+        {null, null, null, null, null, null, null, null},
+        {"john", "20", "2.5", "1.10", "2020-01-01", "2020-01-01 00:00:00", "10", "false"}
+      };
+
+  @Test
+  void testSameValuesAsV1() {
+    TableResultSerializer v1Serializer = new TableResultSerializer();
+    TableResultDeserializer v1Deserializer = new TableResultDeserializer();
+    TableBinaryResultSerializer v2Serializer = new TableBinaryResultSerializer();
+    TableBinaryResultDeserializer v2Deserializer = new TableBinaryResultDeserializer();
+
+    v1Deserializer.createMetaData(stripV1Len(v1Serializer.metaDataToBytes(META_DATA)));
+    TableMetaData metaData =
+        v2Deserializer.createMetaData(stripV2Len(v2Serializer.metaDataToBytes(META_DATA)));
+    Assertions.assertEquals(META_DATA.columns.length, metaData.columns.length);
+    for (int i = 0; i < metaData.columns.length; i++) {
+      Assertions.assertEquals(
+          META_DATA.columns[i].getColumnName(), metaData.columns[i].getColumnName());
+      Assertions.assertEquals(
+          META_DATA.columns[i].getDataType(), metaData.columns[i].getDataType());
+    }
+
+    for (Object[] row : ROWS) {
+      TableRecord record = new TableRecord(row);
+      Object[] v1 = v1Deserializer.createRecord(stripV1Len(v1Serializer.recordToBytes(record))).row;
+      Object[] v2 = v2Deserializer.createRecord(stripV2Len(v2Serializer.recordToBytes(record))).row;
+      Assertions.assertArrayEquals(v1, v2);
+    }
+  }
+
+  @Test
+  void testWriteAndReadFile(@TempDir File tempDir) throws IOException {
+    TableResultSet resultSet =
+        (TableResultSet)
+            ResultSetFactory.getInstance().getResultSetByType(ResultSetFactory.TABLE_TYPE);
+    FsPath storePath = new FsPath("file://" + new File(tempDir, "_0.dolphin").getAbsolutePath());
+    StorageResultSetWriter<TableMetaData, TableRecord> writer =
+        new StorageResultSetWriter<>(resultSet, Long.MAX_VALUE, storePath);
+    writer.setFormatVersion(Dolphin.FORMAT_VERSION_V2);
+    writer.addMetaData(META_DATA);
+    for (Object[] row : ROWS) {
+      writer.addRecord(new TableRecord(row));
+    }
+    Assertions.assertEquals(storePath.getSchemaPath(), writer.toString());
+    writer.close();
+
+    ResultSetReader reader = ResultSetReaderFactory.getResultSetReader(storePath.getSchemaPath());
+    reader.getMetaData();
+    Assertions.assertEquals(
+        Dolphin.FORMAT_VERSION_V2, ((StorageResultSetReader<?, ?>) reader).getFormatVersion());
+    int count = 0;
+    while (reader.hasNext()) {
+      Object[] row = ((TableRecord) reader.getRecord()).row;
+      Assertions.assertEquals(ROWS[count].length, row.length);
+      count++;
+    }
+    reader.close();
+    Assertions.assertEquals(ROWS.length, count);
+  }
+
+  @Test
+  void testFormatVersionIgnoredWithoutStorePath() {
+    TableResultSet resultSet = new TableResultSet();
+    StorageResultSetWriter<TableMetaData, TableRecord> writer =
+        new StorageResultSetWriter<>(resultSet, Long.MAX_VALUE, null);
+    writer.setFormatVersion(Dolphin.FORMAT_VERSION_V2);
+    Assertions.assertEquals(Dolphin.FORMAT_VERSION_V1, writer.getFormatVersion());
+  }
+
+  @Test
+  void testRejectInvalidRowLength() throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    outputStream.write(new TableResultSet().getResultSetHeader());
+    outputStream.write(new TableResultSerializer().metaDataToBytes(META_DATA));
+    // A broken row length, which must be rejected rather than allocated
+    outputStream.write(Dolphin.getIntBytes(Integer.MAX_VALUE));
+    StorageResultSetReader<TableMetaData, TableRecord> reader =
+        new StorageResultSetReader<>(
+            new TableResultSet(), new ByteArrayInputStream(outputStream.toByteArray()));
+    reader.getMetaData();
+    Assertions.assertThrows(RuntimeException.class, reader::hasNext);
+    reader.close();
+  }
+
+  private static byte[] stripV1Len(byte[] line) {
+    byte[] bytes = new byte[line.length - Dolphin.INT_LEN];
+    System.arraycopy(line, Dolphin.INT_LEN, bytes, 0, bytes.length);
+    return bytes;
+  }
+
+  private static byte[] stripV2Len(byte[] line) {
+    ByteBuffer buffer = ByteBuffer.wrap(line);
+    int len = Dolphin.readVarInt(buffer);
+    Assertions.assertEquals(line.length - buffer.position(), len);
+    byte[] bytes = new byte[len];
+    buffer.get(bytes);
+    return bytes;
+  }
+}
@@ -98,6 +98,7 @@ public class LogRetriever {
     int nextLogIdx;
     boolean hasNext = true;
     int retryCnt = 0;
+    Long version = null;
     final int MAX_RETRY = 12; // continues fails for 90s, then exit thread
     try {
       while (hasNext) {
@@ -132,7 +133,11 @@ public class LogRetriever {
                   "Retrieving log, hasNext={0}, nextLogIdx={1}", hasNext, nextLogIdx);
           logger.info(msg);
         }
-        CliUtils.doSleepQuietly(CliConstants.JOB_QUERY_SLEEP_MILLS);
+        if (hasNext) {
+          version =
+              linkisJobOperator.waitJobChange(
+                  data.getUser(), data.getJobID(), data.getExecID(), version);
+        }
       }
     } catch (Exception e) {
       logger.error("Something goes wrong. Job Log may be incomplete", e);
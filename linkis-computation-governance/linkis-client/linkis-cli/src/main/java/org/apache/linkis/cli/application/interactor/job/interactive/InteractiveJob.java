@@ -204,6 +204,7 @@ public class InteractiveJob implements Job {
 
     LinkisOperResultAdapter jobInfoResult = oper.queryJobInfo(user, jobId);
     oper.queryJobStatus(user, jobId, jobInfoResult.getStrongerExecId());
+    Long version = null;
 
     while (!jobInfoResult.getJobStatus().isJobFinishedState()) {
       // query progress
@@ -235,7 +236,8 @@ public class InteractiveJob implements Job {
             CommonErrMsg.ExecutionErr,
             "Job is in abnormal status: " + CliUtils.GSON.toJson(jobInfoResult));
       }
-      CliUtils.doSleepQuietly(CliConstants.JOB_QUERY_SLEEP_MILLS);
+      // wait in entrance until the job is changed, or sleep if not supported
+      version = oper.waitJobChange(user, jobId, jobInfoResult.getStrongerExecId(), version);
     }
     return jobInfoResult;
   }
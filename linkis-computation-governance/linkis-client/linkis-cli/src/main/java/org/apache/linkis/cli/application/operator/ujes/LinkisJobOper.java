@@ -17,6 +17,7 @@
 
 package org.apache.linkis.cli.application.operator.ujes;
 
+import org.apache.linkis.cli.application.constants.CliConstants;
 import org.apache.linkis.cli.application.constants.LinkisKeys;
 import org.apache.linkis.cli.application.entity.operator.JobOper;
 import org.apache.linkis.cli.application.exception.LinkisClientExecutionException;
@@ -30,6 +31,7 @@ import org.apache.linkis.cli.application.utils.CliUtils;
 import org.apache.linkis.common.exception.LinkisException;
 import org.apache.linkis.ujes.client.UJESClient;
 import org.apache.linkis.ujes.client.request.JobSubmitAction;
+import org.apache.linkis.ujes.client.request.JobSubscribeAction;
 import org.apache.linkis.ujes.client.request.OpenLogAction;
 import org.apache.linkis.ujes.client.request.ResultSetAction;
 import org.apache.linkis.ujes.client.response.*;
@@ -47,6 +49,7 @@ public class LinkisJobOper implements JobOper {
   protected UJESClient client;
   private Logger logger = LoggerFactory.getLogger(LinkisJobOper.class);
   private String serverUrl;
+  private volatile boolean subscribeEnabled = true;
 
   public UJESClient getUJESClient() {
     return client;
@@ -756,4 +759,41 @@ public class LinkisJobOper implements JobOper {
     }
     return new UJESResultAdapter(result);
   }
+
+  /**
+   * Wait in linkis-entrance until the status, progress or log of the job is changed, instead of
+   * sleeping between two queries. Falls back to sleeping if the job is not running in entrance or
+   * the server does not support the subscription.
+   *
+   * @param version the version returned by the last call, null for the first call which returns at
+   *     once
+   * @return the version to wait next time, null if it is fallen back to sleeping
+   */
+  public Long waitJobChange(String user, String taskID, String execID, Long version) {
+    if (!subscribeEnabled || user == null || StringUtils.isBlank(execID)) {
+      CliUtils.doSleepQuietly(CliConstants.JOB_QUERY_SLEEP_MILLS);
+      return null;
+    }
+    try {
+      checkInit();
+      JobSubscribeAction action =
+          JobSubscribeAction.builder()
+              .setUser(user)
+              .setExecId(execID)
+              .setVersion(version)
+              .setTimeout(UJESConstants.JOB_SUBSCRIBE_WAIT_MILLS)
+              .build();
+      JobSubscribeResult result = client.subscribe(action);
+      logger.debug("job-subscribe: " + CliUtils.GSON.toJson(result));
+      if (result.getVersion() != null && !result.isCompleted()) {
+        return result.getVersion();
+      }
+    } catch (Exception e) {
+      // The job may be moved out of entrance or the server may be of an old version
+      logger.warn("Failed to subscribe job changes, fall back to polling. taskID=" + taskID, e);
+      subscribeEnabled = false;
+    }
+    CliUtils.doSleepQuietly(CliConstants.JOB_QUERY_SLEEP_MILLS);
+    return null;
+  }
 }
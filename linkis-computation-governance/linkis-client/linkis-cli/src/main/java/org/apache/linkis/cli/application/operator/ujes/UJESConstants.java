@@ -26,6 +26,7 @@ public class UJESConstants {
 
   public static final Long DRIVER_QUERY_SLEEP_MILLS = 500l;
   public static final Integer DRIVER_REQUEST_MAX_RETRY_TIME = 3;
+  public static final Long JOB_SUBSCRIBE_WAIT_MILLS = 10000l;
 
   public static final String QUERY_STATUS_NAME = "status";
   public static final String QUERY_START_DATE_MILLS_NAME = "startDateMills";
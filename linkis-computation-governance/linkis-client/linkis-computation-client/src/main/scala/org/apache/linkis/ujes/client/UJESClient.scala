@@ -65,6 +65,8 @@ abstract class UJESClient extends Closeable {
       .setUser(jobExecuteResult.getUser)
       .setFromLine(fromLine)
       .setSize(size)
+      // Start to read by cursor, a bare fromLine is taken as the row of the cursor
+      .setCursor(if (fromLine > 0) fromLine.toString else "")
       .build()
     executeUJESJob(jobLogAction).asInstanceOf[JobLogResult]
   }
@@ -79,10 +81,18 @@ abstract class UJESClient extends Closeable {
       .setExecId(jobExecuteResult.getExecID)
       .setUser(jobExecuteResult.getUser)
       .setFromLine(jobLogResult.getFromLine)
+      .setCursor(jobLogResult.getCursor)
       .build()
     executeUJESJob(jobLogAction).asInstanceOf[JobLogResult]
   }
 
+  /**
+   * Wait until the status, progress or log of the job is changed in entrance, the caller should
+   * fall back to polling if it fails, e.g. the job is already removed from entrance
+   */
+  def subscribe(jobSubscribeAction: JobSubscribeAction): JobSubscribeResult =
+    executeUJESJob(jobSubscribeAction).asInstanceOf[JobSubscribeResult]
+
   def openLog(openLogAction: OpenLogAction): OpenLogResult = {
     executeUJESJob(openLogAction).asInstanceOf[OpenLogResult]
   }
@@ -101,6 +111,17 @@ abstract class UJESClient extends Closeable {
   def resultSet(resultSetAction: ResultSetAction): ResultSetResult =
     executeUJESJob(resultSetAction).asInstanceOf[ResultSetResult]
 
+  /**
+   * Open a page of the table result set in binary stream, the returned result must be closed
+   */
+  def resultSetStream(resultSetStreamAction: ResultSetStreamAction): ResultSetStreamResult = {
+    executeUJESJob(resultSetStreamAction)
+    new ResultSetStreamResult(
+      resultSetStreamAction.getInputStream,
+      resultSetStreamAction.getResponse
+    )
+  }
+
   def getDBS(getDBSAction: GetDBSAction): GetDBSResult = {
     executeUJESJob(getDBSAction).asInstanceOf[GetDBSResult]
   }
@@ -37,6 +37,7 @@ object JobLogAction {
     private var execId: String = _
     private var fromLine: Int = _
     private var size: Int = _
+    private var cursor: String = _
 
     def setFromLine(fromLine: Int): Builder = {
       this.fromLine = fromLine
@@ -48,6 +49,15 @@ object JobLogAction {
       this
     }
 
+    /**
+     * Read the log by the cursor returned by the last read, the empty cursor means the first read.
+     * The read resumes from the byte offset of the cursor instead of the fromLine.
+     */
+    def setCursor(cursor: String): Builder = {
+      this.cursor = cursor
+      this
+    }
+
     def setSize(size: Int): Builder = {
       this.size = size
       this
@@ -71,6 +81,7 @@ object JobLogAction {
       jobLogAction.setUser(user)
       if (fromLine > 0) jobLogAction.setParameter("fromLine", fromLine)
       if (size > 0) jobLogAction.setParameter("size", size)
+      if (cursor != null) jobLogAction.setParameter("cursor", cursor)
       jobLogAction
     }
 
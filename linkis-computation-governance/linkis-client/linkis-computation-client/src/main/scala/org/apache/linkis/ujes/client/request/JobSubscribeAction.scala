@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.ujes.client.request
+
+import org.apache.linkis.httpclient.request.GetAction
+import org.apache.linkis.ujes.client.exception.UJESClientBuilderException
+import org.apache.linkis.ujes.client.response.JobSubscribeResult
+
+/**
+ * Wait in entrance until the status, progress or log of the job is changed after the version of the
+ * last subscription, instead of polling the status and log.
+ */
+class JobSubscribeAction private () extends GetAction with UJESJobAction {
+
+  private var execId: String = _
+
+  override def suffixURLs: Array[String] = Array("entrance", execId, "subscribe")
+
+}
+
+object JobSubscribeAction {
+  def builder(): Builder = new Builder
+
+  class Builder private[JobSubscribeAction] () {
+    private var user: String = _
+    private var execId: String = _
+    private var version: java.lang.Long = _
+    private var timeout: Long = _
+    private var cursor: String = _
+    private var size: Int = _
+
+    def setUser(user: String): Builder = {
+      this.user = user
+      this
+    }
+
+    def setExecId(execId: String): Builder = {
+      this.execId = execId
+      this
+    }
+
+    /**
+     * The version of the last subscription, the first subscription without version returns at once
+     */
+    def setVersion(version: java.lang.Long): Builder = {
+      this.version = version
+      this
+    }
+
+    def setVersion(jobSubscribeResult: JobSubscribeResult): Builder = {
+      this.version = jobSubscribeResult.getVersion
+      this.cursor = jobSubscribeResult.getCursor
+      this
+    }
+
+    /**
+     * The max milliseconds to wait in entrance, which should be less than the read timeout
+     */
+    def setTimeout(timeout: Long): Builder = {
+      this.timeout = timeout
+      this
+    }
+
+    /**
+     * The log cursor, the new log after it is returned if set, the empty cursor means the first
+     * read
+     */
+    def setCursor(cursor: String): Builder = {
+      this.cursor = cursor
+      this
+    }
+
+    def setSize(size: Int): Builder = {
+      this.size = size
+      this
+    }
+
+    def build(): JobSubscribeAction = {
+      val jobSubscribeAction = new JobSubscribeAction
+      if (execId == null) throw new UJESClientBuilderException("execId is needed!")
+      if (user == null) throw new UJESClientBuilderException("user is needed!")
+      jobSubscribeAction.execId = execId
+      jobSubscribeAction.setUser(user)
+      if (version != null) jobSubscribeAction.setParameter("version", version)
+      if (timeout > 0) jobSubscribeAction.setParameter("timeout", timeout)
+      if (cursor != null) jobSubscribeAction.setParameter("cursor", cursor)
+      if (size > 0) jobSubscribeAction.setParameter("size", size)
+      jobSubscribeAction
+    }
+
+  }
+
+}
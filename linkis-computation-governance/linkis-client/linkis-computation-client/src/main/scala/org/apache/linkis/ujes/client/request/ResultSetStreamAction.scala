@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.ujes.client.request
+
+import org.apache.linkis.httpclient.request.{DownloadAction, GetAction}
+import org.apache.linkis.ujes.client.exception.UJESClientBuilderException
+
+import org.apache.http.HttpResponse
+
+import java.io.InputStream
+
+/**
+ * Request a page of the table result set in the binary stream form, which is read by
+ * ResultSetStreamResult
+ */
+class ResultSetStreamAction private () extends GetAction with DownloadAction with UJESJobAction {
+
+  private var inputStream: InputStream = _
+
+  private var response: HttpResponse = _
+
+  override def suffixURLs: Array[String] = Array("filesystem", "openResultSetStream")
+
+  def getInputStream: InputStream = inputStream
+
+  override def write(inputStream: InputStream): Unit = this.inputStream = inputStream
+
+  override def getResponse: HttpResponse = response
+
+  override def setResponse(response: HttpResponse): Unit = this.response = response
+
+}
+
+object ResultSetStreamAction {
+  def builder(): Builder = new Builder
+
+  class Builder private[ResultSetStreamAction] () {
+    private var user: String = _
+    private var path: String = _
+    private var page: Int = _
+    private var pageSize: Int = _
+
+    def setUser(user: String): Builder = {
+      this.user = user
+      this
+    }
+
+    def setPath(path: String): Builder = {
+      this.path = path
+      this
+    }
+
+    def setPage(page: Int): Builder = {
+      this.page = page
+      this
+    }
+
+    def setPageSize(pageSize: Int): Builder = {
+      this.pageSize = pageSize
+      this
+    }
+
+    def build(): ResultSetStreamAction = {
+      if (user == null) throw new UJESClientBuilderException("user is needed!")
+      if (path == null) throw new UJESClientBuilderException("path is needed!")
+      val resultSetStreamAction = new ResultSetStreamAction
+      resultSetStreamAction.setParameter("path", path)
+      if (page > 0) resultSetStreamAction.setParameter("page", page)
+      if (pageSize > 0) resultSetStreamAction.setParameter("pageSize", pageSize)
+      resultSetStreamAction.setUser(user)
+      resultSetStreamAction
+    }
+
+  }
+
+}
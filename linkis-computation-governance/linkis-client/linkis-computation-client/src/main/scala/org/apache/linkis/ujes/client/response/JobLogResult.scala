@@ -28,5 +28,6 @@ class JobLogResult extends UJESJobResult {
 
   @BeanProperty var log: util.ArrayList[String] = _
   @BeanProperty var fromLine: Int = _
+  @BeanProperty var cursor: String = _
 
 }
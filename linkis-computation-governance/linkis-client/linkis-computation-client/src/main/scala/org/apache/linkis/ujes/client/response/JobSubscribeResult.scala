@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.ujes.client.response
+
+import org.apache.linkis.httpclient.dws.annotation.DWSHttpMessageResult
+
+import java.util
+
+import scala.beans.BeanProperty
+
+@DWSHttpMessageResult("/api/rest_j/v\\d+/entrance/(\\S+)/subscribe")
+class JobSubscribeResult extends UJESJobResult with Status {
+
+  @BeanProperty var version: java.lang.Long = _
+  @BeanProperty var progress: Float = _
+  @BeanProperty var progressInfo: util.List[util.Map[String, AnyRef]] = _
+
+  /**
+   * The logs of the levels the same as JobLogResult, only returned if the cursor is subscribed
+   */
+  @BeanProperty var log: util.ArrayList[String] = _
+  @BeanProperty var cursor: String = _
+
+  override def getJobStatus: String = getData.get("status").asInstanceOf[String]
+
+}
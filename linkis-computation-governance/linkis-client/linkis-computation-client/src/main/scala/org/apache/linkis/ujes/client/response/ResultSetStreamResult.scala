@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.ujes.client.response
+
+import org.apache.commons.io.IOUtils
+import org.apache.http.HttpResponse
+import org.apache.http.client.methods.CloseableHttpResponse
+
+import java.io.{BufferedInputStream, Closeable, DataInputStream, EOFException, InputStream}
+import java.math.{BigDecimal, BigInteger}
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets
+import java.sql.{Date, Timestamp}
+import java.time.{LocalDate, LocalDateTime, ZoneOffset}
+import java.util
+
+import ResultSetStreamResult._
+
+/**
+ * A page of table result set read from the binary stream of filesystem/openResultSetStream, the
+ * rows are decoded while iterated. (二进制流式结果集的一页，边读边解码)
+ *
+ * The lines are decoded in the same way as TableBinaryResultDeserializer of linkis-storage, which
+ * the client does not depend on: a line is its length (varint), the column count (varint), one type
+ * tag per column and the values. The values written typed are returned as java objects, the others
+ * are returned in their string form, the same as openFile.
+ *
+ * The page ends with a trailer, which is an empty line, the record count (varint) and a byte of
+ * whether there are more pages. A stream ended without the trailer or with another record count is
+ * truncated, which fails the read rather than ends the rows early.
+ */
+class ResultSetStreamResult(inputStream: InputStream, response: HttpResponse) extends Closeable {
+
+  private val in = new DataInputStream(new BufferedInputStream(inputStream, READ_BUFFER_SIZE))
+
+  private var nextRow: Array[Any] = _
+
+  private var closed = false
+
+  private var rowCount = 0
+
+  private var morePages = false
+
+  private val metadata: util.List[util.Map[String, String]] = readMetadata()
+
+  /**
+   * The columns of the result set, with the keys columnName, dataType and comment, the same as the
+   * metadata of openFile
+   */
+  def getMetadata: util.List[util.Map[String, String]] = metadata
+
+  def hasNext: Boolean = {
+    if (nextRow == null && !closed) {
+      val line = readLine()
+      if (line == null) {
+        close()
+        throw new EOFException("The result set stream is truncated, the trailer is not found")
+      } else if (line.length == 0) {
+        readTrailer()
+        close()
+      } else {
+        nextRow = readRecord(ByteBuffer.wrap(line))
+        rowCount += 1
+      }
+    }
+    nextRow != null
+  }
+
+  /**
+   * Whether there are more pages after this one, known after all the rows are read
+   */
+  def hasMorePages: Boolean = morePages
+
+  def next(): Array[Any] = {
+    if (!hasNext) throw new NoSuchElementException("no more rows in the result set stream")
+    val row = nextRow
+    nextRow = null
+    row
+  }
+
+  override def close(): Unit = if (!closed) {
+    closed = true
+    IOUtils.closeQuietly(in)
+    response match {
+      case r: CloseableHttpResponse => IOUtils.closeQuietly(r)
+      case _ =>
+    }
+  }
+
+  private def readMetadata(): util.List[util.Map[String, String]] = {
+    val line = readLine()
+    if (line == null) {
+      close()
+      throw new EOFException("The result set stream is empty, the metadata is not found")
+    }
+    val buffer = ByteBuffer.wrap(line)
+    val colCount = readVarLong(buffer).toInt
+    val columns = new util.ArrayList[util.Map[String, String]](colCount)
+    for (_ <- 0 until colCount) {
+      val column = new util.HashMap[String, String](4)
+      column.put("columnName", readString(buffer))
+      column.put("dataType", readString(buffer))
+      column.put("comment", readString(buffer))
+      columns.add(column)
+    }
+    columns
+  }
+
+  private def readTrailer(): Unit = {
+    val count = readVarInt()
+    val flag = in.read()
+    if (count < 0 || flag < 0) {
+      close()
+      throw new EOFException("The result set stream is truncated in the trailer")
+    }
+    if (count != rowCount) {
+      close()
+      throw new IllegalStateException(
+        s"The result set stream is truncated, $rowCount rows are read but $count are written"
+      )
+    }
+    morePages = flag == 1
+  }
+
+  /**
+   * @return
+   *   null at the end of the stream
+   */
+  private def readLine(): Array[Byte] = {
+    val len = readVarInt()
+    if (len < 0) return null
+    val line = new Array[Byte](len)
+    in.readFully(line)
+    line
+  }
+
+  /**
+   * @return
+   * -1 at the end of the stream
+   */
+  private def readVarInt(): Int = {
+    var value = 0
+    var shift = 0
+    var b = in.read()
+    if (b < 0) return -1
+    while ((b & 0x80) != 0) {
+      value |= (b & 0x7f) << shift
+      shift += 7
+      b = in.read()
+      if (b < 0) throw new EOFException("Unexpected end of the result set stream")
+    }
+    value | (b << shift)
+  }
+
+}
+
+object ResultSetStreamResult {
+
+  private val READ_BUFFER_SIZE = 64 * 1024
+
+  // Value tags, keep the same as TableBinaryResultSerializer
+  private val TAG_NULL = 0
+  private val TAG_STRING = 1
+  private val TAG_BOOLEAN = 2
+  private val TAG_SHORT = 3
+  private val TAG_INT = 4
+  private val TAG_LONG = 5
+  private val TAG_FLOAT = 6
+  private val TAG_DOUBLE = 7
+  private val TAG_DECIMAL = 8
+  private val TAG_DATE = 9
+  private val TAG_TIMESTAMP = 10
+  private val TAG_BYTES = 11
+
+  private[client] def readRecord(buffer: ByteBuffer): Array[Any] = {
+    val colCount = readVarLong(buffer).toInt
+    val tagIndex = buffer.position()
+    buffer.position(tagIndex + colCount)
+    val row = new Array[Any](colCount)
+    for (i <- 0 until colCount) {
+      row(i) = readValue(i, buffer.get(tagIndex + i), buffer)
+    }
+    row
+  }
+
+  private def readValue(index: Int, tag: Byte, buffer: ByteBuffer): Any = tag match {
+    case TAG_NULL => null
+    case TAG_STRING => readString(buffer)
+    case TAG_BOOLEAN => buffer.get() != 0
+    case TAG_SHORT => unZigZag(readVarLong(buffer)).toShort
+    case TAG_INT => unZigZag(readVarLong(buffer)).toInt
+    case TAG_LONG => unZigZag(readVarLong(buffer))
+    case TAG_FLOAT => buffer.getFloat
+    case TAG_DOUBLE => buffer.getDouble
+    case TAG_DECIMAL =>
+      val scale = unZigZag(readVarLong(buffer)).toInt
+      new BigDecimal(new BigInteger(readBytes(buffer)), scale)
+    case TAG_DATE => Date.valueOf(LocalDate.ofEpochDay(unZigZag(readVarLong(buffer))))
+    case TAG_TIMESTAMP =>
+      val seconds = unZigZag(readVarLong(buffer))
+      val nanos = readVarLong(buffer).toInt
+      val timestamp =
+        Timestamp.valueOf(LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC)).toString
+      if (timestamp.endsWith(".0")) timestamp.substring(0, timestamp.length - 2) else timestamp
+    case TAG_BYTES => readBytes(buffer)
+    case _ =>
+      throw new IllegalStateException(s"Unknown value tag $tag of column $index in the result set")
+  }
+
+  private def readString(buffer: ByteBuffer): String = {
+    val len = readVarLong(buffer).toInt
+    val value =
+      new String(
+        buffer.array(),
+        buffer.arrayOffset() + buffer.position(),
+        len,
+        StandardCharsets.UTF_8
+      )
+    buffer.position(buffer.position() + len)
+    value
+  }
+
+  private def readBytes(buffer: ByteBuffer): Array[Byte] = {
+    val bytes = new Array[Byte](readVarLong(buffer).toInt)
+    buffer.get(bytes)
+    bytes
+  }
+
+  private def readVarLong(buffer: ByteBuffer): Long = {
+    var value = 0L
+    var shift = 0
+    while (shift < 64) {
+      val b = buffer.get()
+      value |= (b & 0x7fL) << shift
+      if ((b & 0x80) == 0) return value
+      shift += 7
+    }
+    throw new IllegalStateException("Malformed varint in the result set")
+  }
+
+  private def unZigZag(value: Long): Long = (value >>> 1) ^ -(value & 1)
+
+}
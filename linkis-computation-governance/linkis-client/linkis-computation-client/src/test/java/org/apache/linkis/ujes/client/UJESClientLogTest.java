@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.ujes.client;
+
+import org.apache.linkis.httpclient.response.Result;
+import org.apache.linkis.ujes.client.request.JobLogAction;
+import org.apache.linkis.ujes.client.request.UJESJobAction;
+import org.apache.linkis.ujes.client.response.JobExecuteResult;
+import org.apache.linkis.ujes.client.response.JobLogResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class UJESClientLogTest {
+
+  /** Returns the cursor row_offset of the page read, as entrance does */
+  private static class LogPagesClient extends UJESClient {
+
+    private final List<Map<String, Object>> requests = new ArrayList<>();
+
+    @Override
+    public Result executeUJESJob(UJESJobAction ujesJobAction) {
+      Map<String, Object> parameters = ((JobLogAction) ujesJobAction).getParameters();
+      requests.add(parameters);
+      int page = requests.size();
+      JobLogResult result = new JobLogResult();
+      result.setFromLine(page * 10);
+      result.setCursor(page * 10 + "_" + page * 100);
+      return result;
+    }
+
+    @Override
+    public void close() {}
+  }
+
+  @Test
+  @DisplayName("logByCursorTest")
+  public void logByCursorTest() {
+    LogPagesClient client = new LogPagesClient();
+    JobExecuteResult jobExecuteResult = new JobExecuteResult();
+    jobExecuteResult.setExecID("exec_id");
+    jobExecuteResult.setUser("hadoop");
+
+    JobLogResult first = client.log(jobExecuteResult, 0, 10);
+    JobLogResult second = client.log(jobExecuteResult, first);
+    client.log(jobExecuteResult, second);
+
+    // The first read starts the cursor, the next ones follow the cursor returned
+    Assertions.assertEquals("", client.requests.get(0).get("cursor"));
+    Assertions.assertEquals("10_100", client.requests.get(1).get("cursor"));
+    Assertions.assertEquals("20_200", client.requests.get(2).get("cursor"));
+
+    client.log(jobExecuteResult, 5, 10);
+    Assertions.assertEquals("5", client.requests.get(3).get("cursor"));
+  }
+}
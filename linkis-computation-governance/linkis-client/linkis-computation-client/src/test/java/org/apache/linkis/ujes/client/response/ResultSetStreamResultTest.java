@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.ujes.client.response;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ResultSetStreamResultTest {
+
+  @Test
+  @DisplayName("readRowsTest")
+  public void readRowsTest() {
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    // metadata: id int, name string
+    writeLine(
+        stream,
+        concat(
+            new byte[] {2}, str("id"), str("int"), str(""), str("name"), str("string"), str("")));
+    // -3, "a"
+    writeLine(stream, concat(new byte[] {2, 4, 1, 5}, str("a")));
+    // null, 123.45
+    BigDecimal decimal = new BigDecimal("123.45");
+    byte[] unscaled = decimal.unscaledValue().toByteArray();
+    writeLine(stream, concat(new byte[] {2, 0, 8, 4, (byte) unscaled.length}, unscaled));
+    // trailer: 2 rows, more pages
+    stream.write(new byte[] {0, 2, 1}, 0, 3);
+
+    ResultSetStreamResult result =
+        new ResultSetStreamResult(new ByteArrayInputStream(stream.toByteArray()), null);
+    List<Map<String, String>> metadata = result.getMetadata();
+    Assertions.assertEquals(2, metadata.size());
+    Assertions.assertEquals("name", metadata.get(1).get("columnName"));
+    Assertions.assertEquals("int", metadata.get(0).get("dataType"));
+
+    Assertions.assertTrue(result.hasNext());
+    Object[] row = result.next();
+    Assertions.assertEquals(-3, row[0]);
+    Assertions.assertEquals("a", row[1]);
+    row = result.next();
+    Assertions.assertNull(row[0]);
+    Assertions.assertEquals(decimal, row[1]);
+    Assertions.assertFalse(result.hasNext());
+    Assertions.assertTrue(result.hasMorePages());
+    result.close();
+  }
+
+  @Test
+  @DisplayName("truncatedTest")
+  public void truncatedTest() {
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    writeLine(stream, concat(new byte[] {1}, str("id"), str("int"), str("")));
+    writeLine(stream, new byte[] {1, 4, 2});
+    // Ended on a row boundary without the trailer
+    ResultSetStreamResult truncated =
+        new ResultSetStreamResult(new ByteArrayInputStream(stream.toByteArray()), null);
+    Assertions.assertEquals(1, truncated.next()[0]);
+    Assertions.assertThrows(EOFException.class, truncated::hasNext);
+
+    // The trailer of another record count
+    stream.write(new byte[] {0, 2, 0}, 0, 3);
+    ResultSetStreamResult mismatched =
+        new ResultSetStreamResult(new ByteArrayInputStream(stream.toByteArray()), null);
+    mismatched.next();
+    Assertions.assertThrows(IllegalStateException.class, mismatched::hasNext);
+  }
+
+  private static byte[] str(String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    return concat(new byte[] {(byte) bytes.length}, bytes);
+  }
+
+  private static byte[] concat(byte[]... parts) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (byte[] part : parts) {
+      out.write(part, 0, part.length);
+    }
+    return out.toByteArray();
+  }
+
+  private static void writeLine(ByteArrayOutputStream stream, byte[] line) {
+    stream.write(line.length);
+    stream.write(line, 0, line.length);
+  }
+}
@@ -34,4 +34,6 @@ object JobRequestConstants {
 
   val JOB_DETAIL_LIST = "jobDetailList"
 
+  val JOB_RESP_LIST = "jobRespList"
+
 }
@@ -22,14 +22,33 @@ import org.apache.linkis.manager.label.entity.engine.{EngineTypeLabel, UserCreat
 import org.apache.linkis.protocol.{CacheableProtocol, RetryableProtocol}
 import org.apache.linkis.protocol.message.RequestProtocol
 
+import scala.collection.JavaConverters._
+
 trait ConfigProtocol
 
+object ConfigProtocol {
+
+  /** Group of the cached rpc replies of configuration */
+  val CACHE_GROUP = "configuration"
+
+  /** Labels have no hashCode consistent with equals, use their string values in the cache key */
+  def labelKey(label: Label[_]): Any =
+    if (label == null) null else (label.getLabelKey, label.getStringValue)
+
+}
+
+/** The configuration protocol cached by the rpc interceptor, invalidated by the configuration */
+trait CacheableConfigProtocol extends CacheableProtocol with ConfigProtocol {
+  override def cacheGroup: String = ConfigProtocol.CACHE_GROUP
+}
+
 case class RequestQueryGlobalConfig(username: String)
-    extends CacheableProtocol
+    extends CacheableConfigProtocol
     with RetryableProtocol
-    with ConfigProtocol
     with RequestProtocol {
 
+  override def cacheScope: String = username
+
   override def toString: String = {
     s"RequestQueryGlobalConfig_${username}"
   }
@@ -40,9 +59,18 @@ case class RequestQueryEngineConfig(
     userCreatorLabel: UserCreatorLabel,
     engineTypeLabel: EngineTypeLabel,
     filter: String = null
-) extends CacheableProtocol
-    with RetryableProtocol
-    with ConfigProtocol {
+) extends CacheableConfigProtocol
+    with RetryableProtocol {
+
+  override def cacheKey: Any = (
+    getClass,
+    ConfigProtocol.labelKey(userCreatorLabel),
+    ConfigProtocol.labelKey(engineTypeLabel),
+    filter
+  )
+
+  override def cacheScope: String =
+    if (userCreatorLabel == null) null else userCreatorLabel.getUser
 
   override def toString: String = {
     s"RequestQueryEngineConfig_${userCreatorLabel.getStringValue}_${engineTypeLabel.getStringValue}"
@@ -54,9 +82,18 @@ case class RequestQueryEngineConfigWithGlobalConfig(
     userCreatorLabel: UserCreatorLabel,
     engineTypeLabel: EngineTypeLabel,
     filter: String = null
-) extends CacheableProtocol
-    with RetryableProtocol
-    with ConfigProtocol {
+) extends CacheableConfigProtocol
+    with RetryableProtocol {
+
+  override def cacheKey: Any = (
+    getClass,
+    ConfigProtocol.labelKey(userCreatorLabel),
+    ConfigProtocol.labelKey(engineTypeLabel),
+    filter
+  )
+
+  override def cacheScope: String =
+    if (userCreatorLabel == null) null else userCreatorLabel.getUser
 
   override def toString: String = {
     s"RequestQueryEngineConfigWithGlobalConfig_${userCreatorLabel.getStringValue}_${engineTypeLabel.getStringValue}"
@@ -65,9 +102,10 @@ case class RequestQueryEngineConfigWithGlobalConfig(
 }
 
 case class RequestQueryEngineTypeDefault(engineTypeLabel: EngineTypeLabel)
-    extends CacheableProtocol
-    with RetryableProtocol
-    with ConfigProtocol {
+    extends CacheableConfigProtocol
+    with RetryableProtocol {
+
+  override def cacheKey: Any = (getClass, ConfigProtocol.labelKey(engineTypeLabel))
 
   override def toString: String = {
     s"RequestQueryEngineTypeDefault_${engineTypeLabel.getStringValue}"
@@ -76,6 +114,13 @@ case class RequestQueryEngineTypeDefault(engineTypeLabel: EngineTypeLabel)
 }
 
 case class RequestConfigByLabel(labels: java.util.List[Label[_]], isMerge: Boolean = true)
-    extends CacheableProtocol
-    with RetryableProtocol
-    with ConfigProtocol
+    extends CacheableConfigProtocol
+    with RetryableProtocol {
+
+  override def cacheKey: Any = (
+    getClass,
+    if (labels == null) null else labels.asScala.toList.map(ConfigProtocol.labelKey),
+    isMerge
+  )
+
+}
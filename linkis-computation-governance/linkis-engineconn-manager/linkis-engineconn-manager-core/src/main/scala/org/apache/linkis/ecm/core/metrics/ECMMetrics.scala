@@ -37,4 +37,16 @@ trait ECMMetrics {
 
   def increaseFailedEngineConn(engineConn: EngineConn): Unit
 
+  def getBmlResourceCacheHits: Long
+
+  def getBmlResourceCacheMisses: Long
+
+  def getBmlResourceCacheSize: Long
+
+  def increaseBmlResourceCacheHit(): Unit
+
+  def increaseBmlResourceCacheMiss(): Unit
+
+  def setBmlResourceCacheSize(size: Long): Unit
+
 }
@@ -30,9 +30,7 @@ import org.apache.commons.lang3.tuple.Triple;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.RandomAccessFile;
 import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.*;
 import java.util.regex.Matcher;
@@ -59,6 +57,20 @@ public class EngineConnLogOperator implements Operator {
           "^\\d{4}-\\d{2}-\\d{2}\\s+\\d{2}:\\d{2}:\\d{2}\\.\\d{3}");
   public static final CommonVars<Integer> MULTILINE_MAX =
       CommonVars.apply("linkis.engineconn.log.multiline.max", 500);
+  public static final CommonVars<Integer> LOG_INDEX_INTERVAL =
+      CommonVars.apply("linkis.engineconn.log.index.interval", 1000);
+  public static final CommonVars<Integer> LOG_INDEX_CACHE_SIZE =
+      CommonVars.apply("linkis.engineconn.log.index.cache.size", 200);
+
+  /** The line indexes of the log files read recently, shared by the operators */
+  private static final Map<String, LogLineIndex> LOG_LINE_INDEXES =
+      Collections.synchronizedMap(
+          new LinkedHashMap<String, LogLineIndex>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LogLineIndex> eldest) {
+              return size() > LOG_INDEX_CACHE_SIZE.getValue();
+            }
+          });
 
   @Override
   public String[] getNames() {
@@ -94,28 +106,37 @@ public class EngineConnLogOperator implements Operator {
     String[] onlyKeywordList =
         StringUtils.isNotEmpty(onlyKeywords) ? onlyKeywords.split(",") : new String[0];
 
-    RandomAccessFile randomReader = null;
     ReversedLinesFileReader reversedReader = null;
+    LogLineIndex.LineReader lineReader = null;
     try {
+      long lineNum = 0;
       if (enableTail) {
         logger.info("enable log operator from tail to read");
         reversedReader = new ReversedLinesFileReader(logPath, Charset.defaultCharset());
       } else {
-        randomReader = new RandomAccessFile(logPath, "r");
+        // Seek to the nearest indexed line, then skip the lines left before fromLine
+        LogLineIndex logLineIndex = getLogLineIndex(logPath);
+        logLineIndex.update();
+        lineReader = logLineIndex.open(fromLine - 1);
+        boolean hasNext = true;
+        while (hasNext && lineReader.getLineNum() < fromLine - 1) {
+          hasNext = lineReader.skipLine();
+        }
+        lineNum = lineReader.getLineNum();
       }
 
       ArrayList<String> logs = new ArrayList<>(pageSize);
-      int readLine = 0, skippedLine = 0, lineNum = 0;
+      int readLine = 0, skippedLine = 0;
       boolean rowIgnore = false;
       int ignoreLine = 0;
       Pattern linePattern = Pattern.compile(EngineConnLogOperator.MULTILINE_PATTERN.getValue());
 
       int maxMultiline = MULTILINE_MAX.getValue();
-      String line = randomAndReversedReadLine(randomReader, reversedReader);
+      String line = readLine(lineReader, reversedReader);
 
       while (readLine < pageSize && line != null) {
         lineNum += 1;
-        if (skippedLine < fromLine - 1) {
+        if (enableTail && skippedLine < fromLine - 1) {
           skippedLine += 1;
         } else {
           if (rowIgnore) {
@@ -140,7 +161,7 @@ public class EngineConnLogOperator implements Operator {
             readLine += 1;
           }
         }
-        line = randomAndReversedReadLine(randomReader, reversedReader);
+        line = readLine(lineReader, reversedReader);
       }
 
       if (enableTail) {
@@ -150,7 +171,7 @@ public class EngineConnLogOperator implements Operator {
       Map<String, Object> resultMap = new HashMap<>();
       resultMap.put("logPath", logPath.getPath());
       resultMap.put("logs", logs);
-      resultMap.put("endLine", lineNum);
+      resultMap.put("endLine", (int) lineNum);
       resultMap.put("rows", readLine);
       return resultMap;
     } catch (IOException e) {
@@ -158,25 +179,33 @@ public class EngineConnLogOperator implements Operator {
       throw new ECMErrorException(
           LOG_IS_NOT_EXISTS.getErrorCode(), LOG_IS_NOT_EXISTS.getErrorDesc());
     } finally {
-      IOUtils.closeQuietly(randomReader);
+      IOUtils.closeQuietly(lineReader);
       IOUtils.closeQuietly(reversedReader);
     }
   }
 
-  private String randomAndReversedReadLine(
-      RandomAccessFile randomReader, ReversedLinesFileReader reversedReader) throws IOException {
-    if (randomReader != null) {
-      String line = randomReader.readLine();
-      if (line != null) {
-        return new String(line.getBytes(StandardCharsets.ISO_8859_1), Charset.defaultCharset());
-      } else {
-        return null;
-      }
+  private String readLine(
+      LogLineIndex.LineReader lineReader, ReversedLinesFileReader reversedReader)
+      throws IOException {
+    if (lineReader != null) {
+      return lineReader.readLine(Charset.defaultCharset());
     } else {
       return reversedReader.readLine();
     }
   }
 
+  private LogLineIndex getLogLineIndex(File logPath) {
+    String key = logPath.getAbsolutePath();
+    synchronized (LOG_LINE_INDEXES) {
+      LogLineIndex logLineIndex = LOG_LINE_INDEXES.get(key);
+      if (logLineIndex == null) {
+        logLineIndex = new LogLineIndex(logPath, LOG_INDEX_INTERVAL.getValue());
+        LOG_LINE_INDEXES.put(key, logLineIndex);
+      }
+      return logLineIndex;
+    }
+  }
+
   protected File getLogPath(Map<String, Object> parameters) {
     String logType = getAs(parameters, "logType", EngineConnLogOperator.LOG_FILE_NAME.getValue());
 
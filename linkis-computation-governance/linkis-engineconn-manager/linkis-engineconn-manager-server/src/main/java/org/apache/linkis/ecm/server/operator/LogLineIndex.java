@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.ecm.server.operator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Sparse index of the line offsets of a log file: the byte offset of every interval lines is kept,
+ * so a page from any line is read by seeking to the nearest indexed line and skipping at most
+ * interval lines. The index is built incrementally, only the bytes appended since the last update
+ * are scanned; it is rebuilt if the file is truncated or replaced.（日志文件的稀疏行偏移索引，随日志增长增量构建）
+ *
+ * <p>A line ends with '\n', the trailing '\r' is removed, the last line may have no line separator.
+ */
+public class LogLineIndex {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final File file;
+
+  private final int interval;
+
+  /** offsets[i] is the byte offset of line i * interval (0-based) */
+  private long[] offsets = new long[16];
+
+  private int size;
+
+  /** The bytes scanned */
+  private long indexedLength;
+
+  /** The complete lines in the bytes scanned */
+  private long indexedLines;
+
+  private Object fileKey;
+
+  public LogLineIndex(File file, int interval) {
+    this.file = file;
+    this.interval = Math.max(1, interval);
+    reset(null);
+  }
+
+  /** Index the bytes appended since the last update */
+  public synchronized void update() throws IOException {
+    Object currentFileKey =
+        Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+    long length = file.length();
+    if (length < indexedLength || !Objects.equals(fileKey, currentFileKey)) {
+      reset(currentFileKey);
+    }
+    if (length == indexedLength) {
+      return;
+    }
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+      byte[] bytes = buffer.array();
+      long position = indexedLength;
+      while (position < length) {
+        buffer.clear();
+        int read = channel.read(buffer, position);
+        if (read <= 0) {
+          break;
+        }
+        for (int i = 0; i < read; i++) {
+          if (bytes[i] == '\n') {
+            indexedLines++;
+            if (indexedLines % interval == 0) {
+              add(position + i + 1);
+            }
+          }
+        }
+        position += read;
+      }
+      indexedLength = position;
+    }
+  }
+
+  /** The complete lines indexed */
+  public synchronized long getIndexedLines() {
+    return indexedLines;
+  }
+
+  /**
+   * Open a reader positioned at the nearest indexed line not after line
+   *
+   * @param line 0-based line number
+   */
+  public LineReader open(long line) throws IOException {
+    long position;
+    long lineNum;
+    synchronized (this) {
+      int i = (int) Math.min(Math.max(line, 0) / interval, size - 1);
+      position = offsets[i];
+      lineNum = (long) i * interval;
+    }
+    return new LineReader(
+        FileChannel.open(file.toPath(), StandardOpenOption.READ), position, lineNum);
+  }
+
+  private void add(long offset) {
+    if (size == offsets.length) {
+      offsets = Arrays.copyOf(offsets, size * 2);
+    }
+    offsets[size++] = offset;
+  }
+
+  private void reset(Object fileKey) {
+    this.fileKey = fileKey;
+    offsets = new long[16];
+    size = 1;
+    indexedLength = 0;
+    indexedLines = 0;
+  }
+
+  /** Buffered line reader of the log file from a byte offset */
+  public static class LineReader implements Closeable {
+
+    private final FileChannel channel;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    private final ByteArrayOutputStream lineBytes = new ByteArrayOutputStream(256);
+
+    private long position;
+
+    private long lineNum;
+
+    private int limit;
+
+    private int offset;
+
+    LineReader(FileChannel channel, long position, long lineNum) {
+      this.channel = channel;
+      this.position = position;
+      this.lineNum = lineNum;
+    }
+
+    /** 0-based number of the next line */
+    public long getLineNum() {
+      return lineNum;
+    }
+
+    /** Skip a line without decoding it, false if at the end of file */
+    public boolean skipLine() throws IOException {
+      boolean read = false;
+      while (fill()) {
+        read = true;
+        byte[] bytes = buffer.array();
+        for (int i = offset; i < limit; i++) {
+          if (bytes[i] == '\n') {
+            offset = i + 1;
+            lineNum++;
+            return true;
+          }
+        }
+        offset = limit;
+      }
+      if (read) {
+        lineNum++;
+      }
+      return read;
+    }
+
+    /** The next line decoded with charset, null if at the end of file */
+    public String readLine(Charset charset) throws IOException {
+      lineBytes.reset();
+      boolean read = false;
+      boolean ended = false;
+      while (!ended && fill()) {
+        read = true;
+        byte[] bytes = buffer.array();
+        int start = offset;
+        int end = limit;
+        for (int i = offset; i < limit; i++) {
+          if (bytes[i] == '\n') {
+            end = i;
+            ended = true;
+            break;
+          }
+        }
+        lineBytes.write(bytes, start, end - start);
+        offset = ended ? end + 1 : limit;
+      }
+      if (!read) {
+        return null;
+      }
+      lineNum++;
+      byte[] line = lineBytes.toByteArray();
+      int length = line.length;
+      if (length > 0 && line[length - 1] == '\r') {
+        length--;
+      }
+      return new String(line, 0, length, charset);
+    }
+
+    private boolean fill() throws IOException {
+      if (offset < limit) {
+        return true;
+      }
+      buffer.clear();
+      int read = channel.read(buffer, position);
+      if (read <= 0) {
+        limit = offset = 0;
+        return false;
+      }
+      position += read;
+      limit = read;
+      offset = 0;
+      return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+}
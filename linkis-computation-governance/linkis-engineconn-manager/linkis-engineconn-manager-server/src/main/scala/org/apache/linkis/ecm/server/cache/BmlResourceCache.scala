@@ -0,0 +1,416 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.ecm.server.cache
+
+import org.apache.linkis.common.utils.{Logging, Utils}
+import org.apache.linkis.ecm.core.metrics.ECMMetrics
+import org.apache.linkis.ecm.server.LinkisECMApplication
+import org.apache.linkis.ecm.server.conf.ECMConfiguration._
+
+import org.apache.commons.io.FileUtils
+
+import java.io.{File, IOException}
+import java.nio.file._
+import java.nio.file.attribute.{BasicFileAttributes, PosixFilePermissions}
+import java.util
+import java.util.UUID
+import java.util.concurrent.ConcurrentHashMap
+
+import scala.collection.JavaConverters._
+import scala.collection.mutable
+
+/**
+ * The local cache of bml resources shared by the engineconns of this ECM, so that a resource is
+ * downloaded once rather than once per engineconn. (ECM本地的bml物料缓存，同一物料只下载一次)
+ *
+ *   - An entry is the directory cacheDir/key, key is resourceId/version, which is immutable in bml.
+ *     The entries found in cacheDir are loaded at start.
+ *   - Concurrent loads of the same entry are single-flight: one thread downloads while the others
+ *     wait for it, the loads of different entries do not block each other.
+ *   - An entry is downloaded to a temporary directory and moved in place, so a broken download
+ *     never leaves a partial entry.
+ *   - The least recently used entries are evicted once the cache is larger than maxSize, except the
+ *     ones accessed within minIdleTime, which may be being materialized by the engineconns just
+ *     launched.
+ *   - The private entries (key resourceId/version_user) are hard linked or copied into the work
+ *     dirs by materialize, so they can be evicted at any time. They are only accessible by the ECM
+ *     user.
+ *   - The public entries and the udf jars are symbolic linked by the engineconns, which are
+ *     recorded as the owners of the entry by get. A public entry is only evicted after all its
+ *     owners are released, which is done when the engineconn stops. The public entries found at
+ *     start may be linked by the engineconns launched before, they are kept until they are got and
+ *     released again.
+ */
+class BmlResourceCache(cacheDir: File, maxSize: Long, minIdleTime: Long, metrics: ECMMetrics)
+    extends Logging {
+
+  private val entries = new ConcurrentHashMap[String, CacheEntry]
+
+  /** The loaded entries in the order of access, guarded by itself */
+  private val lruEntries = new util.LinkedHashMap[String, CacheEntry](64, 0.75f, true)
+
+  private var totalSize = 0L
+
+  /** The keys of the entries linked by each owner */
+  private val ownerEntries = new ConcurrentHashMap[String, util.Set[String]]
+
+  /** Warn only once while the cache stays over maxSize with nothing to evict */
+  private var evictBlocked = false
+
+  loadExistingEntries()
+
+  /**
+   * The directory of the entry, loaded by load if it is not cached
+   * @param key
+   *   relative path of the entry, such as resourceId/version
+   * @param load
+   *   download the resource to the directory given
+   */
+  def get(key: String)(load: File => Unit): File = get(key, null)(load)
+
+  /**
+   * The directory of the entry, loaded by load if it is not cached. A public entry is not evicted
+   * until the owner is released.
+   * @param key
+   *   relative path of the entry, such as resourceId/version
+   * @param owner
+   *   the engineconn linking to the entry, such as its ticket id, null if the entry is copied
+   * @param load
+   *   download the resource to the directory given
+   */
+  def get(key: String, owner: String)(load: File => Unit): File = {
+    var dir: File = null
+    while (null == dir) {
+      val entry = entries.computeIfAbsent(
+        key,
+        new java.util.function.Function[String, CacheEntry] {
+          override def apply(key: String): CacheEntry = new CacheEntry(key)
+        }
+      )
+      dir = entry.synchronized {
+        if (entry.evicted) {
+          // Evicted after got, retry with a new entry
+          null
+        } else {
+          if (entry.loaded && entry.dir.exists()) {
+            if (null != metrics) metrics.increaseBmlResourceCacheHit()
+            touch(entry)
+          } else {
+            if (null != metrics) metrics.increaseBmlResourceCacheMiss()
+            loadEntry(entry, load)
+          }
+          if (null != owner && !entry.isPrivate) addOwner(entry, owner)
+          entry.dir
+        }
+      }
+    }
+    evictIfNeeded()
+    dir
+  }
+
+  /**
+   * Release the public entries linked by the owner, called when the engineconn stops
+   */
+  def release(owner: String): Unit = {
+    val keys = ownerEntries.remove(owner)
+    if (null == keys) return
+    keys.asScala.foreach { key =>
+      val entry = entries.get(key)
+      if (null != entry) entry.synchronized {
+        entry.owners.remove(owner)
+      }
+    }
+    evictIfNeeded()
+  }
+
+  def size(): Long = lruEntries.synchronized(totalSize)
+
+  /** Called with the entry locked, so that it is not evicted meanwhile */
+  private def addOwner(entry: CacheEntry, owner: String): Unit = {
+    entry.owners.add(owner)
+    entry.restored = false
+    ownerEntries
+      .computeIfAbsent(
+        owner,
+        new java.util.function.Function[String, util.Set[String]] {
+          override def apply(owner: String): util.Set[String] =
+            ConcurrentHashMap.newKeySet[String]()
+        }
+      )
+      .add(entry.key)
+  }
+
+  def contains(key: String): Boolean = {
+    val entry = entries.get(key)
+    null != entry && entry.loaded && !entry.evicted
+  }
+
+  private def loadEntry(entry: CacheEntry, load: File => Unit): Unit = {
+    val startTime = System.currentTimeMillis()
+    val tmpDir =
+      new File(
+        entry.dir.getParentFile,
+        entry.dir.getName + BmlResourceCache.TMP_DIR_SUFFIX + UUID.randomUUID()
+      )
+    FileUtils.forceMkdir(tmpDir)
+    Utils.tryCatch {
+      if (entry.isPrivate) BmlResourceCache.restrictPermissions(tmpDir)
+      load(tmpDir)
+      if (entry.dir.exists()) FileUtils.deleteDirectory(entry.dir)
+      Files.move(tmpDir.toPath, entry.dir.toPath, StandardCopyOption.ATOMIC_MOVE)
+    } { t: Throwable =>
+      Utils.tryAndWarn(FileUtils.deleteDirectory(tmpDir))
+      throw t
+    }
+    entry.size = FileUtils.sizeOfDirectory(entry.dir)
+    entry.loaded = true
+    lruEntries.synchronized {
+      lruEntries.put(entry.key, entry)
+      entry.lastAccessTime = System.currentTimeMillis()
+      totalSize += entry.size
+      updateSizeMetric()
+    }
+    logger.info(s"Cached bml resource ${entry.key}(size: ${entry.size}) in ${System
+      .currentTimeMillis() - startTime}ms, cache size: ${size()}")
+  }
+
+  private def touch(entry: CacheEntry): Unit = lruEntries.synchronized {
+    // Moves the entry to the end of the access order
+    lruEntries.get(entry.key)
+    entry.lastAccessTime = System.currentTimeMillis()
+  }
+
+  private def evictIfNeeded(): Unit = {
+    val candidates = new mutable.ArrayBuffer[CacheEntry]
+    lruEntries.synchronized {
+      if (totalSize <= maxSize) {
+        evictBlocked = false
+        return
+      }
+      var toFree = totalSize - maxSize
+      val now = System.currentTimeMillis()
+      val iterator = lruEntries.values().iterator()
+      while (toFree > 0 && iterator.hasNext) {
+        val entry = iterator.next()
+        if (entry.evictable && now - entry.lastAccessTime >= minIdleTime) {
+          candidates += entry
+          toFree -= entry.size
+        }
+      }
+    }
+    val warn = lruEntries.synchronized {
+      val blocked = candidates.isEmpty && !evictBlocked
+      evictBlocked = candidates.isEmpty
+      blocked
+    }
+    if (warn) {
+      logger.warn(
+        s"Bml resource cache size ${size()} exceeds $maxSize, but no entry can be evicted until" +
+          " the engineconns linking to the public entries stop"
+      )
+    }
+    candidates.foreach(evict)
+  }
+
+  private def evict(entry: CacheEntry): Unit = entry.synchronized {
+    if (!entry.loaded || entry.evicted || !entry.evictable) return
+    // It may be accessed again since chosen
+    if (System.currentTimeMillis() - entry.lastAccessTime < minIdleTime) return
+    entry.evicted = true
+    entries.remove(entry.key, entry)
+    lruEntries.synchronized {
+      lruEntries.remove(entry.key)
+      totalSize -= entry.size
+      updateSizeMetric()
+    }
+    Utils.tryAndWarn(FileUtils.deleteDirectory(entry.dir))
+    logger.info(s"Evicted bml resource ${entry.key}(size: ${entry.size}) from cache")
+  }
+
+  private def updateSizeMetric(): Unit = if (null != metrics) {
+    metrics.setBmlResourceCacheSize(totalSize)
+  }
+
+  /**
+   * The entries are the directories of depth 2 (resourceId/version) under cacheDir, the temporary
+   * directories left by the broken downloads are deleted.
+   */
+  private def loadExistingEntries(): Unit = if (cacheDir.isDirectory) {
+    val startTime = System.currentTimeMillis()
+    listDirs(cacheDir).foreach { resourceDir =>
+      listDirs(resourceDir).foreach { dir =>
+        if (dir.getName.contains(BmlResourceCache.TMP_DIR_SUFFIX)) {
+          Utils.tryAndWarn(FileUtils.deleteDirectory(dir))
+        } else {
+          val entry = new CacheEntry(resourceDir.getName + File.separator + dir.getName)
+          entry.size = FileUtils.sizeOfDirectory(dir)
+          entry.lastAccessTime = dir.lastModified()
+          entry.loaded = true
+          entry.restored = !entry.isPrivate
+          entries.put(entry.key, entry)
+          lruEntries.synchronized {
+            lruEntries.put(entry.key, entry)
+            totalSize += entry.size
+          }
+        }
+      }
+    }
+    // The oldest first
+    lruEntries.synchronized {
+      val sorted = lruEntries.values().asScala.toArray.sortBy(_.lastAccessTime)
+      lruEntries.clear()
+      sorted.foreach(entry => lruEntries.put(entry.key, entry))
+      updateSizeMetric()
+    }
+    logger.info(
+      s"Loaded ${entries.size()} bml resources(size: ${size()}) from ${cacheDir.getPath} in ${System
+        .currentTimeMillis() - startTime}ms"
+    )
+  }
+
+  private def listDirs(dir: File): Array[File] = {
+    val dirs = dir.listFiles()
+    if (null == dirs) Array.empty else dirs.filter(_.isDirectory)
+  }
+
+  private class CacheEntry(val key: String) {
+
+    val dir: File = new File(cacheDir, key)
+
+    val isPrivate: Boolean = BmlResourceCache.isPrivateKey(key)
+
+    /** The owners linking to the public entry, changed with the entry locked */
+    val owners: util.Set[String] = ConcurrentHashMap.newKeySet[String]()
+
+    /** A public entry found at start, which may be linked by the engineconns launched before */
+    @volatile var restored = false
+
+    @volatile var loaded = false
+
+    @volatile var evicted = false
+
+    @volatile var lastAccessTime: Long = System.currentTimeMillis()
+
+    var size = 0L
+
+    def evictable: Boolean = isPrivate || (!restored && owners.isEmpty)
+
+  }
+
+}
+
+object BmlResourceCache extends Logging {
+
+  private val TMP_DIR_SUFFIX = ".tmp-"
+
+  private val PRIVATE_KEY_SEPARATOR = "_"
+
+  /**
+   * Key of the private resource, which is cached per user, who may have no access to another's
+   */
+  def privateKey(resourceId: String, version: String, user: String): String =
+    resourceId + File.separator + version + PRIVATE_KEY_SEPARATOR + user
+
+  private[cache] def isPrivateKey(key: String): Boolean =
+    new File(key).getName.contains(PRIVATE_KEY_SEPARATOR)
+
+  private[cache] def restrictPermissions(dir: File): Unit = Utils.tryAndWarn {
+    Files.setPosixFilePermissions(dir.toPath, PosixFilePermissions.fromString("rwx------"))
+  }
+
+  private val instances = new ConcurrentHashMap[String, BmlResourceCache]
+
+  /**
+   * Release the public entries linked by the owner in all the caches of this ECM
+   */
+  def releaseAll(owner: String): Unit = if (null != owner) {
+    instances.values().asScala.foreach(cache => Utils.tryAndWarn(cache.release(owner)))
+  }
+
+  /**
+   * The cache of cacheDir shared in this ECM
+   */
+  def getInstance(cacheDir: String): BmlResourceCache = instances.computeIfAbsent(
+    cacheDir,
+    new java.util.function.Function[String, BmlResourceCache] {
+
+      override def apply(cacheDir: String): BmlResourceCache = new BmlResourceCache(
+        new File(cacheDir),
+        ECM_BML_CACHE_MAX_SIZE,
+        ECM_BML_CACHE_EVICT_MIN_IDLE_TIME,
+        Option(LinkisECMApplication.getContext).map(_.getECMMetrics).orNull
+      )
+
+    }
+  )
+
+  /**
+   * Materialize the private entry into the work dir of an engineconn: the files are hard linked,
+   * the ones failed to (such as on another file system) are copied, so that they outlive the
+   * eviction of the entry and are accessible by the user of the engineconn.
+   * @return
+   *   the paths in the work dir
+   * @throws IOException
+   *   if the entry dir is not readable, so that the engineconn is not launched without the resource
+   */
+  def materialize(entryDir: File, workDir: String, hardLink: Boolean): Array[String] = {
+    val children = entryDir.listFiles()
+    if (null == children) {
+      throw new IOException(s"Failed to list the cached bml resource $entryDir")
+    }
+    children.map { child =>
+      val target = Paths.get(workDir, child.getName)
+      val linked = hardLink && Utils.tryCatch {
+        linkTree(child.toPath, target)
+        true
+      } { t: Throwable =>
+        logger.warn(s"Failed to hard link $child to $target, copy it instead", t)
+        FileUtils.deleteQuietly(target.toFile)
+        false
+      }
+      if (!linked) {
+        if (child.isDirectory) FileUtils.copyDirectory(child, target.toFile)
+        else FileUtils.copyFile(child, target.toFile)
+      }
+      target.toString
+    }
+  }
+
+  private def linkTree(source: Path, target: Path): Unit =
+    Files.walkFileTree(
+      source,
+      new SimpleFileVisitor[Path] {
+
+        override def preVisitDirectory(dir: Path, attrs: BasicFileAttributes): FileVisitResult = {
+          Files.createDirectories(target.resolve(source.relativize(dir).toString))
+          FileVisitResult.CONTINUE
+        }
+
+        override def visitFile(file: Path, attrs: BasicFileAttributes): FileVisitResult = {
+          val link = target.resolve(source.relativize(file).toString)
+          Files.deleteIfExists(link)
+          Files.createLink(link, file)
+          FileVisitResult.CONTINUE
+        }
+
+        override def visitFileFailed(file: Path, e: IOException): FileVisitResult = throw e
+
+      }
+    )
+
+}
@@ -97,6 +97,24 @@ object ECMConfiguration {
     s"$ENGINECONN_ROOT_DIR${File.separator}engineConnPublickDir"
   ).getValue
 
+  // bml resource cache
+  val ECM_BML_CACHE_ENABLED: Boolean =
+    CommonVars[Boolean]("linkis.ecm.bml.cache.enabled", true).getValue
+
+  val ECM_BML_CACHE_MAX_SIZE: Long =
+    ByteTimeUtils.byteStringAsBytes(CommonVars("linkis.ecm.bml.cache.max.size", "20g").getValue)
+
+  /**
+   * The entries accessed within this time are never evicted, since the engineconns just launched
+   * may still be materializing them
+   */
+  val ECM_BML_CACHE_EVICT_MIN_IDLE_TIME: Long =
+    CommonVars("linkis.ecm.bml.cache.evict.min.idle.time", new TimeType("1h")).getValue.toLong
+
+  /** Hard link the cached private resources into the work dir, or else copy them */
+  val ECM_BML_CACHE_HARD_LINK_ENABLED: Boolean =
+    CommonVars[Boolean]("linkis.ecm.bml.cache.hard.link.enabled", true).getValue
+
   val ECM_LAUNCH_MAX_THREAD_SIZE: Int =
     CommonVars("wds.linkis.ecm.launch.max.thread.size", 100).getValue
 
@@ -20,6 +20,7 @@ package org.apache.linkis.ecm.server.hook
 import org.apache.linkis.common.io.FsPath
 import org.apache.linkis.common.utils.{Logging, Utils}
 import org.apache.linkis.ecm.core.engineconn.EngineConn
+import org.apache.linkis.ecm.server.cache.BmlResourceCache
 import org.apache.linkis.ecm.server.service.LocalDirsHandleService
 import org.apache.linkis.ecm.server.service.impl.DefaultLocalDirsHandleService
 import org.apache.linkis.ecm.server.util.ECMUtils
@@ -38,7 +39,6 @@ import org.apache.linkis.udf.UDFClient
 import org.apache.commons.lang3.StringUtils
 
 import java.io.File
-import java.nio.file.Paths
 
 import scala.collection.mutable
 
@@ -80,9 +80,6 @@ class JarUDFLoadECMHook extends ECMHook with Logging {
         udfInfos.foreach { udfInfo =>
           val resourceId = udfInfo.getBmlResourceId
           val version = udfInfo.getBmlResourceVersion
-          val bmlResourceDir =
-            StorageUtils.FILE_SCHEMA + Paths.get(pubDir, resourceId, version).toFile.getPath
-          val fsPath = new FsPath(bmlResourceDir)
           val bmlResource: BmlResource = new BmlResource
           bmlResource.setResourceId(resourceId)
           bmlResource.setVersion(version)
@@ -94,21 +91,20 @@ class JarUDFLoadECMHook extends ECMHook with Logging {
               break()
             }
             fileNameSet += bmlResource.getFileName
-            if (!fs.exists(fsPath)) resourceId.intern().synchronized {
-              if (!fs.exists(fsPath)) {
-                ECMUtils.downLoadBmlResourceToLocal(
-                  bmlResource,
-                  if (udfInfo.getCreateUser.equals("bdp")) "hadoop" else udfInfo.getCreateUser,
-                  fsPath.getPath
-                )(fs)
-                logger.info(s"Finished to download bml resource ${fsPath.getPath}")
-              }
+            val cacheKey = resourceId + File.separator + version
+            val entryDir = BmlResourceCache.getInstance(pubDir).get(cacheKey, ticketId) { dir =>
+              ECMUtils.downLoadBmlResourceToLocal(
+                bmlResource,
+                if (udfInfo.getCreateUser.equals("bdp")) "hadoop" else udfInfo.getCreateUser,
+                dir.getPath
+              )(fs)
+              logger.info(s"Finished to download bml resource $cacheKey")
             }
             conn.getEngineConnLaunchRunner.getEngineConnLaunch
               .getEngineConnManagerEnv()
               .linkDirs
               .put(
-                fsPath.getPath + File.separator + bmlResource.getFileName,
+                entryDir.getPath + File.separator + bmlResource.getFileName,
                 udfDir + File.separator + bmlResource.getFileName
               )
           }
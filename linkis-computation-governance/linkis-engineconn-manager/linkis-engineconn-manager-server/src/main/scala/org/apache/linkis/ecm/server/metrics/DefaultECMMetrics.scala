@@ -23,7 +23,7 @@ import org.apache.linkis.manager.common.entity.enumeration.NodeStatus
 import org.apache.linkis.manager.common.entity.enumeration.NodeStatus._
 
 import java.util.concurrent.ConcurrentHashMap
-import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.{AtomicInteger, AtomicLong}
 
 import scala.collection.JavaConverters._
 
@@ -37,6 +37,12 @@ class DefaultECMMetrics extends ECMMetrics {
 
   private val failedEngineConnCount = new AtomicInteger(0)
 
+  private val bmlResourceCacheHits = new AtomicLong(0)
+
+  private val bmlResourceCacheMisses = new AtomicLong(0)
+
+  private val bmlResourceCacheSize = new AtomicLong(0)
+
   private val startingEngineConnMap = new ConcurrentHashMap[String, EngineConn](64)
 
   private val runningEngineConnMap = new ConcurrentHashMap[String, EngineConn](64)
@@ -108,4 +114,16 @@ class DefaultECMMetrics extends ECMMetrics {
     decreaseEngineConnMetric(engineConn, failedEngineConnMap, failedEngineConnCount)
   }
 
+  override def getBmlResourceCacheHits: Long = bmlResourceCacheHits.get()
+
+  override def getBmlResourceCacheMisses: Long = bmlResourceCacheMisses.get()
+
+  override def getBmlResourceCacheSize: Long = bmlResourceCacheSize.get()
+
+  override def increaseBmlResourceCacheHit(): Unit = bmlResourceCacheHits.incrementAndGet()
+
+  override def increaseBmlResourceCacheMiss(): Unit = bmlResourceCacheMisses.incrementAndGet()
+
+  override def setBmlResourceCacheSize(size: Long): Unit = bmlResourceCacheSize.set(size)
+
 }
@@ -24,6 +24,7 @@ import org.apache.linkis.common.utils.{Logging, Utils, ZipUtils}
 import org.apache.linkis.ecm.core.engineconn.EngineConn
 import org.apache.linkis.ecm.core.launch.EngineConnManagerEnv
 import org.apache.linkis.ecm.errorcode.EngineconnServerErrorCodeSummary._
+import org.apache.linkis.ecm.server.cache.BmlResourceCache
 import org.apache.linkis.ecm.server.conf.ECMConfiguration._
 import org.apache.linkis.ecm.server.exception.ECMErrorException
 import org.apache.linkis.ecm.server.service.{LocalDirsHandleService, ResourceLocalizationService}
@@ -39,7 +40,6 @@ import org.apache.linkis.storage.utils.{FileSystemUtils, StorageUtils}
 import org.springframework.core.env.Environment
 
 import java.io.File
-import java.nio.file.Paths
 
 import scala.collection.JavaConverters._
 import scala.collection.mutable
@@ -140,44 +140,36 @@ class BmlResourceLocalizationService extends ResourceLocalizationService with Lo
     val user = request.user
     resource.getVisibility match {
       case BmlResource.BmlResourceVisibility.Public =>
-        val publicDir = localDirsHandleService.getEngineConnPublicDir
-        val bmlResourceDir = schema + Paths.get(publicDir, resourceId, version).toFile.getPath
-        val fsPath = new FsPath(bmlResourceDir)
-
-        /**
-         * Prevent concurrent use of resourceId as a lock object
-         */
-        if (!fs.exists(fsPath)) resourceId.intern().synchronized {
-          if (!fs.exists(fsPath)) {
-            ECMUtils.downLoadBmlResourceToLocal(resource, user, fsPath.getPath)
-            val unzipDir = fsPath.getSchemaPath + File.separator + resource.getFileName
-              .substring(0, resource.getFileName.lastIndexOf("."))
-            FileSystemUtils.mkdirs(fs, new FsPath(unzipDir), Utils.getJvmUser)
-            val path = bmlResourceDir + File.separator + resource.getFileName
-            Utils.tryCatch(ZipUtils.unzip(path, unzipDir)) { t: Throwable =>
-              logger.error("Failed to unzip path", t)
-              Utils.tryAndWarn(fs.delete(fsPath))
-            }
-            logger.info(s"Finished to download bml resource ${fsPath.getPath}")
-            fs.delete(new FsPath(bmlResourceDir + File.separator + resource.getFileName))
-          }
+        val cacheKey = resourceId + File.separator + version
+        // Kept in the cache until the engineconn stops, since it is symbolic linked
+        val entryDir = getBmlResourceCache.get(cacheKey, request.ticketId) { dir =>
+          ECMUtils.downLoadBmlResourceToLocal(resource, user, dir.getPath)
+          val unzipDir = schema + dir.getPath + File.separator + resource.getFileName
+            .substring(0, resource.getFileName.lastIndexOf("."))
+          FileSystemUtils.mkdirs(fs, new FsPath(unzipDir), Utils.getJvmUser)
+          val path = schema + dir.getPath + File.separator + resource.getFileName
+          ZipUtils.unzip(path, unzipDir)
+          fs.delete(new FsPath(path))
+          logger.info(s"Finished to download bml resource $cacheKey")
         }
         // 2.软连，并且添加到map
-        val dirAndFileList = fs.listPathWithError(fsPath)
-
-        var paths = dirAndFileList.getFsPaths.asScala
-
-        if (paths.exists(_.getPath.endsWith(".zip"))) {
-          logger.info(s"Start to wait fs path to init ${fsPath.getPath}")
-          resourceId.intern().synchronized {
-            logger.info(s"Finished to wait fs path to init ${fsPath.getPath} ")
-          }
-          paths = fs.listPathWithError(fsPath).getFsPaths.asScala
+        val paths = entryDir.listFiles()
+        if (null != paths) paths.foreach { path =>
+          linkDirs.put(path.getPath, workDir + seperator + path.getName)
         }
-        paths.foreach { path =>
-          val name = new File(path.getPath).getName
-          linkDirs.put(path.getPath, workDir + seperator + name)
+      case BmlResource.BmlResourceVisibility.Private if ECM_BML_CACHE_ENABLED =>
+        val cacheKey = BmlResourceCache.privateKey(resourceId, version, user)
+        val entryDir = getBmlResourceCache.get(cacheKey) { dir =>
+          logger.info(
+            s"Try to download private BmlResource(resourceId: $resourceId, version: $version, fileName: ${resource.getFileName}) to cache $cacheKey."
+          )
+          downloadPrivateBmlResource(resource, user, dir.getPath)
         }
+        val paths =
+          BmlResourceCache.materialize(entryDir, workDir, ECM_BML_CACHE_HARD_LINK_ENABLED)
+        logger.info(
+          s"Materialized private BmlResource(resourceId: $resourceId, version: $version) to ${paths.mkString(", ")}."
+        )
       case BmlResource.BmlResourceVisibility.Private =>
         logger.info(
           s"Try to download private BmlResource(resourceId: $resourceId, version: $version, fileName: ${resource.getFileName}) to path $workDir."
@@ -186,15 +178,9 @@ class BmlResourceLocalizationService extends ResourceLocalizationService with Lo
         if (!fs.exists(fsPath)) {
           FileSystemUtils.mkdirs(fs, fsPath, Utils.getJvmUser)
         }
-        ECMUtils.downLoadBmlResourceToLocal(resource, user, fsPath.getPath)
-        val filePath = schema + workDir + File.separator + resource.getFileName
-        if (resource.getFileName != null && resource.getFileName.endsWith(".zip")) {
-          logger.info(s"Try to unzip $filePath, since the private BMLResource is a zip file.")
-          ZipUtils.unzip(filePath, fsPath.getSchemaPath)
-          fs.delete(new FsPath(filePath))
-        }
+        downloadPrivateBmlResource(resource, user, fsPath.getPath)
         logger.info(
-          s"Finished to download private BmlResource(resourceId: $resourceId, version: $version, fileName: ${resource.getFileName}) to path $filePath."
+          s"Finished to download private BmlResource(resourceId: $resourceId, version: $version, fileName: ${resource.getFileName}) to path $workDir."
         )
       case BmlResource.BmlResourceVisibility.Label =>
         logger.error(
@@ -207,4 +193,20 @@ class BmlResourceLocalizationService extends ResourceLocalizationService with Lo
     }
   }
 
+  /**
+   * Download the private resource to dir, a zip file is unzipped in dir
+   */
+  private def downloadPrivateBmlResource(resource: BmlResource, user: String, dir: String): Unit = {
+    ECMUtils.downLoadBmlResourceToLocal(resource, user, dir)
+    val filePath = schema + dir + File.separator + resource.getFileName
+    if (resource.getFileName != null && resource.getFileName.endsWith(".zip")) {
+      logger.info(s"Try to unzip $filePath, since the private BMLResource is a zip file.")
+      ZipUtils.unzip(filePath, schema + dir)
+      fs.delete(new FsPath(filePath))
+    }
+  }
+
+  private def getBmlResourceCache: BmlResourceCache =
+    BmlResourceCache.getInstance(localDirsHandleService.getEngineConnPublicDir)
+
 }
@@ -20,6 +20,7 @@ package org.apache.linkis.ecm.server.service.impl
 import org.apache.linkis.DataWorkCloudApplication
 import org.apache.linkis.common.utils.Logging
 import org.apache.linkis.ecm.core.listener.{ECMEvent, ECMEventListener}
+import org.apache.linkis.ecm.server.cache.BmlResourceCache
 import org.apache.linkis.ecm.server.listener.EngineConnStopEvent
 import org.apache.linkis.ecm.server.service.EngineConnKillService
 import org.apache.linkis.manager.common.entity.enumeration.NodeStatus
@@ -30,6 +31,8 @@ class ECMListenerService extends ECMEventListener with Logging {
 
   override def onEvent(event: ECMEvent): Unit = event match {
     case EngineConnStopEvent(engineConn, engineStopRequest) =>
+      // The cached public resources linked by the engineconn can be evicted now
+      BmlResourceCache.releaseAll(engineConn.getTickedId)
       if (NodeStatus.Failed == engineConn.getStatus) {
         logger.info("deal stopEvent to kill ec {}", engineStopRequest)
         engineConnKillService.dealEngineConnStop(engineStopRequest)
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.ecm.server.operator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogLineIndexTest {
+
+  @TempDir Path tempDir;
+
+  @Test
+  @DisplayName("testOpen")
+  public void testOpen() throws IOException {
+    File log = tempDir.resolve("stdout").toFile();
+    append(log, lines(0, 10) + "partial");
+    LogLineIndex index = new LogLineIndex(log, 3);
+    index.update();
+    assertEquals(10, index.getIndexedLines());
+    try (LogLineIndex.LineReader reader = index.open(7)) {
+      assertEquals(6, reader.getLineNum());
+      assertTrue(reader.skipLine());
+      assertEquals("line 7", reader.readLine(StandardCharsets.UTF_8));
+      assertEquals("line 8", reader.readLine(StandardCharsets.UTF_8));
+      assertEquals("line 9", reader.readLine(StandardCharsets.UTF_8));
+      assertEquals("partial", reader.readLine(StandardCharsets.UTF_8));
+      assertNull(reader.readLine(StandardCharsets.UTF_8));
+      assertEquals(11, reader.getLineNum());
+    }
+
+    // Only the bytes appended are indexed
+    append(log, "\r\n" + lines(11, 20));
+    index.update();
+    assertEquals(20, index.getIndexedLines());
+    try (LogLineIndex.LineReader reader = index.open(10)) {
+      assertEquals(9, reader.getLineNum());
+      assertEquals("line 9", reader.readLine(StandardCharsets.UTF_8));
+      assertEquals("partial", reader.readLine(StandardCharsets.UTF_8));
+      assertEquals("line 11", reader.readLine(StandardCharsets.UTF_8));
+    }
+
+    // Truncated
+    Files.write(log.toPath(), lines(0, 2).getBytes(StandardCharsets.UTF_8));
+    index.update();
+    assertEquals(2, index.getIndexedLines());
+    try (LogLineIndex.LineReader reader = index.open(100)) {
+      assertEquals(0, reader.getLineNum());
+    }
+  }
+
+  @Test
+  @DisplayName("testApply")
+  public void testApply() throws IOException {
+    File log = tempDir.resolve("stdout").toFile();
+    append(log, lines(0, 3500));
+    EngineConnLogOperator operator =
+        new EngineConnLogOperator() {
+          @Override
+          protected File getLogPath(Map<String, Object> parameters) {
+            return log;
+          }
+        };
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("fromLine", 2500);
+    parameters.put("pageSize", 3);
+    Map<String, Object> result = operator.apply(parameters);
+    assertEquals(list("line 2499", "line 2500", "line 2501"), result.get("logs"));
+    assertEquals(2502, result.get("endLine"));
+
+    parameters.put("fromLine", 3499);
+    parameters.put("onlyKeywords", "9");
+    result = operator.apply(parameters);
+    assertEquals(list("line 3498", "line 3499"), result.get("logs"));
+    assertEquals(3500, result.get("endLine"));
+
+    parameters.put("fromLine", 4000);
+    result = operator.apply(parameters);
+    assertEquals(list(), result.get("logs"));
+    assertEquals(3500, result.get("endLine"));
+  }
+
+  private static String lines(int from, int to) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = from; i < to; i++) {
+      builder.append("line ").append(i).append('\n');
+    }
+    return builder.toString();
+  }
+
+  private static List<String> list(String... lines) {
+    List<String> list = new ArrayList<>();
+    for (String line : lines) {
+      list.add(line);
+    }
+    return list;
+  }
+
+  private static void append(File file, String content) throws IOException {
+    Files.write(
+        file.toPath(),
+        content.getBytes(StandardCharsets.UTF_8),
+        StandardOpenOption.CREATE,
+        StandardOpenOption.APPEND);
+  }
+}
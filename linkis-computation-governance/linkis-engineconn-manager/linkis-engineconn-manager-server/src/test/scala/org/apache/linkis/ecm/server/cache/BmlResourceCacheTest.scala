@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.ecm.server.cache
+
+import org.apache.linkis.ecm.server.metrics.DefaultECMMetrics
+
+import org.apache.commons.io.FileUtils
+
+import java.io.{File, IOException}
+import java.nio.charset.StandardCharsets
+import java.nio.file.{Files, Path}
+import java.nio.file.attribute.PosixFilePermissions
+import java.util.concurrent.{CountDownLatch, Executors, TimeUnit}
+import java.util.concurrent.atomic.AtomicInteger
+
+import org.junit.jupiter.api.{AfterEach, Assertions, BeforeEach, DisplayName, Test}
+import org.junit.jupiter.api.function.Executable
+
+class BmlResourceCacheTest {
+
+  private var tempDir: Path = _
+
+  @BeforeEach
+  def before(): Unit = tempDir = Files.createTempDirectory("bml-cache")
+
+  @AfterEach
+  def after(): Unit = FileUtils.deleteQuietly(tempDir.toFile)
+
+  @Test
+  @DisplayName("singleFlightTest")
+  def singleFlightTest(): Unit = {
+    val metrics = new DefaultECMMetrics
+    val cache = new BmlResourceCache(tempDir.toFile, 1024 * 1024, 0, metrics)
+    val loads = new AtomicInteger(0)
+    val start = new CountDownLatch(1)
+    val executor = Executors.newFixedThreadPool(8)
+    (1 to 8).foreach { _ =>
+      executor.submit(new Runnable {
+        override def run(): Unit = {
+          start.await()
+          cache.get("resource1/v000001") { dir =>
+            loads.incrementAndGet()
+            Thread.sleep(100)
+            write(dir, "a.py", 10)
+          }
+        }
+      })
+    }
+    start.countDown()
+    executor.shutdown()
+    Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS))
+    Assertions.assertEquals(1, loads.get())
+    Assertions.assertEquals(7, metrics.getBmlResourceCacheHits)
+    Assertions.assertEquals(1, metrics.getBmlResourceCacheMisses)
+    Assertions.assertEquals(10, metrics.getBmlResourceCacheSize)
+    Assertions.assertTrue(new File(tempDir.toFile, "resource1/v000001/a.py").exists())
+  }
+
+  @Test
+  @DisplayName("evictTest")
+  def evictTest(): Unit = {
+    val cache = new BmlResourceCache(tempDir.toFile, 25, 0, null)
+    val key1 = BmlResourceCache.privateKey("resource1", "v000001", "hadoop")
+    val key2 = BmlResourceCache.privateKey("resource2", "v000001", "hadoop")
+    val key3 = BmlResourceCache.privateKey("resource3", "v000001", "hadoop")
+    cache.get(key1)(write(_, "a", 10))
+    cache.get(key2)(write(_, "b", 10))
+    // resource1 is used recently, resource2 is the least recently used
+    cache.get(key1)(write(_, "a", 10))
+    cache.get(key3)(write(_, "c", 10))
+    Assertions.assertTrue(cache.contains(key1))
+    Assertions.assertFalse(cache.contains(key2))
+    Assertions.assertTrue(cache.contains(key3))
+    Assertions.assertFalse(new File(tempDir.toFile, key2).exists())
+    Assertions.assertEquals(20, cache.size())
+    Assertions.assertEquals(
+      "rwx------",
+      PosixFilePermissions.toString(Files.getPosixFilePermissions(tempDir.resolve(key1)))
+    )
+
+    // The entries accessed recently are kept
+    val recent = new BmlResourceCache(tempDir.toFile, 25, 60000, null)
+    Assertions.assertEquals(20, recent.size())
+    recent.get(BmlResourceCache.privateKey("resource4", "v000001", "hadoop"))(write(_, "d", 10))
+    Assertions.assertEquals(30, recent.size())
+  }
+
+  @Test
+  @DisplayName("publicEvictTest")
+  def publicEvictTest(): Unit = {
+    val cache = new BmlResourceCache(tempDir.toFile, 15, 0, null)
+    // The public entries are symbolic linked by the running engineconns
+    cache.get("resource1/v000001", "ec1")(write(_, "a", 10))
+    cache.get("resource2/v000001", "ec2")(write(_, "b", 10))
+    cache.get("resource2/v000001", "ec3")(write(_, "b", 10))
+    val privateKey = BmlResourceCache.privateKey("resource3", "v000001", "hadoop")
+    cache.get(privateKey)(write(_, "c", 10))
+    Assertions.assertTrue(cache.contains("resource1/v000001"))
+    Assertions.assertTrue(cache.contains("resource2/v000001"))
+    Assertions.assertFalse(cache.contains(privateKey))
+    Assertions.assertEquals(20, cache.size())
+
+    cache.release("ec1")
+    Assertions.assertFalse(cache.contains("resource1/v000001"))
+    Assertions.assertEquals(10, cache.size())
+    // Still linked by ec3
+    cache.get("resource4/v000001", "ec4")(write(_, "d", 10))
+    cache.release("ec2")
+    Assertions.assertTrue(cache.contains("resource2/v000001"))
+    cache.release("ec3")
+    Assertions.assertFalse(cache.contains("resource2/v000001"))
+    Assertions.assertEquals(10, cache.size())
+
+    // The public entries found at start are kept until got and released again
+    val restored = new BmlResourceCache(tempDir.toFile, 5, 0, null)
+    restored.get("resource5/v000001")(write(_, "e", 10))
+    Assertions.assertTrue(restored.contains("resource4/v000001"))
+    Assertions.assertFalse(restored.contains("resource5/v000001"))
+    restored.get("resource4/v000001", "ec5")(write(_, "d", 10))
+    restored.release("ec5")
+    Assertions.assertFalse(restored.contains("resource4/v000001"))
+    Assertions.assertEquals(0, restored.size())
+  }
+
+  @Test
+  @DisplayName("loadFailedTest")
+  def loadFailedTest(): Unit = {
+    val cache = new BmlResourceCache(tempDir.toFile, 1024, 0, null)
+    Assertions.assertThrows(
+      classOf[IllegalStateException],
+      new Executable {
+        override def execute(): Unit = cache.get("resource1/v000001") { dir =>
+          write(dir, "a", 10)
+          throw new IllegalStateException("download failed")
+        }
+      }
+    )
+    Assertions.assertFalse(cache.contains("resource1/v000001"))
+    Assertions.assertEquals(0, tempDir.resolve("resource1").toFile.list().length)
+    val dir = cache.get("resource1/v000001")(write(_, "a", 10))
+    Assertions.assertTrue(new File(dir, "a").exists())
+  }
+
+  @Test
+  @DisplayName("materializeTest")
+  def materializeTest(): Unit = {
+    val cache = new BmlResourceCache(tempDir.resolve("cache").toFile, 1024, 0, null)
+    val entryDir = cache.get("resource1/v000001") { dir =>
+      write(dir, "a.py", 10)
+      write(new File(dir, "lib"), "b.py", 10)
+    }
+    val workDir = tempDir.resolve("workDir").toFile
+    workDir.mkdirs()
+    val paths = BmlResourceCache.materialize(entryDir, workDir.getPath, true)
+    Assertions.assertEquals(2, paths.length)
+    val linked = new File(workDir, "lib/b.py")
+    Assertions.assertEquals(10, linked.length())
+    Assertions.assertEquals(
+      Files.getAttribute(new File(entryDir, "lib/b.py").toPath, "unix:ino"),
+      Files.getAttribute(linked.toPath, "unix:ino")
+    )
+
+    val copyDir = tempDir.resolve("copyDir").toFile
+    copyDir.mkdirs()
+    BmlResourceCache.materialize(entryDir, copyDir.getPath, false)
+    val copied = new File(copyDir, "lib/b.py")
+    Assertions.assertEquals(10, copied.length())
+    Assertions.assertNotEquals(
+      Files.getAttribute(new File(entryDir, "lib/b.py").toPath, "unix:ino"),
+      Files.getAttribute(copied.toPath, "unix:ino")
+    )
+
+    // The resource is never left out silently
+    FileUtils.deleteDirectory(entryDir)
+    Assertions.assertThrows(
+      classOf[IOException],
+      new Executable {
+        override def execute(): Unit =
+          BmlResourceCache.materialize(entryDir, copyDir.getPath, false)
+      }
+    )
+  }
+
+  private def write(dir: File, name: String, size: Int): Unit =
+    FileUtils.writeStringToFile(new File(dir, name), "x" * size, StandardCharsets.UTF_8)
+
+}
@@ -40,7 +40,12 @@ import org.apache.linkis.governance.common.exception.engineconn.EngineConnExecut
 import org.apache.linkis.protocol.engine.JobProgressInfo
 import org.apache.linkis.scheduler.executer.{AliasOutputExecuteResponse, OutputExecuteResponse}
 import org.apache.linkis.storage.{LineMetaData, LineRecord}
-import org.apache.linkis.storage.resultset.{ResultSetFactory, ResultSetWriterFactory}
+import org.apache.linkis.storage.conf.LinkisStorageConf
+import org.apache.linkis.storage.resultset.{
+  ResultSetFactory,
+  ResultSetWriterFactory,
+  StorageResultSetWriter
+}
 import org.apache.linkis.storage.resultset.table.TableResultSet
 
 import org.apache.commons.io.IOUtils
@@ -160,25 +165,32 @@ class EngineExecutionContext(executor: ComputationExecutor, executorUser: String
       case result: TableResultSet =>
         val contextIDStr = ContextServiceUtils.getContextIDStrByMap(getProperties)
         val nodeName = ContextServiceUtils.getNodeNameStrByMap(getProperties)
-        if (StringUtils.isNotBlank(contextIDStr) && StringUtils.isNotBlank(nodeName)) {
-          val csWriter = new CSTableResultSetWriter(
-            result,
-            ComputationExecutorConf.ENGINE_RESULT_SET_MAX_CACHE.getValue.toLong,
-            resultSetPath,
-            contextIDStr,
-            nodeName,
-            alias
-          )
-          csWriter.setProxyUser(executorUser)
-          csWriter
-        } else {
-          ResultSetWriterFactory.getResultSetWriter(
-            resultSet,
-            ComputationExecutorConf.ENGINE_RESULT_SET_MAX_CACHE.getValue.toLong,
-            resultSetPath,
-            executorUser
-          )
+        val tableWriter =
+          if (StringUtils.isNotBlank(contextIDStr) && StringUtils.isNotBlank(nodeName)) {
+            val csWriter = new CSTableResultSetWriter(
+              result,
+              ComputationExecutorConf.ENGINE_RESULT_SET_MAX_CACHE.getValue.toLong,
+              resultSetPath,
+              contextIDStr,
+              nodeName,
+              alias
+            )
+            csWriter.setProxyUser(executorUser)
+            csWriter
+          } else {
+            ResultSetWriterFactory.getResultSetWriter(
+              resultSet,
+              ComputationExecutorConf.ENGINE_RESULT_SET_MAX_CACHE.getValue.toLong,
+              resultSetPath,
+              executorUser
+            )
+          }
+        tableWriter match {
+          case storageWriter: StorageResultSetWriter[_, _] =>
+            storageWriter.setFormatVersion(getTableResultFormatVersion)
+          case _ =>
         }
+        tableWriter
       case _ =>
         ResultSetWriterFactory.getResultSetWriter(
           resultSet,
@@ -190,6 +202,20 @@ class EngineExecutionContext(executor: ComputationExecutor, executorUser: String
     // update by 20200402 end
   }
 
+  /**
+   * The table result set format version of this job, the job can choose it by the runtime param
+   * linkis.resultset.table.format.version
+   */
+  private def getTableResultFormatVersion: Int =
+    getProperties.get(LinkisStorageConf.TABLE_RESULT_FORMAT_VERSION_KEY) match {
+      case null => LinkisStorageConf.TABLE_RESULT_FORMAT_VERSION
+      case version =>
+        Utils.tryCatch(version.toString.trim.toInt) { t =>
+          logger.warn(s"Illegal result set format version $version, use the default one", t)
+          LinkisStorageConf.TABLE_RESULT_FORMAT_VERSION
+        }
+    }
+
   def appendStdout(log: String): Unit = if (executor.isInternalExecute) {
     logger.info(log)
   } else {
@@ -27,6 +27,17 @@ public interface LogCache {
    */
   void cacheLog(String log);
 
+  /**
+   * Store logs in the cache, the droppable logs may be sampled when the logs are produced faster
+   * than sent（可丢弃的日志在发送过慢时会被采样）
+   *
+   * @param log 日志信息
+   * @param droppable whether the log can be dropped under back-pressure（是否可丢弃）
+   */
+  default void cacheLog(String log, boolean droppable) {
+    cacheLog(log);
+  }
+
   /**
    * Get the log of the number of num（获取num数目的日志）
    *
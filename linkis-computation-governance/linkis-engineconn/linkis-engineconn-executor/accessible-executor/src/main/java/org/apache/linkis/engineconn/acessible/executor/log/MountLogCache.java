@@ -27,22 +27,45 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * The log cache of engineconn, bounded by both the number and the chars of the logs. When the logs
+ * are produced faster than sent to entrance, the droppable logs are sampled and the number of the
+ * dropped logs is reported with the next batch, instead of blocking the appender.
+ * （日志缓存同时限制条数和字符数，发送过慢时对可丢弃日志采样，并在下一批日志中提示丢弃的条数）
+ */
 public class MountLogCache implements LogCache {
 
   private static final Logger logger = LoggerFactory.getLogger(MountLogCache.class);
 
+  /** Sample the droppable logs when the cache is filled above this ratio */
+  private static final double SAMPLE_WATER_MARK = 0.8;
+
   class CircularQueue {
 
     private int max;
+    private long maxChars;
+    private int sampleRate;
     private String[] elements;
     private int front, rear, count;
+    private long chars;
+    private long dropped;
+    private long sampleCount;
 
     CircularQueue() {
       this((Integer) AccessibleExecutorConfiguration.ENGINECONN_LOG_CACHE_NUM().getValue());
     }
 
     CircularQueue(int max) {
+      this(
+          max,
+          (Integer) AccessibleExecutorConfiguration.ENGINECONN_LOG_CACHE_MAX_CHARS().getValue(),
+          (Integer) AccessibleExecutorConfiguration.ENGINECONN_LOG_SAMPLE_RATE().getValue());
+    }
+
+    CircularQueue(int max, long maxChars, int sampleRate) {
       this.max = max;
+      this.maxChars = maxChars;
+      this.sampleRate = Math.max(sampleRate, 1);
       this.elements = new String[max];
     }
 
@@ -51,28 +74,43 @@ public class MountLogCache implements LogCache {
     }
 
     public synchronized void enqueue(String value) {
-      if (count == max) {
+      enqueue(value, false);
+    }
+
+    public synchronized void enqueue(String value, boolean droppable) {
+      if (null == value) {
+        return;
+      }
+      if (count == max || (count > 0 && chars + value.length() > maxChars)) {
+        dropped++;
         logger.debug("Queue is full, log: {} needs to be dropped", value);
+      } else if (droppable && shouldSample() && sampleCount++ % sampleRate != 0) {
+        dropped++;
       } else {
         rear = (rear + 1) % max;
         elements[rear] = value;
         count++;
+        chars += value.length();
       }
     }
 
-    public String dequeue() {
+    public synchronized String dequeue() {
       if (count == 0) {
         logger.debug("Queue is empty, nothing to get");
         return null;
       } else {
         front = (front + 1) % max;
         count--;
-        return elements[front];
+        String value = elements[front];
+        elements[front] = null;
+        chars -= value.length();
+        return value;
       }
     }
 
-    public List<String> dequeue(int num) {
+    public synchronized List<String> dequeue(int num) {
       List<String> list = new ArrayList<>();
+      appendDropped(list);
       int index = 0;
       while (index < num) {
         String tempLog = dequeue();
@@ -88,28 +126,83 @@ public class MountLogCache implements LogCache {
 
     public synchronized List<String> getRemain() {
       List<String> list = new ArrayList<>();
+      appendDropped(list);
       while (!isEmpty()) {
         list.add(dequeue());
       }
       return list;
     }
 
+    /**
+     * Append the logs to the builder line by line, until the builder reaches maxChars. One log at
+     * least is appended even if it is longer than maxChars.
+     */
+    public synchronized int drainTo(StringBuilder builder, int maxChars) {
+      int drained = 0;
+      if (dropped > 0) {
+        builder.append(droppedMessage()).append('\n');
+        dropped = 0;
+        drained++;
+      }
+      while (count > 0) {
+        String next = elements[(front + 1) % max];
+        if (drained > 0 && builder.length() + next.length() + 1 > maxChars) {
+          break;
+        }
+        builder.append(dequeue()).append('\n');
+        drained++;
+      }
+      return drained;
+    }
+
     public int size() {
       return count;
     }
+
+    public long chars() {
+      return chars;
+    }
+
+    private boolean shouldSample() {
+      return sampling || count >= max * SAMPLE_WATER_MARK || chars >= maxChars * SAMPLE_WATER_MARK;
+    }
+
+    private void appendDropped(List<String> list) {
+      if (dropped > 0) {
+        list.add(droppedMessage());
+        dropped = 0;
+      }
+    }
+
+    private String droppedMessage() {
+      return "WARN: "
+          + dropped
+          + " lines of log were dropped since the logs are produced faster than sent to entrance.";
+    }
   }
 
   private CircularQueue logs;
 
+  private volatile boolean sampling = false;
+
   public MountLogCache(int loopMax) {
     this.logs = new CircularQueue(loopMax);
   }
 
+  public MountLogCache(int loopMax, long maxChars, int sampleRate) {
+    this.logs = new CircularQueue(loopMax, maxChars, sampleRate);
+  }
+
   @Override
   public void cacheLog(String log) {
     logs.enqueue(log);
   }
 
+  @Override
+  public void cacheLog(String log, boolean droppable) {
+    logs.enqueue(log, droppable);
+  }
+
   @Override
   public List<String> getLog(int num) {
     return logs.dequeue(num);
@@ -120,8 +213,30 @@ public class MountLogCache implements LogCache {
     return logs.getRemain();
   }
 
+  /**
+   * Move the logs into the builder as one batch, without copying them into a list（按批次取出日志）
+   *
+   * @return the number of the lines drained
+   */
+  public int drainTo(StringBuilder builder, int maxChars) {
+    return logs.drainTo(builder, maxChars);
+  }
+
   @Override
   public int size() {
     return logs.size();
   }
+
+  public long chars() {
+    return logs.chars();
+  }
+
+  public boolean isSampling() {
+    return sampling;
+  }
+
+  /** Sample the droppable logs, it is turned on when the logs are sent slowly（开启日志采样） */
+  public void setSampling(boolean sampling) {
+    this.sampling = sampling;
+  }
 }
@@ -91,10 +91,11 @@ public class SendAppender extends AbstractAppender {
         }
       }
       if (!flag) {
-        logCache.cacheLog(logStr);
+        logCache.cacheLog(logStr, true);
       }
     } else {
-      logCache.cacheLog(logStr);
+      // The logs of warn and error are never sampled
+      logCache.cacheLog(logStr, event.getLevel().intLevel() > Level.INFO.intLevel());
     }
   }
 
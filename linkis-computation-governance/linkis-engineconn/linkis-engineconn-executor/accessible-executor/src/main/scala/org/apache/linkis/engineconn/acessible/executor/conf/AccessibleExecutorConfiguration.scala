@@ -36,6 +36,17 @@ object AccessibleExecutorConfiguration {
 
   val ENGINECONN_LOG_SEND_SIZE = CommonVars[Int]("wds.linkis.engineconn.log.send.cache.size", 300)
 
+  val ENGINECONN_LOG_CACHE_MAX_CHARS =
+    CommonVars[Int]("linkis.engineconn.log.cache.max.chars", 8 * 1024 * 1024)
+
+  val ENGINECONN_LOG_SEND_BATCH_CHARS =
+    CommonVars[Int]("linkis.engineconn.log.send.batch.chars", 512 * 1024)
+
+  val ENGINECONN_LOG_SEND_SLOW_THRESHOLD =
+    CommonVars("linkis.engineconn.log.send.slow.threshold", new TimeType("3s"))
+
+  val ENGINECONN_LOG_SAMPLE_RATE = CommonVars[Int]("linkis.engineconn.log.sample.rate", 10)
+
   val ENGINECONN_MAX_FREE_TIME =
     CommonVars("wds.linkis.engineconn.max.free.time", new TimeType("30m"))
 
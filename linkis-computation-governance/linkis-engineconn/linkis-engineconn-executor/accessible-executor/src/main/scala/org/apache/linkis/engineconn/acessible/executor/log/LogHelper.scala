@@ -26,8 +26,12 @@ import org.apache.linkis.engineconn.core.EngineConnObject
 import java.util
 import java.util.concurrent.TimeUnit
 
-import scala.collection.JavaConverters._
-
+/**
+ * Ship the logs of engineconn to entrance in batches of at most ENGINECONN_LOG_SEND_BATCH_CHARS. A
+ * batch is sent when the regular interval is reached or enough logs are cached. When a batch is
+ * sent slower than ENGINECONN_LOG_SEND_SLOW_THRESHOLD, the cache samples the droppable logs until
+ * entrance catches up.
+ */
 object LogHelper extends Logging {
 
   val SEND_LOG_INTERVAL_MILLS = 10 * 1000
@@ -40,8 +44,16 @@ object LogHelper extends Logging {
 
   private val CACHE_SIZE = AccessibleExecutorConfiguration.ENGINECONN_LOG_SEND_SIZE.getValue
 
+  private val SEND_BATCH_CHARS =
+    AccessibleExecutorConfiguration.ENGINECONN_LOG_SEND_BATCH_CHARS.getValue
+
+  private val SEND_SLOW_THRESHOLD =
+    AccessibleExecutorConfiguration.ENGINECONN_LOG_SEND_SLOW_THRESHOLD.getValue.toLong
+
   private var lastUpdateTimeMills = System.currentTimeMillis()
 
+  private val sendBuffer = new java.lang.StringBuilder
+
   def setLogListener(logListener: LogListener): Unit = this.logListener = logListener
 
   def pushAllRemainLogs(): Unit = {
@@ -49,16 +61,7 @@ object LogHelper extends Logging {
     if (logListener == null) {
       logger.warn("logListener is null, can not push remain logs")
     } else {
-
-      var logs: util.List[String] = null
-      logCache.synchronized {
-        logs = logCache.getRemain
-      }
-      if (logs != null && logs.size > 0) {
-        val sb: StringBuilder = new StringBuilder
-        logs.asScala map (log => log + "\n") foreach sb.append
-        logListener.onLogUpdate(TaskLogUpdateEvent(null, sb.toString))
-      }
+      sendLogs(true)
     }
     logger.info("end to push all remain logs")
   }
@@ -73,6 +76,37 @@ object LogHelper extends Logging {
     }
   }
 
+  /**
+   * Drain the logs cached now batch by batch, the batches are dropped if the logs cannot be sent.
+   * The logs cached during the sending are left to the next round.
+   */
+  private def sendLogs(canSend: Boolean): Unit = sendBuffer.synchronized {
+    var batches = logCache.chars / SEND_BATCH_CHARS + 2
+    while (batches > 0 && logCache.drainTo(sendBuffer, SEND_BATCH_CHARS) > 0) {
+      batches -= 1
+      val logs = sendBuffer.toString
+      sendBuffer.setLength(0)
+      if (canSend) send(logs)
+    }
+    if (sendBuffer.capacity() > SEND_BATCH_CHARS * 2) sendBuffer.trimToSize()
+  }
+
+  private def send(logs: String): Unit = {
+    val startTime = System.currentTimeMillis()
+    logListener.onLogUpdate(TaskLogUpdateEvent(null, logs))
+    val slow = System.currentTimeMillis() - startTime > SEND_SLOW_THRESHOLD
+    if (slow != logCache.isSampling) {
+      if (slow) {
+        logger.warn(
+          s"Sent ${logs.length} chars of log in ${System.currentTimeMillis() - startTime}ms, start to sample the info logs"
+        )
+      } else {
+        logger.info("Logs are sent in time, stop sampling the info logs")
+      }
+      logCache.setSampling(slow)
+    }
+  }
+
   Utils.defaultScheduler.scheduleAtFixedRate(
     new Runnable {
 
@@ -99,18 +133,10 @@ object LogHelper extends Logging {
               }
             }
           }
-          if (reachRegularInterval || logCache.size > CACHE_SIZE) {
-
-            val logs = logCache.getRemain.asScala
-            if (logs.nonEmpty) {
-              val sb = new StringBuilder
-              for (log <- logs) {
-                sb.append(log).append("\n")
-              }
-              if (EngineConnObject.isReady) {
-                logListener.onLogUpdate(TaskLogUpdateEvent(null, sb.toString))
-              }
-            }
+          if (
+              reachRegularInterval || logCache.size > CACHE_SIZE || logCache.chars >= SEND_BATCH_CHARS
+          ) {
+            sendLogs(EngineConnObject.isReady)
           }
         }
       }
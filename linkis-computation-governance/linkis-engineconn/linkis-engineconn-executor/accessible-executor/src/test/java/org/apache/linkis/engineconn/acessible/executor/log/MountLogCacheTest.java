@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.engineconn.acessible.executor.log;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class MountLogCacheTest {
+
+  @Test
+  @DisplayName("drainToTest")
+  public void drainToTest() {
+    MountLogCache logCache = new MountLogCache(10, 1000, 1);
+    logCache.cacheLog("aaaa");
+    logCache.cacheLog("bbbb");
+    logCache.cacheLog("cccc");
+    Assertions.assertEquals(12, logCache.chars());
+
+    StringBuilder builder = new StringBuilder();
+    Assertions.assertEquals(2, logCache.drainTo(builder, 10));
+    Assertions.assertEquals("aaaa\nbbbb\n", builder.toString());
+    Assertions.assertEquals(1, logCache.size());
+    Assertions.assertEquals(4, logCache.chars());
+
+    // One log at least even if it is longer than the batch
+    logCache.cacheLog("dddddddddddd");
+    builder.setLength(0);
+    Assertions.assertEquals(1, logCache.drainTo(builder, 2));
+    Assertions.assertEquals("cccc\n", builder.toString());
+    Assertions.assertEquals(1, logCache.drainTo(new StringBuilder(), 2));
+    Assertions.assertEquals(0, logCache.size());
+    Assertions.assertEquals(0, logCache.chars());
+  }
+
+  @Test
+  @DisplayName("boundedTest")
+  public void boundedTest() {
+    MountLogCache logCache = new MountLogCache(3, 10, 1);
+    logCache.cacheLog("aaaa");
+    logCache.cacheLog("bbbb");
+    // Exceeds the chars
+    logCache.cacheLog("cccc");
+    Assertions.assertEquals(2, logCache.size());
+
+    List<String> logs = logCache.getRemain();
+    Assertions.assertEquals(3, logs.size());
+    Assertions.assertTrue(logs.get(0).contains("1 lines of log were dropped"));
+    Assertions.assertEquals("aaaa", logs.get(1));
+    // The dropped number is reported only once
+    Assertions.assertEquals(0, logCache.getRemain().size());
+  }
+
+  @Test
+  @DisplayName("samplingTest")
+  public void samplingTest() {
+    MountLogCache logCache = new MountLogCache(100, 10000, 4);
+    logCache.setSampling(true);
+    for (int i = 0; i < 8; i++) {
+      logCache.cacheLog("info" + i, true);
+    }
+    logCache.cacheLog("error", false);
+    Assertions.assertEquals(3, logCache.size());
+
+    logCache.setSampling(false);
+    logCache.cacheLog("info", true);
+    List<String> logs = logCache.getRemain();
+    Assertions.assertTrue(logs.get(0).contains("6 lines of log were dropped"));
+    Assertions.assertEquals("info0", logs.get(1));
+    Assertions.assertEquals("info4", logs.get(2));
+    Assertions.assertEquals("error", logs.get(3));
+    Assertions.assertEquals("info", logs.get(4));
+  }
+}
@@ -36,6 +36,7 @@ import org.apache.linkis.entrance.log.LogManager;
 import org.apache.linkis.entrance.log.PersistenceErrorCodeListener;
 import org.apache.linkis.entrance.parser.CommonEntranceParser;
 import org.apache.linkis.entrance.persistence.EntranceResultSetEngine;
+import org.apache.linkis.entrance.persistence.JobStatusPersistenceQueue;
 import org.apache.linkis.entrance.persistence.PersistenceEngine;
 import org.apache.linkis.entrance.persistence.PersistenceManager;
 import org.apache.linkis.entrance.persistence.QueryPersistenceEngine;
@@ -107,6 +108,12 @@ public class EntranceSpringConfiguration {
     persistenceManager.setPersistenceEngine(persistenceEngine);
     persistenceManager.setResultSetEngine(resultSetEngine);
     persistenceManager.setCliHeartbeatMonitor(cliHeartbeatMonitor);
+    if (EntranceConfiguration.JOB_STATUS_ASYNC_PERSIST_ENABLED().getValue()) {
+      JobStatusPersistenceQueue jobStatusPersistenceQueue =
+          new JobStatusPersistenceQueue(persistenceEngine);
+      jobStatusPersistenceQueue.start();
+      persistenceManager.setJobStatusPersistenceQueue(jobStatusPersistenceQueue);
+    }
     return persistenceManager;
   }
 
@@ -18,11 +18,35 @@
 package org.apache.linkis.entrance.persistence;
 
 import org.apache.linkis.common.exception.ErrorException;
+import org.apache.linkis.governance.common.entity.job.JobRequest;
 import org.apache.linkis.governance.common.entity.job.SubJobDetail;
 import org.apache.linkis.governance.common.entity.job.SubJobInfo;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 public abstract class AbstractPersistenceEngine implements PersistenceEngine {
 
+  private static final Logger logger = LoggerFactory.getLogger(AbstractPersistenceEngine.class);
+
+  /** Update the tasks one by one, for the engines without batch update */
+  @Override
+  public List<JobRequest> batchUpdateIfNeeded(List<JobRequest> jobReqs) {
+    List<JobRequest> failedJobReqs = new ArrayList<>();
+    for (JobRequest jobReq : jobReqs) {
+      try {
+        updateIfNeeded(jobReq);
+      } catch (Exception e) {
+        logger.warn("Failed to update job {}", jobReq.getId(), e);
+        failedJobReqs.add(jobReq);
+      }
+    }
+    return failedJobReqs;
+  }
+
   @Deprecated
   @Override
   public SubJobDetail retrieveJobDetailReq(Long jobDetailId) throws ErrorException {
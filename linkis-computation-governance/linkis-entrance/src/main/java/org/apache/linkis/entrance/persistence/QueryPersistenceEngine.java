@@ -30,6 +30,7 @@ import org.apache.linkis.governance.common.entity.job.JobRequest;
 import org.apache.linkis.governance.common.entity.task.RequestPersistTask;
 import org.apache.linkis.governance.common.entity.task.RequestReadAllTask;
 import org.apache.linkis.governance.common.entity.task.ResponsePersist;
+import org.apache.linkis.governance.common.protocol.job.JobReqBatchUpdate;
 import org.apache.linkis.governance.common.protocol.job.JobReqInsert;
 import org.apache.linkis.governance.common.protocol.job.JobReqUpdate;
 import org.apache.linkis.governance.common.protocol.job.JobRespProtocol;
@@ -140,6 +141,64 @@ public class QueryPersistenceEngine extends AbstractPersistenceEngine {
             jobReqUpdate, "job:" + jobReq.getReqId() + "status:" + jobReq.getStatus());
   }
 
+  /**
+   * Update the jobs by one JobReqBatchUpdate without retrying, the jobs failed by the error of
+   * jobhistory are returned to be retried later by the caller. The jobs rejected by jobhistory,
+   * such as the illegal status transitions, are not retried.
+   */
+  @Override
+  public List<JobRequest> batchUpdateIfNeeded(List<JobRequest> jobReqs) {
+    List<JobRequest> failedJobReqs = new ArrayList<>();
+    if (null == jobReqs || jobReqs.isEmpty()) {
+      return failedJobReqs;
+    }
+    ArrayList<JobRequest> jobReqsForUpdate = new ArrayList<>(jobReqs.size());
+    for (JobRequest jobReq : jobReqs) {
+      JobRequest jobReqForUpdate = new JobRequest();
+      BeanUtils.copyProperties(jobReq, jobReqForUpdate);
+      if (null != jobReq.getErrorDesc() && jobReq.getErrorDesc().length() > MAX_DESC_LEN) {
+        jobReqForUpdate.setErrorDesc(jobReq.getErrorDesc().substring(0, MAX_DESC_LEN));
+      }
+      if (null == jobReqForUpdate.getUpdatedTime()) {
+        jobReqForUpdate.setUpdatedTime(new Date());
+      }
+      jobReqsForUpdate.add(jobReqForUpdate);
+    }
+    Object response = sender.ask(new JobReqBatchUpdate(jobReqsForUpdate));
+    List<?> jobResps = null;
+    if (response instanceof JobRespProtocol && null != ((JobRespProtocol) response).getData()) {
+      Object object =
+          ((JobRespProtocol) response).getData().get(JobRequestConstants.JOB_RESP_LIST());
+      if (object instanceof List) {
+        jobResps = (List<?>) object;
+      }
+    }
+    if (null == jobResps || jobResps.size() != jobReqs.size()) {
+      // The jobhistory of older versions does not reply the result of each job
+      logger.debug("No result of the batch update of {} jobs", jobReqs.size());
+      return failedJobReqs;
+    }
+    for (int i = 0; i < jobReqs.size(); i++) {
+      JobRespProtocol jobResp = (JobRespProtocol) jobResps.get(i);
+      JobRequest jobReq = jobReqs.get(i);
+      if (jobResp.getStatus() == 1) {
+        logger.warn(
+            "Update job {} with status {} is rejected by jobhistory, reason: {}",
+            jobReq.getId(),
+            jobReq.getStatus(),
+            jobResp.getMsg());
+      } else if (jobResp.getStatus() != 0) {
+        logger.warn(
+            "Failed to update job {} with status {}, reason: {}",
+            jobReq.getId(),
+            jobReq.getStatus(),
+            jobResp.getMsg());
+        failedJobReqs.add(jobReq);
+      }
+    }
+    return failedJobReqs;
+  }
+
   @Override
   public void persist(JobRequest jobReq) throws ErrorException {
     if (null == jobReq) {
@@ -21,6 +21,7 @@ import org.apache.linkis.common.exception.ErrorException;
 import org.apache.linkis.entrance.EntranceContext;
 import org.apache.linkis.entrance.cli.heartbeat.CliHeartbeatMonitor;
 import org.apache.linkis.entrance.cs.CSEntranceHelper;
+import org.apache.linkis.entrance.event.JobChangeNotifier;
 import org.apache.linkis.entrance.execute.EntranceJob;
 import org.apache.linkis.entrance.log.FlexibleErrorCodeManager;
 import org.apache.linkis.governance.common.conf.GovernanceCommonConf;
@@ -44,6 +45,8 @@ public class QueryPersistenceManager extends PersistenceManager {
 
   private CliHeartbeatMonitor cliHeartbeatMonitor;
 
+  private JobStatusPersistenceQueue jobStatusPersistenceQueue;
+
   public CliHeartbeatMonitor getCliHeartbeatMonitor() {
     return cliHeartbeatMonitor;
   }
@@ -52,6 +55,15 @@ public class QueryPersistenceManager extends PersistenceManager {
     this.cliHeartbeatMonitor = cliHeartbeatMonitor;
   }
 
+  public JobStatusPersistenceQueue getJobStatusPersistenceQueue() {
+    return jobStatusPersistenceQueue;
+  }
+
+  /** The progress of the running jobs is persisted asynchronously if the queue is set */
+  public void setJobStatusPersistenceQueue(JobStatusPersistenceQueue jobStatusPersistenceQueue) {
+    this.jobStatusPersistenceQueue = jobStatusPersistenceQueue;
+  }
+
   public void setPersistenceEngine(PersistenceEngine persistenceEngine) {
     this.persistenceEngine = persistenceEngine;
   }
@@ -117,6 +129,7 @@ public class QueryPersistenceManager extends PersistenceManager {
     entranceJob.setUpdateMetrisFlag(true);
     entranceJob.getJobRequest().setProgress(String.valueOf(updatedProgress));
     updateJobStatus(job);
+    JobChangeNotifier.getNotifier().notifyChanged(job);
   }
 
   @Override
@@ -186,11 +199,24 @@ public class QueryPersistenceManager extends PersistenceManager {
       entranceContext.getOrCreateLogManager().onLogUpdate(job, e.getMessage());
       logger.error("update job status failed, reason:", e);
     }
+    if (null != jobStatusPersistenceQueue && null != jobRequest) {
+      if (!job.isCompleted()) {
+        jobStatusPersistenceQueue.update(jobRequest);
+        return;
+      }
+      // The final status, error code and result location are persisted before the job is
+      // reported completed, the pending progress of the job is out of date
+      jobStatusPersistenceQueue.remove(jobRequest.getId());
+    }
     try {
       createPersistenceEngine().updateIfNeeded(jobRequest);
     } catch (ErrorException e) {
       entranceContext.getOrCreateLogManager().onLogUpdate(job, e.getMessage());
       logger.error("update job status failed, reason: ", e);
+      if (null != jobStatusPersistenceQueue && null != jobRequest) {
+        // Retried by the queue until persisted
+        jobStatusPersistenceQueue.update(jobRequest);
+      }
     }
   }
 
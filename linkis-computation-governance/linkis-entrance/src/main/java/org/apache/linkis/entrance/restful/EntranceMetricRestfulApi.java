@@ -113,6 +113,37 @@ public class EntranceMetricRestfulApi {
         .data("queuedNumber", queuedNumber);
   }
 
+  @ApiOperation(
+      value = "consumerinfo",
+      notes = "get queue wait time and slot utilisation of the consumers",
+      response = Message.class)
+  @ApiImplicitParams({
+    @ApiImplicitParam(name = "user", dataType = "String", value = "User"),
+    @ApiImplicitParam(name = "creator", dataType = "String", value = "Creator")
+  })
+  @RequestMapping(path = "/consumerinfo", method = RequestMethod.GET)
+  public Message consumerinfo(
+      HttpServletRequest req,
+      @RequestParam(value = "user", required = false) String user,
+      @RequestParam(value = "creator", required = false) String creator) {
+    String userName = ModuleUserUtils.getOperationUser(req, "consumerinfo");
+    String queryUser = user;
+    if (Configuration.isNotAdmin(userName)) {
+      if (StringUtils.isBlank(queryUser)) {
+        queryUser = userName;
+      } else if (!userName.equalsIgnoreCase(queryUser)) {
+        return Message.error("Non-administrators cannot view other users' consumer information");
+      }
+    }
+    String filterWords = creator;
+    if (StringUtils.isNotBlank(filterWords) && StringUtils.isNotBlank(queryUser)) {
+      filterWords = filterWords + "_" + queryUser;
+    } else if (StringUtils.isBlank(creator)) {
+      filterWords = queryUser;
+    }
+    return Message.ok("success").data("consumers", entranceServer.getConsumerMetrics(filterWords));
+  }
+
   @ApiOperation(value = "Status", notes = "get running task number ", response = Message.class)
   @RequestMapping(path = "/runningtask", method = RequestMethod.GET)
   public Message status(HttpServletRequest req) {
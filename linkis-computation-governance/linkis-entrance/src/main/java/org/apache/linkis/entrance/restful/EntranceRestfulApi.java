@@ -21,7 +21,9 @@ import org.apache.linkis.common.conf.Configuration;
 import org.apache.linkis.common.log.LogUtils;
 import org.apache.linkis.entrance.EntranceServer;
 import org.apache.linkis.entrance.conf.EntranceConfiguration;
+import org.apache.linkis.entrance.event.JobChangeNotifier;
 import org.apache.linkis.entrance.execute.EntranceJob;
+import org.apache.linkis.entrance.log.LogCursor;
 import org.apache.linkis.entrance.log.LogReader;
 import org.apache.linkis.entrance.utils.JobHistoryHelper;
 import org.apache.linkis.entrance.utils.RGBUtils;
@@ -49,6 +51,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -398,7 +401,12 @@ public class EntranceRestfulApi implements EntranceRestfulRemote {
 
   @ApiOperation(value = "log", notes = "get task log", response = Message.class)
   @ApiImplicitParams({
-    @ApiImplicitParam(name = "id", required = true, dataType = "String", value = "execute id")
+    @ApiImplicitParam(name = "id", required = true, dataType = "String", value = "execute id"),
+    @ApiImplicitParam(
+        name = "cursor",
+        required = false,
+        dataType = "String",
+        value = "the cursor returned by the last read, blank for the first read")
   })
   @Override
   @RequestMapping(path = "/{id}/log", method = RequestMethod.GET)
@@ -423,7 +431,9 @@ public class EntranceRestfulApi implements EntranceRestfulRemote {
       int fromLine = 0;
       int size = 100;
       boolean distinctLevel = true;
+      String cursorStr = null;
       if (req != null) {
+        cursorStr = req.getParameter("cursor");
         String fromLineStr = req.getParameter("fromLine");
         String sizeStr = req.getParameter("size");
         if (StringUtils.isNotBlank(fromLineStr)) {
@@ -440,8 +450,25 @@ public class EntranceRestfulApi implements EntranceRestfulRemote {
 
       Object retLog = null;
       int retFromLine = 0;
+      String retCursor = cursorStr;
       try {
-        if (distinctLevel) {
+        if (cursorStr != null) {
+          // Read by cursor, which resumes from the byte offset of the last read
+          LogCursor cursor = LogCursor.parse(cursorStr);
+          LogCursor next;
+          if (distinctLevel) {
+            String[] logs = new String[4];
+            next = logReader.readArrayByCursor(logs, cursor, size);
+            retLog = new ArrayList<String>(Arrays.asList(logs));
+          } else {
+            StringBuilder sb = new StringBuilder();
+            next = logReader.readByCursor(sb, cursor, size);
+            retLog = sb.toString();
+          }
+          fromLine = cursor.row();
+          retFromLine = next.row() - cursor.row();
+          retCursor = next.toString();
+        } else if (distinctLevel) {
           String[] logs = new String[4];
           retFromLine = logReader.readArray(logs, fromLine, size);
           retLog = new ArrayList<String>(Arrays.asList(logs));
@@ -468,6 +495,9 @@ public class EntranceRestfulApi implements EntranceRestfulRemote {
         message = Message.ok();
         message.setMethod("/api/entrance/" + id + "/log");
         message.data("log", "").data("execID", id).data("fromLine", retFromLine + fromLine);
+        if (cursorStr != null) {
+          message.data("cursor", retCursor);
+        }
         return message;
       } catch (final Exception e1) {
         logger.debug(
@@ -478,6 +508,9 @@ public class EntranceRestfulApi implements EntranceRestfulRemote {
         message = Message.error("Failed to get log information(获取日志信息失败)");
         message.setMethod("/api/entrance/" + id + "/log");
         message.data("log", "").data("execID", id).data("fromLine", retFromLine + fromLine);
+        if (cursorStr != null) {
+          message.data("cursor", retCursor);
+        }
         return message;
       } finally {
         if (null != logReader && job.get().isCompleted()) {
@@ -487,6 +520,9 @@ public class EntranceRestfulApi implements EntranceRestfulRemote {
       message = Message.ok();
       message.setMethod("/api/entrance/" + id + "/log");
       message.data("log", retLog).data("execID", id).data("fromLine", retFromLine + fromLine);
+      if (cursorStr != null) {
+        message.data("cursor", retCursor);
+      }
       logger.debug("success to get log for {} (获取 {} 日志成功)", job.get().getId(), job.get().getId());
     } else {
       message =
@@ -499,6 +535,119 @@ public class EntranceRestfulApi implements EntranceRestfulRemote {
     return message;
   }
 
+  @ApiOperation(
+      value = "subscribe",
+      notes = "wait for the change of task status, progress and log",
+      response = Message.class)
+  @ApiImplicitParams({
+    @ApiImplicitParam(name = "id", required = true, dataType = "String", value = "execute id"),
+    @ApiImplicitParam(
+        name = "version",
+        required = false,
+        dataType = "Long",
+        value = "the version returned by the last subscription, return at once if absent"),
+    @ApiImplicitParam(
+        name = "timeout",
+        required = false,
+        dataType = "Long",
+        value = "the max milliseconds to wait"),
+    @ApiImplicitParam(
+        name = "cursor",
+        required = false,
+        dataType = "String",
+        value = "the log cursor, the new log is returned if present"),
+    @ApiImplicitParam(name = "size", required = false, dataType = "Integer", value = "log size")
+  })
+  @Override
+  @RequestMapping(path = "/{id}/subscribe", method = RequestMethod.GET)
+  public DeferredResult<Message> subscribe(
+      HttpServletRequest req,
+      @PathVariable("id") String id,
+      @RequestParam(value = "version", required = false) Long version,
+      @RequestParam(value = "timeout", required = false) Long timeout,
+      @RequestParam(value = "cursor", required = false) String cursor,
+      @RequestParam(value = "size", required = false) Integer size) {
+    String realId = ZuulEntranceUtils.parseExecID(id)[3];
+    ModuleUserUtils.getOperationUser(req, "subscribe realId: " + realId);
+    Option<Job> job = Option.apply(null);
+    try {
+      job = entranceServer.getJob(realId);
+    } catch (Throwable t) {
+      logger.debug("Failed to get job {}", realId, t);
+    }
+    if (job == null || job.isEmpty()) {
+      Message message =
+          Message.error(
+              "The job you just executed has ended, please query it by the job history.(您刚刚执行的job已经结束，请通过历史任务查询)");
+      message.setMethod("/api/entrance/" + id + "/subscribe");
+      DeferredResult<Message> result = new DeferredResult<>();
+      result.setResult(message);
+      return result;
+    }
+    EntranceJob entranceJob = (EntranceJob) job.get();
+    JobChangeNotifier notifier = JobChangeNotifier.getNotifier();
+    long maxWaitTime = EntranceConfiguration.JOB_SUBSCRIBE_MAX_WAIT_TIME().getValue().toLong();
+    long waitTime = timeout == null ? maxWaitTime : Math.min(timeout, maxWaitTime);
+    // Completed asynchronously, the thread of the server is not held while waiting
+    DeferredResult<Message> result = new DeferredResult<>(Math.max(waitTime, 1L));
+    Runnable listener =
+        () -> result.setResult(subscribeMessage(id, realId, entranceJob, cursor, size));
+    result.onTimeout(
+        () -> {
+          notifier.removeListener(realId, listener);
+          result.setResult(subscribeMessage(id, realId, entranceJob, cursor, size));
+        });
+    if (version == null || waitTime <= 0 || !notifier.addListener(entranceJob, version, listener)) {
+      result.setResult(subscribeMessage(id, realId, entranceJob, cursor, size));
+    }
+    return result;
+  }
+
+  private Message subscribeMessage(
+      String id, String realId, EntranceJob entranceJob, String cursor, Integer size) {
+    // The version is got before the job, so that the changes after it are not missed
+    long currentVersion = JobChangeNotifier.getNotifier().getVersion(realId);
+    List<Map<String, Object>> progressInfo = new ArrayList<>();
+    JobProgressInfo[] jobProgressInfos = entranceJob.getProgressInfo();
+    if (jobProgressInfos != null) {
+      for (JobProgressInfo jobProgressInfo : jobProgressInfos) {
+        if ("true".equals(EntranceConfiguration.PROGRESS_PUSH().getValue())
+            || jobProgressInfo.totalTasks() > 0) {
+          setJobProgressInfos(progressInfo, jobProgressInfo);
+        }
+      }
+    }
+    Message message = Message.ok();
+    message.setMethod("/api/entrance/" + id + "/subscribe");
+    message
+        .data("execID", id)
+        .data("version", currentVersion)
+        .data("status", entranceJob.getState().toString())
+        .data("progress", Math.abs(entranceJob.getProgress()))
+        .data("progressInfo", progressInfo);
+    if (cursor != null) {
+      LogReader logReader = null;
+      try {
+        logReader =
+            entranceServer.getEntranceContext().getOrCreateLogManager().getLogReader(realId);
+        String[] logs = new String[4];
+        LogCursor next =
+            logReader.readArrayByCursor(
+                logs, LogCursor.parse(cursor), size == null || size < 0 ? 10000 : size);
+        message.data("log", new ArrayList<String>(Arrays.asList(logs)));
+        message.data("cursor", next.toString());
+      } catch (Exception e) {
+        logger.debug("Failed to get log for {}", realId, e);
+        message.data("cursor", cursor);
+      } finally {
+        if (null != logReader && entranceJob.isCompleted()) {
+          IOUtils.closeQuietly(logReader);
+        }
+      }
+    }
+    return message;
+  }
+
   @ApiOperation(value = "killJobs", notes = "kill jobs", response = Message.class)
   @ApiImplicitParams({
     @ApiImplicitParam(name = "strongExecId", required = true, dataType = "String")
@@ -31,7 +31,8 @@ import org.apache.linkis.governance.common.entity.job.JobRequest
 import org.apache.linkis.governance.common.utils.LoggerUtils
 import org.apache.linkis.protocol.constants.TaskConstant
 import org.apache.linkis.rpc.Sender
-import org.apache.linkis.scheduler.queue.{Job, SchedulerEventState}
+import org.apache.linkis.scheduler.queue.{Consumer, Job, SchedulerEventState}
+import org.apache.linkis.scheduler.queue.fifoqueue.{FIFOUserConsumer, FIFOUserConsumerMetrics}
 import org.apache.linkis.server.conf.ServerConfiguration
 
 import org.apache.commons.lang3.StringUtils
@@ -213,24 +214,38 @@ abstract class EntranceServer extends Logging {
     } else None
 
   def getAllUndoneTask(filterWords: String): Array[EntranceJob] = {
+    listConsumers(filterWords)
+      .flatMap { consumer =>
+        consumer.getRunningEvents ++ consumer.getConsumeQueue.getWaitingEvents
+      }
+      .filter(job => job != null && job.isInstanceOf[EntranceJob])
+      .map(_.asInstanceOf[EntranceJob])
+      .toArray
+  }
+
+  /**
+   * Queue wait time and slot utilisation of the consumers whose group name contains filterWords
+   * @param filterWords
+   * @return
+   */
+  def getConsumerMetrics(filterWords: String): Array[FIFOUserConsumerMetrics] = {
+    listConsumers(filterWords).toArray.collect { case consumer: FIFOUserConsumer =>
+      consumer.getMetrics
+    }
+  }
+
+  private def listConsumers(filterWords: String): Set[Consumer] = {
     val consumers = getEntranceContext
       .getOrCreateScheduler()
       .getSchedulerContext
       .getOrCreateConsumerManager
       .listConsumers()
       .toSet
-    val filterConsumer = if (StringUtils.isNotBlank(filterWords)) {
+    if (StringUtils.isNotBlank(filterWords)) {
       consumers.filter(_.getGroup.getGroupName.contains(filterWords))
     } else {
       consumers
     }
-    filterConsumer
-      .flatMap { consumer =>
-        consumer.getRunningEvents ++ consumer.getConsumeQueue.getWaitingEvents
-      }
-      .filter(job => job != null && job.isInstanceOf[EntranceJob])
-      .map(_.asInstanceOf[EntranceJob])
-      .toArray
   }
 
 }
@@ -210,6 +210,12 @@ object EntranceConfiguration {
   val LOG_PUSH_INTERVAL_TIME =
     CommonVars("wds.linkis.entrance.log.push.interval.time", 5 * 60 * 1000)
 
+  val LOG_HFLUSH_INTERVAL_TIME =
+    CommonVars("linkis.entrance.log.hflush.interval.time", new TimeType("3s"))
+
+  val LOG_WRITER_IDLE_TIMEOUT =
+    CommonVars("linkis.entrance.log.writer.idle.timeout", new TimeType("30m"))
+
   val GROUP_CACHE_MAX = CommonVars("wds.linkis.consumer.group.cache.capacity", 5000)
 
   val GROUP_CACHE_EXPIRE_TIME = CommonVars("wds.linkis.consumer.group.expire.time", 50)
@@ -223,4 +229,22 @@ object EntranceConfiguration {
   val ENABLE_ENTRANCE_DIRTY_DATA_CLEAR =
     CommonVars("linkis.entrance.auto.clean.dirty.data.enable", false)
 
+  val JOB_STATUS_ASYNC_PERSIST_ENABLED =
+    CommonVars[java.lang.Boolean]("linkis.entrance.job.status.async.persist.enable", true)
+
+  val JOB_STATUS_PERSIST_FLUSH_INTERVAL =
+    CommonVars("linkis.entrance.job.status.persist.flush.interval", new TimeType("1s"))
+
+  val JOB_STATUS_PERSIST_BATCH_SIZE =
+    CommonVars("linkis.entrance.job.status.persist.batch.size", 200)
+
+  val JOB_SUBSCRIBE_MAX_WAIT_TIME =
+    CommonVars("linkis.entrance.job.subscribe.max.wait.time", new TimeType("30s"))
+
+  val JOB_SUBSCRIBE_MAX_WAITERS =
+    CommonVars("linkis.entrance.job.subscribe.max.waiters", 500)
+
+  val JOB_SUBSCRIBE_RESPONSE_THREADS =
+    CommonVars("linkis.entrance.job.subscribe.response.threads", 10)
+
 }
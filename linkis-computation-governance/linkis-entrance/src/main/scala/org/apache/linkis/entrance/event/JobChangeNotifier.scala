@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.entrance.event
+
+import org.apache.linkis.common.utils.{Logging, Utils}
+import org.apache.linkis.entrance.conf.EntranceConfiguration
+import org.apache.linkis.scheduler.queue.Job
+
+import java.util
+import java.util.concurrent.{ConcurrentHashMap, Executor}
+import java.util.concurrent.atomic.AtomicInteger
+
+import scala.collection.JavaConverters._
+
+/**
+ * The version of the changes of the running jobs, which is increased when the status, progress or
+ * log of a job is updated. The subscribers of a job are called back when the version is changed
+ * instead of polling, see EntranceRestfulApi.subscribe. (运行中任务的变更版本号，订阅者在版本变化时被回调而不是轮询)
+ *
+ * <p>The version of a job is dropped when the job is completed, a completed job is never waited.
+ * @param maxWaiters
+ *   the max count of the listeners waiting at the same time, the requests beyond it return at once
+ * @param executor
+ *   runs the listeners, so that the thread changing the job is not held by them
+ */
+class JobChangeNotifier(maxWaiters: Int, executor: Executor) extends Logging {
+
+  private val watches = new ConcurrentHashMap[String, JobWatch]()
+
+  private val waiters = new AtomicInteger(0)
+
+  private def getOrCreateWatch(execId: String): JobWatch = {
+    val watch = watches.get(execId)
+    if (watch != null) watch
+    else {
+      val newWatch = new JobWatch
+      val oldWatch = watches.putIfAbsent(execId, newWatch)
+      if (oldWatch != null) oldWatch else newWatch
+    }
+  }
+
+  def notifyChanged(job: Job): Unit = {
+    val watch =
+      if (job.isCompleted) watches.remove(job.getId())
+      else getOrCreateWatch(job.getId())
+    if (watch != null) watch.changed()
+  }
+
+  /**
+   * @return
+   *   the version of the job, 0 if the job is not changed yet
+   */
+  def getVersion(execId: String): Long = {
+    val watch = watches.get(execId)
+    if (watch == null) 0L else watch.getVersion
+  }
+
+  /**
+   * Call the listener back once when the version of the job is not the version given
+   * @return
+   *   false if the listener is not added, since the job is changed or completed already, or there
+   *   are too many listeners, the caller should return at once then
+   */
+  def addListener(job: Job, version: Long, listener: Runnable): Boolean = {
+    if (job.isCompleted) return false
+    if (waiters.incrementAndGet() > maxWaiters) {
+      waiters.decrementAndGet()
+      logger.warn(s"Too many subscribers are waiting, job ${job.getId()} is returned at once.")
+      return false
+    }
+    val watch = getOrCreateWatch(job.getId())
+    // The job may be completed after the watch is created, the watch would not be removed then
+    val added =
+      if (job.isCompleted) {
+        watches.remove(job.getId(), watch)
+        false
+      } else watch.addListener(version, listener)
+    if (!added) waiters.decrementAndGet()
+    added
+  }
+
+  /**
+   * Remove the listener not called back yet, such as when the subscription times out
+   */
+  def removeListener(execId: String, listener: Runnable): Unit = {
+    val watch = watches.get(execId)
+    if (watch != null && watch.removeListener(listener)) waiters.decrementAndGet()
+  }
+
+  def getWaiters: Int = waiters.get()
+
+  private class JobWatch {
+
+    private var version = 0L
+
+    private val listeners = new util.ArrayList[Runnable]
+
+    def getVersion: Long = synchronized(version)
+
+    def changed(): Unit = {
+      val changedListeners = synchronized {
+        version += 1
+        val copied = listeners.asScala.toArray
+        listeners.clear()
+        copied
+      }
+      changedListeners.foreach { listener =>
+        waiters.decrementAndGet()
+        Utils.tryAndWarn(executor.execute(listener))
+      }
+    }
+
+    def addListener(lastVersion: Long, listener: Runnable): Boolean = synchronized {
+      version == lastVersion && listeners.add(listener)
+    }
+
+    def removeListener(listener: Runnable): Boolean = synchronized(listeners.remove(listener))
+
+  }
+
+}
+
+object JobChangeNotifier {
+
+  private val notifier = new JobChangeNotifier(
+    EntranceConfiguration.JOB_SUBSCRIBE_MAX_WAITERS.getValue,
+    Utils.newCachedThreadPool(
+      EntranceConfiguration.JOB_SUBSCRIBE_RESPONSE_THREADS.getValue,
+      "Entrance-Job-Subscribe-"
+    )
+  )
+
+  def getNotifier: JobChangeNotifier = notifier
+
+}
@@ -226,6 +226,7 @@ abstract class EntranceJob extends Job {
     }
     super.afterStateChanged(fromState, toState)
     entranceListenerBus.foreach(_.post(EntranceJobEvent(this.getId())))
+    JobChangeNotifier.getNotifier.notifyChanged(this)
   }
 
   override def onFailure(errorMsg: String, t: Throwable): Unit = {
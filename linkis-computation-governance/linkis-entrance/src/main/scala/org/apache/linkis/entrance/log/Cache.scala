@@ -19,6 +19,95 @@ package org.apache.linkis.entrance.log
 
 class Cache(maxCapacity: Int) {
   val cachedLogs: LoopArray[String] = LoopArray[String](maxCapacity)
+
+  /**
+   * The levels of the cached rows at the same index, classified once when the rows are cached
+   */
+  val cachedLevels: LoopArray[Integer] = LoopArray[Integer](maxCapacity)
+
+  @volatile private var cachedRows = 0
+
+  private var movedRows = 0
+
+  @volatile private var persistedRows = 0
+
+  /**
+   * Cache the rows of a log message, the cached rows are moved to the output before the oldest one
+   * is overwritten, or after the rows are cached if pushNow, so that the rows of a message are
+   * written to the file at one time and no row is lost. (缓存一条日志的所有行，在最早的行被覆盖前或需要推送时输出缓存的行)
+   * @return
+   *   whether any row is moved to the output
+   */
+  def cacheRows(rows: Array[String], pushNow: Boolean, output: java.lang.StringBuilder): Boolean = {
+    var moved = false
+    rows.foreach { row =>
+      if (cachedLogs.isFull && cachedLogs.get(cachedLogs.min) != null) {
+        moveTo(output)
+        moved = true
+      }
+      cachedLogs.add(row)
+      cachedLevels.add(LogReader.classify(row))
+      cachedRows += 1
+    }
+    if (pushNow) {
+      moveTo(output)
+      moved = true
+    }
+    moved
+  }
+
+  /**
+   * Move all the rows cached to the output, it is called when the writer is flushed
+   * @return
+   *   whether any row is moved to the output
+   */
+  def flushTo(output: java.lang.StringBuilder): Boolean = {
+    val moved = movedRows
+    moveTo(output)
+    movedRows > moved
+  }
+
+  /**
+   * Called by the writer after the rows moved are written to the log file, so that the readers read
+   * them from the file instead
+   */
+  def markPersisted(): Unit = persistedRows = movedRows
+
+  /**
+   * The count of the rows cached, which is also the index of the next row
+   */
+  def getCachedRows: Int = cachedRows
+
+  /**
+   * The count of the rows written to the log file, the rows of the file are the same as the rows
+   * cached
+   */
+  def getPersistedRows: Int = persistedRows
+
+  /**
+   * @return
+   *   the row and its level, None if it is not cached or already moved
+   */
+  def getRow(index: Int): Option[(String, Int)] = try {
+    val row = cachedLogs.get(index)
+    val level = cachedLevels.get(index)
+    if (row == null) None
+    else Some((row, if (level == null) LogReader.classify(row) else level.intValue()))
+  } catch {
+    case _: IllegalArgumentException => None
+  }
+
+  private def moveTo(output: java.lang.StringBuilder): Unit = {
+    cachedLogs.toIndexedSeq.foreach { log =>
+      if (log != null) {
+        output.append(log).append("\n")
+        movedRows += 1
+      }
+    }
+    cachedLogs.fakeClear()
+    cachedLevels.fakeClear()
+  }
+
 }
 
 object Cache {
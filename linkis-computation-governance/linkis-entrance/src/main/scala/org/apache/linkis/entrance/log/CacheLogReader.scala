@@ -68,6 +68,42 @@ class CacheLogReader(logPath: String, charset: String, sharedCache: Cache, user:
     to - fromLine
   }
 
+  /**
+   * The rows persisted are read from the file by the offset of the cursor, the rest are read from
+   * the cache with the levels classified when cached. The offsets of the cached rows are counted by
+   * their bytes, which are the same as written to the file later. (已落盘的行按偏移读文件，其余读缓存)
+   */
+  override protected def readLogByCursor(
+      deal: (String, Int) => Unit,
+      cursor: LogCursor,
+      size: Int
+  ): LogCursor = {
+    val persistedRows = sharedCache.getPersistedRows
+    val fileCursor =
+      if (cursor.row < persistedRows) readFileByCursor(deal, cursor, size, persistedRows)
+      else cursor
+    // Not all the rows persisted are read, if the size is reached or they are not visible yet
+    if (fileCursor.row < persistedRows) return fileCursor
+    val cachedRows = sharedCache.getCachedRows
+    var row = fileCursor.row
+    var offset = fileCursor.offset
+    var read = fileCursor.row - cursor.row
+    var moved = false
+    while (!moved && row < cachedRows && (read < size || size < 0)) {
+      sharedCache.getRow(row) match {
+        case Some((singleLog, level)) =>
+          deal(singleLog, level)
+          offset += singleLog.getBytes(getCharset).length + 1
+          row += 1
+          read += 1
+        case None =>
+          // The rows are moved to the file by a push, read them from the file next time
+          moved = true
+      }
+    }
+    LogCursor(row, offset)
+  }
+
   @throws[IOException]
   override def close(): Unit = {
     if (fileSystem != null) {
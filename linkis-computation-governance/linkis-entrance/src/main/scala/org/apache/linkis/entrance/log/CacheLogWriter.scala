@@ -32,42 +32,33 @@ class CacheLogWriter(logPath: String, charset: String, sharedCache: Cache, user:
 
   def getCache: Option[Cache] = Some(sharedCache)
 
-  private def cache(msg: String): Unit = {
+  override def write(msg: String): Unit = {
+    val rows = if (StringUtils.isBlank(msg)) Array("") else msg.split("\n")
     this synchronized {
-      val removed = sharedCache.cachedLogs.add(msg)
-      val currentTime = new Date(System.currentTimeMillis())
-      if (removed != null || currentTime.after(pushTime)) {
-        val logs = sharedCache.cachedLogs.toList
-        val sb = new StringBuilder
-        if (removed != null) sb.append(removed).append("\n")
-        logs.filter(_ != null).foreach(log => sb.append(log).append("\n"))
-        sharedCache.cachedLogs.fakeClear()
-        super.write(sb.toString())
-        pushTime.setTime(
-          currentTime.getTime + EntranceConfiguration.LOG_PUSH_INTERVAL_TIME.getValue
-        )
+      val currentTime = System.currentTimeMillis()
+      val output = new java.lang.StringBuilder
+      if (sharedCache.cacheRows(rows, currentTime > pushTime.getTime, output)) {
+        writeRows(output)
+        pushTime.setTime(currentTime + EntranceConfiguration.LOG_PUSH_INTERVAL_TIME.getValue)
       }
     }
   }
 
-  override def write(msg: String): Unit = {
-    if (StringUtils.isBlank(msg)) {
-      cache("")
-    } else {
-      val rows = msg.split("\n")
-      rows.foreach(row => {
-        if (row == null) cache("") else cache(row)
-      })
-    }
+  /**
+   * The last line separator of the rows is removed, since the next write starts with one, so that
+   * the rows of the file are the same as the rows cached and the offsets of the log cursor match.
+   */
+  private def writeRows(output: java.lang.StringBuilder): Unit = if (output.length() > 0) {
+    output.setLength(output.length() - 1)
+    super.write(output.toString)
+    sharedCache.markPersisted()
   }
 
   override def flush(): Unit = {
-    val sb = new StringBuilder
-    sharedCache.cachedLogs.toList
-      .filter(StringUtils.isNotEmpty)
-      .foreach(sb.append(_).append("\n"))
-    sharedCache.cachedLogs.clear()
-    super.write(sb.toString())
+    this synchronized {
+      val output = new java.lang.StringBuilder
+      if (sharedCache.flushTo(output)) writeRows(output)
+    }
     super.flush()
   }
 
@@ -18,7 +18,7 @@
 package org.apache.linkis.entrance.log
 
 import org.apache.linkis.common.io.FsPath
-import org.apache.linkis.common.utils.Utils
+import org.apache.linkis.common.utils.{Logging, Utils}
 import org.apache.linkis.entrance.conf.EntranceConfiguration
 import org.apache.linkis.entrance.errorcode.EntranceErrorCodeSummary._
 import org.apache.linkis.entrance.exception.EntranceErrorException
@@ -33,7 +33,16 @@ import org.apache.hadoop.io.IOUtils
 import java.io.{IOException, OutputStream}
 import java.sql.Date
 import java.util
+import java.util.concurrent.{ConcurrentHashMap, TimeUnit}
 
+import scala.collection.JavaConverters._
+
+/**
+ * The log writer of hdfs, which keeps the output stream open until closed, and hflush the stream
+ * every LOG_HFLUSH_INTERVAL_TIME so that the logs written are visible to the readers. The stream is
+ * reopened to append only after a write failed, or after it was closed for no log was written in
+ * LOG_WRITER_IDLE_TIMEOUT. (HDFS日志写入器：输出流保持打开，定期hflush使日志可见，写入失败或空闲超时关闭后才重新打开)
+ */
 class HDFSCacheLogWriter(logPath: String, charset: String, sharedCache: Cache, user: String)
     extends LogWriter(charset) {
 
@@ -51,11 +60,18 @@ class HDFSCacheLogWriter(logPath: String, charset: String, sharedCache: Cache, u
 
   private var firstWrite = true
 
+  private var unflushed = false
+
+  private var lastHflushTime = System.currentTimeMillis()
+
+  @volatile private var lastWriteTime = System.currentTimeMillis()
+
   init()
 
   private def init(): Unit = {
     fileSystem.init(new util.HashMap[String, String]())
     FileSystemUtils.createNewFileWithFileSystem(fileSystem, new FsPath(logPath), user, true)
+    HDFSCacheLogWriter.register(this)
   }
 
   @throws[IOException]
@@ -75,7 +91,7 @@ class HDFSCacheLogWriter(logPath: String, charset: String, sharedCache: Cache, u
       if (null != outputStream) {
         outputStream match {
           case hdfs: HdfsDataOutputStream =>
-            hdfs.hflush()
+            Utils.tryQuietly(hdfs.hflush())
           case _ =>
         }
         IOUtils.closeStream(outputStream)
@@ -90,24 +106,6 @@ class HDFSCacheLogWriter(logPath: String, charset: String, sharedCache: Cache, u
 
   def getCache: Option[Cache] = Some(sharedCache)
 
-  private def cache(msg: String): Unit = {
-    WRITE_LOCKER synchronized {
-      val removed = sharedCache.cachedLogs.add(msg)
-      val currentTime = new Date(System.currentTimeMillis())
-      if (removed != null || currentTime.after(pushTime)) {
-        val logs = sharedCache.cachedLogs.toList
-        val sb = new StringBuilder
-        if (removed != null) sb.append(removed).append("\n")
-        logs.filter(_ != null).foreach(log => sb.append(log).append("\n"))
-        sharedCache.cachedLogs.fakeClear()
-        writeToFile(sb.toString())
-        pushTime.setTime(
-          currentTime.getTime + EntranceConfiguration.LOG_PUSH_INTERVAL_TIME.getValue
-        )
-      }
-    }
-  }
-
   private def writeToFile(msg: String): Unit = WRITE_LOCKER synchronized {
     val log =
       if (!firstWrite) "\n" + msg
@@ -116,32 +114,96 @@ class HDFSCacheLogWriter(logPath: String, charset: String, sharedCache: Cache, u
         firstWrite = false
         msg
       }
-    Utils.tryAndWarnMsg {
+    Utils.tryCatch {
+      // Register again if the stream was closed for idle, so it is hflushed while open
+      if (null == outputStream && null != fileSystem) HDFSCacheLogWriter.register(this)
       getOutputStream.write(log.getBytes(charset))
-    }(s"$toString error when write query log to outputStream.")
-    closeOutPutStream
+      unflushed = true
+    } { t =>
+      logger.warn(s"$toString error when write query log to outputStream, reopen it.", t)
+      closeOutPutStream
+    }
+  }
+
+  /**
+   * Make the logs written visible to the readers, it is called by the hflush thread
+   */
+  private[log] def hflush(force: Boolean): Unit = WRITE_LOCKER synchronized {
+    if (
+        unflushed && null != outputStream && (force || System
+          .currentTimeMillis() - lastHflushTime >= HDFSCacheLogWriter.HFLUSH_INTERVAL)
+    ) {
+      Utils.tryCatch {
+        outputStream match {
+          case hdfs: HdfsDataOutputStream => hdfs.hflush()
+          case out => out.flush()
+        }
+      } { t =>
+        logger.warn(s"$toString error when hflush query log, reopen it.", t)
+        closeOutPutStream
+      }
+      unflushed = false
+      lastHflushTime = System.currentTimeMillis()
+    }
+  }
+
+  /**
+   * Write the logs cached and close the stream if no log was written in IDLE_TIMEOUT, and stop
+   * hflushing this writer until the next write, it is called by the hflush thread, so a writer
+   * which is never closed does not keep its stream open
+   */
+  private[log] def closeIfIdle(now: Long): Boolean = WRITE_LOCKER synchronized {
+    if (now - lastWriteTime >= HDFSCacheLogWriter.IDLE_TIMEOUT) {
+      logger.info(
+        s"$toString no log is written in ${HDFSCacheLogWriter.IDLE_TIMEOUT} ms, close it."
+      )
+      val output = new java.lang.StringBuilder
+      if (sharedCache.flushTo(output)) writeRows(output)
+      closeOutPutStream
+      unflushed = false
+      HDFSCacheLogWriter.unregister(this)
+      true
+    } else false
   }
 
   override def write(msg: String): Unit = {
     if (StringUtils.isNotBlank(msg)) {
-      val rows = msg.split("\n")
-      rows.foreach(row => {
-        if (StringUtils.isNotBlank(row)) cache(row)
-      })
+      val rows = msg.split("\n").filter(StringUtils.isNotBlank)
+      WRITE_LOCKER synchronized {
+        val currentTime = System.currentTimeMillis()
+        lastWriteTime = currentTime
+        val output = new java.lang.StringBuilder
+        if (sharedCache.cacheRows(rows, currentTime > pushTime.getTime, output)) {
+          writeRows(output)
+          pushTime.setTime(currentTime + EntranceConfiguration.LOG_PUSH_INTERVAL_TIME.getValue)
+        }
+      }
     }
   }
 
+  /**
+   * The last line separator of the rows is removed, the same as CacheLogWriter
+   */
+  private def writeRows(output: java.lang.StringBuilder): Unit = if (output.length() > 0) {
+    output.setLength(output.length() - 1)
+    writeToFile(output.toString)
+    sharedCache.markPersisted()
+  }
+
   override def flush(): Unit = {
-    val sb = new StringBuilder
-    sharedCache.cachedLogs.toList
-      .filter(_ != null)
-      .foreach(sb.append(_).append("\n"))
-    sharedCache.cachedLogs.clear()
-    writeToFile(sb.toString())
+    WRITE_LOCKER synchronized {
+      val output = new java.lang.StringBuilder
+      if (sharedCache.flushTo(output)) writeRows(output)
+    }
+    hflush(true)
   }
 
   override def close(): Unit = {
-    super.close()
+    WRITE_LOCKER synchronized {
+      super.close()
+      // After the last write of close, which registers the writer again if it was closed for idle
+      HDFSCacheLogWriter.unregister(this)
+    }
     if (fileSystem != null) Utils.tryAndWarnMsg {
       fileSystem.close()
       fileSystem = null
@@ -151,3 +213,38 @@ class HDFSCacheLogWriter(logPath: String, charset: String, sharedCache: Cache, u
   override def toString: String = logPath
 
 }
+
+object HDFSCacheLogWriter extends Logging {
+
+  private val HFLUSH_INTERVAL = EntranceConfiguration.LOG_HFLUSH_INTERVAL_TIME.getValue.toLong
+
+  private val IDLE_TIMEOUT = EntranceConfiguration.LOG_WRITER_IDLE_TIMEOUT.getValue.toLong
+
+  private val openWriters = ConcurrentHashMap.newKeySet[HDFSCacheLogWriter]()
+
+  private def register(writer: HDFSCacheLogWriter): Unit = openWriters.add(writer)
+
+  private def unregister(writer: HDFSCacheLogWriter): Unit = openWriters.remove(writer)
+
+  /**
+   * One thread hflush all the open writers, the logs written between two writes of a job are
+   * visible after HFLUSH_INTERVAL at most. The writers idle for IDLE_TIMEOUT are closed and
+   * unregistered
+   */
+  Utils.defaultScheduler.scheduleWithFixedDelay(
+    new Runnable {
+
+      override def run(): Unit = {
+        val now = System.currentTimeMillis()
+        openWriters.asScala.foreach { writer =>
+          Utils.tryAndWarn(if (!writer.closeIfIdle(now)) writer.hflush(false))
+        }
+      }
+
+    },
+    HFLUSH_INTERVAL,
+    HFLUSH_INTERVAL,
+    TimeUnit.MILLISECONDS
+  )
+
+}
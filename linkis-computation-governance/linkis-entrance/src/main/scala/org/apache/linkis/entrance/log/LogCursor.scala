@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.entrance.log
+
+import org.apache.commons.lang3.StringUtils
+
+/**
+ * The position of the next log row to read, which is the index of the row and the byte offset of
+ * the row in the log file. It is opaque to the clients, who only send back the cursor returned by
+ * the last read. (日志读取游标：下一行的行号及其在日志文件中的字节偏移)
+ */
+case class LogCursor(row: Int, offset: Long) {
+
+  override def toString: String = row + LogCursor.SEPARATOR + offset
+
+}
+
+object LogCursor {
+
+  private val SEPARATOR = "_"
+
+  val START: LogCursor = LogCursor(0, 0L)
+
+  /**
+   * @param cursor
+   *   the cursor returned by the last read, the blank one means reading from the beginning
+   */
+  def parse(cursor: String): LogCursor = if (StringUtils.isBlank(cursor)) START
+  else {
+    val index = cursor.indexOf(SEPARATOR)
+    val (row, offset) =
+      try {
+        if (index < 0) (cursor.trim.toInt, 0L)
+        else (cursor.substring(0, index).toInt, cursor.substring(index + 1).toLong)
+      } catch {
+        case _: NumberFormatException =>
+          throw new IllegalArgumentException(s"Illegal log cursor $cursor")
+      }
+    if (row < 0 || offset < 0) throw new IllegalArgumentException(s"Illegal log cursor $cursor")
+    LogCursor(row, offset)
+  }
+
+}
@@ -19,6 +19,7 @@ package org.apache.linkis.entrance.log
 
 import org.apache.linkis.common.utils.{Logging, Utils}
 import org.apache.linkis.entrance.EntranceContext
+import org.apache.linkis.entrance.event.JobChangeNotifier
 import org.apache.linkis.entrance.job.EntranceExecutionJob
 import org.apache.linkis.scheduler.listener.LogListener
 import org.apache.linkis.scheduler.queue.Job
@@ -60,6 +61,7 @@ abstract class LogManager extends LogListener with Logging {
             }
           }
           entranceExecutionJob.getLogWriter.foreach(logWriter => logWriter.write(log))
+          JobChangeNotifier.getNotifier.notifyChanged(job)
           errorCodeManager.foreach(_.errorMatch(log).foreach { case (code, errorMsg) =>
             errorCodeListener.foreach(_.onErrorCodeCreated(job, code, errorMsg))
           })
@@ -24,7 +24,7 @@ import org.apache.linkis.entrance.utils.LogHelper
 import org.apache.commons.io.{IOUtils, LineIterator}
 import org.apache.commons.lang3.StringUtils
 
-import java.io.{Closeable, InputStream, IOException}
+import java.io.{BufferedInputStream, ByteArrayOutputStream, Closeable, InputStream, IOException}
 
 import scala.util.matching.Regex
 
@@ -50,44 +50,70 @@ abstract class LogReader(charset: String) extends Closeable with Logging {
     if (logs.length != 4) {
       throw new LogReadFailedException(" The length of the log must be 4(logs的长度必须为4)")
     }
-    val error = new StringBuilder
-    val warning = new StringBuilder
-    val info = new StringBuilder
-    val all = new StringBuilder
-    val read = readLog(
-      singleLog => {
-        val length = 1
-        if (StringUtils.isNotBlank(singleLog)) {
-          singleLog match {
-            case ERROR_HEADER1() | ERROR_HEADER2() =>
-              concatLog(length, singleLog, error, all)
-            case WARN_HEADER1() | WARN_HEADER2() =>
-              if (!LogHelper.isExcludeLog(singleLog)) {
-                concatLog(length, singleLog, warning, all)
-              }
-            case INFO_HEADER1() | INFO_HEADER2() =>
-              if (!LogHelper.isExcludeLog(singleLog)) {
-                concatLog(length, singleLog, info, all)
-              }
-            case _ =>
-              if (!LogHelper.isExcludeLog(singleLog)) {
-                concatLog(length, singleLog, info, all)
-              }
-          }
-        }
+    val collector = new LevelLogCollector
+    val read =
+      readLog(singleLog => collector.collect(singleLog, classify(singleLog)), fromLine, size)
+    collector.fill(logs)
+    read
+  }
+
+  /**
+   * Get logs after the cursor and sort by log level, the same as readArray but the read resumes
+   * from the byte offset of the cursor instead of counting the lines from the beginning of the log,
+   * so the cost of a read is the size of the new logs. (从游标的字节偏移处继续读取并按级别分类日志)
+   * @param logs
+   *   Required length must be 4, the same as readArray
+   * @return
+   *   the cursor of the next read
+   */
+  def readArrayByCursor(logs: Array[String], cursor: LogCursor, size: Int): LogCursor = {
+    if (logs.length != 4) {
+      throw new LogReadFailedException(" The length of the log must be 4(logs的长度必须为4)")
+    }
+    val collector = new LevelLogCollector
+    val next = readLogByCursor(collector.collect, cursor, size)
+    collector.fill(logs)
+    next
+  }
+
+  def readByCursor(logs: java.lang.StringBuilder, cursor: LogCursor, size: Int): LogCursor = {
+    logs.setLength(0)
+    val next = readLogByCursor(
+      (r: String, _: Int) => {
+        logs.append(r)
+        logs.append("\n")
       },
-      fromLine,
+      cursor,
       size
     )
-    if (error.nonEmpty) error.setLength(error.size - 1)
-    if (warning.nonEmpty) warning.setLength(warning.size - 1)
-    if (info.nonEmpty) info.setLength(info.size - 1)
-    if (all.nonEmpty) all.setLength(all.size - 1)
-    logs(0) = error.toString()
-    logs(1) = warning.toString()
-    logs(2) = info.toString()
-    logs(3) = all.toString()
-    read
+    if (logs.length() > 0) logs.setLength(logs.length() - 1)
+    next
+  }
+
+  private class LevelLogCollector {
+    private val error = new StringBuilder
+    private val warning = new StringBuilder
+    private val info = new StringBuilder
+    private val all = new StringBuilder
+
+    def collect(singleLog: String, level: Int): Unit = level match {
+      case ERROR_LEVEL => concatLog(1, singleLog, error, all)
+      case WARN_LEVEL => concatLog(1, singleLog, warning, all)
+      case INFO_LEVEL => concatLog(1, singleLog, info, all)
+      case _ =>
+    }
+
+    def fill(logs: Array[String]): Unit = {
+      if (error.nonEmpty) error.setLength(error.size - 1)
+      if (warning.nonEmpty) warning.setLength(warning.size - 1)
+      if (info.nonEmpty) info.setLength(info.size - 1)
+      if (all.nonEmpty) all.setLength(all.size - 1)
+      logs(0) = error.toString()
+      logs(1) = warning.toString()
+      logs(2) = info.toString()
+      logs(3) = all.toString()
+    }
+
   }
 
   private def concatLog(length: Int, log: String, flag: StringBuilder, all: StringBuilder): Unit = {
@@ -137,6 +163,125 @@ abstract class LogReader(charset: String) extends Closeable with Logging {
     read
   }
 
+  /**
+   * Read the rows after the cursor, deal with the row and its level
+   */
+  protected def readLogByCursor(
+      deal: (String, Int) => Unit,
+      cursor: LogCursor,
+      size: Int
+  ): LogCursor = readFileByCursor(deal, cursor, size, Int.MaxValue)
+
+  /**
+   * Read the rows of the log file after the cursor, the input stream skips to the offset of the
+   * cursor directly. The row of the cursor is located by counting the lines only if the offset does
+   * not match the file, e.g. the cursor converted from a fromLine.
+   * @param rowLimit
+   *   the rows before it are complete in the file, the last row of the file not ended with a line
+   *   separator is read only if it is before the limit
+   */
+  protected def readFileByCursor(
+      deal: (String, Int) => Unit,
+      cursor: LogCursor,
+      size: Int,
+      rowLimit: Int
+  ): LogCursor = {
+    var inputStream = getInputStream
+    Utils.tryFinally {
+      val located =
+        if (cursor.offset == 0) Some(cursor.row == 0)
+        else locateRowStart(inputStream, cursor.offset)
+      val offset = located match {
+        case Some(true) => cursor.offset
+        case Some(false) =>
+          logger.info(s"Log cursor $cursor does not match the log file, locate it by lines.")
+          IOUtils.closeQuietly(inputStream)
+          inputStream = new BufferedInputStream(getInputStream, READ_BUFFER_SIZE)
+          skipRows(inputStream, cursor.row)
+        case None => -1L
+      }
+      if (offset < 0) cursor
+      else readRows(inputStream, deal, LogCursor(cursor.row, offset), size, rowLimit)
+    }(IOUtils.closeQuietly(inputStream))
+  }
+
+  private def readRows(
+      inputStream: InputStream,
+      deal: (String, Int) => Unit,
+      cursor: LogCursor,
+      size: Int,
+      rowLimit: Int
+  ): LogCursor = {
+    val input = inputStream match {
+      case buffered: BufferedInputStream => buffered
+      case _ => new BufferedInputStream(inputStream, READ_BUFFER_SIZE)
+    }
+    val bytes = new ByteArrayOutputStream()
+    var row = cursor.row
+    var offset = cursor.offset
+    var read = 0
+    var eof = false
+    while (!eof && row < rowLimit && (read < size || size < 0)) {
+      bytes.reset()
+      var b = input.read()
+      while (b != -1 && b != '\n') {
+        bytes.write(b)
+        b = input.read()
+      }
+      eof = b == -1
+      if (!eof || bytes.size() > 0) {
+        val singleLog = StringUtils.removeEnd(new String(bytes.toByteArray, charset), "\r")
+        deal(singleLog, classify(singleLog))
+        offset += bytes.size() + 1
+        row += 1
+        read += 1
+      }
+    }
+    LogCursor(row, offset)
+  }
+
+  /**
+   * @return
+   *   None if the offset is beyond the file, which is not visible yet, or whether the offset is the
+   *   beginning of a row
+   */
+  private def locateRowStart(inputStream: InputStream, offset: Long): Option[Boolean] =
+    if (!skipFully(inputStream, offset - 1)) None
+    else {
+      inputStream.read() match {
+        case -1 => None
+        case b => Some(b == '\n')
+      }
+    }
+
+  /**
+   * @return
+   *   the offset of the row, -1 if the file has less rows
+   */
+  private def skipRows(inputStream: InputStream, rows: Int): Long = {
+    var offset = 0L
+    var skipped = 0
+    var b = 0
+    while (skipped < rows && b != -1) {
+      b = inputStream.read()
+      offset += 1
+      if (b == '\n') skipped += 1
+    }
+    if (skipped < rows) -1 else offset
+  }
+
+  private def skipFully(inputStream: InputStream, n: Long): Boolean = {
+    var remaining = n
+    var eof = false
+    while (remaining > 0 && !eof) {
+      val skipped = inputStream.skip(remaining)
+      if (skipped > 0) remaining -= skipped
+      else if (inputStream.read() == -1) eof = true
+      else remaining -= 1
+    }
+    !eof
+  }
+
 }
 
 object LogReader {
@@ -147,4 +292,29 @@ object LogReader {
   val WARN_HEADER2: Regex = "[0-9\\-/]{10} [0-9:]{8}.?\\d{0,3} WARN ".r.unanchored
   val INFO_HEADER1: Regex = "[0-9\\-]{10,10} [0-9:]{8,8}.?\\d{0,3} SYSTEM-INFO ".r.unanchored
   val INFO_HEADER2: Regex = "[0-9\\-/]{10,10} [0-9:]{8,8}.?\\d{0,3} INFO ".r.unanchored
+
+  /**
+   * The levels of a log row, the same as the index of the logs read by readArray, the hidden rows
+   * are blank or excluded
+   */
+  val ERROR_LEVEL = 0
+  val WARN_LEVEL = 1
+  val INFO_LEVEL = 2
+  val HIDDEN_LEVEL = -1
+
+  private val READ_BUFFER_SIZE = 64 * 1024
+
+  /**
+   * Classify a log row by its header, the rows cached are classified once when written(日志行分级)
+   */
+  def classify(singleLog: String): Int = if (StringUtils.isBlank(singleLog)) HIDDEN_LEVEL
+  else {
+    singleLog match {
+      case ERROR_HEADER1() | ERROR_HEADER2() => ERROR_LEVEL
+      case _ if LogHelper.isExcludeLog(singleLog) => HIDDEN_LEVEL
+      case WARN_HEADER1() | WARN_HEADER2() => WARN_LEVEL
+      case _ => INFO_LEVEL
+    }
+  }
+
 }
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.entrance.persistence
+
+import org.apache.linkis.common.utils.{Logging, Utils}
+import org.apache.linkis.entrance.conf.EntranceConfiguration
+import org.apache.linkis.governance.common.entity.job.JobRequest
+import org.apache.linkis.scheduler.queue.SchedulerEventState
+
+import org.springframework.beans.BeanUtils
+
+import java.io.Closeable
+import java.util
+import java.util.Date
+import java.util.concurrent.{ConcurrentHashMap, TimeUnit}
+import java.util.concurrent.locks.ReentrantLock
+import java.util.function.BiFunction
+
+import scala.collection.JavaConverters._
+
+/**
+ * Write-behind persistence of the job status: the updates of a job are coalesced in memory and
+ * flushed to jobhistory in batches by a daemon thread, so that the listener threads of entrance do
+ * not wait for jobhistory. (任务状态异步持久化：同一任务的多次更新在内存中合并，由后台线程批量写入jobhistory)
+ *
+ *   - The latest update of a job wins, but an update of completed status is never replaced by one
+ *     of uncompleted status, so the status transitions are kept in order.
+ *   - An update of completed status triggers a flush at once, the others are flushed every
+ *     flushInterval.
+ *   - The failed updates are retried in the next flush. The updates of uncompleted status are
+ *     dropped after maxRetryTimes, since a later update carries the newer status anyway, the
+ *     updates of completed status are retried until they are persisted.
+ *
+ * QueryPersistenceManager only queues the updates of uncompleted jobs. The completed status is
+ * persisted synchronously, and queued only to be retried when that fails.
+ */
+class JobStatusPersistenceQueue(
+    persistenceEngine: PersistenceEngine,
+    flushInterval: Long,
+    batchSize: Int,
+    maxRetryTimes: Int
+) extends Closeable
+    with Logging {
+
+  def this(persistenceEngine: PersistenceEngine) = this(
+    persistenceEngine,
+    EntranceConfiguration.JOB_STATUS_PERSIST_FLUSH_INTERVAL.getValue.toLong,
+    EntranceConfiguration.JOB_STATUS_PERSIST_BATCH_SIZE.getValue,
+    EntranceConfiguration.JOBINFO_UPDATE_RETRY_MAX_TIME.getValue
+  )
+
+  private val pendingUpdates = new ConcurrentHashMap[java.lang.Long, PendingUpdate]
+
+  private val flushLock = new ReentrantLock
+  private val flushCondition = flushLock.newCondition()
+  private var urgent = false
+
+  @volatile private var running = false
+
+  private val flushThread = Utils
+    .threadFactory("Entrance-Job-Status-Persist-Thread-")
+    .newThread(new Runnable {
+      override def run(): Unit = runFlush()
+    })
+
+  private val coalesce = new BiFunction[PendingUpdate, PendingUpdate, PendingUpdate] {
+
+    override def apply(pending: PendingUpdate, incoming: PendingUpdate): PendingUpdate =
+      if (pending.completed != incoming.completed) {
+        if (pending.completed) pending else incoming
+      } else if (pending.updateTime > incoming.updateTime) {
+        // A retried update is older than the one pending
+        pending
+      } else {
+        incoming
+      }
+
+  }
+
+  def start(): Unit = {
+    running = true
+    flushThread.start()
+    logger.info(
+      s"Started job status persistence queue, flush interval: ${flushInterval}ms, batch size: $batchSize"
+    )
+    Utils.addShutdownHook(close())
+  }
+
+  /**
+   * Queue a snapshot of the job request to be persisted
+   */
+  def update(jobRequest: JobRequest): Unit = {
+    if (null == jobRequest || null == jobRequest.getId) {
+      logger.warn("Ignore the update of job without id")
+      return
+    }
+    val snapshot = new JobRequest
+    BeanUtils.copyProperties(jobRequest, snapshot)
+    // Execution code is never updated by jobhistory, no need to transfer it
+    snapshot.setExecutionCode(null)
+    if (null != jobRequest.getMetrics) {
+      snapshot.setMetrics(new util.HashMap[String, AnyRef](jobRequest.getMetrics))
+    }
+    snapshot.setUpdatedTime(new Date)
+    val update = new PendingUpdate(snapshot, 0)
+    pendingUpdates.merge(snapshot.getId, update, coalesce)
+    if (update.completed) signal()
+  }
+
+  /**
+   * Drop the pending update of a job, when its completed status is persisted without the queue
+   */
+  def remove(jobId: java.lang.Long): Unit = if (null != jobId) pendingUpdates.remove(jobId)
+
+  def size(): Int = pendingUpdates.size()
+
+  /**
+   * Persist the updates pending now, the failed ones are queued again to be retried in the next
+   * flush
+   */
+  def flush(): Unit = synchronized {
+    val retries = new util.ArrayList[PendingUpdate]
+    var remaining = pendingUpdates.size()
+    while (remaining > 0) {
+      val batch = new util.ArrayList[PendingUpdate](Math.min(remaining, batchSize))
+      val iterator = pendingUpdates.keySet().iterator()
+      while (iterator.hasNext && batch.size() < batchSize) {
+        val update = pendingUpdates.remove(iterator.next())
+        if (null != update) batch.add(update)
+      }
+      remaining = if (batch.isEmpty) 0 else remaining - batch.size()
+      if (!batch.isEmpty) persist(batch, retries)
+    }
+    retries.asScala.foreach(update => pendingUpdates.merge(update.jobId, update, coalesce))
+  }
+
+  override def close(): Unit = if (running) {
+    running = false
+    signal()
+    Utils.tryQuietly(flushThread.join(flushInterval))
+    Utils.tryAndWarn(flush())
+    if (!pendingUpdates.isEmpty) {
+      logger.warn(s"${pendingUpdates.size()} job status updates are not persisted before closed")
+    }
+  }
+
+  private def persist(batch: util.List[PendingUpdate], retries: util.List[PendingUpdate]): Unit = {
+    val jobRequests = batch.asScala.map(_.jobRequest).asJava
+    val failedJobRequests = Utils.tryCatch(persistenceEngine.batchUpdateIfNeeded(jobRequests)) {
+      t =>
+        logger.warn(s"Failed to persist the status of ${batch.size()} jobs, will retry later", t)
+        jobRequests
+    }
+    if (null == failedJobRequests || failedJobRequests.isEmpty) return
+    val failedJobIds = new util.HashSet[java.lang.Long]
+    failedJobRequests.asScala.foreach(jobRequest => failedJobIds.add(jobRequest.getId))
+    batch.asScala.filter(update => failedJobIds.contains(update.jobId)).foreach { update =>
+      if (update.completed || update.retryTimes + 1 < maxRetryTimes) {
+        retries.add(new PendingUpdate(update.jobRequest, update.retryTimes + 1))
+      } else {
+        logger.error(
+          s"Drop the update of job ${update.jobId} with status ${update.jobRequest.getStatus}" +
+            s" after retried ${update.retryTimes + 1} times"
+        )
+      }
+    }
+  }
+
+  private def signal(): Unit = {
+    flushLock.lock()
+    try {
+      urgent = true
+      flushCondition.signal()
+    } finally {
+      flushLock.unlock()
+    }
+  }
+
+  private def runFlush(): Unit = while (running) {
+    flushLock.lock()
+    try {
+      if (!urgent) flushCondition.await(flushInterval, TimeUnit.MILLISECONDS)
+      urgent = false
+    } catch {
+      case _: InterruptedException => running = false
+    } finally {
+      flushLock.unlock()
+    }
+    Utils.tryAndError(flush())
+  }
+
+  private class PendingUpdate(val jobRequest: JobRequest, val retryTimes: Int) {
+
+    val jobId: java.lang.Long = jobRequest.getId
+
+    val updateTime: Long = jobRequest.getUpdatedTime.getTime
+
+    val completed: Boolean = null != jobRequest.getStatus && Utils.tryCatch(
+      SchedulerEventState.isCompletedByStr(jobRequest.getStatus)
+    )(_ => false)
+
+  }
+
+}
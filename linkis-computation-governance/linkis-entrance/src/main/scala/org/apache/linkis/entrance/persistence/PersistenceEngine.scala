@@ -22,6 +22,7 @@ import org.apache.linkis.governance.common.entity.job.{JobRequest, SubJobDetail,
 import org.apache.linkis.protocol.task.Task
 
 import java.io.{Closeable, Flushable}
+import java.util
 
 trait PersistenceEngine extends Closeable with Flushable {
 
@@ -49,6 +50,15 @@ trait PersistenceEngine extends Closeable with Flushable {
   @throws[ErrorException]
   def updateIfNeeded(subJobInfo: SubJobInfo): Unit = {}
 
+  /**
+   * Update a batch of tasks in one request. 批量更新任务
+   * @param jobReqs
+   * @return
+   *   the tasks failed to be updated, which could be retried
+   */
+  @throws[ErrorException]
+  def batchUpdateIfNeeded(jobReqs: util.List[JobRequest]): util.List[JobRequest]
+
   /**
    * Used to hang up a unified import task through this method, and continue to do the processing.
    * 用于如果某一个统一入口挂掉了，通过这个方法，将挂掉的统一入口tasks读取过来，继续做处理
@@ -26,6 +26,7 @@ import org.springframework.web.bind.annotation.{
   RequestMethod,
   RequestParam
 }
+import org.springframework.web.context.request.async.DeferredResult
 
 import javax.servlet.http.HttpServletRequest
 
@@ -60,6 +61,16 @@ trait EntranceRestfulRemote {
   @RequestMapping(value = Array("/entrance/{id}/log"), method = Array(RequestMethod.GET))
   def log(req: HttpServletRequest, @PathVariable("id") id: String): Message
 
+  @RequestMapping(value = Array("/entrance/{id}/subscribe"), method = Array(RequestMethod.GET))
+  def subscribe(
+      req: HttpServletRequest,
+      @PathVariable("id") id: String,
+      @RequestParam(value = "version", required = false) version: java.lang.Long,
+      @RequestParam(value = "timeout", required = false) timeout: java.lang.Long,
+      @RequestParam(value = "cursor", required = false) cursor: String,
+      @RequestParam(value = "size", required = false) size: Integer
+  ): DeferredResult[Message]
+
   @RequestMapping(value = Array("/entrance/{id}/killJobs"), method = Array(RequestMethod.POST))
   def killJobs(
       req: HttpServletRequest,
@@ -42,6 +42,7 @@ import org.apache.linkis.manager.label.utils.LabelUtil
 import org.apache.linkis.protocol.constants.TaskConstant
 import org.apache.linkis.protocol.utils.TaskUtils
 import org.apache.linkis.rpc.Sender
+import org.apache.linkis.scheduler.conf.SchedulerConfiguration
 import org.apache.linkis.scheduler.queue.{Group, GroupFactory, SchedulerEvent}
 import org.apache.linkis.scheduler.queue.parallelqueue.ParallelGroup
 
@@ -99,6 +100,7 @@ class EntranceGroupFactory extends GroupFactory with Logging {
             )
             group.setMaxRunningJobs(EntranceConfiguration.CONCURRENT_MAX_RUNNING_JOBS.getValue)
             group.setMaxAskExecutorTimes(EntranceConfiguration.CONCURRENT_EXECUTOR_TIME.getValue)
+            group.setConsumeQueueType(SchedulerConfiguration.CONSUME_QUEUE_TYPE.getValue)
             groupNameToGroups.put(groupName, group)
             return group
           }
@@ -140,6 +142,7 @@ class EntranceGroupFactory extends GroupFactory with Logging {
       val group = new ParallelGroup(groupName, initCapacity, maxCapacity)
       group.setMaxRunningJobs(maxRunningJobs)
       group.setMaxAskExecutorTimes(maxAskExecutorTimes)
+      group.setConsumeQueueType(SchedulerConfiguration.CONSUME_QUEUE_TYPE.getValue(keyAndValue))
       groupNameToGroups.put(groupName, group)
     }
     groupNameToGroups.getIfPresent(groupName)
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.entrance.event
+
+import org.apache.linkis.scheduler.executer.ExecuteRequest
+import org.apache.linkis.scheduler.queue.{Job, JobInfo}
+
+import java.util.concurrent.Executor
+import java.util.concurrent.atomic.AtomicInteger
+
+import org.junit.jupiter.api.{Assertions, DisplayName, Test}
+
+class JobChangeNotifierTest {
+
+  private class TestJob(id: String) extends Job {
+    setId(id)
+    var completed = false
+    override def isCompleted: Boolean = completed
+    override def init(): Unit = {}
+    override protected def jobToExecuteRequest: ExecuteRequest = null
+    override def getName: String = id
+    override def getJobInfo: JobInfo = null
+    override def close(): Unit = {}
+  }
+
+  private class CountListener extends Runnable {
+    val count = new AtomicInteger(0)
+    override def run(): Unit = count.incrementAndGet()
+  }
+
+  private val directExecutor = new Executor {
+    override def execute(command: Runnable): Unit = command.run()
+  }
+
+  @Test
+  @DisplayName("listenerTest")
+  def listenerTest(): Unit = {
+    val notifier = new JobChangeNotifier(10, directExecutor)
+    val job = new TestJob("job1")
+    Assertions.assertEquals(0L, notifier.getVersion("job1"))
+    notifier.notifyChanged(job)
+    Assertions.assertEquals(1L, notifier.getVersion("job1"))
+
+    // The version is changed already
+    val listener = new CountListener
+    Assertions.assertFalse(notifier.addListener(job, 0L, listener))
+
+    Assertions.assertTrue(notifier.addListener(job, 1L, listener))
+    Assertions.assertEquals(1, notifier.getWaiters)
+    notifier.notifyChanged(job)
+    Assertions.assertEquals(1, listener.count.get())
+    Assertions.assertEquals(2L, notifier.getVersion("job1"))
+    Assertions.assertEquals(0, notifier.getWaiters)
+    // Called back only once
+    notifier.notifyChanged(job)
+    Assertions.assertEquals(1, listener.count.get())
+
+    // Removed when timed out
+    val timedOut = new CountListener
+    Assertions.assertTrue(notifier.addListener(job, 3L, timedOut))
+    notifier.removeListener("job1", timedOut)
+    Assertions.assertEquals(0, notifier.getWaiters)
+    notifier.notifyChanged(job)
+    Assertions.assertEquals(0, timedOut.count.get())
+  }
+
+  @Test
+  @DisplayName("completedTest")
+  def completedTest(): Unit = {
+    val notifier = new JobChangeNotifier(10, directExecutor)
+    val job = new TestJob("job2")
+    notifier.notifyChanged(job)
+    val listener = new CountListener
+    Assertions.assertTrue(notifier.addListener(job, 1L, listener))
+    job.completed = true
+    notifier.notifyChanged(job)
+    Assertions.assertEquals(1, listener.count.get())
+    Assertions.assertEquals(0L, notifier.getVersion("job2"))
+    // A completed job is never waited
+    Assertions.assertFalse(notifier.addListener(job, 0L, listener))
+    notifier.notifyChanged(job)
+    Assertions.assertEquals(0L, notifier.getVersion("job2"))
+    Assertions.assertEquals(0, notifier.getWaiters)
+  }
+
+  @Test
+  @DisplayName("maxWaitersTest")
+  def maxWaitersTest(): Unit = {
+    val notifier = new JobChangeNotifier(0, directExecutor)
+    val job = new TestJob("job3")
+    Assertions.assertFalse(notifier.addListener(job, 0L, new CountListener))
+    Assertions.assertEquals(0, notifier.getWaiters)
+  }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.entrance.log
+
+import java.io.{File, FileInputStream, FileOutputStream, InputStream}
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+
+import org.junit.jupiter.api.{AfterEach, Assertions, BeforeEach, DisplayName, Test}
+
+class CacheLogReaderTest {
+
+  private var logFile: File = _
+
+  private var firstWrite = true
+
+  @BeforeEach
+  def before(): Unit = {
+    logFile = File.createTempFile("linkis-entrance", ".log")
+    firstWrite = true
+  }
+
+  @AfterEach
+  def after(): Unit = logFile.delete()
+
+  /**
+   * Write the rows moved from the cache the same as CacheLogWriter
+   */
+  private def write(cache: Cache, rows: Array[String], pushNow: Boolean): Unit = {
+    val output = new java.lang.StringBuilder
+    if (cache.cacheRows(rows, pushNow, output) && output.length() > 0) {
+      output.setLength(output.length() - 1)
+      val out = new FileOutputStream(logFile, true)
+      try {
+        out.write(((if (firstWrite) "" else "\n") + output).getBytes(StandardCharsets.UTF_8))
+      } finally out.close()
+      firstWrite = false
+      cache.markPersisted()
+    }
+  }
+
+  private def reader(cache: Cache): CacheLogReader =
+    new CacheLogReader(logFile.getPath, "utf-8", cache, "hadoop") {
+      override def getInputStream: InputStream = new FileInputStream(logFile)
+    }
+
+  @Test
+  @DisplayName("readByCursorTest")
+  def readByCursorTest(): Unit = {
+    val cache = Cache(4)
+    val logReader = reader(cache)
+    val sb = new java.lang.StringBuilder
+    write(cache, Array("a", "b"), false)
+    var cursor = logReader.readByCursor(sb, LogCursor.START, 100)
+    Assertions.assertEquals("a\nb", sb.toString)
+    Assertions.assertEquals(LogCursor(2, 4), cursor)
+
+    // Rows are persisted and read from the file by the offset
+    write(cache, Array("c", "中文", "e"), false)
+    write(cache, Array("f"), true)
+    Assertions.assertEquals(6, cache.getPersistedRows)
+    cursor = logReader.readByCursor(sb, cursor, 2)
+    Assertions.assertEquals("c\n中文", sb.toString)
+    cursor = logReader.readByCursor(sb, cursor, 100)
+    Assertions.assertEquals("e\nf", sb.toString)
+    Assertions.assertEquals(LogCursor(6, logFile.length() + 1), cursor)
+    Assertions.assertEquals(
+      "a\nb\nc\n中文\ne\nf",
+      new String(Files.readAllBytes(logFile.toPath), StandardCharsets.UTF_8)
+    )
+
+    // The offsets counted by the cached rows match the file after they are persisted
+    write(cache, Array("g"), false)
+    val cacheCursor = logReader.readByCursor(sb, cursor, 100)
+    Assertions.assertEquals("g", sb.toString)
+    write(cache, Array("h"), true)
+    Assertions.assertEquals(cacheCursor, logReader.readByCursor(sb, cursor, 1))
+    logReader.readByCursor(sb, cacheCursor, 100)
+    Assertions.assertEquals("h", sb.toString)
+
+    // The cursor converted from a fromLine is located by lines
+    logReader.readByCursor(sb, LogCursor.parse("5"), 2)
+    Assertions.assertEquals("f\ng", sb.toString)
+    Assertions.assertEquals(cursor, LogCursor.parse(cursor.toString))
+  }
+
+  @Test
+  @DisplayName("readArrayByCursorTest")
+  def readArrayByCursorTest(): Unit = {
+    val cache = Cache(8)
+    val logReader = reader(cache)
+    val rows = Array(
+      "2022-10-01 10:00:00.000 ERROR error row",
+      "2022-10-01 10:00:00.000 WARN warn row",
+      "",
+      "2022-10-01 10:00:00.000 INFO info row"
+    )
+    write(cache, rows, false)
+    val cachedLogs = new Array[String](4)
+    val cursor = logReader.readArrayByCursor(cachedLogs, LogCursor.START, 100)
+    write(cache, Array.empty, true)
+    val fileLogs = new Array[String](4)
+    Assertions.assertEquals(cursor, logReader.readArrayByCursor(fileLogs, LogCursor.START, 100))
+    val fileReader = new LogReader("utf-8") {
+      override def getInputStream: InputStream = new FileInputStream(logFile)
+      override def close(): Unit = {}
+    }
+    val logs = new Array[String](4)
+    fileReader.readArray(logs, 0, 100)
+    Assertions.assertEquals(logs.toList, cachedLogs.toList)
+    Assertions.assertEquals(logs.toList, fileLogs.toList)
+    Assertions.assertEquals(rows(0), logs(0))
+    Assertions.assertEquals(rows(1), logs(1))
+    Assertions.assertEquals(rows(3), logs(2))
+  }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.entrance.log
+
+import org.junit.jupiter.api.{Assertions, DisplayName, Test}
+
+class CacheTest {
+
+  @Test
+  @DisplayName("cacheRowsTest")
+  def cacheRowsTest(): Unit = {
+    val cache = Cache(4)
+    val output = new java.lang.StringBuilder
+    Assertions.assertFalse(cache.cacheRows(Array("a", "b", "c"), false, output))
+    Assertions.assertEquals(0, output.length())
+    Assertions.assertEquals(List("a", "b", "c"), cache.cachedLogs.toList)
+
+    // The cache is full, all the rows cached are moved to the output before overwritten
+    Assertions.assertTrue(cache.cacheRows(Array("d", "e", "f"), false, output))
+    Assertions.assertEquals("a\nb\nc\n", output.toString)
+    Assertions.assertEquals(List("d", "e", "f"), cache.cachedLogs.toList.filter(_ != null))
+    Assertions.assertTrue(cache.cacheRows(Array("g"), false, output))
+    Assertions.assertEquals("a\nb\nc\nd\ne\nf\n", output.toString)
+
+    output.setLength(0)
+    Assertions.assertTrue(cache.cacheRows(Array("h"), true, output))
+    Assertions.assertEquals("g\nh\n", output.toString)
+    Assertions.assertTrue(cache.cachedLogs.toList.forall(_ == null))
+  }
+
+}
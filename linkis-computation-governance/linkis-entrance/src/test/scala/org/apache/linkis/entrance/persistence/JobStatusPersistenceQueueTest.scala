@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.entrance.persistence
+
+import org.apache.linkis.governance.common.entity.job.JobRequest
+import org.apache.linkis.protocol.task.Task
+
+import java.util
+import java.util.concurrent.{CopyOnWriteArrayList, TimeUnit}
+
+import scala.collection.JavaConverters._
+
+import org.junit.jupiter.api.{Assertions, DisplayName, Test}
+
+class JobStatusPersistenceQueueTest {
+
+  @Test
+  @DisplayName("coalesceTest")
+  def coalesceTest(): Unit = {
+    val persistenceEngine = new RecordingPersistenceEngine
+    val queue = new JobStatusPersistenceQueue(persistenceEngine, 1000L, 100, 3)
+    val jobRequest = newJobRequest(1L, "Running", "0.1")
+    queue.update(jobRequest)
+    jobRequest.setProgress("0.5")
+    queue.update(jobRequest)
+    // The snapshot is not changed by the job
+    jobRequest.setProgress("0.6")
+    queue.update(newJobRequest(2L, "Running", "0.1"))
+    Assertions.assertEquals(2, queue.size())
+
+    queue.flush()
+    Assertions.assertEquals(0, queue.size())
+    Assertions.assertEquals(1, persistenceEngine.batches.size())
+    val persisted = persistenceEngine.batches.get(0).asScala.map(r => r.getId -> r).toMap
+    Assertions.assertEquals("0.5", persisted(1L).getProgress)
+    Assertions.assertNull(persisted(1L).getExecutionCode)
+  }
+
+  @Test
+  @DisplayName("completedNotReplacedTest")
+  def completedNotReplacedTest(): Unit = {
+    val persistenceEngine = new RecordingPersistenceEngine
+    val queue = new JobStatusPersistenceQueue(persistenceEngine, 1000L, 100, 3)
+    queue.update(newJobRequest(1L, "Succeed", "1.0"))
+    queue.update(newJobRequest(1L, "Running", "0.9"))
+    queue.flush()
+    Assertions.assertEquals("Succeed", persistenceEngine.batches.get(0).get(0).getStatus)
+  }
+
+  @Test
+  @DisplayName("batchTest")
+  def batchTest(): Unit = {
+    val persistenceEngine = new RecordingPersistenceEngine
+    val queue = new JobStatusPersistenceQueue(persistenceEngine, 1000L, 2, 3)
+    (1 to 5).foreach(id => queue.update(newJobRequest(id.toLong, "Running", "0.1")))
+    queue.flush()
+    Assertions.assertEquals(
+      util.Arrays.asList(2, 2, 1),
+      persistenceEngine.batches.asScala.map(_.size()).asJava
+    )
+  }
+
+  @Test
+  @DisplayName("retryTest")
+  def retryTest(): Unit = {
+    val persistenceEngine = new RecordingPersistenceEngine
+    persistenceEngine.failed = true
+    val queue = new JobStatusPersistenceQueue(persistenceEngine, 1000L, 100, 2)
+    queue.update(newJobRequest(1L, "Running", "0.1"))
+    queue.update(newJobRequest(2L, "Failed", "1.0"))
+    queue.flush()
+    Assertions.assertEquals(2, queue.size())
+    // The update of uncompleted status is dropped after retried
+    queue.flush()
+    Assertions.assertEquals(1, queue.size())
+    queue.flush()
+    Assertions.assertEquals(1, queue.size())
+
+    persistenceEngine.failed = false
+    queue.flush()
+    Assertions.assertEquals(0, queue.size())
+    Assertions.assertEquals("Failed", persistenceEngine.batches.asScala.last.get(0).getStatus)
+  }
+
+  @Test
+  @DisplayName("flushCompletedTest")
+  def flushCompletedTest(): Unit = {
+    val persistenceEngine = new RecordingPersistenceEngine
+    val queue =
+      new JobStatusPersistenceQueue(persistenceEngine, TimeUnit.MINUTES.toMillis(10), 100, 3)
+    queue.start()
+    queue.update(newJobRequest(1L, "Running", "0.1"))
+    queue.update(newJobRequest(2L, "Succeed", "1.0"))
+    val deadline = System.currentTimeMillis() + 5000
+    while (queue.size() > 0 && System.currentTimeMillis() < deadline) Thread.sleep(10)
+    Assertions.assertEquals(0, queue.size())
+    queue.close()
+  }
+
+  @Test
+  @DisplayName("removeTest")
+  def removeTest(): Unit = {
+    val persistenceEngine = new RecordingPersistenceEngine
+    val queue = new JobStatusPersistenceQueue(persistenceEngine, 1000L, 100, 3)
+    queue.update(newJobRequest(1L, "Running", "0.1"))
+    queue.update(newJobRequest(2L, "Running", "0.1"))
+    // Persisted completed without the queue
+    queue.remove(1L)
+    queue.flush()
+    Assertions.assertEquals(1, persistenceEngine.batches.get(0).size())
+    Assertions.assertEquals(2L, persistenceEngine.batches.get(0).get(0).getId)
+  }
+
+  private def newJobRequest(id: Long, status: String, progress: String): JobRequest = {
+    val jobRequest = new JobRequest
+    jobRequest.setId(id)
+    jobRequest.setStatus(status)
+    jobRequest.setProgress(progress)
+    jobRequest.setExecutionCode("show tables")
+    jobRequest
+  }
+
+  private class RecordingPersistenceEngine extends AbstractPersistenceEngine {
+
+    val batches = new CopyOnWriteArrayList[util.List[JobRequest]]
+
+    @volatile var failed = false
+
+    override def batchUpdateIfNeeded(jobReqs: util.List[JobRequest]): util.List[JobRequest] = {
+      if (failed) return jobReqs
+      batches.add(new util.ArrayList(jobReqs))
+      new util.ArrayList[JobRequest]
+    }
+
+    override def persist(jobReq: JobRequest): Unit = {}
+
+    override def updateIfNeeded(jobReq: JobRequest): Unit = {}
+
+    override def readAll(instance: String): Array[Task] = Array.empty
+
+    override def retrieveJobReq(jobGroupId: java.lang.Long): JobRequest = null
+
+    override def close(): Unit = {}
+
+    override def flush(): Unit = {}
+
+  }
+
+}
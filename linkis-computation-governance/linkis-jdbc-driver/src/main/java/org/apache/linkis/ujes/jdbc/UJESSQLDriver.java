@@ -59,6 +59,9 @@ public class UJESSQLDriver extends UJESSQLDriverMain implements Driver {
   static String ENABLE_LOADBALANCER = "enableLoadBalancer";
   static String CREATOR = "creator";
   static String TABLEAU = "tableau";
+  static String RESULT_STREAM = "resultStream";
+  static String RESULT_PREFETCH_PAGES = "resultPrefetchPages";
+  static String JOB_SUBSCRIBE = "jobSubscribe";
   static String VARIABLE_HEADER = "var:";
   static String PARAM_SPLIT = "&";
   static String KV_SPLIT = "=";
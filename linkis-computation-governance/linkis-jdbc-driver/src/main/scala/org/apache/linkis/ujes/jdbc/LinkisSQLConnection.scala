@@ -85,6 +85,27 @@ class LinkisSQLConnection(private[jdbc] val ujesClient: UJESClient, props: Prope
     tableauFlag
   }
 
+  /**
+   * Whether to fetch the result sets in binary stream with prefetch, the max pages prefetched, and
+   * whether to wait for the job by the subscription of entrance instead of polling, by the params
+   * resultStream, resultPrefetchPages and jobSubscribe of url
+   */
+  private[jdbc] val (resultStreamEnabled, resultPrefetchPages, jobSubscribeEnabled) = {
+    var streamEnabled = true
+    var prefetchPages = 2
+    var subscribeEnabled = true
+    val params = props.getProperty(PARAMS)
+    if (params != null) {
+      params.split(PARAM_SPLIT).map(_.split(KV_SPLIT)).foreach {
+        case Array(RESULT_STREAM, v) => streamEnabled = v.toBoolean
+        case Array(RESULT_PREFETCH_PAGES, v) => prefetchPages = Math.max(v.toInt, 1)
+        case Array(JOB_SUBSCRIBE, v) => subscribeEnabled = v.toBoolean
+        case _ =>
+      }
+    }
+    (streamEnabled, prefetchPages, subscribeEnabled)
+  }
+
   private[jdbc] val dbName =
     if (StringUtils.isNotBlank(props.getProperty(DB_NAME))) props.getProperty(DB_NAME)
     else "default"
@@ -19,8 +19,8 @@ package org.apache.linkis.ujes.jdbc
 
 import org.apache.linkis.common.utils.{Logging, Utils}
 import org.apache.linkis.governance.common.entity.ExecutionNodeStatus
-import org.apache.linkis.ujes.client.request.OpenLogAction
-import org.apache.linkis.ujes.client.response.JobExecuteResult
+import org.apache.linkis.ujes.client.request.{JobSubscribeAction, OpenLogAction}
+import org.apache.linkis.ujes.client.response.{JobExecuteResult, JobSubscribeResult}
 import org.apache.linkis.ujes.jdbc.hook.JDBCDriverPreExecutionHook
 
 import org.apache.commons.lang3.StringUtils
@@ -50,6 +50,11 @@ class LinkisSQLStatement(private[jdbc] val ujesSQLConnection: LinkisSQLConnectio
   private var logFromLen = 0
   private val logSize = 100
 
+  /**
+   * The max milliseconds of a subscription waiting in entrance, less than the read timeout
+   */
+  private val SUBSCRIBE_WAIT_TIME = 5000L
+
   private[jdbc] def throwWhenClosed[T](op: => T): T = ujesSQLConnection.throwWhenClosed {
     if (isClosed) throw new LinkisSQLException(LinkisSQLErrorCode.STATEMENT_CLOSED)
     else op
@@ -134,6 +139,16 @@ class LinkisSQLStatement(private[jdbc] val ujesSQLConnection: LinkisSQLConnectio
       logPath = jobInfo.getRequestPersistTask.getLogPath
       if (!ExecutionNodeStatus.isCompleted(ExecutionNodeStatus.valueOf(jobInfo.getJobStatus))) {
         Utils.tryThrow {
+          val startTime = System.currentTimeMillis()
+          if (ujesSQLConnection.jobSubscribeEnabled) waitUntilCompletedInEntrance(atMost)
+          // The job info is polled until the status is persisted, or all the time if not subscribed
+          val remaining =
+            if (atMost.isFinite) {
+              Duration(
+                Math.max(atMost.toMillis - (System.currentTimeMillis() - startTime), 0),
+                TimeUnit.MILLISECONDS
+              )
+            } else atMost
           Utils.waitUntil(
             () => {
               jobInfo = ujesSQLConnection.ujesClient.getJobInfo(jobExecuteResult)
@@ -141,7 +156,7 @@ class LinkisSQLStatement(private[jdbc] val ujesSQLConnection: LinkisSQLConnectio
                 ExecutionNodeStatus.valueOf(jobInfo.getJobStatus)
               ) || closed
             },
-            atMost,
+            remaining,
             100,
             10000
           )
@@ -184,6 +199,33 @@ class LinkisSQLStatement(private[jdbc] val ujesSQLConnection: LinkisSQLConnectio
     }
   }
 
+  /**
+   * Wait until the job is completed in entrance by the subscription, which returns once the job is
+   * changed instead of polling the job info. It returns quietly if the subscription failed, e.g.
+   * the entrance does not support it, then the job info is polled instead.
+   */
+  private def waitUntilCompletedInEntrance(atMost: Duration): Unit = Utils.tryCatch {
+    val endTime =
+      if (atMost.isFinite) System.currentTimeMillis() + atMost.toMillis else Long.MaxValue
+    def subscribe(version: java.lang.Long, timeout: Long): JobSubscribeResult =
+      ujesSQLConnection.ujesClient.subscribe(
+        JobSubscribeAction
+          .builder()
+          .setExecId(jobExecuteResult.getExecID)
+          .setUser(jobExecuteResult.getUser)
+          .setVersion(version)
+          .setTimeout(timeout)
+          .build()
+      )
+    var subscribeResult = subscribe(null, 0)
+    while (!subscribeResult.isCompleted && !closed && System.currentTimeMillis() < endTime) {
+      val timeout = Math.min(SUBSCRIBE_WAIT_TIME, endTime - System.currentTimeMillis())
+      subscribeResult = subscribe(subscribeResult.getVersion, timeout)
+    }
+  } { t =>
+    logger.warn("Failed to subscribe the job, fall back to polling the job info.", t)
+  }
+
   def getJobExcuteResult: JobExecuteResult = jobExecuteResult
 
   override def getResultSet: UJESSQLResultSet = resultSet
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.ujes.jdbc
+
+import org.apache.linkis.common.utils.{Logging, Utils}
+import org.apache.linkis.ujes.client.UJESClient
+import org.apache.linkis.ujes.client.request.ResultSetStreamAction
+
+import java.io.Closeable
+import java.util
+import java.util.concurrent.ArrayBlockingQueue
+
+/**
+ * Fetches the pages of a result set in binary stream, the pages after the first one are fetched by
+ * a background thread ahead of the reader. (后台预取结果集的分页)
+ *
+ * At most prefetchPages pages are fetched but not read yet, so the rows held in memory are bounded.
+ * The last page is told by the trailer of the stream, a truncated page fails rather than ends the
+ * result set, and the failure of a page is thrown when it is read.
+ */
+private[jdbc] class ResultSetPagePrefetcher(
+    ujesClient: UJESClient,
+    user: String,
+    path: String,
+    pageSize: Int,
+    prefetchPages: Int
+) extends Closeable
+    with Logging {
+
+  private val pages = new ArrayBlockingQueue[ResultSetPage](prefetchPages)
+
+  private var metadata: util.List[util.Map[String, String]] = _
+
+  private var fetchThread: Thread = _
+
+  private var completed = false
+
+  @volatile private var closed = false
+
+  def getMetadata: util.List[util.Map[String, String]] = metadata
+
+  /**
+   * Fetch the first page in the caller thread, the failure is thrown to the caller, then start to
+   * prefetch the pages after it if fetchAll
+   */
+  def start(fetchAll: Boolean): util.List[util.List[Any]] = {
+    val first = fetchPage(1)
+    if (!fetchAll || !first.hasMore) {
+      completed = true
+    } else {
+      fetchThread = Utils
+        .threadFactory("Linkis-JDBC-ResultSet-Prefetch-")
+        .newThread(new Runnable {
+          override def run(): Unit = prefetch()
+        })
+      fetchThread.start()
+    }
+    first.rows
+  }
+
+  /**
+   * The rows of the next page, waits if it is not fetched yet
+   * @return
+   *   null if there is no more page
+   */
+  def nextPage(): util.List[util.List[Any]] = {
+    if (completed || closed) return null
+    val page = pages.take()
+    if (page.error != null) {
+      completed = true
+      val exception = new LinkisSQLException(
+        LinkisSQLErrorCode.RESULTSET_ROWERROR,
+        s"Failed to fetch page ${page.page} of result set $path, ${page.error.getMessage}"
+      )
+      exception.initCause(page.error)
+      throw exception
+    }
+    if (!page.hasMore) completed = true
+    logger.info(s"Currently page is ${page.page} of the resultset, fetched in binary stream")
+    page.rows
+  }
+
+  override def close(): Unit = if (!closed) {
+    closed = true
+    if (fetchThread != null) fetchThread.interrupt()
+    pages.clear()
+  }
+
+  private def fetchPage(page: Int): ResultSetPage = {
+    val result = ujesClient.resultSetStream(
+      ResultSetStreamAction
+        .builder()
+        .setUser(user)
+        .setPath(path)
+        .setPage(page)
+        .setPageSize(pageSize)
+        .build()
+    )
+    Utils.tryFinally {
+      if (metadata == null) metadata = result.getMetadata
+      val rows = new util.ArrayList[util.List[Any]](pageSize)
+      while (result.hasNext) {
+        rows.add(
+          util.Arrays
+            .asList(result.next().asInstanceOf[Array[AnyRef]]: _*)
+            .asInstanceOf[util.List[Any]]
+        )
+      }
+      new ResultSetPage(page, rows, null, result.hasMorePages)
+    }(result.close())
+  }
+
+  private def prefetch(): Unit = {
+    var page = 2
+    var done = false
+    while (!done && !closed) {
+      val fetched = Utils.tryCatch(fetchPage(page)) { t =>
+        new ResultSetPage(page, null, t, false)
+      }
+      done = fetched.error != null || !fetched.hasMore
+      page += 1
+      try {
+        pages.put(fetched)
+      } catch {
+        case _: InterruptedException => done = true
+      }
+    }
+  }
+
+  private class ResultSetPage(
+      val page: Int,
+      val rows: util.List[util.List[Any]],
+      val error: Throwable,
+      val hasMore: Boolean
+  )
+
+}
@@ -151,6 +151,10 @@ object UJESSQLDriverMain {
 
   val TABLEAU = UJESSQLDriver.TABLEAU
 
+  val RESULT_STREAM = UJESSQLDriver.RESULT_STREAM
+  val RESULT_PREFETCH_PAGES = UJESSQLDriver.RESULT_PREFETCH_PAGES
+  val JOB_SUBSCRIBE = UJESSQLDriver.JOB_SUBSCRIBE
+
   val VARIABLE_HEADER = UJESSQLDriver.VARIABLE_HEADER
 
   def getConnectionParams(
@@ -17,7 +17,7 @@
 
 package org.apache.linkis.ujes.jdbc
 
-import org.apache.linkis.common.utils.Logging
+import org.apache.linkis.common.utils.{Logging, Utils}
 import org.apache.linkis.ujes.client.request.ResultSetAction
 import org.apache.linkis.ujes.client.response.ResultSetResult
 
@@ -63,11 +63,11 @@ class UJESSQLResultSet(
   private var currentRowCursor: Int = -1
 
   // All data of table, where each element represents a row
-  private var resultSetRow: util.ArrayList[util.ArrayList[String]] = _
+  private var resultSetRow: util.List[util.List[Any]] = _
   private var resultSetResult: ResultSetResult = _
   private var resultSetMetaData: UJESSQLResultSetMetaData = new UJESSQLResultSetMetaData
   private var fetchSizeNum: Int = _
-  private var currentRow: util.ArrayList[String] = _
+  private var currentRow: util.List[Any] = _
   private var hasClosed: Boolean = false
   private var isCompleted: Boolean = false
   private var totalLine: Int = 0
@@ -75,6 +75,7 @@ class UJESSQLResultSet(
   private val pageSize: Int = 5000
   private var path: String = _
   private var metaData: util.List[util.Map[String, String]] = _
+  private var prefetcher: ResultSetPagePrefetcher = _
   private val statement: LinkisSQLStatement = ujesStatement
 
   private val connection: LinkisSQLConnection =
@@ -143,8 +144,7 @@ class UJESSQLResultSet(
         isCompleted = true
         return
       }
-      resultSetRow =
-        resultSetResult.getFileContent.asInstanceOf[util.ArrayList[util.ArrayList[String]]]
+      resultSetRow = resultSetResult.getFileContent.asInstanceOf[util.List[util.List[Any]]]
       totalLine = totalLine + resultSetResult.totalLine
       currentRowCursor = 0
       logger.info(
@@ -155,11 +155,63 @@ class UJESSQLResultSet(
     }
   }
 
+  /**
+   * Fetch the result set in binary stream, with the pages after the first one prefetched in
+   * background. The prefetched pages are bounded by the fetch size, at least one page and at most
+   * resultPrefetchPages pages of the connection. Falls back to openFile if failed, e.g. the server
+   * does not support the stream
+   */
+  private def streamInit(): Boolean = {
+    if (path == null) path = getResultSetPath(resultSetList)
+    if (!connection.resultStreamEnabled || StringUtils.isBlank(path)) return false
+    val user = connection.getProps.getProperty("user")
+    val rowsToFetch = if (fetchSizeNum > 0) fetchSizeNum else fetchSize
+    val prefetchPages =
+      Math.max(1, Math.min(connection.resultPrefetchPages, rowsToFetch / pageSize))
+    val pagePrefetcher =
+      new ResultSetPagePrefetcher(connection.ujesClient, user, path, pageSize, prefetchPages)
+    Utils.tryCatch {
+      resultSetRow = pagePrefetcher.start(UJESSQLDriverMain.LIMIT_ENABLED.equals("false"))
+      prefetcher = pagePrefetcher
+      metaData = pagePrefetcher.getMetadata
+      setColumnProperties()
+      totalLine = resultSetRow.size()
+      logger.info(
+        s"Currently page is $currentPage, and already fetched $totalLine lines of the resultset in binary stream"
+      )
+      true
+    } { t =>
+      logger.warn(s"Failed to fetch the resultset $path in binary stream, fall back to openFile", t)
+      pagePrefetcher.close()
+      resultSetRow = null
+      false
+    }
+  }
+
+  private def updateStreamResultSet(): Unit = {
+    val rows = prefetcher.nextPage()
+    if (rows == null || rows.isEmpty) {
+      isCompleted = true
+      return
+    }
+    currentPage = currentPage + 1
+    resultSetRow = rows
+    totalLine = totalLine + rows.size()
+    currentRowCursor = 0
+    logger.info(
+      s"Currently page is $currentPage, and already fetched $totalLine lines of the resultset"
+    )
+  }
+
   private def metaDataInit(): Unit = {
     if (null == resultSetResult) {
       return
     }
     metaData = resultSetResult.getMetadata.asInstanceOf[util.List[util.Map[String, String]]]
+    setColumnProperties()
+  }
+
+  private def setColumnProperties(): Unit = {
     for (cursor <- 1 to metaData.size()) {
       val col = metaData.get(cursor - 1)
       resultSetMetaData.setColumnNameProperties(cursor, col.get("columnName"))
@@ -172,11 +224,10 @@ class UJESSQLResultSet(
     if (null == resultSetResult) {
       return
     }
-    resultSetRow =
-      resultSetResult.getFileContent.asInstanceOf[util.ArrayList[util.ArrayList[String]]]
+    resultSetRow = resultSetResult.getFileContent.asInstanceOf[util.List[util.List[Any]]]
   }
 
-  private def init(): Unit = {
+  private def init(): Unit = if (!streamInit()) {
     resultSetResultInit()
     metaDataInit()
     resultSetInit()
@@ -194,7 +245,7 @@ class UJESSQLResultSet(
     currentRowCursor += 1
     if (null == resultSetRow || currentRowCursor > resultSetRow.size() - 1) {
       if (UJESSQLDriverMain.LIMIT_ENABLED.equals("false") && !isCompleted) {
-        updateResultSet()
+        if (prefetcher != null) updateStreamResultSet() else updateResultSet()
         if (isCompleted) {
           return false
         } else {
@@ -215,6 +266,10 @@ class UJESSQLResultSet(
 
   override def close(): Unit = {
     if (!isClosed) {
+      if (prefetcher != null) {
+        prefetcher.close()
+        prefetcher = null
+      }
       resultSetResult = null
       metaData = null
       resultSetMetaData = null
@@ -232,6 +287,26 @@ class UJESSQLResultSet(
     valueWasNull
   }
 
+  /**
+   * The values fetched in binary stream are typed already, they are only converted to the same
+   * types as the ones evaluated from string
+   */
+  private def evaluateTyped(dataType: String, value: Any): Any = value match {
+    case null | _: String => evaluate(dataType, value.asInstanceOf[String])
+    case number: Number =>
+      dataType.toLowerCase(Locale.getDefault) match {
+        case "short" => number.shortValue()
+        case "int" => number.intValue()
+        case "long" | "bigint" => number.longValue()
+        case "float" => number.floatValue()
+        case "double" | "decimal" => number.doubleValue()
+        case "byte" => number.byteValue()
+        case _ => evaluate(dataType, number.toString)
+      }
+    case bool: java.lang.Boolean if "boolean".equalsIgnoreCase(dataType) => bool
+    case other => evaluate(dataType, other.toString)
+  }
+
   private def evaluate(dataType: String, value: String): Any = {
 
     if (value == null || value.equals("null") || value.equals("NULL") || value.equals("Null")) {
@@ -283,7 +358,7 @@ class UJESSQLResultSet(
       )
     } else {
       val dataType = resultSetMetaData.getColumnTypeName(columnIndex)
-      val evaluateValue = evaluate(dataType, currentRow.get(columnIndex - 1))
+      val evaluateValue = evaluateTyped(dataType, currentRow.get(columnIndex - 1))
       valueWasNull = evaluateValue == null
       evaluateValue
     }
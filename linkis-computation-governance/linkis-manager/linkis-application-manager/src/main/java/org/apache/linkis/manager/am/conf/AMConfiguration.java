@@ -42,6 +42,12 @@ public class AMConfiguration {
   public static final CommonVars<Integer> ENGINE_REUSE_COUNT_LIMIT =
       CommonVars.apply("wds.linkis.manager.am.engine.reuse.count.limit", 2);
 
+  public static final CommonVars<Boolean> ENGINE_REUSE_INDEX_ENABLED =
+      CommonVars.apply("linkis.manager.am.engine.reuse.index.enabled", true);
+
+  public static final CommonVars<TimeType> ENGINE_REUSE_INDEX_TTL =
+      CommonVars.apply("linkis.manager.am.engine.reuse.index.ttl", new TimeType("10m"));
+
   public static final CommonVars<TimeType> NODE_STATUS_HEARTBEAT_TIME =
       CommonVars.apply("wds.linkis.manager.am.node.heartbeat", new TimeType("3m"));
 
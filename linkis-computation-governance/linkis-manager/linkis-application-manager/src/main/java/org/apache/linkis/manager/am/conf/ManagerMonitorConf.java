@@ -42,4 +42,11 @@ public class ManagerMonitorConf {
 
   public static final CommonVars<TimeType> ECM_HEARTBEAT_MAX_UPDATE_TIME =
       CommonVars.apply("wds.linkis.manager.am.ecm.heartbeat", new TimeType("5m"));
+
+  public static final CommonVars<TimeType> NODE_HEARTBEAT_FULL_SWEEP_INTERVAL =
+      CommonVars.apply(
+          "wds.linkis.manager.am.node.heartbeat.full.sweep.interval", new TimeType("30m"));
+
+  public static final CommonVars<TimeType> NODE_HEARTBEAT_SWEEP_LOOKBACK =
+      CommonVars.apply("wds.linkis.manager.am.node.heartbeat.sweep.lookback", new TimeType("1m"));
 }
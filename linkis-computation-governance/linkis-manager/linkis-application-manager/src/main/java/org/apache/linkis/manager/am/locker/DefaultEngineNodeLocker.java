@@ -17,6 +17,7 @@
 
 package org.apache.linkis.manager.am.locker;
 
+import org.apache.linkis.manager.am.service.engine.IdleEngineIndex;
 import org.apache.linkis.manager.common.entity.node.AMEngineNode;
 import org.apache.linkis.manager.common.entity.node.EngineNode;
 import org.apache.linkis.manager.common.protocol.RequestEngineLock;
@@ -40,16 +41,23 @@ public class DefaultEngineNodeLocker implements EngineNodeLocker {
 
   @Autowired private NodePointerBuilder nodeBuilder;
 
+  @Autowired private IdleEngineIndex idleEngineIndex;
+
   @Override
   public Optional<String> lockEngine(EngineNode engineNode, long timeout) {
-    return nodeBuilder
-        .buildEngineNodePointer(engineNode)
-        .lockEngine(new RequestEngineLock(timeout, EngineLockType.Timed));
+    Optional<String> lock =
+        nodeBuilder
+            .buildEngineNodePointer(engineNode)
+            .lockEngine(new RequestEngineLock(timeout, EngineLockType.Timed));
+    // The engine is not idle any more, whether it is locked by this request or refused
+    idleEngineIndex.markLocked(engineNode.getServiceInstance());
+    return lock;
   }
 
   @Override
   public void releaseLock(EngineNode engineNode, String lock) {
     nodeBuilder.buildEngineNodePointer(engineNode).releaseLock(new RequestEngineUnlock(lock));
+    idleEngineIndex.markUnlocked(engineNode.getServiceInstance());
   }
 
   @Receiver
@@ -18,8 +18,6 @@
 package org.apache.linkis.manager.am.service.cache;
 
 import org.apache.linkis.governance.common.protocol.conf.RemoveCacheConfRequest;
-import org.apache.linkis.governance.common.protocol.conf.RequestQueryEngineConfig;
-import org.apache.linkis.governance.common.protocol.conf.RequestQueryEngineConfigWithGlobalConfig;
 import org.apache.linkis.governance.common.protocol.conf.RequestQueryGlobalConfig;
 import org.apache.linkis.protocol.BroadcastProtocol;
 import org.apache.linkis.rpc.BroadcastListener;
@@ -44,31 +42,12 @@ public class ConfCacheRemoveBroadcastListener implements BroadcastListener {
     if (protocol instanceof RemoveCacheConfRequest) {
       RemoveCacheConfRequest removeCacheConfRequest = (RemoveCacheConfRequest) protocol;
       if (removeCacheConfRequest.userCreatorLabel() != null) {
-        if (removeCacheConfRequest.engineTypeLabel() != null) {
-          RequestQueryEngineConfig request =
-              new RequestQueryEngineConfig(
-                  removeCacheConfRequest.userCreatorLabel(),
-                  removeCacheConfRequest.engineTypeLabel(),
-                  null);
-          RequestQueryEngineConfigWithGlobalConfig globalRequest =
-              new RequestQueryEngineConfigWithGlobalConfig(
-                  removeCacheConfRequest.userCreatorLabel(), request.engineTypeLabel(), null);
-          cacheableRPCInterceptor.removeCache(request.toString());
-          cacheableRPCInterceptor.removeCache(globalRequest.toString());
-          logger.info(
-              String.format(
-                  "success to clear cache about configuration of %s-%s",
-                  removeCacheConfRequest.engineTypeLabel().getStringValue(),
-                  removeCacheConfRequest.userCreatorLabel().getStringValue()));
-        } else {
-          RequestQueryGlobalConfig request =
-              new RequestQueryGlobalConfig(removeCacheConfRequest.userCreatorLabel().getUser());
-          cacheableRPCInterceptor.removeCache(request.toString());
-          logger.info(
-              String.format(
-                  "success to clear cache about global configuration of %s",
-                  removeCacheConfRequest.userCreatorLabel().getUser()));
-        }
+        String user = removeCacheConfRequest.userCreatorLabel().getUser();
+        // The default configuration of "*" is merged into the configuration of all users
+        String cacheScope = "*".equals(user) ? null : user;
+        cacheableRPCInterceptor.invalidate(
+            new RequestQueryGlobalConfig(user).cacheGroup(), cacheScope);
+        logger.info(String.format("success to clear cache about configuration of %s", user));
       }
     }
   }
@@ -17,6 +17,7 @@
 
 package org.apache.linkis.manager.am.service.engine;
 
+import org.apache.linkis.common.ServiceInstance;
 import org.apache.linkis.common.exception.LinkisRetryException;
 import org.apache.linkis.governance.common.conf.GovernanceCommonConf;
 import org.apache.linkis.governance.common.utils.JobUtils;
@@ -77,6 +78,8 @@ public class DefaultEngineReuseService extends AbstractEngineService implements
 
   @Autowired private EngineStopService engineStopService;
 
+  @Autowired private IdleEngineIndex idleEngineIndex;
+
   /**
    * 1. Obtain the EC corresponding to all labels 2. Judging reuse exclusion tags and fixed engine
    * labels 3. Select the EC with the lowest load available 4. Lock the corresponding EC
@@ -132,6 +135,30 @@ public class DefaultEngineReuseService extends AbstractEngineService implements
       }
     }
 
+    long timeout =
+        engineReuseRequest.getTimeOut() <= 0
+            ? AMConfiguration.ENGINE_REUSE_MAX_TIME.getValue().toLong()
+            : engineReuseRequest.getTimeOut();
+    int reuseLimit =
+        engineReuseRequest.getReuseCount() <= 0
+            ? (int) AMConfiguration.ENGINE_REUSE_COUNT_LIMIT.getValue()
+            : engineReuseRequest.getReuseCount();
+
+    // Try the idle engines in index first, db is only the fallback
+    String indexKey = idleEngineIndex.toIndexKey(filterLabelList);
+    long indexStartTime = System.currentTimeMillis();
+    EngineNode indexedEngine = reuseIndexedEngine(indexKey, exclusionInstances, reuseLimit);
+    if (indexedEngine != null) {
+      logger.info(
+          "Task "
+              + taskId
+              + " finished to reuse indexed Engine "
+              + indexedEngine.getServiceInstance()
+              + " time taken "
+              + (System.currentTimeMillis() - indexStartTime));
+      return indexedEngine;
+    }
+
     Map<ScoreServiceInstance, List<Label<?>>> instances =
         nodeLabelService.getScoredNodeMapsByLabels(filterLabelList);
 
@@ -170,14 +197,6 @@ public class DefaultEngineReuseService extends AbstractEngineService implements
     }
 
     List<EngineNode> engines = Lists.newArrayList();
-    long timeout =
-        engineReuseRequest.getTimeOut() <= 0
-            ? AMConfiguration.ENGINE_REUSE_MAX_TIME.getValue().toLong()
-            : engineReuseRequest.getTimeOut();
-    int reuseLimit =
-        engineReuseRequest.getReuseCount() <= 0
-            ? (int) AMConfiguration.ENGINE_REUSE_COUNT_LIMIT.getValue()
-            : engineReuseRequest.getReuseCount();
 
     long startTime = System.currentTimeMillis();
     try {
@@ -220,10 +239,78 @@ public class DefaultEngineReuseService extends AbstractEngineService implements
               + " from engineLabelMap : "
               + AMUtils.toJSONString(instances));
     }
-
+    indexEngines(indexKey, instances, engineScoreList, engine);
     return engine;
   }
 
+  /**
+   * Reuse the idle engine in index by the engine node manager, which checks the real-time status of
+   * the engine before locking it, the same as the engines from db
+   *
+   * @return null if no indexed engine can be locked
+   */
+  private EngineNode reuseIndexedEngine(
+      String indexKey, String[] exclusionInstances, int reuseLimit) {
+    if (!idleEngineIndex.isEnabled() || indexKey == null) {
+      return null;
+    }
+    List<EngineNode> idleEngines = idleEngineIndex.getIdleEngines(indexKey);
+    idleEngines.removeIf(
+        engineNode ->
+            Arrays.stream(exclusionInstances)
+                .anyMatch(
+                    excludeInstance ->
+                        excludeInstance.equalsIgnoreCase(
+                            engineNode.getServiceInstance().getInstance())));
+    int times = 0;
+    while (!idleEngines.isEmpty() && times < reuseLimit) {
+      Optional<Node> choseNode = nodeSelector.choseNode(idleEngines.toArray(new Node[0]));
+      if (!choseNode.isPresent()) {
+        return null;
+      }
+      EngineNode engineNode = (EngineNode) choseNode.get();
+      idleEngines.remove(engineNode);
+      // Claimed by another reuse request
+      if (!idleEngineIndex.tryClaim(engineNode.getServiceInstance())) {
+        continue;
+      }
+      times++;
+      try {
+        EngineNode reuseEngine = getEngineNodeManager().reuseEngine(engineNode);
+        if (reuseEngine != null) {
+          return reuseEngine;
+        }
+        // The engine is not available or is locked, it is indexed again when reused from db
+        logger.info("Indexed engine {} can not be reused", engineNode.getServiceInstance());
+        idleEngineIndex.remove(engineNode.getServiceInstance());
+      } catch (Throwable t) {
+        logger.info("Failed to lock indexed engine " + engineNode.getServiceInstance(), t);
+        idleEngineIndex.remove(engineNode.getServiceInstance());
+      }
+    }
+    return null;
+  }
+
+  private void indexEngines(
+      String indexKey,
+      Map<ScoreServiceInstance, List<Label<?>>> instances,
+      EngineNode[] engineNodes,
+      EngineNode reusedEngine) {
+    if (!idleEngineIndex.isEnabled() || indexKey == null) {
+      return;
+    }
+    Map<ServiceInstance, List<Label<?>>> instanceLabels = new HashMap<>();
+    instances.forEach((key, value) -> instanceLabels.put(key.getServiceInstance(), value));
+    for (EngineNode engineNode : engineNodes) {
+      List<Label<?>> labels = instanceLabels.get(engineNode.getServiceInstance());
+      if (labels != null) {
+        engineNode.setLabels(labels);
+        idleEngineIndex.put(indexKey, engineNode);
+      }
+    }
+    idleEngineIndex.markLocked(reusedEngine.getServiceInstance());
+  }
+
   public boolean selectEngineToReuse(
       MutablePair<Integer, Integer> count2reuseLimit,
       List<EngineNode> engines,
@@ -70,6 +70,8 @@ public class DefaultEngineStopService extends AbstractEngineService implements E
 
   @Autowired private NodeMetricManagerMapper nodeMetricManagerMapper;
 
+  @Autowired private IdleEngineIndex idleEngineIndex;
+
   private ExecutorService EXECUTOR =
       LinkisUtils.newFixedThreadPool(
           AMConfiguration.ASYNC_STOP_ENGINE_MAX_THREAD_SIZE,
@@ -205,6 +207,7 @@ public class DefaultEngineStopService extends AbstractEngineService implements E
   @Override
   public void engineConnInfoClear(EngineNode ecNode) {
     logger.info(String.format("Start to clear ec info %s", ecNode));
+    idleEngineIndex.remove(ecNode.getServiceInstance());
     // 1. to clear engine resource
     try {
       resourceManager.resourceReleased(ecNode);
@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.manager.am.service.engine;
+
+import org.apache.linkis.common.ServiceInstance;
+import org.apache.linkis.manager.am.conf.AMConfiguration;
+import org.apache.linkis.manager.common.entity.enumeration.NodeStatus;
+import org.apache.linkis.manager.common.entity.node.AMEngineNode;
+import org.apache.linkis.manager.common.entity.node.EngineNode;
+import org.apache.linkis.manager.label.entity.Feature;
+import org.apache.linkis.manager.label.entity.Label;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory index of the idle(Unlock) EngineConns keyed by the core labels of reuse, so that a
+ * reuse request can be answered without querying the labels and metrics in db.
+ * (按复用标签索引的空闲EC内存索引，复用时无需查询数据库)
+ *
+ * <p>The engines are indexed from the result of the db path, then kept current by the heartbeats
+ * and the lock/unlock of the engines. The index is only a hint: an engine is always locked by the
+ * lock rpc before reused, which is refused by the engine not idle, so a stale entry only costs a
+ * failed lock. The entries not refreshed within the ttl are dropped.
+ */
+@Component
+public class IdleEngineIndex {
+
+  private static final Logger logger = LoggerFactory.getLogger(IdleEngineIndex.class);
+
+  private static final String KEY_SEPARATOR = "\u0001";
+
+  private final Map<String, Map<ServiceInstance, IndexedEngine>> indexedEngines =
+      new ConcurrentHashMap<>();
+
+  private final Map<ServiceInstance, IndexedEngine> instanceEngines = new ConcurrentHashMap<>();
+
+  private final boolean enabled;
+
+  private final long ttl;
+
+  public IdleEngineIndex() {
+    this(
+        AMConfiguration.ENGINE_REUSE_INDEX_ENABLED.getValue(),
+        AMConfiguration.ENGINE_REUSE_INDEX_TTL.getValue().toLong());
+  }
+
+  public IdleEngineIndex(boolean enabled, long ttl) {
+    this.enabled = enabled;
+    this.ttl = ttl;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * The index key of the reuse labels, which are sorted core labels, the same as the necessary
+   * labels matched by NodeLabelService.getScoredNodeMapsByLabels
+   *
+   * @return null if there is no core label, such labels are not indexed
+   */
+  public String toIndexKey(List<Label<?>> labels) {
+    if (labels == null) {
+      return null;
+    }
+    List<String> coreLabels =
+        labels.stream()
+            .filter(label -> label.getFeature() == Feature.CORE)
+            .map(label -> label.getLabelKey() + "=" + label.getStringValue())
+            .sorted()
+            .collect(Collectors.toList());
+    return coreLabels.isEmpty() ? null : String.join(KEY_SEPARATOR, coreLabels);
+  }
+
+  /**
+   * Index the engine matched by the labels of the key
+   *
+   * @param engineNode the engine loaded from db, with the labels, metrics and resource
+   */
+  public void put(String key, EngineNode engineNode) {
+    if (!enabled || key == null || engineNode == null) {
+      return;
+    }
+    ServiceInstance serviceInstance = engineNode.getServiceInstance();
+    IndexedEngine indexedEngine = new IndexedEngine(key, copyOf(engineNode));
+    indexedEngine.idle.set(NodeStatus.Unlock == engineNode.getNodeStatus());
+    IndexedEngine old = instanceEngines.put(serviceInstance, indexedEngine);
+    if (old != null && !key.equals(old.key)) {
+      removeFromKey(old.key, serviceInstance, old);
+    }
+    indexedEngines
+        .computeIfAbsent(key, k -> new ConcurrentHashMap<>())
+        .put(serviceInstance, indexedEngine);
+  }
+
+  /**
+   * The idle engines of the key, the returned engines are copies and are not claimed yet
+   *
+   * @see #tryClaim(ServiceInstance)
+   */
+  public List<EngineNode> getIdleEngines(String key) {
+    List<EngineNode> idleEngines = new ArrayList<>();
+    if (!enabled || key == null) {
+      return idleEngines;
+    }
+    Map<ServiceInstance, IndexedEngine> engines = indexedEngines.get(key);
+    if (engines == null) {
+      return idleEngines;
+    }
+    long now = System.currentTimeMillis();
+    for (IndexedEngine indexedEngine : engines.values()) {
+      if (now - indexedEngine.updateTime > ttl) {
+        logger.debug(
+            "Engine {} is expired in index", indexedEngine.engineNode.getServiceInstance());
+        remove(indexedEngine.engineNode.getServiceInstance());
+      } else if (indexedEngine.idle.get()) {
+        idleEngines.add(copyOf(indexedEngine.engineNode));
+      }
+    }
+    return idleEngines;
+  }
+
+  /**
+   * Mark the idle engine to be locked by the caller, so that the concurrent reuse requests do not
+   * request the lock of the same engine
+   *
+   * @return false if the engine is not idle in index
+   */
+  public boolean tryClaim(ServiceInstance serviceInstance) {
+    IndexedEngine indexedEngine = instanceEngines.get(serviceInstance);
+    return indexedEngine != null && indexedEngine.idle.compareAndSet(true, false);
+  }
+
+  public void markLocked(ServiceInstance serviceInstance) {
+    IndexedEngine indexedEngine = instanceEngines.get(serviceInstance);
+    if (indexedEngine != null) {
+      indexedEngine.idle.set(false);
+      indexedEngine.updateTime = System.currentTimeMillis();
+    }
+  }
+
+  public void markUnlocked(ServiceInstance serviceInstance) {
+    IndexedEngine indexedEngine = instanceEngines.get(serviceInstance);
+    if (indexedEngine != null) {
+      indexedEngine.idle.set(true);
+      indexedEngine.updateTime = System.currentTimeMillis();
+    }
+  }
+
+  /** Update the engine indexed by the status reported in heartbeat */
+  public void updateStatus(ServiceInstance serviceInstance, NodeStatus status) {
+    if (status == null || !instanceEngines.containsKey(serviceInstance)) {
+      return;
+    }
+    if (NodeStatus.isCompleted(status)) {
+      remove(serviceInstance);
+    } else if (NodeStatus.Unlock == status) {
+      markUnlocked(serviceInstance);
+    } else {
+      markLocked(serviceInstance);
+    }
+  }
+
+  public void remove(ServiceInstance serviceInstance) {
+    if (serviceInstance == null) {
+      return;
+    }
+    IndexedEngine indexedEngine = instanceEngines.remove(serviceInstance);
+    if (indexedEngine != null) {
+      removeFromKey(indexedEngine.key, serviceInstance, indexedEngine);
+    }
+  }
+
+  public int size() {
+    return instanceEngines.size();
+  }
+
+  private void removeFromKey(
+      String key, ServiceInstance serviceInstance, IndexedEngine indexedEngine) {
+    indexedEngines.computeIfPresent(
+        key,
+        (k, engines) -> {
+          engines.remove(serviceInstance, indexedEngine);
+          return engines.isEmpty() ? null : engines;
+        });
+  }
+
+  private static AMEngineNode copyOf(EngineNode engineNode) {
+    AMEngineNode copy = new AMEngineNode();
+    copy.setServiceInstance(engineNode.getServiceInstance());
+    copy.setLabels(engineNode.getLabels());
+    copy.setNodeStatus(engineNode.getNodeStatus());
+    copy.setNodeResource(engineNode.getNodeResource());
+    copy.setOwner(engineNode.getOwner());
+    copy.setMark(engineNode.getMark());
+    copy.setIdentifier(engineNode.getIdentifier());
+    copy.setEMNode(engineNode.getEMNode());
+    copy.setNodeTaskInfo(engineNode.getNodeTaskInfo());
+    copy.setNodeOverLoadInfo(engineNode.getNodeOverLoadInfo());
+    copy.setNodeHealthyInfo(engineNode.getNodeHealthyInfo());
+    copy.setStartTime(engineNode.getStartTime());
+    copy.setUpdateTime(engineNode.getUpdateTime());
+    copy.setTicketId(engineNode.getTicketId());
+    copy.setEcMetrics(engineNode.getEcMetrics());
+    if (engineNode instanceof AMEngineNode) {
+      copy.setScore(((AMEngineNode) engineNode).getScore());
+    }
+    return copy;
+  }
+
+  private static class IndexedEngine {
+
+    private final String key;
+
+    private final AMEngineNode engineNode;
+
+    private final AtomicBoolean idle = new AtomicBoolean(false);
+
+    private volatile long updateTime = System.currentTimeMillis();
+
+    private IndexedEngine(String key, AMEngineNode engineNode) {
+      this.key = key;
+      this.engineNode = engineNode;
+    }
+  }
+}
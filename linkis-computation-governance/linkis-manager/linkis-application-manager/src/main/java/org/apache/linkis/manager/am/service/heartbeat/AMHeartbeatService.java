@@ -20,6 +20,7 @@ package org.apache.linkis.manager.am.service.heartbeat;
 import org.apache.linkis.common.utils.Utils;
 import org.apache.linkis.manager.am.conf.ManagerMonitorConf;
 import org.apache.linkis.manager.am.service.HeartbeatService;
+import org.apache.linkis.manager.am.service.engine.IdleEngineIndex;
 import org.apache.linkis.manager.common.conf.RMConfiguration;
 import org.apache.linkis.manager.common.entity.metrics.AMNodeMetrics;
 import org.apache.linkis.manager.common.monitor.ManagerMonitor;
@@ -49,6 +50,8 @@ public class AMHeartbeatService implements HeartbeatService {
 
   @Autowired private MetricsConverter metricsConverter;
 
+  @Autowired private IdleEngineIndex idleEngineIndex;
+
   @Autowired(required = false)
   private ManagerMonitor managerMonitor;
 
@@ -81,6 +84,8 @@ public class AMHeartbeatService implements HeartbeatService {
       nodeMetrics.setStatus(0);
     }
     nodeMetricManagerPersistence.addOrupdateNodeMetrics(nodeMetrics);
+    idleEngineIndex.updateStatus(
+        nodeHeartbeatMsg.getServiceInstance(), nodeHeartbeatMsg.getStatus());
     logger.info("Finished to deal nodeHeartbeatMsg {}", nodeHeartbeatMsg);
   }
 }
@@ -87,6 +87,22 @@ public class NodeHeartbeatMonitor implements ManagerMonitor {
   private final long ecmHeartBeatTime =
       ManagerMonitorConf.ECM_HEARTBEAT_MAX_UPDATE_TIME.getValue().toLong();
 
+  private final long fullSweepInterval =
+      ManagerMonitorConf.NODE_HEARTBEAT_FULL_SWEEP_INTERVAL.getValue().toLong();
+
+  private final long sweepLookback =
+      ManagerMonitorConf.NODE_HEARTBEAT_SWEEP_LOOKBACK.getValue().toLong();
+
+  /**
+   * instance -> the status and update time of the node metrics, kept across sweeps so that only the
+   * metrics updated since the last sweep need to be loaded(跨轮次维护的节点指标索引)
+   */
+  private final Map<String, NodeMetricSnapshot> nodeMetricIndex = new HashMap<>();
+
+  private long lastSweepTime = 0L;
+
+  private long lastFullSweepTime = 0L;
+
   /**
    * 1. Scan all nodes regularly for three minutes to determine the update time of Metrics, 2. If
    * the update time exceeds a period of time and has not been updated, initiate a Metrics update
@@ -100,42 +116,33 @@ public class NodeHeartbeatMonitor implements ManagerMonitor {
     LinkisUtils.tryAndWarn(
         () -> {
           logger.info("Start to check the health of the node");
+          long startTime = System.currentTimeMillis();
           // 1.get nodes
           List<Node> nodes = nodeManagerPersistence.getAllNodes();
-          List<NodeMetrics> metricList = nodeMetricManagerPersistence.getNodeMetrics(nodes);
-          if (null != metricList) {
-            for (Node node : nodes) {
-              for (NodeMetrics metrics : metricList) {
-                if (metrics
-                    .getServiceInstance()
-                    .toString()
-                    .equals(node.getServiceInstance().toString())) {
-                  node.setNodeStatus(NodeStatus.values()[metrics.getStatus()]);
-                  node.setUpdateTime(metrics.getUpdateTime());
-                  break;
-                }
-              }
-            }
-          }
-          // EngineConn remove
+          refreshNodeMetricIndex(nodes);
           List<Node> engineNodes = new ArrayList<>();
+          List<Node> ecmNodes = new ArrayList<>();
           for (Node node : nodes) {
-            if (node.getServiceInstance().getApplicationName().equalsIgnoreCase(ecName)) {
+            NodeMetricSnapshot snapshot =
+                nodeMetricIndex.get(node.getServiceInstance().getInstance());
+            if (null != snapshot) {
+              node.setNodeStatus(snapshot.nodeStatus);
+              node.setUpdateTime(snapshot.updateTime);
+            }
+            String applicationName = node.getServiceInstance().getApplicationName();
+            if (applicationName.equalsIgnoreCase(ecName)) {
               engineNodes.add(node);
+            } else if (applicationName.equalsIgnoreCase(ecmName)) {
+              ecmNodes.add(node);
             }
           }
+          // EngineConn remove
           LinkisUtils.tryAndWarn(
               () -> {
                 dealECNodes(engineNodes);
               },
               logger);
 
-          List<Node> ecmNodes = new ArrayList<>();
-          for (Node node : nodes) {
-            if (node.getServiceInstance().getApplicationName().equalsIgnoreCase(ecmName)) {
-              ecmNodes.add(node);
-            }
-          }
           dealECMNotExistsInRegistry(ecmNodes);
 
           /* val engineMetricList = nodeMetricManagerPersistence.getNodeMetrics(engineNodes)
@@ -148,11 +155,50 @@ public class NodeHeartbeatMonitor implements ManagerMonitor {
            dealStockAvailableList(stockAvailableList)
            val stockUnAvailableList = filterStockUnAvailableList(engineMetricList)
            dealStockUnAvailableList(stockUnAvailableList) */
-          logger.info("Finished to check the health of the node");
+          logger.info(
+              "Finished to check the health of {} nodes, taken {}ms",
+              nodes.size(),
+              System.currentTimeMillis() - startTime);
         },
         logger);
   }
 
+  /**
+   * Load all the metrics of the nodes at the first sweep and every fullSweepInterval, otherwise
+   * only load the metrics updated since the last sweep(minus sweepLookback to tolerate the clock
+   * skew between manager and database) and merge them into nodeMetricIndex
+   *
+   * @param nodes all nodes in this sweep
+   */
+  private void refreshNodeMetricIndex(List<Node> nodes) {
+    long sweepTime = System.currentTimeMillis();
+    if (sweepTime - lastFullSweepTime > fullSweepInterval) {
+      List<NodeMetrics> metricList = nodeMetricManagerPersistence.getNodeMetrics(nodes);
+      nodeMetricIndex.clear();
+      if (null != metricList) {
+        metricList.forEach(this::indexNodeMetrics);
+      }
+      lastFullSweepTime = sweepTime;
+      logger.info("Full loaded {} node metrics", nodeMetricIndex.size());
+    } else {
+      List<NodeMetrics> updatedMetrics =
+          nodeMetricManagerPersistence.getNodeMetricsByUpdateTime(
+              new Date(lastSweepTime - sweepLookback));
+      updatedMetrics.forEach(this::indexNodeMetrics);
+      Set<String> instances = new HashSet<>(nodes.size() * 2);
+      nodes.forEach(node -> instances.add(node.getServiceInstance().getInstance()));
+      nodeMetricIndex.keySet().retainAll(instances);
+      logger.info("Incremental loaded {} node metrics", updatedMetrics.size());
+    }
+    lastSweepTime = sweepTime;
+  }
+
+  private void indexNodeMetrics(NodeMetrics metrics) {
+    nodeMetricIndex.put(
+        metrics.getServiceInstance().getInstance(),
+        new NodeMetricSnapshot(NodeStatus.values()[metrics.getStatus()], metrics.getUpdateTime()));
+  }
+
   /**
    * 1. When the engine starts, the status is empty, and it needs to judge whether the startup
    * timeout, if the startup timeout, kill directly 2. After the engine is in the state, it is
@@ -163,8 +209,8 @@ public class NodeHeartbeatMonitor implements ManagerMonitor {
    * @param engineNodes
    */
   private void dealECNodes(List<Node> engineNodes) {
-    List<ServiceInstance> existingEngineInstances =
-        Arrays.stream(Sender.getInstances(ecName)).collect(Collectors.toList());
+    Set<ServiceInstance> existingEngineInstances =
+        new HashSet<>(Arrays.asList(Sender.getInstances(ecName)));
     Set<ServiceInstance> clearECSet = new HashSet<>();
     engineNodes.forEach(
         engineNode -> {
@@ -202,46 +248,53 @@ public class NodeHeartbeatMonitor implements ManagerMonitor {
     clearECSet.forEach(this::clearEngineNode);
   }
 
-  private void updateMetrics(Node node) {
-    NodeMetrics metric = nodeMetricManagerPersistence.getNodeMetrics(node);
-    if (metric != null) {
-      node.setNodeStatus(NodeStatus.values()[metric.getStatus()]);
-      node.setUpdateTime(metric.getUpdateTime());
-    }
-  }
-
   private void dealECMNotExistsInRegistry(List<Node> ecmNodes) {
-    List<ServiceInstance> existingECMInstances =
-        Arrays.stream(Sender.getInstances(ecName)).collect(Collectors.toList());
-    ecmNodes.forEach(
-        ecm -> {
-          long updateTime =
-              ecm.getUpdateTime() == null
-                  ? ecm.getStartTime().getTime()
-                  : ecm.getUpdateTime().getTime();
-
-          boolean updateOverdue = (System.currentTimeMillis() - updateTime) > ecmHeartBeatTime;
-
-          if (!existingECMInstances.contains(ecm.getServiceInstance()) && updateOverdue) {
-            LinkisUtils.tryAndWarn(() -> updateMetrics(ecm), logger);
-            boolean isUpdateOverdue =
-                ecm.getUpdateTime() == null
-                    ? (System.currentTimeMillis() - ecm.getStartTime().getTime()) > ecmHeartBeatTime
-                    : (System.currentTimeMillis() - ecm.getUpdateTime().getTime())
-                        > ecmHeartBeatTime;
-            boolean isExistingECMInstances =
-                existingECMInstances.contains(ecm.getServiceInstance());
-            if (!isExistingECMInstances && isUpdateOverdue) {
-              logger.warn(
-                  "Failed to find ecm instance {} from Service Registry to kill",
-                  ecm.getServiceInstance());
-
-              triggerEMSuicide(ecm.getServiceInstance());
+    Set<ServiceInstance> existingECMInstances =
+        new HashSet<>(Arrays.asList(Sender.getInstances(ecName)));
+    List<Node> overdueECMNodes =
+        ecmNodes.stream()
+            .filter(
+                ecm ->
+                    !existingECMInstances.contains(ecm.getServiceInstance())
+                        && isECMUpdateOverdue(ecm))
+            .collect(Collectors.toList());
+    if (overdueECMNodes.isEmpty()) {
+      return;
+    }
+    // Reload the metrics of the overdue ecm in one query before killing them
+    LinkisUtils.tryAndWarn(
+        () -> {
+          Map<String, Node> instanceToECM = new HashMap<>(overdueECMNodes.size() * 2);
+          overdueECMNodes.forEach(
+              ecm -> instanceToECM.put(ecm.getServiceInstance().getInstance(), ecm));
+          for (NodeMetrics metric : nodeMetricManagerPersistence.getNodeMetrics(overdueECMNodes)) {
+            Node ecm = instanceToECM.get(metric.getServiceInstance().getInstance());
+            if (ecm != null) {
+              ecm.setNodeStatus(NodeStatus.values()[metric.getStatus()]);
+              ecm.setUpdateTime(metric.getUpdateTime());
+              indexNodeMetrics(metric);
             }
           }
+        },
+        logger);
+    overdueECMNodes.forEach(
+        ecm -> {
+          if (isECMUpdateOverdue(ecm)) {
+            logger.warn(
+                "Failed to find ecm instance {} from Service Registry to kill",
+                ecm.getServiceInstance());
+
+            triggerEMSuicide(ecm.getServiceInstance());
+          }
         });
   }
 
+  private boolean isECMUpdateOverdue(Node ecm) {
+    long updateTime =
+        ecm.getUpdateTime() == null ? ecm.getStartTime().getTime() : ecm.getUpdateTime().getTime();
+    return (System.currentTimeMillis() - updateTime) > ecmHeartBeatTime;
+  }
+
   /**
    * When the EM status is Healthy and WARN: 1. Determine the update time of Metrics. If it is not
    * reported for more than a certain period of time, initiate a Metrics update request. 2. If send
@@ -369,4 +422,16 @@ public class NodeHeartbeatMonitor implements ManagerMonitor {
       triggerEMToStopEngine(nodeMetric.getServiceInstance());
     }
   }
+
+  private static class NodeMetricSnapshot {
+
+    private final NodeStatus nodeStatus;
+
+    private final Date updateTime;
+
+    NodeMetricSnapshot(NodeStatus nodeStatus, Date updateTime) {
+      this.nodeStatus = nodeStatus;
+      this.updateTime = updateTime;
+    }
+  }
 }
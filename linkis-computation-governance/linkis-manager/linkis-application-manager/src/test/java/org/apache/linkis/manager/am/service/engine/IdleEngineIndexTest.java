@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.manager.am.service.engine;
+
+import org.apache.linkis.common.ServiceInstance;
+import org.apache.linkis.manager.common.entity.enumeration.NodeStatus;
+import org.apache.linkis.manager.common.entity.node.AMEngineNode;
+import org.apache.linkis.manager.label.entity.Label;
+import org.apache.linkis.manager.label.entity.engine.EngineTypeLabel;
+import org.apache.linkis.manager.label.entity.engine.UserCreatorLabel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class IdleEngineIndexTest {
+
+  private final ServiceInstance engine1 =
+      ServiceInstance.apply("linkis-cg-engineconn", "host1:10001");
+
+  private final ServiceInstance engine2 =
+      ServiceInstance.apply("linkis-cg-engineconn", "host1:10002");
+
+  @Test
+  @DisplayName("toIndexKeyTest")
+  public void toIndexKeyTest() {
+    IdleEngineIndex index = new IdleEngineIndex(true, 60000L);
+    String key = index.toIndexKey(labels("hadoop", "spark"));
+    List<Label<?>> reversed = labels("hadoop", "spark");
+    Collections.reverse(reversed);
+    Assertions.assertEquals(key, index.toIndexKey(reversed));
+    Assertions.assertNotEquals(key, index.toIndexKey(labels("hadoop", "hive")));
+    Assertions.assertNull(index.toIndexKey(new ArrayList<>()));
+  }
+
+  @Test
+  @DisplayName("claimTest")
+  public void claimTest() {
+    IdleEngineIndex index = new IdleEngineIndex(true, 60000L);
+    String key = index.toIndexKey(labels("hadoop", "spark"));
+    index.put(key, engineNode(engine1, NodeStatus.Unlock));
+    index.put(key, engineNode(engine2, NodeStatus.Busy));
+    Assertions.assertEquals(2, index.size());
+    Assertions.assertEquals(1, index.getIdleEngines(key).size());
+    Assertions.assertEquals(engine1, index.getIdleEngines(key).get(0).getServiceInstance());
+    Assertions.assertTrue(
+        index.getIdleEngines(index.toIndexKey(labels("hadoop", "hive"))).isEmpty());
+
+    Assertions.assertTrue(index.tryClaim(engine1));
+    Assertions.assertFalse(index.tryClaim(engine1));
+    Assertions.assertFalse(index.tryClaim(engine2));
+    Assertions.assertTrue(index.getIdleEngines(key).isEmpty());
+
+    index.markUnlocked(engine1);
+    Assertions.assertEquals(1, index.getIdleEngines(key).size());
+  }
+
+  @Test
+  @DisplayName("updateStatusTest")
+  public void updateStatusTest() {
+    IdleEngineIndex index = new IdleEngineIndex(true, 60000L);
+    String key = index.toIndexKey(labels("hadoop", "spark"));
+    index.put(key, engineNode(engine1, NodeStatus.Busy));
+    // Not indexed engine is ignored
+    index.updateStatus(engine2, NodeStatus.Unlock);
+    Assertions.assertEquals(1, index.size());
+
+    index.updateStatus(engine1, NodeStatus.Unlock);
+    Assertions.assertEquals(1, index.getIdleEngines(key).size());
+    index.updateStatus(engine1, NodeStatus.Idle);
+    Assertions.assertTrue(index.getIdleEngines(key).isEmpty());
+    index.updateStatus(engine1, NodeStatus.ShuttingDown);
+    Assertions.assertEquals(0, index.size());
+  }
+
+  @Test
+  @DisplayName("ttlAndDisabledTest")
+  public void ttlAndDisabledTest() throws InterruptedException {
+    IdleEngineIndex expired = new IdleEngineIndex(true, 1L);
+    String key = expired.toIndexKey(labels("hadoop", "spark"));
+    expired.put(key, engineNode(engine1, NodeStatus.Unlock));
+    Thread.sleep(10);
+    Assertions.assertTrue(expired.getIdleEngines(key).isEmpty());
+    Assertions.assertEquals(0, expired.size());
+
+    IdleEngineIndex disabled = new IdleEngineIndex(false, 60000L);
+    disabled.put(key, engineNode(engine1, NodeStatus.Unlock));
+    Assertions.assertEquals(0, disabled.size());
+    Assertions.assertTrue(disabled.getIdleEngines(key).isEmpty());
+  }
+
+  private List<Label<?>> labels(String user, String engineType) {
+    UserCreatorLabel userCreatorLabel = new UserCreatorLabel();
+    userCreatorLabel.setUser(user);
+    userCreatorLabel.setCreator("IDE");
+    EngineTypeLabel engineTypeLabel = new EngineTypeLabel();
+    engineTypeLabel.setEngineType(engineType);
+    engineTypeLabel.setVersion("1.0");
+    return new ArrayList<>(Arrays.asList(userCreatorLabel, engineTypeLabel));
+  }
+
+  private AMEngineNode engineNode(ServiceInstance serviceInstance, NodeStatus status) {
+    AMEngineNode engineNode = new AMEngineNode(1.0, serviceInstance);
+    engineNode.setNodeStatus(status);
+    return engineNode;
+  }
+}
@@ -20,6 +20,7 @@ package org.apache.linkis.manager;
 import org.apache.linkis.manager.dao.*;
 import org.apache.linkis.manager.persistence.*;
 import org.apache.linkis.manager.persistence.impl.*;
+import org.apache.linkis.manager.util.PersistenceManagerConf;
 
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
@@ -76,6 +77,13 @@ public class PersistenceSpringConfiguration {
     DefaultLockManagerPersistence defaultLockManagerPersistence =
         new DefaultLockManagerPersistence();
     defaultLockManagerPersistence.setLockManagerMapper(lockManagerMapper);
+    if (PersistenceManagerConf.LOCK_PERSISTENCE_TYPE_MEMORY.equalsIgnoreCase(
+        PersistenceManagerConf.Lock_persistence_type)) {
+      InMemoryLockManagerPersistence inMemoryLockManagerPersistence =
+          new InMemoryLockManagerPersistence();
+      inMemoryLockManagerPersistence.setDbLockManagerPersistence(defaultLockManagerPersistence);
+      return inMemoryLockManagerPersistence;
+    }
     return defaultLockManagerPersistence;
   }
 
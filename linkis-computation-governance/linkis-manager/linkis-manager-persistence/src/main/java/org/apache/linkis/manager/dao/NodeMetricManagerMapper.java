@@ -22,6 +22,7 @@ import org.apache.linkis.manager.common.entity.persistence.PersistenceNodeMetric
 
 import org.apache.ibatis.annotations.*;
 
+import java.util.Date;
 import java.util.List;
 
 public interface NodeMetricManagerMapper {
@@ -44,6 +45,9 @@ public interface NodeMetricManagerMapper {
 
   List<PersistenceNodeMetricsEntity> getAllNodeMetrics();
 
+  List<PersistenceNodeMetricsEntity> getNodeMetricsByUpdateTime(
+      @Param("updateTime") Date updateTime);
+
   int updateNodeStatus(
       @Param("instance") String instance,
       @Param("instanceStatus") int instanceStatus,
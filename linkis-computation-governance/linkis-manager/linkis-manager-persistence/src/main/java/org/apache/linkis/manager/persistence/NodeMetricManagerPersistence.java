@@ -21,6 +21,7 @@ import org.apache.linkis.manager.common.entity.metrics.NodeMetrics;
 import org.apache.linkis.manager.common.entity.node.Node;
 import org.apache.linkis.manager.exception.PersistenceErrorException;
 
+import java.util.Date;
 import java.util.List;
 
 public interface NodeMetricManagerPersistence {
@@ -68,4 +69,13 @@ public interface NodeMetricManagerPersistence {
   void deleteNodeMetrics(Node node);
 
   List<NodeMetrics> getAllNodeMetrics();
+
+  /**
+   * Get the status of the nodes whose metrics were updated at or after updateTime, the heartbeat
+   * message and overload are not loaded(获取更新时间晚于updateTime的节点状态)
+   *
+   * @param updateTime
+   * @return
+   */
+  List<NodeMetrics> getNodeMetricsByUpdateTime(Date updateTime);
 }
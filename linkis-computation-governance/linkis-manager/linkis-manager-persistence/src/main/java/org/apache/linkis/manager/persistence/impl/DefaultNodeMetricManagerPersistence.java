@@ -32,7 +32,9 @@ import org.apache.linkis.manager.persistence.NodeMetricManagerPersistence;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -149,12 +151,18 @@ public class DefaultNodeMetricManagerPersistence implements NodeMetricManagerPer
     List<PersistenceNodeMetrics> persistenceNodeMetricsList =
         nodeMetricManagerMapper.getNodeMetricsByInstances(instances);
 
+    Map<String, List<Node>> instanceToNodes = new HashMap<>(nodes.size() * 2);
+    for (Node node : nodes) {
+      instanceToNodes
+          .computeIfAbsent(node.getServiceInstance().getInstance(), k -> new ArrayList<>(1))
+          .add(node);
+    }
     for (PersistenceNodeMetrics persistenceNodeMetric : persistenceNodeMetricsList) {
-      for (Node node : nodes) {
-        if (persistenceNodeMetric.getInstance().equals(node.getServiceInstance().getInstance())) {
-          persistenceNodeMetric.setServiceInstance(node.getServiceInstance());
-          nodeMetricsList.add(persistenceNodeMetric);
-        }
+      List<Node> matchedNodes = instanceToNodes.get(persistenceNodeMetric.getInstance());
+      if (matchedNodes == null) continue;
+      for (Node node : matchedNodes) {
+        persistenceNodeMetric.setServiceInstance(node.getServiceInstance());
+        nodeMetricsList.add(persistenceNodeMetric);
       }
     }
 
@@ -196,4 +204,25 @@ public class DefaultNodeMetricManagerPersistence implements NodeMetricManagerPer
     }
     return persistenceNodeMetricsList;
   }
+
+  @Override
+  public List<NodeMetrics> getNodeMetricsByUpdateTime(Date updateTime) {
+    List<PersistenceNodeMetricsEntity> updatedNodeMetrics =
+        nodeMetricManagerMapper.getNodeMetricsByUpdateTime(updateTime);
+    List<NodeMetrics> nodeMetricsList = new ArrayList<>(updatedNodeMetrics.size());
+    for (PersistenceNodeMetricsEntity persistenceNodeMetricsEntity : updatedNodeMetrics) {
+      PersistenceNodeMetrics persistenceNodeMetrics = new PersistenceNodeMetrics();
+      ServiceInstance serviceInstance = new ServiceInstance();
+      serviceInstance.setApplicationName(persistenceNodeMetricsEntity.getName());
+      serviceInstance.setInstance(persistenceNodeMetricsEntity.getInstance());
+      persistenceNodeMetrics.setServiceInstance(serviceInstance);
+      persistenceNodeMetrics.setInstance(persistenceNodeMetricsEntity.getInstance());
+      persistenceNodeMetrics.setHealthy(persistenceNodeMetricsEntity.getHealthy());
+      persistenceNodeMetrics.setStatus(persistenceNodeMetricsEntity.getStatus());
+      persistenceNodeMetrics.setCreateTime(persistenceNodeMetricsEntity.getCreateTime());
+      persistenceNodeMetrics.setUpdateTime(persistenceNodeMetricsEntity.getUpdateTime());
+      nodeMetricsList.add(persistenceNodeMetrics);
+    }
+    return nodeMetricsList;
+  }
 }
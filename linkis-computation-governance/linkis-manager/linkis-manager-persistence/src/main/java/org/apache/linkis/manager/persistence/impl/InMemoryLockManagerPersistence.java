@@ -0,0 +1,317 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.manager.persistence.impl;
+
+import org.apache.linkis.manager.common.entity.persistence.PersistenceLock;
+import org.apache.linkis.manager.persistence.LockManagerPersistence;
+import org.apache.linkis.manager.util.PersistenceManagerConf;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the resource lock queues in the memory of the manager(在manager内存中维护资源锁队列), so the waiters
+ * of a lock object no longer poll the lock table. Every lock object has a fair queue, and the first
+ * waiter gets the lock when it is released. A holder gets a lease; when the lease expires, the
+ * waiters take the lock over instead of waiting for the periodic clean up.
+ *
+ * <p>Memory locks are not visible to other managers, so the head of a queue writes its lock into
+ * the lock table before the lock is granted, and deletes it on release. Another manager, which
+ * queues its locks in memory or in DB, always sees the lock, and there is no window while the
+ * managers find each other in the registry. With a single manager the row is the only one of its
+ * lock object and is granted at once; with several managers only the queue heads poll the lock
+ * table. The wait and hold time of the locks are recorded as histograms in the global meter
+ * registry.
+ */
+public class InMemoryLockManagerPersistence implements LockManagerPersistence {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(InMemoryLockManagerPersistence.class);
+
+  private static final String WAIT_METRIC = "linkis.manager.lock.wait";
+
+  private static final String HOLD_METRIC = "linkis.manager.lock.hold";
+
+  private LockManagerPersistence dbLockManagerPersistence;
+
+  private long leaseTime = PersistenceManagerConf.Memory_lock_lease_time;
+
+  private final Map<String, LockQueue> lockQueues = new ConcurrentHashMap<>();
+
+  private final Timer memoryLockedTimer = waitTimer("memory", "locked");
+  private final Timer memoryTimeoutTimer = waitTimer("memory", "timeout");
+  private final Timer dbLockedTimer = waitTimer("db", "locked");
+  private final Timer dbTimeoutTimer = waitTimer("db", "timeout");
+  private final Timer holdTimer = holdTimer();
+
+  public LockManagerPersistence getDbLockManagerPersistence() {
+    return dbLockManagerPersistence;
+  }
+
+  public void setDbLockManagerPersistence(LockManagerPersistence dbLockManagerPersistence) {
+    this.dbLockManagerPersistence = dbLockManagerPersistence;
+  }
+
+  public long getLeaseTime() {
+    return leaseTime;
+  }
+
+  public void setLeaseTime(long leaseTime) {
+    this.leaseTime = leaseTime;
+  }
+
+  @Override
+  public Boolean lock(PersistenceLock persistenceLock, Long timeOut) {
+    if (StringUtils.isBlank(persistenceLock.getLockObject())) {
+      return true;
+    }
+    long startTime = System.currentTimeMillis();
+    long deadline = timeOut >= Long.MAX_VALUE - startTime ? Long.MAX_VALUE : startTime + timeOut;
+    persistenceLock.setTimeOut(timeOut);
+    // Enqueue atomically with the lookup, an idle queue may be removed at the same time
+    LockQueue queue =
+        lockQueues.compute(
+            persistenceLock.getLockObject(),
+            (lockObject, lockQueue) -> {
+              LockQueue result = lockQueue == null ? new LockQueue() : lockQueue;
+              synchronized (result) {
+                result.waiters.addLast(persistenceLock);
+              }
+              return result;
+            });
+    boolean isLocked = false;
+    synchronized (queue) {
+      try {
+        long now = System.currentTimeMillis();
+        while (!(isLocked = queue.tryAcquire(persistenceLock, now)) && now < deadline) {
+          // Wake up in time to take over an expired lease
+          queue.wait(Math.max(1L, Math.min(deadline, queue.leaseExpireTime) - now));
+          now = System.currentTimeMillis();
+        }
+      } catch (InterruptedException e) {
+        logger.info("lock waiting interrupted", e);
+        Thread.currentThread().interrupt();
+      } finally {
+        if (!isLocked) {
+          queue.waiters.remove(persistenceLock);
+          // The next waiter may be at the head now
+          queue.notifyAll();
+        }
+      }
+    }
+    long memoryLockTime = System.currentTimeMillis();
+    if (isLocked) {
+      memoryLockedTimer.record(memoryLockTime - startTime, TimeUnit.MILLISECONDS);
+      isLocked = lockByDb(queue, persistenceLock, memoryLockTime, deadline);
+    } else {
+      memoryTimeoutTimer.record(memoryLockTime - startTime, TimeUnit.MILLISECONDS);
+    }
+    if (!isLocked) {
+      logger.error(
+          "Failed to get lock {} by time out {} s",
+          persistenceLock.getLockObject(),
+          (System.currentTimeMillis() - startTime) / 1000);
+      removeIfIdle(persistenceLock.getLockObject());
+    }
+    return isLocked;
+  }
+
+  /** Writes the lock of the queue head into the lock table, where the other managers can see it */
+  private boolean lockByDb(
+      LockQueue queue, PersistenceLock persistenceLock, long startTime, long deadline) {
+    long remainTime =
+        deadline == Long.MAX_VALUE ? Long.MAX_VALUE : deadline - System.currentTimeMillis();
+    boolean isLocked = false;
+    try {
+      isLocked = dbLockManagerPersistence.lock(persistenceLock, Math.max(0L, remainTime));
+    } finally {
+      synchronized (queue) {
+        if (isLocked) {
+          queue.startLease(System.currentTimeMillis());
+        } else {
+          queue.release();
+        }
+      }
+    }
+    long waitTime = System.currentTimeMillis() - startTime;
+    if (isLocked) {
+      dbLockedTimer.record(waitTime, TimeUnit.MILLISECONDS);
+    } else {
+      dbTimeoutTimer.record(waitTime, TimeUnit.MILLISECONDS);
+    }
+    return isLocked;
+  }
+
+  /** Also releases the memory lock when the lock is read from the lock table by the clean up */
+  @Override
+  public void unlock(PersistenceLock persistenceLock) {
+    if (StringUtils.isBlank(persistenceLock.getLockObject())) {
+      return;
+    }
+    LockQueue queue = lockQueues.get(persistenceLock.getLockObject());
+    boolean released = false;
+    if (queue != null) {
+      synchronized (queue) {
+        if (queue.isHolder(persistenceLock)) {
+          holdTimer.record(System.currentTimeMillis() - queue.lockTime, TimeUnit.MILLISECONDS);
+          // Delete the row first, the next waiter would find it in the lock table otherwise
+          try {
+            dbLockManagerPersistence.unlock(queue.holder);
+          } finally {
+            queue.release();
+          }
+          released = true;
+        }
+      }
+      removeIfIdle(persistenceLock.getLockObject());
+    }
+    if (released) {
+      return;
+    }
+    if (persistenceLock.getId() > 0) {
+      // Rows of an expired lease, of another manager or of the DB persistence used before
+      dbLockManagerPersistence.unlock(persistenceLock);
+    }
+    logger.warn(
+        "Lock {} is not held in memory any more, it may be taken over after its lease expired",
+        persistenceLock.getLockObject());
+  }
+
+  /** The holders are in the lock table, so only the waiters are added from memory */
+  @Override
+  public List<PersistenceLock> getAll() {
+    List<PersistenceLock> locks = new ArrayList<>();
+    for (LockQueue queue : lockQueues.values()) {
+      synchronized (queue) {
+        locks.addAll(queue.waiters);
+      }
+    }
+    locks.addAll(dbLockManagerPersistence.getAll());
+    return locks;
+  }
+
+  /**
+   * Only the held locks time out, a waiter gives up by itself when its time out is reached. The
+   * holders are in the lock table, with the rows of the other managers.
+   */
+  @Override
+  public List<PersistenceLock> getTimeOutLocks(Date endDate) {
+    return dbLockManagerPersistence.getTimeOutLocks(endDate);
+  }
+
+  private void removeIfIdle(String lockObject) {
+    lockQueues.computeIfPresent(
+        lockObject,
+        (key, queue) -> {
+          synchronized (queue) {
+            return queue.isIdle() ? null : queue;
+          }
+        });
+  }
+
+  private static Timer waitTimer(String store, String result) {
+    return Timer.builder(WAIT_METRIC)
+        .description("Time waited for the resource locks")
+        .tag("store", store)
+        .tag("result", result)
+        .publishPercentileHistogram()
+        .register(Metrics.globalRegistry);
+  }
+
+  private static Timer holdTimer() {
+    return Timer.builder(HOLD_METRIC)
+        .description("Time the resource locks are held")
+        .publishPercentileHistogram()
+        .register(Metrics.globalRegistry);
+  }
+
+  /** Holder and fair waiters of one lock object, guarded by its own monitor */
+  private class LockQueue {
+
+    private final Deque<PersistenceLock> waiters = new ArrayDeque<>();
+
+    private PersistenceLock holder;
+
+    private long lockTime;
+
+    /** Stays Long.MAX_VALUE while the holder is writing its lock into the lock table */
+    private long leaseExpireTime = Long.MAX_VALUE;
+
+    private boolean tryAcquire(PersistenceLock persistenceLock, long now) {
+      expireLease(now);
+      if (holder != null || waiters.peekFirst() != persistenceLock) {
+        return false;
+      }
+      waiters.pollFirst();
+      holder = persistenceLock;
+      return true;
+    }
+
+    private void startLease(long now) {
+      lockTime = now;
+      leaseExpireTime = leaseTime >= Long.MAX_VALUE - now ? Long.MAX_VALUE : now + leaseTime;
+    }
+
+    private void expireLease(long now) {
+      if (holder != null && now >= leaseExpireTime) {
+        logger.warn(
+            "The lease of lock {} held since {} expired, force release it",
+            holder.getLockObject(),
+            new Date(lockTime));
+        holdTimer.record(now - lockTime, TimeUnit.MILLISECONDS);
+        try {
+          dbLockManagerPersistence.unlock(holder);
+        } catch (Exception e) {
+          logger.warn("Failed to delete the lock {} from DB", holder.getLockObject(), e);
+        } finally {
+          release();
+        }
+      }
+    }
+
+    /** Matched by id too, the clean up passes the locks read from the lock table */
+    private boolean isHolder(PersistenceLock persistenceLock) {
+      return holder != null
+          && (holder == persistenceLock
+              || (holder.getId() > 0 && holder.getId().equals(persistenceLock.getId())));
+    }
+
+    private void release() {
+      holder = null;
+      leaseExpireTime = Long.MAX_VALUE;
+      notifyAll();
+    }
+
+    private boolean isIdle() {
+      return holder == null && waiters.isEmpty();
+    }
+  }
+}
@@ -18,6 +18,7 @@
 package org.apache.linkis.manager.util;
 
 import org.apache.linkis.common.conf.CommonVars$;
+import org.apache.linkis.common.conf.TimeType;
 
 public class PersistenceManagerConf {
 
@@ -28,4 +29,20 @@ public class PersistenceManagerConf {
       CommonVars$.MODULE$
           .apply("linkis.master.distributed.lock.request.sync.enabled", true)
           .getValue();
+
+  public static final String LOCK_PERSISTENCE_TYPE_DB = "db";
+
+  public static final String LOCK_PERSISTENCE_TYPE_MEMORY = "memory";
+
+  /** db: queue locks in the lock table, memory: lock queues kept in the manager, holders in DB */
+  public static final String Lock_persistence_type =
+      CommonVars$.MODULE$
+          .apply("linkis.manager.lock.persistence.type", LOCK_PERSISTENCE_TYPE_DB)
+          .getValue();
+
+  public static final Long Memory_lock_lease_time =
+      CommonVars$.MODULE$
+          .apply("linkis.manager.lock.memory.lease.time", new TimeType("5m"))
+          .getValue()
+          .toLong();
 }
@@ -23,6 +23,7 @@ import org.apache.linkis.manager.common.entity.persistence.PersistenceNodeMetric
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
@@ -110,4 +111,19 @@ class NodeMetricManagerMapperTest extends BaseDaoTest {
     List<PersistenceNodeMetricsEntity> list = nodeMetricManagerMapper.getAllNodeMetrics();
     assertTrue(list.size() >= 1);
   }
+
+  @Test
+  void getNodeMetricsByUpdateTime() {
+    addNodeMetrics();
+    List<PersistenceNodeMetricsEntity> list =
+        nodeMetricManagerMapper.getNodeMetricsByUpdateTime(new Date(0L));
+    assertEquals(1, list.size());
+    assertEquals("instance1", list.get(0).getInstance());
+    assertEquals("testname", list.get(0).getName());
+    assertEquals(1, list.get(0).getStatus());
+    list =
+        nodeMetricManagerMapper.getNodeMetricsByUpdateTime(
+            new Date(System.currentTimeMillis() + 60 * 1000L));
+    assertTrue(list.isEmpty());
+  }
 }
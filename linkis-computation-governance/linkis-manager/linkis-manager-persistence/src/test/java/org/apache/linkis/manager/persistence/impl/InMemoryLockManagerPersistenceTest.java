@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.manager.persistence.impl;
+
+import org.apache.linkis.manager.common.entity.persistence.PersistenceLock;
+import org.apache.linkis.manager.persistence.LockManagerPersistence;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryLockManagerPersistenceTest {
+
+  private InMemoryLockManagerPersistence lockManagerPersistence;
+
+  private TableLockManagerPersistence dbLockManagerPersistence;
+
+  @BeforeEach
+  void setUp() {
+    lockManagerPersistence = new InMemoryLockManagerPersistence();
+    dbLockManagerPersistence = new TableLockManagerPersistence();
+    lockManagerPersistence.setDbLockManagerPersistence(dbLockManagerPersistence);
+  }
+
+  private static PersistenceLock newLock(String lockObject) {
+    PersistenceLock persistenceLock = new PersistenceLock();
+    persistenceLock.setLockObject(lockObject);
+    return persistenceLock;
+  }
+
+  @Test
+  void lockAndUnlock() {
+    PersistenceLock lock = newLock("label1");
+    assertTrue(lockManagerPersistence.lock(lock, 100L));
+    // The holder is written into the lock table
+    assertTrue(lock.getId() > 0);
+    // Another label is not blocked
+    assertTrue(lockManagerPersistence.lock(newLock("label2"), 100L));
+    assertFalse(lockManagerPersistence.lock(newLock("label1"), 100L));
+    assertEquals(2, lockManagerPersistence.getAll().size());
+
+    lockManagerPersistence.unlock(lock);
+    PersistenceLock next = newLock("label1");
+    assertTrue(lockManagerPersistence.lock(next, 100L));
+    assertNotEquals(lock.getId(), next.getId());
+    assertTrue(lockManagerPersistence.lock(newLock(""), 100L));
+  }
+
+  @Test
+  void lockHeldByAnotherManager() {
+    // Locked by another manager, in memory or in DB
+    PersistenceLock other = newLock("label");
+    assertTrue(dbLockManagerPersistence.lock(other, 0L));
+    assertFalse(lockManagerPersistence.lock(newLock("label"), 50L));
+    assertEquals(1, lockManagerPersistence.getAll().size());
+
+    dbLockManagerPersistence.unlock(other);
+    PersistenceLock lock = newLock("label");
+    assertTrue(lockManagerPersistence.lock(lock, 50L));
+    // Another manager waits for the lock taken in memory
+    assertFalse(dbLockManagerPersistence.lock(newLock("label"), 0L));
+    lockManagerPersistence.unlock(lock);
+    assertTrue(lockManagerPersistence.getAll().isEmpty());
+  }
+
+  @Test
+  void fairQueue() throws InterruptedException {
+    PersistenceLock holder = newLock("label");
+    assertTrue(lockManagerPersistence.lock(holder, 100L));
+    ExecutorService executorService = Executors.newFixedThreadPool(3);
+    List<Integer> lockOrder = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch done = new CountDownLatch(3);
+    for (int i = 0; i < 3; i++) {
+      int order = i;
+      executorService.submit(
+          () -> {
+            PersistenceLock lock = newLock("label");
+            if (lockManagerPersistence.lock(lock, 5000L)) {
+              lockOrder.add(order);
+              lockManagerPersistence.unlock(lock);
+            }
+            done.countDown();
+          });
+      // Enqueue one by one
+      while (lockManagerPersistence.getAll().size() < i + 2) {
+        Thread.sleep(5);
+      }
+    }
+    lockManagerPersistence.unlock(holder);
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+    assertEquals(Arrays.asList(0, 1, 2), lockOrder);
+    assertTrue(lockManagerPersistence.getAll().isEmpty());
+    executorService.shutdownNow();
+  }
+
+  @Test
+  void takeOverExpiredLease() {
+    lockManagerPersistence.setLeaseTime(100L);
+    PersistenceLock expired = newLock("label");
+    assertTrue(lockManagerPersistence.lock(expired, 100L));
+    long startTime = System.currentTimeMillis();
+    PersistenceLock lock = newLock("label");
+    assertTrue(lockManagerPersistence.lock(lock, 5000L));
+    assertTrue(System.currentTimeMillis() - startTime < 5000L);
+    assertEquals(1, lockManagerPersistence.getAll().size());
+    // The lock taken over is not released by the previous holder
+    lockManagerPersistence.unlock(expired);
+    assertFalse(lockManagerPersistence.lock(newLock("label"), 10L));
+  }
+
+  @Test
+  void getTimeOutLocks() throws InterruptedException {
+    PersistenceLock lock = newLock("label");
+    assertTrue(lockManagerPersistence.lock(lock, 100L));
+    assertTrue(lockManagerPersistence.getTimeOutLocks(new Date(0L)).isEmpty());
+    Thread.sleep(10);
+    List<PersistenceLock> timeOutLocks = lockManagerPersistence.getTimeOutLocks(new Date());
+    assertEquals(1, timeOutLocks.size());
+    lockManagerPersistence.unlock(timeOutLocks.get(0));
+    assertTrue(lockManagerPersistence.getAll().isEmpty());
+  }
+
+  /** Works like the queue locks of the lock table, the smallest id of a lock object holds it */
+  private static class TableLockManagerPersistence implements LockManagerPersistence {
+
+    private final List<PersistenceLock> rows = new ArrayList<>();
+
+    private int idGenerator = 0;
+
+    @Override
+    public Boolean lock(PersistenceLock persistenceLock, Long timeOut) {
+      long deadline = System.currentTimeMillis() + timeOut;
+      synchronized (rows) {
+        persistenceLock.setId(++idGenerator);
+        persistenceLock.setCreateTime(new Date());
+        rows.add(persistenceLock);
+      }
+      while (!isAcquireLock(persistenceLock)) {
+        if (System.currentTimeMillis() >= deadline) {
+          unlock(persistenceLock);
+          return false;
+        }
+        try {
+          Thread.sleep(5);
+        } catch (InterruptedException e) {
+          unlock(persistenceLock);
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private boolean isAcquireLock(PersistenceLock persistenceLock) {
+      synchronized (rows) {
+        return rows.stream()
+            .noneMatch(
+                row ->
+                    row.getLockObject().equals(persistenceLock.getLockObject())
+                        && row.getId() < persistenceLock.getId());
+      }
+    }
+
+    @Override
+    public void unlock(PersistenceLock persistenceLock) {
+      synchronized (rows) {
+        rows.removeIf(row -> row.getId().equals(persistenceLock.getId()));
+      }
+    }
+
+    /** Copies of the rows, like the locks read by the mapper */
+    @Override
+    public List<PersistenceLock> getAll() {
+      return getTimeOutLocks(new Date(Long.MAX_VALUE));
+    }
+
+    @Override
+    public List<PersistenceLock> getTimeOutLocks(Date endDate) {
+      List<PersistenceLock> locks = new ArrayList<>();
+      synchronized (rows) {
+        for (PersistenceLock row : rows) {
+          if (!row.getCreateTime().after(endDate)) {
+            PersistenceLock lock = newLock(row.getLockObject());
+            lock.setId(row.getId());
+            lock.setCreateTime(row.getCreateTime());
+            locks.add(lock);
+          }
+        }
+      }
+      return locks;
+    }
+  }
+}
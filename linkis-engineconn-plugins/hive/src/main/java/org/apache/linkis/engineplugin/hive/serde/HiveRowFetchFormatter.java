@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.engineplugin.hive.serde;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hive.common.JavaUtils;
+import org.apache.hadoop.hive.conf.HiveConf;
+import org.apache.hadoop.hive.ql.exec.FetchFormatter;
+import org.apache.hadoop.hive.serde.serdeConstants;
+import org.apache.hadoop.hive.serde2.AbstractSerDe;
+import org.apache.hadoop.hive.serde2.DelimitedJSONSerDe;
+import org.apache.hadoop.hive.serde2.SerDeUtils;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspector;
+import org.apache.hadoop.hive.serde2.objectinspector.ObjectInspectorFactory;
+import org.apache.hadoop.hive.serde2.objectinspector.StructField;
+import org.apache.hadoop.hive.serde2.objectinspector.StructObjectInspector;
+import org.apache.hadoop.util.ReflectionUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * The fetch formatter of the Hive fetch task, set by list.sink.output.formatter, which converts a
+ * row to the cells of its columns instead of a line joined by tabs, so that the engine needs not
+ * split the lines and the tabs in the values are kept. Each cell is serialized by the fetch output
+ * serde the same as DefaultFetchFormatter, so the text of the cells are not changed. (将Hive
+ * fetch的行直接转换为各列的单元格，避免按制表符拼接再切割)
+ */
+public class HiveRowFetchFormatter implements FetchFormatter<Object[]> {
+
+  private AbstractSerDe serde;
+
+  private ObjectInspector rowOI;
+
+  private List<? extends StructField> fields;
+
+  /** The inspectors of the struct of a single field, to serialize the fields one by one */
+  private ObjectInspector[] fieldOIs;
+
+  private final List<Object> fieldData = Arrays.asList(new Object[1]);
+
+  @Override
+  public void initialize(Configuration hconf, Properties props) throws Exception {
+    // The same as DefaultFetchFormatter
+    String serdeName = HiveConf.getVar(hconf, HiveConf.ConfVars.HIVEFETCHOUTPUTSERDE);
+    Class<? extends AbstractSerDe> serdeClass =
+        Class.forName(serdeName, true, JavaUtils.getClassLoader()).asSubclass(AbstractSerDe.class);
+    serde = ReflectionUtils.newInstance(serdeClass, null);
+    Properties serdeProps = new Properties();
+    if (serde instanceof DelimitedJSONSerDe) {
+      serdeProps.put(
+          serdeConstants.SERIALIZATION_FORMAT,
+          props.getProperty(serdeConstants.SERIALIZATION_FORMAT));
+      serdeProps.put(
+          serdeConstants.SERIALIZATION_NULL_FORMAT,
+          props.getProperty(serdeConstants.SERIALIZATION_NULL_FORMAT));
+    }
+    SerDeUtils.initializeSerDe(serde, hconf, serdeProps, null);
+  }
+
+  @Override
+  public Object[] convert(Object row, ObjectInspector rowOI) throws Exception {
+    StructObjectInspector structOI = (StructObjectInspector) rowOI;
+    if (this.rowOI != rowOI) {
+      initFields(structOI);
+    }
+    Object[] cells = new Object[fields.size()];
+    for (int i = 0; i < cells.length; i++) {
+      fieldData.set(0, structOI.getStructFieldData(row, fields.get(i)));
+      cells[i] = serde.serialize(fieldData, fieldOIs[i]).toString();
+    }
+    return cells;
+  }
+
+  private void initFields(StructObjectInspector structOI) {
+    fields = structOI.getAllStructFieldRefs();
+    fieldOIs = new ObjectInspector[fields.size()];
+    for (int i = 0; i < fieldOIs.length; i++) {
+      StructField field = fields.get(i);
+      fieldOIs[i] =
+          ObjectInspectorFactory.getStandardStructObjectInspector(
+              Collections.singletonList(field.getFieldName()),
+              Collections.singletonList(field.getFieldObjectInspector()));
+    }
+    this.rowOI = structOI;
+  }
+
+  @Override
+  public void close() {}
+}
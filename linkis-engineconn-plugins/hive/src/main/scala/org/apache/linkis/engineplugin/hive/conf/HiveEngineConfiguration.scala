@@ -34,6 +34,19 @@ object HiveEngineConfiguration {
     "org.apache.linkis.engineplugin.hive.serde.CustomerDelimitedJSONSerDe"
   ).getValue
 
+  /**
+   * The max rows fetched from the driver by a batch, which are written to the result set before the
+   * next batch is fetched
+   */
+  val HIVE_FETCH_BATCH_SIZE = CommonVars[Int]("linkis.hive.fetch.batch.size", 1000).getValue
+
+  /**
+   * Fetch the rows as the cells of the columns by HiveRowFetchFormatter, instead of the lines
+   * joined by tabs
+   */
+  val ENABLE_FETCH_TYPED_ROWS =
+    CommonVars[Boolean]("linkis.hive.enable.fetch.typed.rows", false).getValue
+
   val HIVE_AUX_JARS_PATH = CommonVars[String](
     "hive.aux.jars.path",
     CommonVars[String]("HIVE_AUX_JARS_PATH", "").getValue
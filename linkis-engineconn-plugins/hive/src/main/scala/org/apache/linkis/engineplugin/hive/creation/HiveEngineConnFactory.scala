@@ -37,6 +37,7 @@ import org.apache.linkis.engineplugin.hive.executor.{
   HiveEngineConcurrentConnExecutor,
   HiveEngineConnExecutor
 }
+import org.apache.linkis.engineplugin.hive.serde.HiveRowFetchFormatter
 import org.apache.linkis.hadoop.common.utils.HDFSUtils
 import org.apache.linkis.manager.engineplugin.common.conf.EnvConfiguration
 import org.apache.linkis.manager.label.entity.engine.{EngineType, RunType}
@@ -206,6 +207,10 @@ class HiveEngineConnFactory extends ComputationSingleExecutorEngineConnFactory w
       )
       hiveConf.set("enable_fetch_base64", "true")
     }
+    if (HiveEngineConfiguration.ENABLE_FETCH_TYPED_ROWS) {
+      // The formatter used by the ListSinkOperator of the fetch task
+      hiveConf.set("list.sink.output.formatter", classOf[HiveRowFetchFormatter].getName)
+    }
     // add hive.aux.jars.path to hive conf
     if (StringUtils.isNotBlank(HiveEngineConfiguration.HIVE_AUX_JARS_PATH)) {
       hiveConf.setVar(HiveConf.ConfVars.HIVEAUXJARS, HiveEngineConfiguration.HIVE_AUX_JARS_PATH)
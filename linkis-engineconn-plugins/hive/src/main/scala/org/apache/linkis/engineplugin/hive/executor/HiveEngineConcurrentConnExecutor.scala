@@ -17,7 +17,6 @@
 
 package org.apache.linkis.engineplugin.hive.executor
 
-import org.apache.linkis.common.exception.ErrorException
 import org.apache.linkis.common.utils.{ByteTimeUtils, Logging, Utils}
 import org.apache.linkis.engineconn.computation.executor.execute.{
   ConcurrentComputationExecutor,
@@ -80,7 +79,6 @@ import java.util.concurrent.{
 
 import scala.collection.JavaConverters._
 import scala.collection.mutable
-import scala.collection.mutable.ArrayBuffer
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder
 import org.slf4j.LoggerFactory
@@ -320,34 +318,8 @@ class HiveEngineConcurrentConnExecutor(
   ): Int = {
     val resultSetWriter = engineExecutorContext.createResultSetWriter(ResultSetFactory.TABLE_TYPE)
     resultSetWriter.addMetaData(metaData)
-    val colLength = metaData.columns.length
-    val result = new util.ArrayList[String]()
-    var rows = 0
-    while (driver.getResults(result)) {
-      val scalaResult: mutable.Buffer[String] = result.asScala
-      scalaResult foreach { s =>
-        val arr: Array[String] = s.split("\t")
-        val arrAny: ArrayBuffer[Any] = new ArrayBuffer[Any]()
-        if (arr.length > colLength) {
-          logger.error(
-            s"""There is a \t tab in the result of hive code query, hive cannot cut it, please use spark to execute(查询的结果中有\t制表符，hive不能进行切割,请使用spark执行)"""
-          )
-          throw new ErrorException(
-            60078,
-            """There is a \t tab in the result of your query, hive cannot cut it, please use spark to execute(您查询的结果中有\t制表符，hive不能进行切割,请使用spark执行)"""
-          )
-        }
-        if (arr.length == colLength) arr foreach arrAny.asJava.add
-        else if (arr.length == 0) for (i <- 1 to colLength) arrAny.asJava add ""
-        else {
-          val i = colLength - arr.length
-          arr foreach arrAny.asJava.add
-          for (i <- 1 to i) arrAny.asJava add ""
-        }
-        resultSetWriter.addRecord(new TableRecord(arrAny.toArray.asInstanceOf[Array[AnyRef]]))
-      }
-      rows += result.size
-      result.clear()
+    val rows = driver.fetchRows(metaData.columns.length) { cells =>
+      resultSetWriter.addRecord(new TableRecord(cells))
     }
     engineExecutorContext.sendResultSet(resultSetWriter)
     rows
@@ -316,34 +316,8 @@ class HiveEngineConnExecutor(
   ): Int = {
     val resultSetWriter = engineExecutorContext.createResultSetWriter(ResultSetFactory.TABLE_TYPE)
     resultSetWriter.addMetaData(metaData)
-    val colLength = metaData.columns.length
-    val result = new util.ArrayList[String]()
-    var rows = 0
-    while (driver.getResults(result)) {
-      val scalaResult: mutable.Buffer[String] = result.asScala
-      scalaResult foreach { s =>
-        val arr: Array[String] = s.split("\t")
-        val arrAny: ArrayBuffer[Any] = new ArrayBuffer[Any]()
-        if (arr.length > colLength) {
-          logger.error(
-            s"""There is a \t tab in the result of hive code query, hive cannot cut it, please use spark to execute(查询的结果中有\t制表符，hive不能进行切割,请使用spark执行)"""
-          )
-          throw new ErrorException(
-            60078,
-            """There is a \t tab in the result of your query, hive cannot cut it, please use spark to execute(您查询的结果中有\t制表符，hive不能进行切割,请使用spark执行)"""
-          )
-        }
-        if (arr.length == colLength) arr foreach arrAny.asJava.add
-        else if (arr.length == 0) for (i <- 1 to colLength) arrAny.asJava add ""
-        else {
-          val i = colLength - arr.length
-          arr foreach arrAny.asJava.add
-          for (i <- 1 to i) arrAny.asJava add ""
-        }
-        resultSetWriter.addRecord(new TableRecord(arrAny.toArray.asInstanceOf[Array[AnyRef]]))
-      }
-      rows += result.size
-      result.clear()
+    val rows = driver.fetchRows(metaData.columns.length) { cells =>
+      resultSetWriter.addRecord(new TableRecord(cells))
     }
     engineExecutorContext.sendResultSet(resultSetWriter)
     rows
@@ -643,11 +617,47 @@ class HiveDriverProxy(driver: Any) extends Logging {
     }
   }
 
+  // Looked up once, since getResults is called for every batch of the results
+  private lazy val getResultsMethod =
+    driver.getClass.getMethod("getResults", classOf[util.List[_]])
+
   def getResults(res: util.List[_]): Boolean = {
+    getResultsMethod.invoke(driver, res.asInstanceOf[AnyRef]).asInstanceOf[Boolean]
+  }
+
+  def setMaxRows(maxRows: Int): Unit = {
     driver.getClass
-      .getMethod("getResults", classOf[util.List[_]])
-      .invoke(driver, res.asInstanceOf[AnyRef])
-      .asInstanceOf[Boolean]
+      .getMethod("setMaxRows", classOf[Int])
+      .invoke(driver, maxRows.asInstanceOf[AnyRef])
+  }
+
+  /**
+   * Fetch the results batch by batch, each row is given to deal as the cells of the columns. A
+   * batch is dealt before the next one is fetched, so at most a batch is held in the memory.
+   * (分批拉取结果，处理完一批后再拉取下一批)
+   * @return
+   *   the count of the rows fetched
+   */
+  def fetchRows(columnCount: Int)(deal: Array[AnyRef] => Unit): Int = {
+    if (HiveEngineConfiguration.HIVE_FETCH_BATCH_SIZE > 0) {
+      setMaxRows(HiveEngineConfiguration.HIVE_FETCH_BATCH_SIZE)
+    }
+    val result = new util.ArrayList[AnyRef]()
+    var rows = 0
+    while (getResults(result)) {
+      var i = 0
+      while (i < result.size()) {
+        result.get(i) match {
+          // The rows converted by HiveRowFetchFormatter
+          case cells: Array[AnyRef] => deal(cells)
+          case line => deal(HiveDriverProxy.splitRow(line.toString, columnCount))
+        }
+        i += 1
+      }
+      rows += result.size
+      result.clear()
+    }
+    rows
   }
 
   def close(): Unit = {
@@ -661,6 +671,47 @@ class HiveDriverProxy(driver: Any) extends Logging {
 
 object HiveDriverProxy extends Logging {
 
+  /**
+   * Split the line joined by tabs to the cells of the columns, the same as split("\t") with the
+   * missing cells filled by "", but without the regex and the intermediate array
+   */
+  def splitRow(line: String, columnCount: Int): Array[AnyRef] = {
+    val cells = new Array[AnyRef](columnCount)
+    var column = 0
+    var start = 0
+    var end = line.indexOf('\t')
+    while (end >= 0 && column < columnCount) {
+      cells(column) = line.substring(start, end)
+      column += 1
+      start = end + 1
+      end = line.indexOf('\t', start)
+    }
+    if (column < columnCount) {
+      cells(column) = line.substring(start)
+      column += 1
+      while (column < columnCount) {
+        cells(column) = ""
+        column += 1
+      }
+    } else {
+      // Only the empty cells could be dropped
+      var i = start
+      while (i < line.length) {
+        if (line.charAt(i) != '\t') {
+          logger.error(
+            s"""There is a \t tab in the result of hive code query, hive cannot cut it, please use spark to execute(查询的结果中有\t制表符，hive不能进行切割,请使用spark执行)"""
+          )
+          throw new ErrorException(
+            60078,
+            """There is a \t tab in the result of your query, hive cannot cut it, please use spark to execute(您查询的结果中有\t制表符，hive不能进行切割,请使用spark执行)"""
+          )
+        }
+        i += 1
+      }
+    }
+    cells
+  }
+
   private val COMMAND_NEED_RETRY_EXCEPTION_CLASS_STR =
     "org.apache.hadoop.hive.ql.CommandNeedRetryException"
 
@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.engineplugin.hive.executor;
+
+import org.apache.linkis.common.exception.ErrorException;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HiveDriverProxyTest {
+
+  @Test
+  void testSplitRow() {
+    assertArrayEquals(new Object[] {"a", "b", "c"}, HiveDriverProxy.splitRow("a\tb\tc", 3));
+    assertArrayEquals(new Object[] {"a", "", ""}, HiveDriverProxy.splitRow("a", 3));
+    assertArrayEquals(new Object[] {"", "", ""}, HiveDriverProxy.splitRow("", 3));
+    assertArrayEquals(new Object[] {"a", "", "c"}, HiveDriverProxy.splitRow("a\t\tc", 3));
+    assertArrayEquals(new Object[] {"a", "b"}, HiveDriverProxy.splitRow("a\tb\t\t", 2));
+    assertThrows(ErrorException.class, () -> HiveDriverProxy.splitRow("a\tb\tc", 2));
+  }
+}
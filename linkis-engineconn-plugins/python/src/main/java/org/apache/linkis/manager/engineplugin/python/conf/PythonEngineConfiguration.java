@@ -40,6 +40,13 @@ public class PythonEngineConfiguration {
   public static final CommonVars<TimeType> PYTHON_LANGUAGE_REPL_INIT_TIME =
       CommonVars.apply("wds.linkis.engine.python.language-repl.init.time", new TimeType("30s"));
 
+  /**
+   * How python.py sends the rows of a DataFrame to show: binary or csv through a local temp file,
+   * or py4j to send the cells one by one
+   */
+  public static final CommonVars<String> PYTHON_DATAFRAME_TRANSFER_FORMAT =
+      CommonVars.apply("linkis.python.dataframe.transfer.format", "binary");
+
   private static String getPy4jHome() {
     String confDir = "/conf";
     if (null != PythonEngineConfiguration.class.getResource(confDir)) {
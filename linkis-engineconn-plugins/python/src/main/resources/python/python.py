@@ -165,6 +165,15 @@ class PythonContext(object):
         schemas.append(str(dt[i]))
     #for i in dt:
      #   schemas.append(i)
+    fmt = intp.getDataFrameTransferFormat()
+    if fmt == "binary" or fmt == "csv":
+      path = self._write_dataframe(df, fmt)
+      if path is not None:
+        try:
+          intp.showDFFile(path, fmt, schemas, headers)
+        finally:
+          os.remove(path)
+        return
     for i in range(0,len(df)):
         iterms = gateway.jvm.java.util.ArrayList()
         for iterm in df.iloc[i]:
@@ -172,6 +181,48 @@ class PythonContext(object):
         data.append(iterms)
     intp.showDF(data,schemas,headers)
 
+  def _write_dataframe(self, df, fmt):
+    """Writes the cells of DF to a local temp file read by PythonSession.showDFFile,
+    instead of sending them one by one through py4j. Returns None if failed, then
+    the cells are sent through py4j
+    """
+    import tempfile
+    path = None
+    try:
+      # str() of the cells the same as sending them through py4j, the columns are upcast to the
+      # dtype of a row as df.iloc[i] does, e.g. the ints are shown as 1.0 among float columns
+      if len(df) > 0 and len(df.columns) > 0:
+        row_dtype = df.iloc[0].dtype
+        if row_dtype != object and any(dt != row_dtype for dt in df.dtypes):
+          df = df.astype(row_dtype)
+      columns = [[str(v) for v in df.iloc[:, i].tolist()] for i in range(len(df.columns))]
+      fd, path = tempfile.mkstemp(prefix="linkis-df-", suffix="." + fmt)
+      if fmt == "csv":
+        import csv, io
+        with io.open(fd, "w", encoding="utf-8", newline="") as f:
+          csv.writer(f).writerows(zip(*columns))
+      else:
+        # every cell is the length of its utf-8 bytes as a 4 bytes big-endian int and the bytes
+        import struct
+        pack = struct.Struct(">i").pack
+        with os.fdopen(fd, "wb") as f:
+          buf = []
+          for row in zip(*columns):
+            for cell in row:
+              data = cell.encode("utf-8")
+              buf.append(pack(len(data)))
+              buf.append(data)
+            if len(buf) >= 65536:
+              f.write(b"".join(buf))
+              buf = []
+          f.write(b"".join(buf))
+      return path
+    except Exception as e:
+      sys.stderr.write("Failed to write the dataframe to file, send it through py4j: %s\n" % e)
+      if path is not None and os.path.exists(path):
+        os.remove(path)
+      return None
+
   def show_matplotlib(self, p, fmt="png", width="auto", height="auto",
                       **kwargs):
     """Matplotlib show function
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.manager.engineplugin.python.executor
+
+import java.io.{
+  BufferedInputStream,
+  BufferedReader,
+  DataInputStream,
+  InputStream,
+  InputStreamReader,
+  Reader
+}
+import java.nio.charset.StandardCharsets
+
+/**
+ * Reads the rows of a pandas DataFrame written to a file by python.py, instead of receiving them
+ * cell by cell through py4j. (读取python.py写入文件的DataFrame行)
+ *
+ * <p>The binary layout is the cells of the rows one after another, each of which is the length of
+ * its UTF-8 bytes as a 4 bytes big-endian int followed by the bytes. The csv layout is the one
+ * written by the csv module of python.
+ */
+object DataFrameFileReader {
+
+  val BINARY = "binary"
+
+  val CSV = "csv"
+
+  def read(format: String, in: InputStream, columnCount: Int): Iterator[Array[AnyRef]] =
+    format match {
+      case CSV =>
+        new CsvRowIterator(
+          new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)),
+          columnCount
+        )
+      case _ => new BinaryRowIterator(new DataInputStream(new BufferedInputStream(in)), columnCount)
+    }
+
+  private class BinaryRowIterator(in: DataInputStream, columnCount: Int)
+      extends Iterator[Array[AnyRef]] {
+
+    private var buffer = new Array[Byte](1024)
+
+    override def hasNext: Boolean = columnCount > 0 && {
+      in.mark(1)
+      val b = in.read()
+      in.reset()
+      b >= 0
+    }
+
+    override def next(): Array[AnyRef] = {
+      val cells = new Array[AnyRef](columnCount)
+      var i = 0
+      while (i < columnCount) {
+        val length = in.readInt()
+        if (buffer.length < length) buffer = new Array[Byte](length)
+        in.readFully(buffer, 0, length)
+        cells(i) = new String(buffer, 0, length, StandardCharsets.UTF_8)
+        i += 1
+      }
+      cells
+    }
+
+  }
+
+  private class CsvRowIterator(reader: Reader, columnCount: Int) extends Iterator[Array[AnyRef]] {
+
+    private val cell = new java.lang.StringBuilder
+
+    private var nextChar = reader.read()
+
+    override def hasNext: Boolean = nextChar >= 0
+
+    override def next(): Array[AnyRef] = {
+      val cells = new Array[AnyRef](columnCount)
+      var column = 0
+      var endOfRow = false
+      while (!endOfRow) {
+        cell.setLength(0)
+        if (nextChar == '"') {
+          nextChar = reader.read()
+          var quoted = true
+          while (quoted && nextChar >= 0) {
+            if (nextChar == '"') {
+              nextChar = reader.read()
+              // A doubled quote is a quote in the cell
+              if (nextChar == '"') {
+                cell.append('"')
+                nextChar = reader.read()
+              } else quoted = false
+            } else {
+              cell.append(nextChar.toChar)
+              nextChar = reader.read()
+            }
+          }
+        }
+        while (nextChar >= 0 && nextChar != ',' && nextChar != '\r' && nextChar != '\n') {
+          cell.append(nextChar.toChar)
+          nextChar = reader.read()
+        }
+        if (column < columnCount) cells(column) = cell.toString
+        column += 1
+        if (nextChar == ',') nextChar = reader.read()
+        else {
+          if (nextChar == '\r') nextChar = reader.read()
+          if (nextChar == '\n') nextChar = reader.read()
+          endOfRow = true
+        }
+      }
+      while (column < columnCount) {
+        cells(column) = ""
+        column += 1
+      }
+      cells
+    }
+
+  }
+
+}
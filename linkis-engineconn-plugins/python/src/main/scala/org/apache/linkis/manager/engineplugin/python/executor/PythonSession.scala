@@ -309,14 +309,7 @@ class PythonSession extends Logging {
    */
   def showDF(data: JList[JList[Any]], schema: JList[String], header: JList[String]): Unit = {
     val writer = engineExecutionContext.createResultSetWriter(ResultSetFactory.TABLE_TYPE)
-    val length = schema.size() - 1
-    var list: List[Column] = List[Column]()
-    for (i <- 0 to length) {
-      val col = new Column(header.get(i), changeDT(schema.get(i)), null)
-      list = list :+ col
-    }
-    val metaData = new TableMetaData(list.toArray[Column])
-    writer.addMetaData(metaData)
+    writer.addMetaData(getDFMetaData(schema, header))
     val size = data.size() - 1
     for (i <- 0 to size) {
       writer.addRecord(
@@ -327,6 +320,51 @@ class PythonSession extends Logging {
     engineExecutionContext.sendResultSet(writer)
   }
 
+  def getDataFrameTransferFormat: String =
+    PythonEngineConfiguration.PYTHON_DATAFRAME_TRANSFER_FORMAT.getValue
+
+  /**
+   * show table written to a local file by python.py, the rows are streamed to the result set
+   * instead of being sent through py4j cell by cell, see DataFrameFileReader for the format
+   *
+   * @param path
+   *   the local file, which is deleted by python.py
+   * @param format
+   *   binary or csv
+   */
+  def showDFFile(
+      path: String,
+      format: String,
+      schema: JList[String],
+      header: JList[String]
+  ): Unit = {
+    val startTime = System.currentTimeMillis()
+    val writer = engineExecutionContext.createResultSetWriter(ResultSetFactory.TABLE_TYPE)
+    writer.addMetaData(getDFMetaData(schema, header))
+    val in = new FileInputStream(path)
+    var rows = 0
+    Utils.tryFinally {
+      DataFrameFileReader.read(format, in, schema.size()).foreach { cells =>
+        writer.addRecord(new TableRecord(cells))
+        rows += 1
+      }
+    }(IOUtils.closeQuietly(in))
+    logger.info(
+      s"Time taken: ${ByteTimeUtils.msDurationToString(System.currentTimeMillis() - startTime)}, read $rows row(s) of $format from $path"
+    )
+    engineExecutionContext.sendResultSet(writer)
+  }
+
+  private def getDFMetaData(schema: JList[String], header: JList[String]): TableMetaData = {
+    val length = schema.size() - 1
+    var list: List[Column] = List[Column]()
+    for (i <- 0 to length) {
+      val col = new Column(header.get(i), changeDT(schema.get(i)), null)
+      list = list :+ col
+    }
+    new TableMetaData(list.toArray[Column])
+  }
+
   def showHTML(htmlContent: Any): Unit = {
     val startTime = System.currentTimeMillis()
     val writer = engineExecutionContext.createResultSetWriter(ResultSetFactory.HTML_TYPE)
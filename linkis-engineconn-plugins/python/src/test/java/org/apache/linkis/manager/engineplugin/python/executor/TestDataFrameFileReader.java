@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.manager.engineplugin.python.executor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import scala.collection.Iterator;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TestDataFrameFileReader {
+
+  @Test
+  public void testReadBinary() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    for (String cell : new String[] {"1", "中文\t,\"", "2", ""}) {
+      byte[] data = cell.getBytes(StandardCharsets.UTF_8);
+      out.writeInt(data.length);
+      out.write(data);
+    }
+    Iterator<Object[]> rows =
+        DataFrameFileReader.read(
+            DataFrameFileReader.BINARY(), new ByteArrayInputStream(bytes.toByteArray()), 2);
+    Assertions.assertArrayEquals(new Object[] {"1", "中文\t,\""}, rows.next());
+    Assertions.assertArrayEquals(new Object[] {"2", ""}, rows.next());
+    Assertions.assertFalse(rows.hasNext());
+  }
+
+  @Test
+  public void testReadCsv() {
+    String csv = "1,\"中文\r\n,\"\"\"\r\n2,\r\n\"\",x\r\n";
+    Iterator<Object[]> rows =
+        DataFrameFileReader.read(
+            DataFrameFileReader.CSV(),
+            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+            2);
+    Assertions.assertArrayEquals(new Object[] {"1", "中文\r\n,\""}, rows.next());
+    Assertions.assertArrayEquals(new Object[] {"2", ""}, rows.next());
+    Assertions.assertArrayEquals(new Object[] {"", "x"}, rows.next());
+    Assertions.assertFalse(rows.hasNext());
+  }
+}
@@ -128,6 +128,17 @@ object SparkConfiguration extends Logging {
   val SQL_EXTENSION_TIMEOUT = CommonVars("wds.linkis.dws.ujes.spark.extension.timeout", 3000L)
   val SPARK_NF_FRACTION_LENGTH = CommonVars[Int]("wds.linkis.engine.spark.fraction.length", 30)
   val SHOW_DF_MAX_RES = CommonVars("wds.linkis.show.df.max.res", Int.MaxValue)
+
+  /**
+   * Fetch the partitions of the result concurrently and format the rows in the executors, which
+   * needs the jar of the spark engine plugin visible to the executors
+   */
+  val SHOW_DF_PARALLEL_FETCH_ENABLE =
+    CommonVars("linkis.spark.show.df.parallel.fetch.enable", false)
+
+  /** The max count of the partitions fetched and held in the driver at the same time */
+  val SHOW_DF_FETCH_PARALLELISM = CommonVars("linkis.spark.show.df.fetch.parallelism", 4)
+
   val MDQ_APPLICATION_NAME = CommonVars("wds.linkis.mdq.application.name", "linkis-ps-datasource")
   val DOLPHIN_LIMIT_LEN = CommonVars("wds.linkis.dolphin.limit.len", 5000)
 
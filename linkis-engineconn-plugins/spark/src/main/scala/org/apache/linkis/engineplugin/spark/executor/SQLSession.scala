@@ -17,6 +17,8 @@
 
 package org.apache.linkis.engineplugin.spark.executor
 
+import org.apache.linkis.common.io.{MetaData, Record}
+import org.apache.linkis.common.io.resultset.ResultSetWriter
 import org.apache.linkis.common.utils.{ByteTimeUtils, Logging, Utils}
 import org.apache.linkis.engineconn.computation.executor.execute.EngineExecutionContext
 import org.apache.linkis.engineplugin.spark.config.SparkConfiguration
@@ -30,7 +32,7 @@ import org.apache.linkis.storage.resultset.ResultSetFactory
 import org.apache.linkis.storage.resultset.table.{TableMetaData, TableRecord}
 
 import org.apache.commons.lang3.StringUtils
-import org.apache.spark.SparkContext
+import org.apache.spark.{FutureAction, SparkContext}
 import org.apache.spark.sql.DataFrame
 import org.apache.spark.sql.Row
 import org.apache.spark.sql.types.{BinaryType, DateType, DecimalType, TimestampType, _}
@@ -45,9 +47,13 @@ import org.apache.spark.sql.types.ShortType
 import org.apache.spark.sql.types.StringType
 
 import java.text.NumberFormat
+import java.util
 import java.util.Locale
 
+import scala.collection.JavaConverters._
 import scala.collection.mutable.ArrayBuffer
+import scala.concurrent.Await
+import scala.concurrent.duration.Duration
 
 object SQLSession extends Logging {
   val nf = NumberFormat.getInstance()
@@ -72,17 +78,21 @@ object SQLSession extends Logging {
     val startTime = System.currentTimeMillis()
     //    sc.setJobGroup(jobGroup, "Get IDE-SQL Results.", false)
 
-    val iterator = Utils.tryThrow(dataFrame.toLocalIterator) { t =>
-      throw new SparkEngineException(
-        DATAFRAME_EXCEPTION.getErrorCode,
-        DATAFRAME_EXCEPTION.getErrorDesc,
-        t
-      )
-    }
+    val parallelFetch = SparkConfiguration.SHOW_DF_PARALLEL_FETCH_ENABLE.getValue
+    val iterator =
+      if (parallelFetch) null
+      else {
+        Utils.tryThrow(dataFrame.toLocalIterator) { t =>
+          throw new SparkEngineException(
+            DATAFRAME_EXCEPTION.getErrorCode,
+            DATAFRAME_EXCEPTION.getErrorDesc,
+            t
+          )
+        }
+      }
     // var columns: List[Attribute] = null
     // get field names
     // logger.info("SCHEMA BEGIN")
-    import java.util
     val colSet = new util.HashSet[String]()
     val schema = dataFrame.schema
     var columnsSet: StructType = null
@@ -128,15 +138,19 @@ object SQLSession extends Logging {
         engineExecutionContext.createResultSetWriter(ResultSetFactory.TABLE_TYPE, alias)
       } else engineExecutionContext.createResultSetWriter(ResultSetFactory.TABLE_TYPE)
     writer.addMetaData(metaData)
+    val formatter = new ShowDFRowFormatter(
+      columnsSet.fields.map(_.dataType),
+      SparkConfiguration.SPARK_NF_FRACTION_LENGTH.getValue
+    )
     var index = 0
     Utils.tryThrow({
-      while (index < maxResult && iterator.hasNext) {
-        val row = iterator.next()
-        val r: Array[Any] = columns.indices.map { i =>
-          toHiveString((row(i), columnsSet.fields(i).dataType))
-        }.toArray
-        writer.addRecord(new TableRecord(r.asInstanceOf[Array[AnyRef]]))
-        index += 1
+      if (parallelFetch) {
+        index = fetchInParallel(sc, dataFrame, formatter, maxResult, writer)
+      } else {
+        while (index < maxResult && iterator.hasNext) {
+          writer.addRecord(new TableRecord(formatter.format(iterator.next())))
+          index += 1
+        }
       }
     }) { t =>
       throw new SparkEngineException(
@@ -155,84 +169,62 @@ object SQLSession extends Logging {
     engineExecutionContext.sendResultSet(writer)
   }
 
-  /** also see org.apache.spark.sql.execution.QueryExecution#toHiveString */
-
-  /** Formats a datum (based on the given data type) and returns the string representation. */
-  private def toHiveString(a: (Any, org.apache.spark.sql.types.DataType)): String = {
-
-    def formatDecimal(d: java.math.BigDecimal): String = {
-      if (d.compareTo(java.math.BigDecimal.ZERO) == 0) {
-        java.math.BigDecimal.ZERO.toPlainString
-      } else {
-        d.stripTrailingZeros().toPlainString
-      }
-    }
+  /**
+   * Fetch the partitions of the DataFrame by concurrent jobs and write them in the order of the
+   * partitions. At most SHOW_DF_FETCH_PARALLELISM partitions are held in the driver, and the rows
+   * are formatted in the executors, so that the driver only writes the records.
+   * (并发拉取多个分区，驱动端最多持有parallelism个分区，行在executor端格式化)
+   * @return
+   *   the count of the rows written
+   */
+  private def fetchInParallel(
+      sc: SparkContext,
+      dataFrame: DataFrame,
+      formatter: ShowDFRowFormatter,
+      maxResult: Int,
+      writer: ResultSetWriter[_ <: MetaData, _ <: Record]
+  ): Int = {
+    val rdd = dataFrame.rdd
+    val numPartitions = rdd.getNumPartitions
+    val parallelism = Math.max(SparkConfiguration.SHOW_DF_FETCH_PARALLELISM.getValue, 1)
+    val fetching = new util.ArrayDeque[FutureAction[Array[Array[AnyRef]]]]()
+    var nextPartition = 0
+    var index = 0
 
-    /** Hive outputs fields of structs slightly differently than top level attributes. */
-    def toHiveStructString(a: (Any, org.apache.spark.sql.types.DataType)): String = a match {
-      case (struct: Row, StructType(fields)) =>
-        struct.toSeq
-          .zip(fields)
-          .map { case (v, t) =>
-            s""""${t.name}":${toHiveStructString((v, t.dataType))}"""
-          }
-          .mkString("{", ",", "}")
-      case (seq: Seq[_], ArrayType(typ, _)) =>
-        seq.map(v => (v, typ)).map(toHiveStructString).mkString("[", ",", "]")
-      case (map: Map[_, _], MapType(kType, vType, _)) =>
-        map
-          .map { case (key, value) =>
-            toHiveStructString((key, kType)) + ":" + toHiveStructString((value, vType))
-          }
-          .toSeq
-          .sorted
-          .mkString("{", ",", "}")
-      case (null, _) => "null"
-      case (str: String, StringType) => str.replaceAll("\n|\t", " ")
-      case (double: Double, DoubleType) => nf.format(double)
-      case (decimal: java.math.BigDecimal, DecimalType()) => formatDecimal(decimal)
-      case (other: Any, tpe) => other.toString
-      case _ => null
+    def fetch(partition: Int): FutureAction[Array[Array[AnyRef]]] = {
+      // No more rows than the rest of maxResult are needed from a partition
+      val limit = maxResult - index
+      val result = new Array[Array[Array[AnyRef]]](1)
+      sc.submitJob(
+        rdd,
+        (rows: Iterator[Row]) => formatter.format(rows, limit),
+        Seq(partition),
+        (_: Int, cells: Array[Array[AnyRef]]) => result(0) = cells,
+        result(0)
+      )
     }
-    a match {
-      case (struct: Row, StructType(fields)) =>
-        struct.toSeq
-          .zip(fields)
-          .map { case (v, t) =>
-            s""""${t.name}":${toHiveStructString((v, t.dataType))}"""
-          }
-          .mkString("{", ",", "}")
-      case (seq: Seq[_], ArrayType(typ, _)) =>
-        seq.map(v => (v, typ)).map(toHiveStructString).mkString("[", ",", "]")
-      case (map: Map[_, _], MapType(kType, vType, _)) =>
-        map
-          .map { case (key, value) =>
-            toHiveStructString((key, kType)) + ":" + toHiveStructString((value, vType))
-          }
-          .toSeq
-          .sorted
-          .mkString("{", ",", "}")
-
-      case (str: String, StringType) => str.replaceAll("\n|\t", " ")
-      case (double: Double, DoubleType) => nf.format(double)
-      case (decimal: java.math.BigDecimal, DecimalType()) => formatDecimal(decimal)
-      case (other: Any, tpe) => other.toString
-      case _ => null
 
+    Utils.tryFinally {
+      while (index < maxResult && (nextPartition < numPartitions || !fetching.isEmpty)) {
+        while (fetching.size() < parallelism && nextPartition < numPartitions) {
+          fetching.add(fetch(nextPartition))
+          nextPartition += 1
+        }
+        val cells = Await.result(fetching.poll(), Duration.Inf)
+        var i = 0
+        while (index < maxResult && i < cells.length) {
+          writer.addRecord(new TableRecord(cells(i)))
+          index += 1
+          i += 1
+        }
+      }
+      index
+    } {
+      // The partitions are not needed any more if maxResult is reached or failed
+      fetching.asScala.foreach(_.cancel())
     }
   }
 
-//  private def toHiveString(value: Any): String = {
-//
-//    value match {
-//      case value: String => value.replaceAll("\n|\t", " ")
-//      case value: Double => nf.format(value)
-//      case value: java.math.BigDecimal => formatDecimal(value)
-//      case value: Any => value.toString
-//      case _ => null
-//    }
-//
-//  }
   def showHTML(
       sc: SparkContext,
       jobGroup: String,
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.engineplugin.spark.executor
+
+import org.apache.spark.sql.Row
+import org.apache.spark.sql.types._
+
+import java.text.NumberFormat
+
+import scala.collection.mutable.ArrayBuffer
+
+/**
+ * Formats the rows of a DataFrame to the cells of the table result set, the same as Hive outputs
+ * them, also see org.apache.spark.sql.execution.QueryExecution#toHiveString. The formatter of each
+ * column is chosen once by its data type instead of matching every cell. (按列类型预先选定格式化方式，格式化结果集的行)
+ *
+ * <p>It is serializable and only depends on Spark, so that the rows can be formatted in the
+ * executors. An instance should not be shared by threads, since NumberFormat is not thread-safe.
+ */
+class ShowDFRowFormatter(dataTypes: Array[DataType], fractionLength: Int) extends Serializable {
+
+  @transient private lazy val nf: NumberFormat = {
+    val nf = NumberFormat.getInstance()
+    nf.setGroupingUsed(false)
+    nf.setMaximumFractionDigits(fractionLength)
+    nf
+  }
+
+  private val kinds: Array[Int] = dataTypes.map {
+    case StringType => ShowDFRowFormatter.STRING
+    case DoubleType => ShowDFRowFormatter.DOUBLE
+    case _: DecimalType => ShowDFRowFormatter.DECIMAL
+    case _: StructType | _: ArrayType | _: MapType => ShowDFRowFormatter.COMPLEX
+    case _ => ShowDFRowFormatter.OTHER
+  }
+
+  def format(row: Row): Array[AnyRef] = {
+    val cells = new Array[AnyRef](kinds.length)
+    var i = 0
+    while (i < kinds.length) {
+      cells(i) = formatCell(row.get(i), i)
+      i += 1
+    }
+    cells
+  }
+
+  /**
+   * Format the rows of a partition, at most limit rows are formatted
+   */
+  def format(rows: Iterator[Row], limit: Int): Array[Array[AnyRef]] = {
+    val cells = new ArrayBuffer[Array[AnyRef]]()
+    while (cells.size < limit && rows.hasNext) cells += format(rows.next())
+    cells.toArray
+  }
+
+  private def formatCell(value: Any, i: Int): String = if (value == null) null
+  else {
+    kinds(i) match {
+      case ShowDFRowFormatter.STRING =>
+        value match {
+          case str: String => ShowDFRowFormatter.replaceLineBreaks(str)
+          case other => other.toString
+        }
+      case ShowDFRowFormatter.DOUBLE =>
+        value match {
+          case double: Double => nf.format(double)
+          case other => other.toString
+        }
+      case ShowDFRowFormatter.DECIMAL =>
+        value match {
+          case decimal: java.math.BigDecimal => ShowDFRowFormatter.formatDecimal(decimal)
+          case other => other.toString
+        }
+      case ShowDFRowFormatter.OTHER => value.toString
+      case _ => toHiveStructString(value, dataTypes(i))
+    }
+  }
+
+  /** Hive outputs fields of structs slightly differently than top level attributes. */
+  private def toHiveStructString(value: Any, dataType: DataType): String =
+    (value, dataType) match {
+      case (null, _) => "null"
+      case (struct: Row, StructType(fields)) =>
+        struct.toSeq
+          .zip(fields)
+          .map { case (v, t) => s""""${t.name}":${toHiveStructString(v, t.dataType)}""" }
+          .mkString("{", ",", "}")
+      case (seq: Seq[_], ArrayType(typ, _)) =>
+        seq.map(toHiveStructString(_, typ)).mkString("[", ",", "]")
+      case (map: Map[_, _], MapType(kType, vType, _)) =>
+        map
+          .map { case (key, v) =>
+            toHiveStructString(key, kType) + ":" + toHiveStructString(v, vType)
+          }
+          .toSeq
+          .sorted
+          .mkString("{", ",", "}")
+      case (str: String, StringType) => ShowDFRowFormatter.replaceLineBreaks(str)
+      case (double: Double, DoubleType) => nf.format(double)
+      case (decimal: java.math.BigDecimal, _: DecimalType) =>
+        ShowDFRowFormatter.formatDecimal(decimal)
+      case (other, _) => other.toString
+    }
+
+}
+
+object ShowDFRowFormatter {
+
+  private final val STRING = 0
+  private final val DOUBLE = 1
+  private final val DECIMAL = 2
+  private final val COMPLEX = 3
+  private final val OTHER = 4
+
+  /**
+   * Replace the line breaks and tabs with spaces, the same as replaceAll("\n|\t", " ") without the
+   * regex, the string itself is returned if none is found
+   */
+  def replaceLineBreaks(str: String): String =
+    if (str.indexOf('\n') < 0 && str.indexOf('\t') < 0) str
+    else str.replace('\n', ' ').replace('\t', ' ')
+
+  def formatDecimal(d: java.math.BigDecimal): String = {
+    if (d.compareTo(java.math.BigDecimal.ZERO) == 0) {
+      java.math.BigDecimal.ZERO.toPlainString
+    } else {
+      d.stripTrailingZeros().toPlainString
+    }
+  }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.engineplugin.spark.executor
+
+import org.apache.spark.sql.Row
+import org.apache.spark.sql.types._
+
+import org.junit.jupiter.api.{Assertions, Test}
+
+class TestShowDFRowFormatter {
+
+  @Test
+  def testFormat: Unit = {
+    val formatter = new ShowDFRowFormatter(
+      Array(
+        StringType,
+        DoubleType,
+        DecimalType(10, 2),
+        IntegerType,
+        ArrayType(StringType),
+        MapType(StringType, IntegerType),
+        StructType(Seq(StructField("a", IntegerType), StructField("b", StringType)))
+      ),
+      30
+    )
+    val cells = formatter.format(
+      Row(
+        "a\tb\nc",
+        1.5d,
+        new java.math.BigDecimal("1.50"),
+        null,
+        Seq("x", null),
+        Map("k2" -> 2, "k1" -> 1),
+        Row(1, "s")
+      )
+    )
+    Assertions.assertEquals("a b c", cells(0))
+    Assertions.assertEquals("1.5", cells(1))
+    Assertions.assertEquals("1.5", cells(2))
+    Assertions.assertNull(cells(3))
+    Assertions.assertEquals("[x,null]", cells(4))
+    Assertions.assertEquals("{k1:1,k2:2}", cells(5))
+    Assertions.assertEquals("{\"a\":1,\"b\":s}", cells(6))
+  }
+
+  @Test
+  def testFormatPartition: Unit = {
+    val formatter = new ShowDFRowFormatter(Array(StringType), 30)
+    val rows = Iterator(Row("a"), Row("b"), Row("c"))
+    val cells = formatter.format(rows, 2)
+    Assertions.assertEquals(2, cells.length)
+    Assertions.assertEquals("b", cells(1)(0))
+    val str = "no line breaks"
+    Assertions.assertSame(str, ShowDFRowFormatter.replaceLineBreaks(str))
+  }
+
+}
@@ -38,6 +38,13 @@ object OrchestratorConfiguration {
     new TimeType("5000ms")
   )
 
+  /**
+   * Partitions of the async listener bus, the events of the same job are handled in order if it is
+   * positive
+   */
+  val ORCHESTRATOR_LISTENER_ASYNC_PARTITION_NUM =
+    CommonVars("linkis.orchestrator.listener.async.partition.num", 0)
+
   val ORCHESTRATOR_EXECUTOR_THREAD_MAX =
     CommonVars("wds.linkis.orchestrator.executor.thread.max", 20)
 
@@ -18,6 +18,8 @@
 package org.apache.linkis.orchestrator.listener
 
 import org.apache.linkis.common.listener.ListenerEventBus
+import org.apache.linkis.common.utils.Utils
+import org.apache.linkis.orchestrator.listener.task.TaskInfoEvent
 
 /**
  */
@@ -25,7 +27,8 @@ class OrchestratorAsyncListenerBus(
     eventQueueCapacity: Int,
     name: String,
     listenerConsumerThreadSize: Int,
-    listenerThreadMaxFreeTime: Long
+    listenerThreadMaxFreeTime: Long,
+    partitionNum: Int = 0
 ) extends ListenerEventBus[OrchestratorAsyncListener, OrchestratorAsyncEvent](
       eventQueueCapacity,
       name
@@ -42,4 +45,17 @@ class OrchestratorAsyncListenerBus(
     listener.onEvent(event)
   }
 
+  override protected def getPartitionNum: Int = partitionNum
+
+  /**
+   * The events of a job are keyed by the root task of the job
+   */
+  override protected def getPartitionKey(event: OrchestratorAsyncEvent): Any = event match {
+    case taskInfoEvent: TaskInfoEvent =>
+      Utils.tryCatch(taskInfoEvent.execTask.getPhysicalContext.getRootTask.getId) { _ =>
+        taskInfoEvent.execTask.getId
+      }
+    case _ => super.getPartitionKey(event)
+  }
+
 }
@@ -37,7 +37,8 @@ class OrchestratorListenerBusContextImpl extends OrchestratorListenerBusContext
       OrchestratorConfiguration.ORCHESTRATOR_LISTENER_ASYNC_QUEUE_CAPACITY.getValue,
       "Orchestrator-Listener-Asyn-Thread",
       OrchestratorConfiguration.ORCHESTRATOR_LISTENER_ASYNC_CONSUMER_THREAD_MAX.getValue,
-      OrchestratorConfiguration.ORCHESTRATOR_LISTENER_ASYNC_CONSUMER_THREAD_FREE_TIME_MAX.getValue.toLong
+      OrchestratorConfiguration.ORCHESTRATOR_LISTENER_ASYNC_CONSUMER_THREAD_FREE_TIME_MAX.getValue.toLong,
+      OrchestratorConfiguration.ORCHESTRATOR_LISTENER_ASYNC_PARTITION_NUM.getValue
     )
 
   private val orchestratorSyncListenerBus: OrchestratorSyncListenerBus =
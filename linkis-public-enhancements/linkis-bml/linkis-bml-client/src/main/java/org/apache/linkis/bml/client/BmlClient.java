@@ -80,6 +80,25 @@ public interface BmlClient extends Closeable {
    */
   BmlUploadResponse uploadResource(String user, String filePath);
 
+  /**
+   * Upload the resource in chunks, which is resumable: if the upload with the same uploadId is
+   * interrupted, upload it again with the same uploadId and the same content, the chunks uploaded
+   * are skipped.（分片上传资源，使用相同的uploadId重新上传可以断点续传）
+   *
+   * @param user 用户名
+   * @param uploadId the id of the upload chosen by the client, letters, digits, _ and - only
+   * @param inputStream 上传资源的输入流
+   * @return 包含resourceId和version
+   */
+  BmlUploadResponse uploadResourceInChunks(String user, String uploadId, InputStream inputStream);
+
+  /**
+   * Update the resource with a new version uploaded in chunks, see uploadResourceInChunks
+   * （分片上传资源的新版本）
+   */
+  BmlUpdateResponse updateResourceInChunks(
+      String user, String resourceId, String uploadId, InputStream inputStream);
+
   /**
    * 获取resource的所有版本
    *
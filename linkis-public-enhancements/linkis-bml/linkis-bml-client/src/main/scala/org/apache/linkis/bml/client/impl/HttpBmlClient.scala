@@ -39,11 +39,13 @@ import org.apache.linkis.httpclient.dws.authentication.TokenAuthenticationStrate
 import org.apache.linkis.httpclient.dws.config.DWSClientConfig
 import org.apache.linkis.storage.FSFactory
 
+import org.apache.commons.codec.binary.Hex
 import org.apache.commons.io.IOUtils
 import org.apache.commons.lang3.StringUtils
 import org.apache.http.client.methods.CloseableHttpResponse
 
-import java.io.{File, InputStream, IOException, OutputStream}
+import java.io.{ByteArrayInputStream, File, InputStream, IOException, OutputStream}
+import java.security.MessageDigest
 import java.util
 
 class HttpBmlClient(
@@ -446,6 +448,126 @@ class HttpBmlClient(
     }
   }
 
+  override def uploadResourceInChunks(
+      user: String,
+      uploadId: String,
+      inputStream: InputStream
+  ): BmlUploadResponse = {
+    val result = uploadInChunks(user, uploadId, null, inputStream)
+    val isSuccess = result.getStatus == 0
+    if (!isSuccess) {
+      logger.error(s"user $user upload resource failed, status code is ${result.getStatusCode}")
+      BmlUploadResponse(isSuccess, null, null)
+    } else BmlUploadResponse(isSuccess, result.getResourceId, result.getVersion)
+  }
+
+  override def updateResourceInChunks(
+      user: String,
+      resourceId: String,
+      uploadId: String,
+      inputStream: InputStream
+  ): BmlUpdateResponse = {
+    val result = uploadInChunks(user, uploadId, resourceId, inputStream)
+    val isSuccess = result.getStatus == 0
+    if (!isSuccess) {
+      logger.error(s"user $user update resource failed, status code is ${result.getStatusCode}")
+      BmlUpdateResponse(isSuccess, null, null)
+    } else BmlUpdateResponse(isSuccess, result.getResourceId, result.getVersion)
+  }
+
+  /**
+   * Upload the stream in chunks of UPLOAD_CHUNK_SIZE, resuming from the size already uploaded with
+   * the uploadId, then create the resource or the new version of resourceId with the chunks. The
+   * md5 is computed while reading, so the server does not read the resource again.
+   */
+  private def uploadInChunks(
+      user: String,
+      uploadId: String,
+      resourceId: String,
+      inputStream: InputStream
+  ): BmlCompleteChunkUploadResult = {
+    val messageDigest = MessageDigest.getInstance("MD5")
+    val chunk = new Array[Byte](UPLOAD_CHUNK_SIZE.getValue)
+    var offset = getUploadedSize(user, uploadId)
+    if (offset > 0) {
+      logger.info(s"Resume the upload $uploadId of user $user from $offset bytes")
+      skipAndDigest(inputStream, offset, chunk, messageDigest)
+    }
+    var len = IOUtils.read(inputStream, chunk)
+    while (len > 0) {
+      messageDigest.update(chunk, 0, len)
+      val _inputStreams = new util.HashMap[String, InputStream]()
+      _inputStreams.put("file", new ByteArrayInputStream(chunk, 0, len))
+      val uploadChunkAction = BmlUploadChunkAction(_inputStreams)
+      uploadChunkAction.inputStreamNames.put("file", uploadId)
+      uploadChunkAction.setUser(user)
+      uploadChunkAction.getParameters.put("uploadId", uploadId)
+      uploadChunkAction.getParameters.put("offset", offset.toString)
+      offset = dwsClient.execute(uploadChunkAction) match {
+        case result: BmlUploadChunkResult if result.getStatus == 0 => result.getUploadedSize
+        case result => throw chunkUploadFailed(user, uploadId, result)
+      }
+      len = IOUtils.read(inputStream, chunk)
+    }
+    val completeAction = BmlCompleteChunkUploadAction()
+    completeAction.setUser(user)
+    completeAction.setFormParam("uploadId", uploadId)
+    completeAction.setFormParam("md5", Hex.encodeHexString(messageDigest.digest()))
+    if (StringUtils.isNotEmpty(resourceId)) completeAction.setFormParam("resourceId", resourceId)
+    dwsClient.execute(completeAction) match {
+      case result: BmlCompleteChunkUploadResult => result
+      case result => throw chunkUploadFailed(user, uploadId, result)
+    }
+  }
+
+  private def getUploadedSize(user: String, uploadId: String): Long = {
+    val getUploadedSizeAction = BmlGetUploadedSizeAction()
+    getUploadedSizeAction.setUser(user)
+    getUploadedSizeAction.setParameter("uploadId", uploadId)
+    dwsClient.execute(getUploadedSizeAction) match {
+      case result: BmlGetUploadedSizeResult if result.getStatus == 0 => result.getUploadedSize
+      case result => throw chunkUploadFailed(user, uploadId, result)
+    }
+  }
+
+  /**
+   * Skip the bytes uploaded already, which still have to be digested for the md5
+   */
+  private def skipAndDigest(
+      inputStream: InputStream,
+      size: Long,
+      buffer: Array[Byte],
+      messageDigest: MessageDigest
+  ): Unit = {
+    var left = size
+    while (left > 0) {
+      val len = IOUtils.read(inputStream, buffer, 0, Math.min(left, buffer.length).toInt)
+      if (len <= 0) {
+        throw BmlClientFailException(
+          BML_CLIENT_FAILED.getErrorCode,
+          s"The resource is shorter than the uploaded size $size, use another uploadId"
+        )
+      }
+      messageDigest.update(buffer, 0, len)
+      left -= len
+    }
+  }
+
+  private def chunkUploadFailed(user: String, uploadId: String, result: Any): Exception =
+    result match {
+      case r: BmlResult =>
+        logger.error(
+          s"user $user chunk upload $uploadId failed, status code is ${r.getStatusCode}," +
+            s" message: ${r.getMessage}"
+        )
+        BmlClientFailException(BML_CLIENT_FAILED.getErrorCode, BML_CLIENT_FAILED.getErrorDesc)
+      case _ =>
+        POSTResultNotMatchException(
+          POST_REQUEST_RESULT_NOT_MATCH.getErrorCode,
+          POST_REQUEST_RESULT_NOT_MATCH.getErrorDesc
+        )
+    }
+
   /**
    */
   override def deleteResource(
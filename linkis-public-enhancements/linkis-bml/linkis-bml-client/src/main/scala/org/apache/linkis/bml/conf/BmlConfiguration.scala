@@ -46,6 +46,13 @@ object BmlConfiguration {
   val CONNECTION_READ_TIMEOUT: CommonVars[Int] =
     CommonVars[Int]("wds.linkis.bml.connection.read.timeout", 10 * 60 * 1000)
 
+  val UPLOAD_CHUNK_SIZE: CommonVars[Int] =
+    CommonVars[Int](
+      "linkis.bml.upload.chunk.size",
+      8 * 1024 * 1024,
+      "size of a chunk in the chunked upload (分片上传的分片大小)"
+    )
+
   val AUTH_TOKEN_KEY_SHORT_NAME = "tokenKey"
   val AUTH_TOKEN_VALUE_SHORT_NAME = "tokenValue"
 
@@ -49,5 +49,8 @@ object HttpConf {
   val changeOwnerUrl: String = urlPrefix + "/" + "changeOwner"
   val rollbackVersionUrl: String = urlPrefix + "/" + "rollbackVersion"
   val copyResourceUrl: String = urlPrefix + "/" + "copyResourceToAnotherUser"
+  val uploadChunkUrl: String = urlPrefix + "/" + "uploadChunk"
+  val getUploadedSizeUrl: String = urlPrefix + "/" + "getUploadedSize"
+  val completeChunkUploadUrl: String = urlPrefix + "/" + "completeChunkUpload"
 
 }
@@ -307,3 +307,37 @@ case class BmlCopyResourceAction() extends BmlPOSTAction {
 case class BmlRollbackVersionAction() extends BmlPOSTAction {
   override def getURL: String = HttpConf.rollbackVersionUrl
 }
+
+/**
+ * Upload a chunk of the resource, parameters: uploadId, offset
+ */
+case class BmlUploadChunkAction(_inputStreams: util.Map[String, InputStream])
+    extends BmlPOSTAction
+    with UploadAction {
+
+  private val streamNames = new util.HashMap[String, String]
+
+  override val files: util.Map[String, String] = new util.HashMap[String, String]()
+
+  override def inputStreams: util.Map[String, InputStream] = _inputStreams
+
+  override def inputStreamNames: util.Map[String, String] = streamNames
+
+  private var _user: String = _
+
+  override def setUser(user: String): Unit = this._user = user
+
+  override def getUser: String = this._user
+
+  override def getRequestPayload: String = ""
+
+  override def getURL: String = HttpConf.uploadChunkUrl
+}
+
+case class BmlGetUploadedSizeAction() extends BmlGETAction {
+  override def getURL: String = HttpConf.getUploadedSizeUrl
+}
+
+case class BmlCompleteChunkUploadAction() extends BmlPOSTAction {
+  override def getURL: String = HttpConf.completeChunkUploadUrl
+}
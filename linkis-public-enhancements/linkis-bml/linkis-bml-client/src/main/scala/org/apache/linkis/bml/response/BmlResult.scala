@@ -114,3 +114,28 @@ class BmlRollbackVersionResult extends BmlResult {}
 
 @DWSHttpMessageResult("/api/rest_j/v\\d+/bml/copyResourceToAnotherUser")
 class BmlCopyResourceResult extends BmlResult {}
+
+class BmlChunkResult extends BmlResult {
+  private var uploadId: String = _
+  private var uploadedSize: Long = 0L
+
+  def setUploadId(uploadId: String): Unit = this.uploadId = uploadId
+  def getUploadId: String = this.uploadId
+
+  def setUploadedSize(uploadedSize: Long): Unit = this.uploadedSize = uploadedSize
+  def getUploadedSize: Long = this.uploadedSize
+}
+
+@DWSHttpMessageResult("/api/rest_j/v\\d+/bml/uploadChunk")
+class BmlUploadChunkResult extends BmlChunkResult {}
+
+@DWSHttpMessageResult("/api/rest_j/v\\d+/bml/getUploadedSize")
+class BmlGetUploadedSizeResult extends BmlChunkResult {}
+
+@DWSHttpMessageResult("/api/rest_j/v\\d+/bml/completeChunkUpload")
+class BmlCompleteChunkUploadResult extends BmlResult {
+  private var taskId: Long = 0L
+
+  def setTaskId(taskId: Long): Unit = this.taskId = taskId
+  def getTaskId: Long = this.taskId
+}
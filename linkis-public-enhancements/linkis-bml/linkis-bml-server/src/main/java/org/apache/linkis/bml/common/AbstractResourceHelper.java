@@ -0,0 +1,334 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.bml.common;
+
+import org.apache.linkis.bml.conf.BmlServerConfiguration;
+import org.apache.linkis.common.exception.ErrorException;
+import org.apache.linkis.common.io.Fs;
+import org.apache.linkis.common.io.FsPath;
+import org.apache.linkis.storage.FSFactory;
+import org.apache.linkis.storage.fs.FileSystem;
+import org.apache.linkis.storage.utils.FileSystemUtils;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The storage operations shared by the resource helpers. The md5 of a resource is computed in the
+ * same pass as the writing, and the size is taken from the file status, so a resource is never read
+ * again to be accounted.（MD5在写入时一次计算，大小取自文件元数据，不再重复读取整个文件）
+ */
+public abstract class AbstractResourceHelper implements ResourceHelper {
+
+  private static final Logger logger = LoggerFactory.getLogger(AbstractResourceHelper.class);
+
+  private static final ThreadLocal<byte[]> BUFFERS =
+      ThreadLocal.withInitial(
+          () -> new byte[(Integer) BmlServerConfiguration.BML_IO_BUFFER_SIZE().getValue()]);
+
+  @Override
+  public long upload(
+      String path,
+      String user,
+      InputStream inputStream,
+      StringBuilder stringBuilder,
+      boolean overwrite)
+      throws UploadResourceException {
+    OutputStream outputStream = null;
+    long size = 0;
+    Fs fileSystem = null;
+    try {
+      FsPath fsPath = new FsPath(path);
+      fileSystem = FSFactory.getFsByProxyUser(fsPath, user);
+      fileSystem.init(new HashMap<String, String>());
+      long beforeSize = 0;
+      if (!fileSystem.exists(fsPath)) {
+        FileSystemUtils.createNewFile(fsPath, user, true);
+      } else if (!overwrite) {
+        beforeSize = getLength(fileSystem, fsPath);
+      }
+      outputStream = fileSystem.write(fsPath, overwrite);
+      MessageDigest md5Digest = DigestUtils.getMd5Digest();
+      size = copy(inputStream, outputStream, md5Digest);
+      outputStream.close();
+      outputStream = null;
+      if (stringBuilder != null) {
+        stringBuilder.append(Hex.encodeHexString(md5Digest.digest()));
+      }
+      // The size written in the file by the file status, so that a wrong size is never recorded
+      size = Math.max(size, getLength(fileSystem, fsPath) - beforeSize);
+    } catch (final Throwable t) {
+      logger.error("{} write to {} failed, reason is", user, path, t);
+      UploadResourceException uploadResourceException = new UploadResourceException();
+      uploadResourceException.initCause(t);
+      throw uploadResourceException;
+    } finally {
+      IOUtils.closeQuietly(outputStream);
+      IOUtils.closeQuietly(inputStream);
+      closeFileSystem(fileSystem);
+    }
+    return size;
+  }
+
+  @Override
+  public long appendChunk(
+      String path, String user, InputStream inputStream, long offset, long length)
+      throws ErrorException {
+    OutputStream outputStream = null;
+    Fs fileSystem = null;
+    try {
+      FsPath fsPath = new FsPath(path);
+      fileSystem = FSFactory.getFsByProxyUser(fsPath, user);
+      fileSystem.init(new HashMap<String, String>());
+      if (!fileSystem.exists(fsPath)) {
+        FileSystemUtils.createNewFile(fsPath, user, true);
+      }
+      long uploadedSize = getLength(fileSystem, fsPath);
+      if (offset < uploadedSize && offset + length > uploadedSize) {
+        throw new BmlServerParaErrorException(
+            "The chunk at offset "
+                + offset
+                + " with size "
+                + length
+                + " overlaps the end of the uploaded size "
+                + uploadedSize
+                + "(分片与已上传部分重叠)");
+      } else if (offset < uploadedSize) {
+        logger.info(
+            "The chunk of {} at offset {} has been uploaded, uploaded size is {}",
+            path,
+            offset,
+            uploadedSize);
+        return uploadedSize;
+      } else if (offset > uploadedSize) {
+        throw new BmlServerParaErrorException(
+            "The offset "
+                + offset
+                + " of the chunk is beyond the uploaded size "
+                + uploadedSize
+                + "(分片偏移量大于已上传大小)");
+      }
+      outputStream = fileSystem.write(fsPath, false);
+      long size = copy(inputStream, outputStream, null);
+      outputStream.close();
+      outputStream = null;
+      return uploadedSize + size;
+    } catch (final ErrorException e) {
+      throw e;
+    } catch (final Throwable t) {
+      logger.error("{} append chunk to {} failed, reason is", user, path, t);
+      UploadResourceException uploadResourceException = new UploadResourceException();
+      uploadResourceException.initCause(t);
+      throw uploadResourceException;
+    } finally {
+      IOUtils.closeQuietly(outputStream);
+      IOUtils.closeQuietly(inputStream);
+      closeFileSystem(fileSystem);
+    }
+  }
+
+  @Override
+  public long commitChunks(String chunkPath, String path, String user, StringBuilder stringBuilder)
+      throws ErrorException {
+    Fs fileSystem = null;
+    InputStream inputStream = null;
+    try {
+      FsPath chunkFsPath = new FsPath(chunkPath);
+      FsPath fsPath = new FsPath(path);
+      fileSystem = FSFactory.getFsByProxyUser(chunkFsPath, user);
+      fileSystem.init(new HashMap<String, String>());
+      if (!fileSystem.exists(chunkFsPath)) {
+        throw new BmlServerParaErrorException(
+            "No chunk has been uploaded to " + chunkPath + "(分片未上传)");
+      }
+      inputStream = fileSystem.read(chunkFsPath);
+      String md5 = DigestUtils.md5Hex(inputStream);
+      inputStream.close();
+      inputStream = null;
+      if (StringUtils.isNotBlank(stringBuilder)
+          && !md5.equalsIgnoreCase(stringBuilder.toString())) {
+        // The chunks are broken, so they are deleted to upload again
+        fileSystem.delete(chunkFsPath);
+        throw new BmlServerParaErrorException(
+            "The md5 "
+                + md5
+                + " of the chunks uploaded to "
+                + chunkPath
+                + " is not the md5 "
+                + stringBuilder
+                + " given(分片文件MD5校验失败，请重新上传)");
+      }
+      stringBuilder.setLength(0);
+      stringBuilder.append(md5);
+      if (!fileSystem.exists(fsPath.getParent())) {
+        FileSystemUtils.mkdirs((FileSystem) fileSystem, fsPath.getParent(), user);
+      }
+      if (!fileSystem.renameTo(chunkFsPath, fsPath)) {
+        throw new IOException("Failed to rename " + chunkPath + " to " + path);
+      }
+      return getLength(fileSystem, fsPath);
+    } catch (final ErrorException e) {
+      throw e;
+    } catch (final Throwable t) {
+      logger.error("{} commit chunks {} to {} failed, reason is", user, chunkPath, path, t);
+      UploadResourceException uploadResourceException = new UploadResourceException();
+      uploadResourceException.initCause(t);
+      throw uploadResourceException;
+    } finally {
+      IOUtils.closeQuietly(inputStream);
+      closeFileSystem(fileSystem);
+    }
+  }
+
+  @Override
+  public int cleanExpiredChunks(long expireTime) {
+    long expiredTime = System.currentTimeMillis() - expireTime;
+    int count = 0;
+    for (String user : listUsers()) {
+      Fs fileSystem = null;
+      try {
+        FsPath chunkDir = new FsPath(generateChunkPath(user, "_")).getParent();
+        // The chunks are deleted by the user uploading them, who is the owner
+        fileSystem = FSFactory.getFsByProxyUser(chunkDir, user);
+        fileSystem.init(new HashMap<String, String>());
+        if (!fileSystem.exists(chunkDir)) {
+          continue;
+        }
+        List<FsPath> chunkPaths = fileSystem.list(chunkDir);
+        if (chunkPaths == null) {
+          continue;
+        }
+        for (FsPath chunkPath : chunkPaths) {
+          if (!chunkPath.isdir()
+              && chunkPath.getModification_time() < expiredTime
+              && fileSystem.delete(chunkPath)) {
+            logger.info("Deleted the expired chunks {} of user {}", chunkPath.getPath(), user);
+            count++;
+          }
+        }
+      } catch (Throwable t) {
+        logger.warn("Failed to clean the expired chunks of user {}", user, t);
+      } finally {
+        closeFileSystem(fileSystem);
+      }
+    }
+    return count;
+  }
+
+  private List<String> listUsers() {
+    List<String> users = new ArrayList<>();
+    Fs fileSystem = null;
+    try {
+      FsPath rootPath = new FsPath(getStorageRoot());
+      fileSystem =
+          FSFactory.getFsByProxyUser(
+              rootPath, BmlServerConfiguration.BML_DEFAULT_PROXY_USER().getValue());
+      fileSystem.init(new HashMap<String, String>());
+      List<FsPath> userPaths = fileSystem.exists(rootPath) ? fileSystem.list(rootPath) : null;
+      if (userPaths != null) {
+        for (FsPath userPath : userPaths) {
+          if (userPath.isdir()) {
+            users.add(new File(userPath.getPath()).getName());
+          }
+        }
+      }
+    } catch (Throwable t) {
+      logger.warn("Failed to list the users under {}", getStorageRoot(), t);
+    } finally {
+      closeFileSystem(fileSystem);
+    }
+    return users;
+  }
+
+  @Override
+  public long getLength(String path, String user) throws IOException {
+    FsPath fsPath = new FsPath(path);
+    Fs fileSystem = FSFactory.getFsByProxyUser(fsPath, user);
+    fileSystem.init(new HashMap<String, String>());
+    try {
+      return fileSystem.exists(fsPath) ? getLength(fileSystem, fsPath) : 0;
+    } finally {
+      fileSystem.close();
+    }
+  }
+
+  @Override
+  public void update(String path) {}
+
+  @Override
+  public void getResource(String path, int start, int end) {}
+
+  @Override
+  public boolean checkIfExists(String path, String user) throws IOException {
+    Fs fileSystem = FSFactory.getFsByProxyUser(new FsPath(path), user);
+    fileSystem.init(new HashMap<String, String>());
+    try {
+      return fileSystem.exists(new FsPath(path));
+    } finally {
+      fileSystem.close();
+    }
+  }
+
+  /**
+   * Copy the stream with the buffer of the thread, and update the digest if it is not null
+   *
+   * @return the number of the bytes copied
+   */
+  public static long copy(InputStream inputStream, OutputStream outputStream, MessageDigest digest)
+      throws IOException {
+    byte[] buffer = BUFFERS.get();
+    long size = 0;
+    int ch;
+    while ((ch = inputStream.read(buffer)) != -1) {
+      if (digest != null) {
+        digest.update(buffer, 0, ch);
+      }
+      outputStream.write(buffer, 0, ch);
+      size += ch;
+    }
+    return size;
+  }
+
+  protected long getLength(Fs fileSystem, FsPath fsPath) throws IOException {
+    return fileSystem.get(fsPath.getPath()).getLength();
+  }
+
+  private void closeFileSystem(Fs fileSystem) {
+    if (fileSystem != null) {
+      try {
+        fileSystem.close();
+      } catch (Exception e) {
+        logger.error("close filesystem failed", e);
+      }
+    }
+  }
+}
@@ -17,6 +17,8 @@
 
 package org.apache.linkis.bml.common;
 
+import org.apache.linkis.common.exception.ErrorException;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Map;
@@ -31,6 +33,44 @@ public interface ResourceHelper {
       boolean overwrite)
       throws UploadResourceException;
 
+  /**
+   * Append a chunk of a resource uploaded in chunks（追加分片上传的一个分片）
+   *
+   * @param path the path of the chunks, generated by generateChunkPath
+   * @param offset the size uploaded before this chunk, to make sure the chunks are appended in
+   *     order, a chunk uploaded again after a retry is skipped
+   * @param length the size of the chunk, a chunk overlapping the end of the uploaded size is
+   *     rejected
+   * @return the size uploaded after this chunk
+   */
+  long appendChunk(String path, String user, InputStream inputStream, long offset, long length)
+      throws ErrorException;
+
+  /**
+   * Move the chunks uploaded to the path of the resource（将上传完成的分片文件移动到资源路径）
+   *
+   * @param stringBuilder the md5 given by the client to be verified, it is replaced by the md5 of
+   *     the chunks
+   * @return the size of the resource
+   */
+  long commitChunks(String chunkPath, String path, String user, StringBuilder stringBuilder)
+      throws ErrorException;
+
+  /**
+   * Delete the chunks of all the users not appended in expireTime（清理过期未完成的分片文件）
+   *
+   * @return the number of the chunks deleted
+   */
+  int cleanExpiredChunks(long expireTime);
+
+  /** The size of the file, 0 if it does not exist */
+  long getLength(String path, String user) throws IOException;
+
+  String generateChunkPath(String user, String uploadId);
+
+  /** The root path of the resources of all the users */
+  String getStorageRoot();
+
   public void update(String path);
 
   public void getResource(String path, int start, int end);
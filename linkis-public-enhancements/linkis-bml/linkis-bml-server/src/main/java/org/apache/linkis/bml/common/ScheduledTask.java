@@ -49,6 +49,21 @@ public class ScheduledTask {
     }
   }
 
+  private class CleanExpiredChunksThread implements Runnable {
+    @Override
+    public void run() {
+      try {
+        int count =
+            ResourceHelperFactory.getResourceHelper()
+                .cleanExpiredChunks(
+                    BmlServerConfiguration.BML_CHUNK_EXPIRE_TIME().getValue().toLong());
+        logger.info("Cleaned {} expired chunk uploads", count);
+      } catch (Throwable t) {
+        logger.warn("Failed to clean the expired chunk uploads", t);
+      }
+    }
+  }
+
   @PostConstruct
   public void init() {
     logger.info("Schedule Task is init");
@@ -59,5 +74,12 @@ public class ScheduledTask {
             10,
             ((Number) BmlServerConfiguration.BML_CLEAN_EXPIRED_TIME().getValue()).intValue(),
             TimeUnit.SECONDS);
+    long chunkCleanInterval = BmlServerConfiguration.BML_CHUNK_CLEAN_INTERVAL().getValue().toLong();
+    Utils.defaultScheduler()
+        .scheduleAtFixedRate(
+            new CleanExpiredChunksThread(),
+            chunkCleanInterval,
+            chunkCleanInterval,
+            TimeUnit.MILLISECONDS);
   }
 }
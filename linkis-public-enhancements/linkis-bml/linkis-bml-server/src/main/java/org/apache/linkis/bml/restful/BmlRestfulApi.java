@@ -772,6 +772,144 @@ public class BmlRestfulApi {
     return message;
   }
 
+  @ApiOperation(
+      value = "uploadChunk",
+      notes = "upload a chunk of the resource",
+      response = Message.class)
+  @ApiImplicitParams({
+    @ApiImplicitParam(name = "uploadId", required = true, dataType = "String"),
+    @ApiImplicitParam(name = "offset", required = true, dataType = "Long"),
+    @ApiImplicitParam(name = "file", required = true, dataType = "MultipartFile", value = "file")
+  })
+  @RequestMapping(path = "uploadChunk", method = RequestMethod.POST)
+  public Message uploadChunk(
+      HttpServletRequest request,
+      @RequestParam("uploadId") String uploadId,
+      @RequestParam("offset") Long offset,
+      @RequestParam("file") MultipartFile file)
+      throws Exception {
+    checkUploadId(uploadId);
+    String user = ModuleUserUtils.getOperationUser(request, "uploadChunk，uploadId：" + uploadId);
+    ResourceHelper resourceHelper = ResourceHelperFactory.getResourceHelper();
+    String chunkPath = resourceHelper.generateChunkPath(user, uploadId);
+    long uploadedSize;
+    // The chunks of an upload are appended and committed one by one
+    synchronized (chunkPath.intern()) {
+      uploadedSize =
+          resourceHelper.appendChunk(
+              chunkPath, user, file.getInputStream(), offset, file.getSize());
+    }
+    return Message.ok().data("uploadId", uploadId).data("uploadedSize", uploadedSize);
+  }
+
+  @ApiOperation(
+      value = "getUploadedSize",
+      notes = "get the size uploaded in chunks, to resume the upload",
+      response = Message.class)
+  @ApiImplicitParams({@ApiImplicitParam(name = "uploadId", required = true, dataType = "String")})
+  @RequestMapping(path = "getUploadedSize", method = RequestMethod.GET)
+  public Message getUploadedSize(
+      HttpServletRequest request, @RequestParam("uploadId") String uploadId) throws Exception {
+    checkUploadId(uploadId);
+    String user = ModuleUserUtils.getOperationUser(request, "getUploadedSize，uploadId：" + uploadId);
+    ResourceHelper resourceHelper = ResourceHelperFactory.getResourceHelper();
+    long uploadedSize =
+        resourceHelper.getLength(resourceHelper.generateChunkPath(user, uploadId), user);
+    return Message.ok().data("uploadId", uploadId).data("uploadedSize", uploadedSize);
+  }
+
+  /**
+   * Create a resource, or a new version of the resource if resourceId is given, with the chunks
+   * uploaded by uploadChunk（用分片上传的文件创建资源，指定resourceId时更新资源版本）
+   */
+  @ApiOperation(
+      value = "completeChunkUpload",
+      notes = "create the resource or the new version with the chunks uploaded",
+      response = Message.class)
+  @ApiImplicitParams({
+    @ApiImplicitParam(name = "uploadId", required = true, dataType = "String"),
+    @ApiImplicitParam(name = "md5", required = false, dataType = "String"),
+    @ApiImplicitParam(name = "resourceId", required = false, dataType = "String"),
+    @ApiImplicitParam(name = "system", required = false, dataType = "String"),
+    @ApiImplicitParam(name = "resourceHeader", dataType = "String"),
+    @ApiImplicitParam(name = "isExpire", dataType = "String"),
+    @ApiImplicitParam(name = "expireType", dataType = "String"),
+    @ApiImplicitParam(name = "expireTime", dataType = "String"),
+    @ApiImplicitParam(name = "maxVersion", dataType = "String")
+  })
+  @RequestMapping(path = "completeChunkUpload", method = RequestMethod.POST)
+  public Message completeChunkUpload(
+      HttpServletRequest request,
+      @RequestParam("uploadId") String uploadId,
+      @RequestParam(name = "md5", required = false) String md5,
+      @RequestParam(name = "resourceId", required = false) String resourceId,
+      @RequestParam(name = "system", required = false) String system,
+      @RequestParam(name = "resourceHeader", required = false) String resourceHeader,
+      @RequestParam(name = "isExpire", required = false) String isExpire,
+      @RequestParam(name = "expireType", required = false) String expireType,
+      @RequestParam(name = "expireTime", required = false) String expireTime,
+      @RequestParam(name = "maxVersion", required = false) Integer maxVersion)
+      throws ErrorException {
+    checkUploadId(uploadId);
+    if (StringUtils.isNotEmpty(resourceId)
+        && (!resourceService.checkResourceId(resourceId)
+            || StringUtils.isEmpty(versionService.getNewestVersion(resourceId)))) {
+      logger.error("error resourceId  is {} ", resourceId);
+      throw new BmlServerParaErrorException(
+          "resourceId: " + resourceId + " is Null, illegal, or deleted!");
+    }
+    String user =
+        ModuleUserUtils.getOperationUser(request, "completeChunkUpload，uploadId：" + uploadId);
+    String chunkPath = ResourceHelperFactory.getResourceHelper().generateChunkPath(user, uploadId);
+    Map<String, Object> properties = new HashMap<>();
+    properties.put("clientIp", HttpRequestHelper.getIp(request));
+    ResourceTask resourceTask;
+    try {
+      synchronized (chunkPath.intern()) {
+        if (StringUtils.isEmpty(resourceId)) {
+          properties.put("system", system);
+          properties.put("resourceHeader", resourceHeader);
+          properties.put("isExpire", isExpire);
+          properties.put("expireType", expireType);
+          properties.put("expireTime", expireTime);
+          properties.put("maxVersion", maxVersion);
+          resourceTask = taskService.createChunkUploadTask(chunkPath, md5, user, properties);
+        } else {
+          synchronized (resourceId.intern()) {
+            resourceTask =
+                taskService.createChunkUpdateTask(resourceId, user, chunkPath, md5, properties);
+          }
+        }
+      }
+    } catch (final ErrorException e) {
+      logger.error("{} complete chunk upload {} failed, reason:", user, uploadId, e);
+      throw e;
+    } catch (final Exception e) {
+      logger.error("{} complete chunk upload {} failed, reason:", user, uploadId, e);
+      ErrorException exception =
+          new ErrorException(
+              50073, "The commit upload resource task failed(提交上传资源任务失败):" + e.getMessage());
+      exception.initCause(e);
+      throw exception;
+    }
+    logger.info(
+        "User {} completed chunk upload {} of resource {}",
+        user,
+        uploadId,
+        resourceTask.getResourceId());
+    return Message.ok("The task of submitting and uploading resources was successful(提交上传资源任务成功)")
+        .data("resourceId", resourceTask.getResourceId())
+        .data("version", resourceTask.getVersion())
+        .data("taskId", resourceTask.getId());
+  }
+
+  private void checkUploadId(String uploadId) throws BmlServerParaErrorException {
+    if (StringUtils.isBlank(uploadId) || !uploadId.matches("[A-Za-z0-9_-]{1,64}")) {
+      throw new BmlServerParaErrorException(
+          "uploadId: " + uploadId + " is illegal, only letters, digits, _ and - are allowed");
+    }
+  }
+
   @ApiOperation(value = "getBasic", notes = "get resource basic info", response = Message.class)
   @ApiImplicitParams({@ApiImplicitParam(name = "resourceId", required = true, dataType = "String")})
   @RequestMapping(path = "getBasic", method = RequestMethod.GET)
@@ -44,6 +44,15 @@ public interface ResourceService {
   List<ResourceServiceImpl.UploadResult> upload(
       List<MultipartFile> files, String user, Map<String, Object> properties) throws Exception;
 
+  /**
+   * Create a resource with the chunks uploaded（用分片上传的文件创建资源）
+   *
+   * @param chunkPath the path of the chunks uploaded
+   * @param md5 the md5 given by the client, it is computed if empty
+   */
+  ResourceServiceImpl.UploadResult uploadChunks(
+      String chunkPath, String md5, String user, Map<String, Object> properties) throws Exception;
+
   boolean checkResourceId(String resourceId);
 
   Resource getResource(String resourceId);
@@ -34,6 +34,20 @@ public interface TaskService {
       String resourceId, String user, MultipartFile file, Map<String, Object> properties)
       throws Exception;
 
+  /**
+   * Create the upload task of a resource uploaded in chunks（分片上传资源的上传任务）
+   *
+   * @param chunkPath the path of the chunks uploaded
+   * @param md5 the md5 given by the client, it is computed if empty
+   */
+  ResourceTask createChunkUploadTask(
+      String chunkPath, String md5, String user, Map<String, Object> properties) throws Exception;
+
+  /** Create the update task of a resource uploaded in chunks（分片上传资源的更新任务） */
+  ResourceTask createChunkUpdateTask(
+      String resourceId, String user, String chunkPath, String md5, Map<String, Object> properties)
+      throws Exception;
+
   ResourceTask createDownloadTask(String resourceId, String version, String user, String clientIp);
 
   /**
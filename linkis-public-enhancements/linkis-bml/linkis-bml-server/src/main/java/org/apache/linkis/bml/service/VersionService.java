@@ -71,6 +71,17 @@ public interface VersionService {
       String resourceId, String user, MultipartFile file, Map<String, Object> params)
       throws Exception;
 
+  /**
+   * Create a new version of the resource with the chunks uploaded（用分片上传的文件更新资源版本）
+   *
+   * @param chunkPath the path of the chunks uploaded
+   * @param md5 the md5 given by the client, it is computed if empty
+   * @return the new version
+   */
+  String updateVersionByChunks(
+      String resourceId, String user, String chunkPath, String md5, Map<String, Object> params)
+      throws Exception;
+
   String getNewestVersion(String resourceId);
 
   boolean downloadResource(
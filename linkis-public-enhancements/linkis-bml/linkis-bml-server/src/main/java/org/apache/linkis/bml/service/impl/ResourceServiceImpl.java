@@ -87,26 +87,48 @@ public class ResourceServiceImpl implements ResourceService {
       StringBuilder sb = new StringBuilder();
       long size = resourceHelper.upload(path, user, inputStream, sb, true);
       String md5String = sb.toString();
-      boolean isSuccess = false;
-      if (StringUtils.isNotEmpty(md5String) && size >= 0) {
-        isSuccess = true;
-      }
-      Resource resource = Resource.createNewResource(resourceId, user, fileName, properties);
-      // 插入一条记录到resource表
-      long id = resourceDao.uploadResource(resource);
-      logger.info("{} uploaded a resource and resourceId is {}", user, resource.getResourceId());
-      // 插入一条记录到resource version表
-      String clientIp = (String) properties.get("clientIp");
-      ResourceVersion resourceVersion =
-          ResourceVersion.createNewResourceVersion(
-              resourceId, path, md5String, clientIp, size, Constant.FIRST_VERSION, 1);
-      versionDao.insertNewVersion(resourceVersion);
-      UploadResult uploadResult = new UploadResult(resourceId, FIRST_VERSION, isSuccess);
-      results.add(uploadResult);
+      results.add(saveResource(resourceId, user, fileName, path, md5String, size, properties));
     }
     return results;
   }
 
+  @Transactional(rollbackFor = Exception.class)
+  @Override
+  public UploadResult uploadChunks(
+      String chunkPath, String md5, String user, Map<String, Object> properties) throws Exception {
+    ResourceHelper resourceHelper = ResourceHelperFactory.getResourceHelper();
+    String resourceId = (String) properties.get("resourceId");
+    String path = resourceHelper.generatePath(user, resourceId, properties);
+    StringBuilder sb = new StringBuilder(StringUtils.defaultString(md5));
+    long size = resourceHelper.commitChunks(chunkPath, path, user, sb);
+    return saveResource(resourceId, user, resourceId, path, sb.toString(), size, properties);
+  }
+
+  private UploadResult saveResource(
+      String resourceId,
+      String user,
+      String fileName,
+      String path,
+      String md5String,
+      long size,
+      Map<String, Object> properties) {
+    boolean isSuccess = false;
+    if (StringUtils.isNotEmpty(md5String) && size >= 0) {
+      isSuccess = true;
+    }
+    Resource resource = Resource.createNewResource(resourceId, user, fileName, properties);
+    // 插入一条记录到resource表
+    long id = resourceDao.uploadResource(resource);
+    logger.info("{} uploaded a resource and resourceId is {}", user, resource.getResourceId());
+    // 插入一条记录到resource version表
+    String clientIp = (String) properties.get("clientIp");
+    ResourceVersion resourceVersion =
+        ResourceVersion.createNewResourceVersion(
+            resourceId, path, md5String, clientIp, size, Constant.FIRST_VERSION, 1);
+    versionDao.insertNewVersion(resourceVersion);
+    return new UploadResult(resourceId, FIRST_VERSION, isSuccess);
+  }
+
   @Override
   public boolean checkResourceId(String resourceId) {
     return resourceDao.checkExists(resourceId) == 1;
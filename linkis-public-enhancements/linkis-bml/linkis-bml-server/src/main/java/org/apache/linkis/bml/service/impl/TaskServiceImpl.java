@@ -49,6 +49,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -75,6 +76,23 @@ public class TaskServiceImpl implements TaskService {
   @Transactional(rollbackFor = Exception.class)
   public ResourceTask createUploadTask(
       List<MultipartFile> files, String user, Map<String, Object> properties) throws Exception {
+    return createUploadTask(
+        user, properties, () -> resourceService.upload(files, user, properties).get(0));
+  }
+
+  @Override
+  @Transactional(rollbackFor = Exception.class)
+  public ResourceTask createChunkUploadTask(
+      String chunkPath, String md5, String user, Map<String, Object> properties) throws Exception {
+    return createUploadTask(
+        user, properties, () -> resourceService.uploadChunks(chunkPath, md5, user, properties));
+  }
+
+  private ResourceTask createUploadTask(
+      String user,
+      Map<String, Object> properties,
+      Callable<ResourceServiceImpl.UploadResult> uploader)
+      throws Exception {
     // Create upload task record.
     String resourceId = UUID.randomUUID().toString();
     ResourceTask resourceTask = ResourceTask.createUploadTask(resourceId, user, properties);
@@ -91,8 +109,7 @@ public class TaskServiceImpl implements TaskService {
         TaskState.RUNNING.getValue());
     properties.put("resourceId", resourceTask.getResourceId());
     try {
-      ResourceServiceImpl.UploadResult result =
-          resourceService.upload(files, user, properties).get(0);
+      ResourceServiceImpl.UploadResult result = uploader.call();
       if (result.isSuccess()) {
         taskDao.updateState(resourceTask.getId(), TaskState.SUCCESS.getValue(), new Date());
         LOGGER.info(
@@ -127,6 +144,28 @@ public class TaskServiceImpl implements TaskService {
   public ResourceTask createUpdateTask(
       String resourceId, String user, MultipartFile file, Map<String, Object> properties)
       throws Exception {
+    return createUpdateTask(
+        resourceId,
+        user,
+        properties,
+        () -> versionService.updateVersion(resourceId, user, file, properties));
+  }
+
+  @Override
+  @Transactional(rollbackFor = Exception.class)
+  public ResourceTask createChunkUpdateTask(
+      String resourceId, String user, String chunkPath, String md5, Map<String, Object> properties)
+      throws Exception {
+    return createUpdateTask(
+        resourceId,
+        user,
+        properties,
+        () -> versionService.updateVersionByChunks(resourceId, user, chunkPath, md5, properties));
+  }
+
+  private ResourceTask createUpdateTask(
+      String resourceId, String user, Map<String, Object> properties, Callable<String> updater)
+      throws Exception {
     final String resourceIdLock = resourceId.intern();
     /*
     多个BML服务器实例对同一资源resourceId同时更新,规定只能有一个实例能更新成功,
@@ -159,7 +198,7 @@ public class TaskServiceImpl implements TaskService {
         TaskState.RUNNING.getValue());
     properties.put("newVersion", resourceTask.getVersion());
     try {
-      versionService.updateVersion(resourceTask.getResourceId(), user, file, properties);
+      updater.call();
       taskDao.updateState(resourceTask.getId(), TaskState.SUCCESS.getValue(), new Date());
       LOGGER.info(
           "Upload resource successfully. Update task (上传资源成功.更新任务) taskId:{}-resourceId:{}  status is   {}.",
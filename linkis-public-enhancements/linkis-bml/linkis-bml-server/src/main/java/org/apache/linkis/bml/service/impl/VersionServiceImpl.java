@@ -20,6 +20,7 @@ package org.apache.linkis.bml.service.impl;
 import org.apache.linkis.bml.common.Constant;
 import org.apache.linkis.bml.common.ResourceHelper;
 import org.apache.linkis.bml.common.ResourceHelperFactory;
+import org.apache.linkis.bml.conf.BmlServerConfiguration;
 import org.apache.linkis.bml.dao.VersionDao;
 import org.apache.linkis.bml.entity.ResourceVersion;
 import org.apache.linkis.bml.entity.Version;
@@ -89,8 +90,34 @@ public class VersionServiceImpl implements VersionService {
     InputStream inputStream = file.getInputStream();
     // final String resourceIdLock = resourceId.intern();
     // String fileName = file.getOriginalFilename();
-    // 获取资源的path
     String newVersion = params.get("newVersion").toString();
+    String path = generateVersionPath(resourceHelper, resourceId, user, newVersion);
+    // 上传资源前，需要对resourceId这个字符串的intern进行加锁，这样所有需要更新该资源的用户都会同步
+    // synchronized (resourceIdLock.intern()){
+    // 资源上传到hdfs
+    StringBuilder stringBuilder = new StringBuilder();
+    long size = resourceHelper.upload(path, user, inputStream, stringBuilder, OVER_WRITE);
+    insertNewVersion(resourceId, path, stringBuilder.toString(), size, newVersion, params);
+    // }
+    return newVersion;
+  }
+
+  @Override
+  public String updateVersionByChunks(
+      String resourceId, String user, String chunkPath, String md5, Map<String, Object> params)
+      throws Exception {
+    ResourceHelper resourceHelper = ResourceHelperFactory.getResourceHelper();
+    String newVersion = params.get("newVersion").toString();
+    String path = generateVersionPath(resourceHelper, resourceId, user, newVersion);
+    StringBuilder stringBuilder = new StringBuilder(StringUtils.defaultString(md5));
+    long size = resourceHelper.commitChunks(chunkPath, path, user, stringBuilder);
+    insertNewVersion(resourceId, path, stringBuilder.toString(), size, newVersion, params);
+    return newVersion;
+  }
+
+  private String generateVersionPath(
+      ResourceHelper resourceHelper, String resourceId, String user, String newVersion) {
+    // 获取资源的path
     String path = versionDao.getResourcePath(resourceId);
     // if the bml resource storage prefix has changed，then regenerate the path.
     if (resourceHelper.checkBmlResourceStoragePrefixPathIfChanged(path)) {
@@ -100,23 +127,22 @@ public class VersionServiceImpl implements VersionService {
     }
     // resource path with version such as
     // hdfs:///apps-data/hadoop/bml/20210608/1c8b78e1-ea12-4fa5-9637-ddc9e9a25bae_v000003
-    path = path + "_" + newVersion;
-    // 上传资源前，需要对resourceId这个字符串的intern进行加锁，这样所有需要更新该资源的用户都会同步
-    // synchronized (resourceIdLock.intern()){
-    // 资源上传到hdfs
-    StringBuilder stringBuilder = new StringBuilder();
-    long size = resourceHelper.upload(path, user, inputStream, stringBuilder, OVER_WRITE);
-    String md5String = stringBuilder.toString();
+    return path + "_" + newVersion;
+  }
+
+  private void insertNewVersion(
+      String resourceId,
+      String path,
+      String md5String,
+      long size,
+      String newVersion,
+      Map<String, Object> params) {
     String clientIp = params.get("clientIp").toString();
-    // 生成新的version
-    // String lastVersion = versionDao.getNewestVersion(resourceId);
     // 更新resource_version表
     ResourceVersion resourceVersion =
         ResourceVersion.createNewResourceVersion(
             resourceId, path, md5String, clientIp, size, newVersion, 1);
     versionDao.insertNewVersion(resourceVersion);
-    // }
-    return newVersion;
   }
 
   private String generateNewVersion(String version) {
@@ -150,22 +176,17 @@ public class VersionServiceImpl implements VersionService {
     inputStream.skip(startByte - 1);
     logger.info(
         "{} downLoad source {} inputStream skipped {} bytes", user, resourceId, (startByte - 1));
-    byte[] buffer = new byte[1024];
+    byte[] buffer = new byte[(Integer) BmlServerConfiguration.BML_IO_BUFFER_SIZE().getValue()];
     long size = endByte - startByte + 1;
-    int left = (int) size;
+    long left = size;
     try {
       while (left > 0) {
-        int readed = inputStream.read(buffer);
-        int useful = Math.min(readed, left);
-        if (useful < 0) {
+        int readed = inputStream.read(buffer, 0, (int) Math.min(buffer.length, left));
+        if (readed < 0) {
           break;
         }
-        left -= useful;
-        byte[] bytes = new byte[useful];
-        for (int i = 0; i < useful; i++) {
-          bytes[i] = buffer[i];
-        }
-        outputStream.write(bytes);
+        left -= readed;
+        outputStream.write(buffer, 0, readed);
       }
     } finally {
       // int size = IOUtils.copy(inputStream, outputStream);
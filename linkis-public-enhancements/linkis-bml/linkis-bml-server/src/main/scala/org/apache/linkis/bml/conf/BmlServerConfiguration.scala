@@ -17,7 +17,7 @@
 
 package org.apache.linkis.bml.conf
 
-import org.apache.linkis.common.conf.CommonVars
+import org.apache.linkis.common.conf.{CommonVars, TimeType}
 import org.apache.linkis.common.utils.Utils
 
 import java.util.concurrent.TimeUnit
@@ -39,4 +39,13 @@ object BmlServerConfiguration {
 
   val BML_DEFAULT_PROXY_USER = CommonVars("wds.linkis.bml.default.proxy.user", Utils.getJvmUser)
 
+  val BML_IO_BUFFER_SIZE: CommonVars[Int] = CommonVars[Int]("linkis.bml.io.buffer.size", 64 * 1024)
+
+  /** The chunks of an upload not appended in this time are deleted */
+  val BML_CHUNK_EXPIRE_TIME: CommonVars[TimeType] =
+    CommonVars("linkis.bml.upload.chunk.expire.time", new TimeType("24h"))
+
+  val BML_CHUNK_CLEAN_INTERVAL: CommonVars[TimeType] =
+    CommonVars("linkis.bml.upload.chunk.clean.interval", new TimeType("1h"))
+
 }
@@ -17,8 +17,16 @@
 
 package org.apache.linkis.bml.common;
 
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -32,4 +40,100 @@ public class LocalResourceHelperTest {
     boolean hasChanged = localResourceHelper.checkBmlResourceStoragePrefixPathIfChanged(path);
     assertFalse(hasChanged);
   }
+
+  @Test
+  @DisplayName("testUpload")
+  public void testUpload(@TempDir Path tempDir) throws Exception {
+    String user = System.getProperty("user.name");
+    String path = "file://" + tempDir.toAbsolutePath() + "/resource";
+    LocalResourceHelper localResourceHelper = new LocalResourceHelper();
+    StringBuilder md5 = new StringBuilder();
+    long size = localResourceHelper.upload(path, user, stream("hello bml"), md5, true);
+    assertEquals(9, size);
+    assertEquals(DigestUtils.md5Hex("hello bml"), md5.toString());
+    assertEquals(9, localResourceHelper.getLength(path, user));
+
+    // Overwrite with a shorter resource
+    size = localResourceHelper.upload(path, user, stream("bml"), new StringBuilder(), true);
+    assertEquals(3, size);
+    assertEquals(3, new File(tempDir.toFile(), "resource").length());
+  }
+
+  @Test
+  @DisplayName("testChunkUpload")
+  public void testChunkUpload(@TempDir Path tempDir) throws Exception {
+    String user = System.getProperty("user.name");
+    String chunkPath = "file://" + tempDir.toAbsolutePath() + "/chunks/upload-1";
+    String path = "file://" + tempDir.toAbsolutePath() + "/bml/resource";
+    LocalResourceHelper localResourceHelper = new LocalResourceHelper();
+    assertEquals(0, localResourceHelper.getLength(chunkPath, user));
+    assertEquals(6, localResourceHelper.appendChunk(chunkPath, user, stream("hello "), 0, 6));
+    // The chunk retried is skipped
+    assertEquals(6, localResourceHelper.appendChunk(chunkPath, user, stream("hello "), 0, 6));
+    assertThrows(
+        BmlServerParaErrorException.class,
+        () -> localResourceHelper.appendChunk(chunkPath, user, stream("bml"), 10, 3));
+    // The chunk overlapping the end of the uploaded size is rejected
+    assertThrows(
+        BmlServerParaErrorException.class,
+        () -> localResourceHelper.appendChunk(chunkPath, user, stream("o bml"), 4, 5));
+    assertEquals(9, localResourceHelper.appendChunk(chunkPath, user, stream("bml"), 6, 3));
+
+    StringBuilder md5 = new StringBuilder(DigestUtils.md5Hex("hello bml"));
+    assertEquals(9, localResourceHelper.commitChunks(chunkPath, path, user, md5));
+    assertEquals(DigestUtils.md5Hex("hello bml"), md5.toString());
+    assertFalse(localResourceHelper.checkIfExists(chunkPath, user));
+    assertTrue(localResourceHelper.checkIfExists(path, user));
+  }
+
+  @Test
+  @DisplayName("testChunkMd5Mismatch")
+  public void testChunkMd5Mismatch(@TempDir Path tempDir) throws Exception {
+    String user = System.getProperty("user.name");
+    String chunkPath = "file://" + tempDir.toAbsolutePath() + "/chunks/upload-1";
+    String path = "file://" + tempDir.toAbsolutePath() + "/bml/resource";
+    LocalResourceHelper localResourceHelper = new LocalResourceHelper();
+    localResourceHelper.appendChunk(chunkPath, user, stream("hello bml"), 0, 9);
+    assertThrows(
+        BmlServerParaErrorException.class,
+        () ->
+            localResourceHelper.commitChunks(
+                chunkPath, path, user, new StringBuilder(DigestUtils.md5Hex("hello"))));
+    // The broken chunks are deleted, and nothing is committed
+    assertFalse(localResourceHelper.checkIfExists(chunkPath, user));
+    assertFalse(localResourceHelper.checkIfExists(path, user));
+  }
+
+  @Test
+  @DisplayName("testCleanExpiredChunks")
+  public void testCleanExpiredChunks(@TempDir Path tempDir) throws Exception {
+    String user = System.getProperty("user.name");
+    String root = "file://" + tempDir.toAbsolutePath();
+    LocalResourceHelper localResourceHelper =
+        new LocalResourceHelper() {
+          @Override
+          public String getStorageRoot() {
+            return root;
+          }
+
+          @Override
+          public String generateChunkPath(String user, String uploadId) {
+            return root + "/" + user + "/chunks/" + uploadId;
+          }
+        };
+    String expiredPath = localResourceHelper.generateChunkPath(user, "upload-1");
+    String activePath = localResourceHelper.generateChunkPath(user, "upload-2");
+    localResourceHelper.appendChunk(expiredPath, user, stream("hello"), 0, 5);
+    localResourceHelper.appendChunk(activePath, user, stream("bml"), 0, 3);
+    File expiredFile = new File(tempDir.toFile(), user + "/chunks/upload-1");
+    assertTrue(expiredFile.setLastModified(System.currentTimeMillis() - 3600 * 1000L));
+
+    assertEquals(1, localResourceHelper.cleanExpiredChunks(60 * 1000L));
+    assertFalse(expiredFile.exists());
+    assertTrue(localResourceHelper.checkIfExists(activePath, user));
+  }
+
+  private static ByteArrayInputStream stream(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
 }
@@ -25,6 +25,7 @@ import org.apache.linkis.configuration.exception.ConfigurationException
 import org.apache.linkis.configuration.util.{LabelEntityParser, LabelParameterParser}
 import org.apache.linkis.configuration.validate.ValidatorManager
 import org.apache.linkis.governance.common.protocol.conf.{
+  ConfigProtocol,
   RemoveCacheConfRequest,
   ResponseQueryConfig
 }
@@ -34,6 +35,7 @@ import org.apache.linkis.manager.label.entity.{CombinedLabel, CombinedLabelImpl,
 import org.apache.linkis.manager.label.entity.engine.{EngineTypeLabel, UserCreatorLabel}
 import org.apache.linkis.manager.label.utils.{EngineTypeLabelCreator, LabelUtils}
 import org.apache.linkis.rpc.Sender
+import org.apache.linkis.rpc.interceptor.common.CacheableRPCInterceptor
 
 import org.apache.commons.lang3.StringUtils
 
@@ -169,6 +171,11 @@ class ConfigurationService extends Logging {
       val request = RemoveCacheConfRequest(userCreatorLabel, engineTypeLabel)
       logger.info(s"Broadcast cleanup message to manager $request")
       sender.ask(request)
+      // The other services caching the configuration, such as entrance, are invalidated by broadcast
+      CacheableRPCInterceptor.broadcastInvalidation(
+        ConfigProtocol.CACHE_GROUP,
+        if (username == "*") null else username
+      )
     }
   }
 
@@ -30,6 +30,12 @@ public class DsInfoResponse implements RequestProtocol {
   private String creator;
   private String errorMsg;
 
+  /** Id of the published version, to tell whether the data source has been changed */
+  private Long versionId;
+
+  /** Id of the data source, to evict the cache by id when it is requested by name */
+  private Long dataSourceId;
+
   public DsInfoResponse() {
     this(false);
   }
@@ -145,4 +151,20 @@ public class DsInfoResponse implements RequestProtocol {
   public void setErrorMsg(String errorMsg) {
     this.errorMsg = errorMsg;
   }
+
+  public Long getVersionId() {
+    return versionId;
+  }
+
+  public void setVersionId(Long versionId) {
+    this.versionId = versionId;
+  }
+
+  public Long getDataSourceId() {
+    return dataSourceId;
+  }
+
+  public void setDataSourceId(Long dataSourceId) {
+    this.dataSourceId = dataSourceId;
+  }
 }
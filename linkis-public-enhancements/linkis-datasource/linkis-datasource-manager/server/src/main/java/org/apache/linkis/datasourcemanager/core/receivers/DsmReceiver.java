@@ -79,12 +79,16 @@ public class DsmReceiver {
           RestfulApiHelper.decryptPasswordKey(
               dataSourceRelateService.getKeyDefinitionsByType(dataSource.getDataSourceTypeId()),
               dataSource.getConnectParams());
-          return new DsInfoResponse(
-              true,
-              dataSource.getDataSourceType().getName(),
-              dataSource.getConnectParams(),
-              dataSource.getCreateUser(),
-              "");
+          DsInfoResponse response =
+              new DsInfoResponse(
+                  true,
+                  dataSource.getDataSourceType().getName(),
+                  dataSource.getConnectParams(),
+                  dataSource.getCreateUser(),
+                  "");
+          response.setVersionId(publishedVersionId);
+          response.setDataSourceId(dataSource.getId());
+          return response;
         } else {
           LOG.warn("Can not get any dataSource");
           return new DsInfoResponse(true, "Can not get any dataSource");
@@ -31,8 +31,25 @@ public class CacheConfiguration {
   public static final CommonVars<Integer> CACHE_IN_POOL_SIZE =
       CommonVars.apply("wds.linkis.server.mdm.service.cache.in-pool.size", 5);
 
-  //添加hiveJdbc
-  //添加druid
+  /** Cache the metadata (databases/tables/columns/partitions) queried from the data sources */
+  public static final CommonVars<Boolean> META_RESULT_CACHE_ENABLE =
+      CommonVars.apply("linkis.server.mdq.result.cache.enable", true);
+
+  public static final CommonVars<Long> META_RESULT_CACHE_MAX_SIZE =
+      CommonVars.apply("linkis.server.mdq.result.cache.max-size", 10000L);
+
+  public static final CommonVars<Long> META_RESULT_CACHE_EXPIRE_TIME =
+      CommonVars.apply("linkis.server.mdq.result.cache.expire", 300L);
+
+  /**
+   * Expire time of the data source information requested from the data source manager, a newly
+   * published version is found after it
+   */
+  public static final CommonVars<Long> DATA_SOURCE_INFO_CACHE_EXPIRE_TIME =
+      CommonVars.apply("linkis.server.mdq.datasource.info.cache.expire", 60L);
+
+  // 添加hiveJdbc
+  // 添加druid
   public static final CommonVars<String> MYSQL_RELATIONSHIP_LIST =
       CommonVars.apply(
           "wds.linkis.server.mdq.mysql.relationship",
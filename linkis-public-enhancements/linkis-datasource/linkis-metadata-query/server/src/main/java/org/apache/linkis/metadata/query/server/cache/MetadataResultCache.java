@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.metadata.query.server.cache;
+
+import org.apache.linkis.common.exception.ErrorException;
+import org.apache.linkis.datasourcemanager.common.protocol.DsInfoResponse;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of the data source information requested from the data source manager and of the metadata
+ * queried from the data sources (数据源信息及元数据查询结果缓存).
+ *
+ * <p>The metadata is keyed by the data source and its published version, so once the information of
+ * a newly published version is loaded, the metadata of the old version is not used and is evicted.
+ */
+public class MetadataResultCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MetadataResultCache.class);
+
+  private static final String KEY_SEPARATOR = "#";
+
+  private final Cache<String, DsInfoResponse> dsInfoCache;
+
+  private final Cache<String, Object> resultCache;
+
+  /** The last loaded version of each data source */
+  private final Map<String, Long> dsVersions = new ConcurrentHashMap<>();
+
+  public MetadataResultCache(long maxSize, long dsInfoExpireInSec, long resultExpireInSec) {
+    dsInfoCache =
+        CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(dsInfoExpireInSec, TimeUnit.SECONDS)
+            .build();
+    resultCache =
+        CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(resultExpireInSec, TimeUnit.SECONDS)
+            .build();
+  }
+
+  /** Loader of the value missing in cache */
+  @FunctionalInterface
+  public interface Loader<V> {
+    V load() throws ErrorException;
+  }
+
+  /**
+   * Get the data source information, only the published one with connect params is cached
+   *
+   * @param dsKey key of data source
+   * @param loader request to the data source manager
+   * @return data source information
+   */
+  public DsInfoResponse getDataSourceInfo(String dsKey, Loader<DsInfoResponse> loader)
+      throws ErrorException {
+    DsInfoResponse response = dsInfoCache.getIfPresent(dsKey);
+    if (Objects.nonNull(response)) {
+      return response;
+    }
+    response = loader.load();
+    if (Objects.nonNull(response)
+        && Boolean.TRUE.equals(response.getStatus())
+        && StringUtils.isNotBlank(response.getDsType())
+        && Objects.nonNull(response.getParams())
+        && !response.getParams().isEmpty()) {
+      Long lastVersion = dsVersions.put(dsKey, versionOf(response));
+      if (Objects.nonNull(lastVersion) && !lastVersion.equals(versionOf(response))) {
+        LOG.info(
+            "Version of data source: [{}] changed from {} to {}, evict the cached metadata",
+            dsKey,
+            lastVersion,
+            response.getVersionId());
+        evictResults(dsKey);
+      }
+      dsInfoCache.put(dsKey, response);
+    }
+    return response;
+  }
+
+  /**
+   * Get the metadata queried from the data source, null result is not cached
+   *
+   * @param dsKey key of data source
+   * @param dsInfo data source information
+   * @param method method of meta service
+   * @param args arguments of the query, such as database and table
+   * @param loader query to the data source
+   * @return metadata
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T getResult(
+      String dsKey, DsInfoResponse dsInfo, String method, Object[] args, Loader<T> loader)
+      throws ErrorException {
+    StringBuilder keyBuilder =
+        new StringBuilder(dsKey)
+            .append(KEY_SEPARATOR)
+            .append(versionOf(dsInfo))
+            .append(KEY_SEPARATOR)
+            .append(method);
+    for (Object arg : args) {
+      keyBuilder.append(KEY_SEPARATOR).append(arg);
+    }
+    String key = keyBuilder.toString();
+    Object result = resultCache.getIfPresent(key);
+    if (Objects.isNull(result)) {
+      result = loader.load();
+      if (Objects.nonNull(result)) {
+        resultCache.put(key, result);
+      }
+    }
+    return (T) result;
+  }
+
+  /**
+   * Evict both the information and the metadata of data source
+   *
+   * @param dsKey key of data source
+   */
+  public void refresh(String dsKey) {
+    dsInfoCache.invalidate(dsKey);
+    dsVersions.remove(dsKey);
+    evictResults(dsKey);
+  }
+
+  private void evictResults(String dsKey) {
+    String prefix = dsKey + KEY_SEPARATOR;
+    resultCache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+  }
+
+  private static Long versionOf(DsInfoResponse dsInfo) {
+    return Objects.nonNull(dsInfo.getVersionId()) ? dsInfo.getVersionId() : 0L;
+  }
+}
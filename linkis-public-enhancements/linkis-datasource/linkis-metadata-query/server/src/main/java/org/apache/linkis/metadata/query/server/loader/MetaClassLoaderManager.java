@@ -180,71 +180,14 @@ public class MetaClassLoaderManager {
                 return new MetaServiceInstance(metadataService, metaClassLoader);
               });
     }
-    Method[] childMethods = serviceInstance.methods;
     MetaServiceInstance finalServiceInstance = serviceInstance;
     return (String m, Object... args) -> {
       ClassLoader currentClassLoader = Thread.currentThread().getContextClassLoader();
       try {
         Thread.currentThread().setContextClassLoader(finalServiceInstance.metaClassLoader);
-        List<Method> methodsMatched =
-            Arrays.stream(childMethods)
-                .filter(
-                    eachMethod -> {
-                      if (eachMethod.getName().equals(m)) {
-                        Class<?>[] parameterType = eachMethod.getParameterTypes();
-                        if (parameterType.length == args.length) {
-                          for (int i = 0; i < parameterType.length; i++) {
-                            if (Objects.nonNull(args[i])) {
-                              boolean matches =
-                                  parameterType[i].isAssignableFrom(args[i].getClass())
-                                      || ((args[i].getClass().isPrimitive()
-                                              || parameterType[i].isPrimitive())
-                                          && MetadataUtils.getPrimitive(args[i].getClass())
-                                              == MetadataUtils.getPrimitive(parameterType[i]));
-                              if (!matches) {
-                                return false;
-                              }
-                            }
-                          }
-                          return true;
-                        }
-                      }
-                      return false;
-                    })
-                .collect(Collectors.toList());
-        if (methodsMatched.isEmpty()) {
-          String type = null;
-          if (Objects.nonNull(args)) {
-            type =
-                Arrays.stream(args)
-                    .map(arg -> Objects.nonNull(arg) ? arg.getClass().toString() : "null")
-                    .collect(Collectors.joining(","));
-          }
-          String message =
-              "Unknown method: [ name: "
-                  + m
-                  + ", type: ["
-                  + type
-                  + "]] for meta service instance: ["
-                  + finalServiceInstance.getServiceInstance().toString()
-                  + "]";
-          LOG.warn(message);
-          throw new MetaRuntimeException(message, null);
-        } else if (methodsMatched.size() > 1) {
-          LOG.warn(
-              "Find multiple matched methods with name: ["
-                  + m
-                  + "] such as: \n"
-                  + methodsMatched.stream()
-                      .map(
-                          method ->
-                              method.getName() + ":" + Arrays.toString(method.getParameterTypes()))
-                      .collect(Collectors.joining("\n"))
-                  + "\n in meta service instance: ["
-                  + finalServiceInstance.getServiceInstance().toString()
-                  + "], will choose the first one");
-        }
-        return methodsMatched.get(0).invoke(finalServiceInstance.serviceInstance, args);
+        return finalServiceInstance
+            .resolveMethod(m, args)
+            .invoke(finalServiceInstance.serviceInstance, args);
       } catch (Exception e) {
         Throwable t = e;
         // UnWrap the Invocation target exception
@@ -321,7 +264,11 @@ public class MetaClassLoaderManager {
   public static class MetaServiceInstance {
     private BaseMetadataService serviceInstance;
 
-    private Method[] methods;
+    /** Public methods grouped by name */
+    private Map<String, List<Method>> methods;
+
+    /** Methods resolved by the name and the types of arguments, to avoid matching every time */
+    private final Map<String, Method> resolvedMethods = new ConcurrentHashMap<>();
 
     private ClassLoader metaClassLoader;
 
@@ -330,12 +277,87 @@ public class MetaClassLoaderManager {
     public MetaServiceInstance(BaseMetadataService serviceInstance, ClassLoader metaClassLoader) {
       this.serviceInstance = serviceInstance;
       this.metaClassLoader = metaClassLoader;
-      this.methods = serviceInstance.getClass().getMethods();
+      this.methods =
+          Arrays.stream(serviceInstance.getClass().getMethods())
+              .collect(Collectors.groupingBy(Method::getName));
       this.initTimeStamp = System.currentTimeMillis();
     }
 
     public BaseMetadataService getServiceInstance() {
       return serviceInstance;
     }
+
+    /**
+     * Find the method matching the name and the arguments, the result is cached by the types of
+     * arguments
+     *
+     * @param m method name
+     * @param args arguments
+     * @return method
+     */
+    Method resolveMethod(String m, Object[] args) {
+      StringBuilder signature = new StringBuilder(m);
+      for (Object arg : args) {
+        signature.append(',').append(Objects.nonNull(arg) ? arg.getClass().getName() : "null");
+      }
+      return resolvedMethods.computeIfAbsent(signature.toString(), key -> matchMethod(m, args));
+    }
+
+    private Method matchMethod(String m, Object[] args) {
+      List<Method> methodsMatched =
+          methods.getOrDefault(m, Collections.emptyList()).stream()
+              .filter(
+                  eachMethod -> {
+                    Class<?>[] parameterType = eachMethod.getParameterTypes();
+                    if (parameterType.length == args.length) {
+                      for (int i = 0; i < parameterType.length; i++) {
+                        if (Objects.nonNull(args[i])) {
+                          boolean matches =
+                              parameterType[i].isAssignableFrom(args[i].getClass())
+                                  || ((args[i].getClass().isPrimitive()
+                                          || parameterType[i].isPrimitive())
+                                      && MetadataUtils.getPrimitive(args[i].getClass())
+                                          == MetadataUtils.getPrimitive(parameterType[i]));
+                          if (!matches) {
+                            return false;
+                          }
+                        }
+                      }
+                      return true;
+                    }
+                    return false;
+                  })
+              .collect(Collectors.toList());
+      if (methodsMatched.isEmpty()) {
+        String type =
+            Arrays.stream(args)
+                .map(arg -> Objects.nonNull(arg) ? arg.getClass().toString() : "null")
+                .collect(Collectors.joining(","));
+        String message =
+            "Unknown method: [ name: "
+                + m
+                + ", type: ["
+                + type
+                + "]] for meta service instance: ["
+                + serviceInstance.toString()
+                + "]";
+        LOG.warn(message);
+        throw new MetaRuntimeException(message, null);
+      } else if (methodsMatched.size() > 1) {
+        LOG.warn(
+            "Find multiple matched methods with name: ["
+                + m
+                + "] such as: \n"
+                + methodsMatched.stream()
+                    .map(
+                        method ->
+                            method.getName() + ":" + Arrays.toString(method.getParameterTypes()))
+                    .collect(Collectors.joining("\n"))
+                + "\n in meta service instance: ["
+                + serviceInstance.toString()
+                + "], will choose the first one");
+      }
+      return methodsMatched.get(0);
+    }
   }
 }
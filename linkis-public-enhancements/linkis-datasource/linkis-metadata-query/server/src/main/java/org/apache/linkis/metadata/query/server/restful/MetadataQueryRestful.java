@@ -523,6 +523,47 @@ public class MetadataQueryRestful {
     }
   }
 
+  @ApiOperation(
+      value = "refreshCache",
+      notes = "evict the cached metadata of data source",
+      response = Message.class)
+  @ApiImplicitParams({
+    @ApiImplicitParam(name = "dataSourceName", required = true, dataType = "String"),
+    @ApiImplicitParam(name = "envId", required = false, dataType = "String"),
+    @ApiImplicitParam(name = "system", required = true, dataType = "String")
+  })
+  @RequestMapping(value = "/refreshCache", method = RequestMethod.GET)
+  public Message refreshCache(
+      @RequestParam("dataSourceName") String dataSourceName,
+      @RequestParam(value = "envId", required = false) String envId,
+      @RequestParam("system") String system,
+      HttpServletRequest request) {
+    try {
+      if (StringUtils.isBlank(system)) {
+        return Message.error("'system' is missing[缺少系统名]");
+      }
+      if (!MetadataUtils.nameRegexPattern.matcher(system).matches()) {
+        return Message.error("'system' is invalid[系统名错误]");
+      }
+      if (!MetadataUtils.nameRegexPattern.matcher(dataSourceName).matches()) {
+        return Message.error("'dataSourceName' is invalid[数据源错误]");
+      }
+      String userName =
+          ModuleUserUtils.getOperationUser(
+              request, "refreshCache, dataSourceName:" + dataSourceName);
+      metadataQueryService.refreshCacheByDsNameAndEnvId(dataSourceName, system, userName, envId);
+      return Message.ok();
+    } catch (Exception e) {
+      return errorToResponseMessage(
+          "Fail to refresh the cache of metadata[刷新元数据缓存失败], name:["
+              + dataSourceName
+              + "], system:["
+              + system
+              + "]",
+          e);
+    }
+  }
+
   private Message errorToResponseMessage(String uiMessage, Exception e) {
     if (e instanceof MetaMethodInvokeException) {
       MetaMethodInvokeException invokeException = (MetaMethodInvokeException) e;
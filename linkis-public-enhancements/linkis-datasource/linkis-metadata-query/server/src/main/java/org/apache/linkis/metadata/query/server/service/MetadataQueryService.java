@@ -263,6 +263,19 @@ public interface MetadataQueryService {
       String envId)
       throws ErrorException;
 
+  /**
+   * Evict the cached information and metadata of data source, to query them again from the data
+   * source
+   *
+   * @param dataSourceName
+   * @param system
+   * @param userName
+   * @param envId
+   * @throws ErrorException
+   */
+  void refreshCacheByDsNameAndEnvId(
+      String dataSourceName, String system, String userName, String envId) throws ErrorException;
+
   /**
    * @param dataSourceName
    * @param database
@@ -34,6 +34,7 @@ import org.apache.linkis.metadata.query.common.exception.MetaMethodInvokeExcepti
 import org.apache.linkis.metadata.query.common.exception.MetaRuntimeException;
 import org.apache.linkis.metadata.query.common.service.GenerateSqlTemplate;
 import org.apache.linkis.metadata.query.common.service.MetadataConnection;
+import org.apache.linkis.metadata.query.server.cache.MetadataResultCache;
 import org.apache.linkis.metadata.query.server.loader.MetaClassLoaderManager;
 import org.apache.linkis.metadata.query.server.service.MetadataQueryService;
 import org.apache.linkis.rpc.Sender;
@@ -67,6 +68,9 @@ import static org.apache.linkis.metadata.query.common.errorcode.LinkisMetadataQu
 public class MetadataQueryServiceImpl implements MetadataQueryService {
   private Sender dataSourceRpcSender;
   private MetaClassLoaderManager metaClassLoaderManager;
+  /** Null if the metadata result cache is disabled */
+  private MetadataResultCache metadataResultCache;
+
   private static final Logger logger = LoggerFactory.getLogger(MetadataQueryServiceImpl.class);
 
   @PostConstruct
@@ -74,6 +78,13 @@ public class MetadataQueryServiceImpl implements MetadataQueryService {
     dataSourceRpcSender =
         Sender.getSender(MdmConfiguration.DATA_SOURCE_SERVICE_APPLICATION.getValue());
     metaClassLoaderManager = new MetaClassLoaderManager();
+    if (CacheConfiguration.META_RESULT_CACHE_ENABLE.getValue()) {
+      metadataResultCache =
+          new MetadataResultCache(
+              CacheConfiguration.META_RESULT_CACHE_MAX_SIZE.getValue(),
+              CacheConfiguration.DATA_SOURCE_INFO_CACHE_EXPIRE_TIME.getValue(),
+              CacheConfiguration.META_RESULT_CACHE_EXPIRE_TIME.getValue());
+    }
   }
 
   @Override
@@ -97,12 +108,9 @@ public class MetadataQueryServiceImpl implements MetadataQueryService {
   public List<String> getDatabasesByDsId(String dataSourceId, String system, String userName)
       throws ErrorException {
     DsInfoResponse dsInfoResponse = reqToGetDataSourceInfo(dataSourceId, system, userName);
+    String dsKey = dsKeyOfId(dataSourceId);
     if (StringUtils.isNotBlank(dsInfoResponse.getDsType())) {
-      return invokeMetaMethod(
-          dsInfoResponse.getDsType(),
-          "getDatabases",
-          new Object[] {dsInfoResponse.getCreator(), dsInfoResponse.getParams()},
-          List.class);
+      return invokeCachedMetaMethod(dsKey, dsInfoResponse, "getDatabases", List.class);
     }
     return new ArrayList<>();
   }
@@ -112,12 +120,9 @@ public class MetadataQueryServiceImpl implements MetadataQueryService {
   public List<String> getTablesByDsId(
       String dataSourceId, String database, String system, String userName) throws ErrorException {
     DsInfoResponse dsInfoResponse = reqToGetDataSourceInfo(dataSourceId, system, userName);
+    String dsKey = dsKeyOfId(dataSourceId);
     if (StringUtils.isNotBlank(dsInfoResponse.getDsType())) {
-      return invokeMetaMethod(
-          dsInfoResponse.getDsType(),
-          "getTables",
-          new Object[] {dsInfoResponse.getCreator(), dsInfoResponse.getParams(), database},
-          List.class);
+      return invokeCachedMetaMethod(dsKey, dsInfoResponse, "getTables", List.class, database);
     }
     return new ArrayList<>();
   }
@@ -133,14 +138,10 @@ public class MetadataQueryServiceImpl implements MetadataQueryService {
       String userName)
       throws ErrorException {
     DsInfoResponse dsInfoResponse = reqToGetDataSourceInfo(dataSourceId, system, userName);
+    String dsKey = dsKeyOfId(dataSourceId);
     if (StringUtils.isNotBlank(dsInfoResponse.getDsType())) {
-      return invokeMetaMethod(
-          dsInfoResponse.getDsType(),
-          "getPartitionProps",
-          new Object[] {
-            dsInfoResponse.getCreator(), dsInfoResponse.getParams(), database, table, partition
-          },
-          Map.class);
+      return invokeCachedMetaMethod(
+          dsKey, dsInfoResponse, "getPartitionProps", Map.class, database, table, partition);
     }
     return new HashMap<>();
   }
@@ -151,12 +152,10 @@ public class MetadataQueryServiceImpl implements MetadataQueryService {
       String dataSourceId, String database, String table, String system, String userName)
       throws ErrorException {
     DsInfoResponse dsInfoResponse = reqToGetDataSourceInfo(dataSourceId, system, userName);
+    String dsKey = dsKeyOfId(dataSourceId);
     if (StringUtils.isNotBlank(dsInfoResponse.getDsType())) {
-      return invokeMetaMethod(
-          dsInfoResponse.getDsType(),
-          "getTableProps",
-          new Object[] {dsInfoResponse.getCreator(), dsInfoResponse.getParams(), database, table},
-          Map.class);
+      return invokeCachedMetaMethod(
+          dsKey, dsInfoResponse, "getTableProps", Map.class, database, table);
     }
     return new HashMap<>();
   }
@@ -172,14 +171,16 @@ public class MetadataQueryServiceImpl implements MetadataQueryService {
       String userName)
       throws ErrorException {
     DsInfoResponse dsInfoResponse = reqToGetDataSourceInfo(dataSourceId, system, userName);
+    String dsKey = dsKeyOfId(dataSourceId);
     if (StringUtils.isNotBlank(dsInfoResponse.getDsType())) {
-      return invokeMetaMethod(
-          dsInfoResponse.getDsType(),
+      return invokeCachedMetaMethod(
+          dsKey,
+          dsInfoResponse,
           "getPartitions",
-          new Object[] {
-            dsInfoResponse.getCreator(), dsInfoResponse.getParams(), database, table, traverse
-          },
-          MetaPartitionInfo.class);
+          MetaPartitionInfo.class,
+          database,
+          table,
+          traverse);
     }
     return new MetaPartitionInfo();
   }
@@ -190,12 +191,10 @@ public class MetadataQueryServiceImpl implements MetadataQueryService {
       String dataSourceId, String database, String table, String system, String userName)
       throws ErrorException {
     DsInfoResponse dsInfoResponse = reqToGetDataSourceInfo(dataSourceId, system, userName);
+    String dsKey = dsKeyOfId(dataSourceId);
     if (StringUtils.isNotBlank(dsInfoResponse.getDsType())) {
-      return invokeMetaMethod(
-          dsInfoResponse.getDsType(),
-          "getColumns",
-          new Object[] {dsInfoResponse.getCreator(), dsInfoResponse.getParams(), database, table},
-          List.class);
+      return invokeCachedMetaMethod(
+          dsKey, dsInfoResponse, "getColumns", List.class, database, table);
     }
     return new ArrayList<>();
   }
@@ -204,12 +203,9 @@ public class MetadataQueryServiceImpl implements MetadataQueryService {
   public List<String> getDatabasesByDsName(String dataSourceName, String system, String userName)
       throws ErrorException {
     DsInfoResponse dsInfoResponse = queryDataSourceInfoByName(dataSourceName, system, userName);
+    String dsKey = dsKeyOfName(dataSourceName, null);
     if (StringUtils.isNotBlank(dsInfoResponse.getDsType())) {
-      return invokeMetaMethod(
-          dsInfoResponse.getDsType(),
-          "getDatabases",
-          new Object[] {dsInfoResponse.getCreator(), dsInfoResponse.getParams()},
-          List.class);
+      return invokeCachedMetaMethod(dsKey, dsInfoResponse, "getDatabases", List.class);
     }
     return new ArrayList<>();
   }
@@ -219,12 +215,9 @@ public class MetadataQueryServiceImpl implements MetadataQueryService {
       String dataSourceName, String system, String userName, String envId) throws ErrorException {
     DsInfoResponse dsInfoResponse =
         queryDataSourceInfoByNameAndEnvId(dataSourceName, system, userName, envId);
+    String dsKey = dsKeyOfName(dataSourceName, envId);
     if (StringUtils.isNotBlank(dsInfoResponse.getDsType())) {
-      return invokeMetaMethod(
-          dsInfoResponse.getDsType(),
-          "getDatabases",
-          new Object[] {dsInfoResponse.getCreator(), dsInfoResponse.getParams()},
-          List.class);
+      return invokeCachedMetaMethod(dsKey, dsInfoResponse, "getDatabases", List.class);
     }
     return new ArrayList<>();
   }
@@ -249,12 +242,9 @@ public class MetadataQueryServiceImpl implements MetadataQueryService {
       String dataSourceName, String database, String system, String userName)
       throws ErrorException {
     DsInfoResponse dsInfoResponse = queryDataSourceInfoByName(dataSourceName, system, userName);
+    String dsKey = dsKeyOfName(dataSourceName, null);
     if (StringUtils.isNotBlank(dsInfoResponse.getDsType())) {
-      return invokeMetaMethod(
-          dsInfoResponse.getDsType(),
-          "getTables",
-          new Object[] {dsInfoResponse.getCreator(), dsInfoResponse.getParams(), database},
-          List.class);
+      return invokeCachedMetaMethod(dsKey, dsInfoResponse, "getTables", List.class, database);
     }
     return new ArrayList<>();
   }
@@ -265,12 +255,9 @@ public class MetadataQueryServiceImpl implements MetadataQueryService {
       throws ErrorException {
     DsInfoResponse dsInfoResponse =
         queryDataSourceInfoByNameAndEnvId(dataSourceName, system, userName, envId);
+    String dsKey = dsKeyOfName(dataSourceName, envId);
     if (StringUtils.isNotBlank(dsInfoResponse.getDsType())) {
-      return invokeMetaMethod(
-          dsInfoResponse.getDsType(),
-          "getTables",
-          new Object[] {dsInfoResponse.getCreator(), dsInfoResponse.getParams(), database},
-          List.class);
+      return invokeCachedMetaMethod(dsKey, dsInfoResponse, "getTables", List.class, database);
     }
     return new ArrayList<>();
   }
@@ -285,14 +272,10 @@ public class MetadataQueryServiceImpl implements MetadataQueryService {
       String userName)
       throws ErrorException {
     DsInfoResponse dsInfoResponse = queryDataSourceInfoByName(dataSourceName, system, userName);
+    String dsKey = dsKeyOfName(dataSourceName, null);
     if (StringUtils.isNotBlank(dsInfoResponse.getDsType())) {
-      return invokeMetaMethod(
-          dsInfoResponse.getDsType(),
-          "getPartitionProps",
-          new Object[] {
-            dsInfoResponse.getCreator(), dsInfoResponse.getParams(), database, table, partition
-          },
-          Map.class);
+      return invokeCachedMetaMethod(
+          dsKey, dsInfoResponse, "getPartitionProps", Map.class, database, table, partition);
     }
     return new HashMap<>();
   }
@@ -302,12 +285,10 @@ public class MetadataQueryServiceImpl implements MetadataQueryService {
       String dataSourceName, String database, String table, String system, String userName)
       throws ErrorException {
     DsInfoResponse dsInfoResponse = queryDataSourceInfoByName(dataSourceName, system, userName);
+    String dsKey = dsKeyOfName(dataSourceName, null);
     if (StringUtils.isNotBlank(dsInfoResponse.getDsType())) {
-      return invokeMetaMethod(
-          dsInfoResponse.getDsType(),
-          "getTableProps",
-          new Object[] {dsInfoResponse.getCreator(), dsInfoResponse.getParams(), database, table},
-          Map.class);
+      return invokeCachedMetaMethod(
+          dsKey, dsInfoResponse, "getTableProps", Map.class, database, table);
     }
     return new HashMap<>();
   }
@@ -322,14 +303,16 @@ public class MetadataQueryServiceImpl implements MetadataQueryService {
       String userName)
       throws ErrorException {
     DsInfoResponse dsInfoResponse = queryDataSourceInfoByName(dataSourceName, system, userName);
+    String dsKey = dsKeyOfName(dataSourceName, null);
     if (StringUtils.isNotBlank(dsInfoResponse.getDsType())) {
-      return invokeMetaMethod(
-          dsInfoResponse.getDsType(),
+      return invokeCachedMetaMethod(
+          dsKey,
+          dsInfoResponse,
           "getPartitions",
-          new Object[] {
-            dsInfoResponse.getCreator(), dsInfoResponse.getParams(), database, table, traverse
-          },
-          MetaPartitionInfo.class);
+          MetaPartitionInfo.class,
+          database,
+          table,
+          traverse);
     }
     return new MetaPartitionInfo();
   }
@@ -339,12 +322,10 @@ public class MetadataQueryServiceImpl implements MetadataQueryService {
       String dataSourceName, String database, String table, String system, String userName)
       throws ErrorException {
     DsInfoResponse dsInfoResponse = queryDataSourceInfoByName(dataSourceName, system, userName);
+    String dsKey = dsKeyOfName(dataSourceName, null);
     if (StringUtils.isNotBlank(dsInfoResponse.getDsType())) {
-      return invokeMetaMethod(
-          dsInfoResponse.getDsType(),
-          "getColumns",
-          new Object[] {dsInfoResponse.getCreator(), dsInfoResponse.getParams(), database, table},
-          List.class);
+      return invokeCachedMetaMethod(
+          dsKey, dsInfoResponse, "getColumns", List.class, database, table);
     }
     return new ArrayList<>();
   }
@@ -360,12 +341,10 @@ public class MetadataQueryServiceImpl implements MetadataQueryService {
       throws ErrorException {
     DsInfoResponse dsInfoResponse =
         queryDataSourceInfoByNameAndEnvId(dataSourceName, system, userName, envId);
+    String dsKey = dsKeyOfName(dataSourceName, envId);
     if (StringUtils.isNotBlank(dsInfoResponse.getDsType())) {
-      return invokeMetaMethod(
-          dsInfoResponse.getDsType(),
-          "getColumns",
-          new Object[] {dsInfoResponse.getCreator(), dsInfoResponse.getParams(), database, table},
-          List.class);
+      return invokeCachedMetaMethod(
+          dsKey, dsInfoResponse, "getColumns", List.class, database, table);
     }
     return new ArrayList<>();
   }
@@ -386,20 +365,17 @@ public class MetadataQueryServiceImpl implements MetadataQueryService {
       List<MetaColumnInfo> columns = new ArrayList<>();
       try {
         columns =
-            invokeMetaMethod(
-                dsInfoResponse.getDsType(),
+            invokeCachedMetaMethod(
+                dsKeyOfName(dataSourceName, envId),
+                dsInfoResponse,
                 "getColumns",
-                new Object[] {
-                  dsInfoResponse.getCreator(),
-                  dsInfoResponse.getParams(),
-                  database,
-                  dsInfoResponse
-                          .getDsType()
-                          .equalsIgnoreCase(DataSourceTypeEnum.ELASTICSEARCH.getValue())
-                      ? "_doc"
-                      : table
-                },
-                List.class);
+                List.class,
+                database,
+                dsInfoResponse
+                        .getDsType()
+                        .equalsIgnoreCase(DataSourceTypeEnum.ELASTICSEARCH.getValue())
+                    ? "_doc"
+                    : table);
       } catch (Exception e) {
         logger.warn("Fail to get Sql columns(获取字段列表失败)");
       }
@@ -546,6 +522,21 @@ public class MetadataQueryServiceImpl implements MetadataQueryService {
     return generateSqlInfo;
   }
 
+  @Override
+  public void refreshCacheByDsNameAndEnvId(
+      String dataSourceName, String system, String userName, String envId) throws ErrorException {
+    // Check the permission before evicting
+    DsInfoResponse dsInfoResponse =
+        queryDataSourceInfoByNameAndEnvId(dataSourceName, system, userName, envId);
+    if (Objects.nonNull(metadataResultCache)) {
+      metadataResultCache.refresh(dsKeyOfName(dataSourceName, envId));
+      // The same data source is also cached by id when queried by id
+      if (Objects.nonNull(dsInfoResponse.getDataSourceId())) {
+        metadataResultCache.refresh(dsKeyOfId(String.valueOf(dsInfoResponse.getDataSourceId())));
+      }
+    }
+  }
+
   @Override
   public GenerateSqlInfo getJdbcSqlByDsNameAndEnvId(
       String dataSourceName,
@@ -578,14 +569,10 @@ public class MetadataQueryServiceImpl implements MetadataQueryService {
   @Deprecated
   public DsInfoResponse reqToGetDataSourceInfo(String dataSourceId, String system, String userName)
       throws ErrorException {
-    Object rpcResult = null;
-    try {
-      rpcResult = dataSourceRpcSender.ask(new DsInfoQueryRequest(dataSourceId, null, system));
-    } catch (Exception e) {
-      throw new ErrorException(-1, "Remote Service Error[远端服务出错, 联系运维处理]");
-    }
-    if (rpcResult instanceof DsInfoResponse) {
-      DsInfoResponse response = (DsInfoResponse) rpcResult;
+    DsInfoResponse response =
+        askDataSourceInfo(
+            dsKeyOfId(dataSourceId), new DsInfoQueryRequest(dataSourceId, null, system));
+    if (Objects.nonNull(response)) {
       if (!response.getStatus()) {
         throw new ErrorException(
             -1, "Error in Data Source Manager Server[数据源服务出错]: " + response.getErrorMsg());
@@ -630,21 +617,22 @@ public class MetadataQueryServiceImpl implements MetadataQueryService {
    */
   public DsInfoResponse queryDataSourceInfoByNameAndEnvId(
       String dataSourceName, String system, String userName, String envId) throws ErrorException {
-    Object rpcResult = null;
+    DsInfoResponse response = null;
     boolean useDefault = false;
     try {
-      rpcResult = reqGetDefaultDataSource(dataSourceName);
-      if (Objects.isNull(rpcResult)) {
-        rpcResult =
-            dataSourceRpcSender.ask(new DsInfoQueryRequest(null, dataSourceName, system, envId));
-      } else {
-        useDefault = true;
-      }
+      response = reqGetDefaultDataSource(dataSourceName);
     } catch (Exception e) {
       throw new ErrorException(-1, "Remote Service Error[远端服务出错, 联系运维处理]");
     }
-    if (rpcResult instanceof DsInfoResponse) {
-      DsInfoResponse response = (DsInfoResponse) rpcResult;
+    if (Objects.isNull(response)) {
+      response =
+          askDataSourceInfo(
+              dsKeyOfName(dataSourceName, envId),
+              new DsInfoQueryRequest(null, dataSourceName, system, envId));
+    } else {
+      useDefault = true;
+    }
+    if (Objects.nonNull(response)) {
       if (!response.getStatus()) {
         throw new ErrorException(
             -1, "Error in Data Source Manager Server[数据源服务出错]: " + response.getErrorMsg());
@@ -664,6 +652,69 @@ public class MetadataQueryServiceImpl implements MetadataQueryService {
     }
   }
 
+  /**
+   * Ask the data source manager for the data source information, which is cached if enabled
+   *
+   * @param dsKey key of data source in cache
+   * @param request request
+   * @return response
+   * @throws ErrorException
+   */
+  private DsInfoResponse askDataSourceInfo(String dsKey, DsInfoQueryRequest request)
+      throws ErrorException {
+    MetadataResultCache.Loader<DsInfoResponse> loader =
+        () -> {
+          Object rpcResult;
+          try {
+            rpcResult = dataSourceRpcSender.ask(request);
+          } catch (Exception e) {
+            throw new ErrorException(-1, "Remote Service Error[远端服务出错, 联系运维处理]");
+          }
+          if (rpcResult instanceof DsInfoResponse) {
+            return (DsInfoResponse) rpcResult;
+          }
+          throw new ErrorException(-1, "Remote Service Error[远端服务出错, 联系运维处理]");
+        };
+    return Objects.nonNull(metadataResultCache)
+        ? metadataResultCache.getDataSourceInfo(dsKey, loader)
+        : loader.load();
+  }
+
+  // '@' is not allowed in the name of data source, so the keys of id and name never conflict
+  private static String dsKeyOfId(String dataSourceId) {
+    return "@" + dataSourceId;
+  }
+
+  private static String dsKeyOfName(String dataSourceName, String envId) {
+    return dataSourceName + "@" + StringUtils.defaultString(envId);
+  }
+
+  /**
+   * Invoke the method querying metadata in meta service, the result of which is cached if enabled
+   *
+   * @param dsKey key of data source in cache
+   * @param dsInfo data source information
+   * @param method method name
+   * @param queryArgs arguments after the operator and connect params, such as database and table
+   */
+  private <T> T invokeCachedMetaMethod(
+      String dsKey, DsInfoResponse dsInfo, String method, Class<?> returnType, Object... queryArgs)
+      throws ErrorException {
+    Object[] methodArgs = new Object[queryArgs.length + 2];
+    methodArgs[0] = dsInfo.getCreator();
+    methodArgs[1] = dsInfo.getParams();
+    System.arraycopy(queryArgs, 0, methodArgs, 2, queryArgs.length);
+    if (Objects.isNull(metadataResultCache)) {
+      return invokeMetaMethod(dsInfo.getDsType(), method, methodArgs, returnType);
+    }
+    return metadataResultCache.getResult(
+        dsKey,
+        dsInfo,
+        method,
+        queryArgs,
+        () -> invokeMetaMethod(dsInfo.getDsType(), method, methodArgs, returnType));
+  }
+
   /**
    * Request to get default data source
    *
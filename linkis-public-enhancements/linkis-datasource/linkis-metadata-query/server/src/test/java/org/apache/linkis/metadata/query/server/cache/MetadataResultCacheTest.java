@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.metadata.query.server.cache;
+
+import org.apache.linkis.common.exception.ErrorException;
+import org.apache.linkis.datasourcemanager.common.protocol.DsInfoResponse;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class MetadataResultCacheTest {
+
+  private static DsInfoResponse dsInfo(Long versionId) {
+    DsInfoResponse response =
+        new DsInfoResponse(
+            true, "mysql", Collections.singletonMap("host", "127.0.0.1"), "hadoop", "");
+    response.setVersionId(versionId);
+    return response;
+  }
+
+  @Test
+  @DisplayName("getResultTest")
+  public void getResultTest() throws ErrorException {
+    MetadataResultCache cache = new MetadataResultCache(100, 60, 60);
+    AtomicInteger loads = new AtomicInteger();
+    DsInfoResponse dsInfo = dsInfo(1L);
+    Object[] args = new Object[] {"db"};
+    MetadataResultCache.Loader<List<String>> loader =
+        () -> {
+          loads.incrementAndGet();
+          return Arrays.asList("t1", "t2");
+        };
+
+    List<String> tables = cache.getResult("ds@", dsInfo, "getTables", args, loader);
+    Assertions.assertEquals(Arrays.asList("t1", "t2"), tables);
+    cache.getResult("ds@", dsInfo, "getTables", args, loader);
+    Assertions.assertEquals(1, loads.get());
+
+    cache.getResult("ds@", dsInfo, "getTables", new Object[] {"db2"}, loader);
+    cache.getResult("ds@", dsInfo(2L), "getTables", args, loader);
+    Assertions.assertEquals(3, loads.get());
+
+    cache.refresh("ds@");
+    cache.getResult("ds@", dsInfo, "getTables", args, loader);
+    Assertions.assertEquals(4, loads.get());
+  }
+
+  @Test
+  @DisplayName("getDataSourceInfoTest")
+  public void getDataSourceInfoTest() throws ErrorException {
+    MetadataResultCache cache = new MetadataResultCache(100, 60, 60);
+    AtomicInteger loads = new AtomicInteger();
+    MetadataResultCache.Loader<List<String>> loader =
+        () -> {
+          loads.incrementAndGet();
+          return Collections.singletonList("db");
+        };
+
+    cache.getDataSourceInfo("ds@", () -> dsInfo(1L));
+    Assertions.assertEquals(1L, cache.getDataSourceInfo("ds@", () -> dsInfo(2L)).getVersionId());
+
+    // The information expires at once, and a newly published version evicts the metadata
+    MetadataResultCache noInfoCache = new MetadataResultCache(100, 0, 60);
+    noInfoCache.getDataSourceInfo("ds@", () -> dsInfo(1L));
+    noInfoCache.getResult("ds@", dsInfo(1L), "getDatabases", new Object[0], loader);
+    noInfoCache.getDataSourceInfo("ds@", () -> dsInfo(1L));
+    noInfoCache.getResult("ds@", dsInfo(1L), "getDatabases", new Object[0], loader);
+    Assertions.assertEquals(1, loads.get());
+    noInfoCache.getDataSourceInfo("ds@", () -> dsInfo(2L));
+    noInfoCache.getResult("ds@", dsInfo(1L), "getDatabases", new Object[0], loader);
+    Assertions.assertEquals(2, loads.get());
+
+    // The failed response is not cached
+    cache.getDataSourceInfo("other@", () -> new DsInfoResponse(false, "error"));
+    Assertions.assertTrue(cache.getDataSourceInfo("other@", () -> dsInfo(1L)).getStatus());
+  }
+}
@@ -19,21 +19,17 @@ package org.apache.linkis.errorcode.client.handler;
 
 import org.apache.linkis.errorcode.client.ClientConfiguration;
 import org.apache.linkis.errorcode.client.manager.LinkisErrorCodeManager;
-import org.apache.linkis.errorcode.client.utils.ErrorCodeMatcher;
+import org.apache.linkis.errorcode.client.utils.CompiledErrorCodeMatcher;
 import org.apache.linkis.errorcode.common.ErrorCode;
 import org.apache.linkis.errorcode.common.LinkisErrorCode;
 
-import org.apache.commons.io.Charsets;
-import org.apache.commons.lang3.StringUtils;
-
 import java.io.*;
+import java.nio.channels.Channels;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.*;
 
-import scala.Option;
-import scala.Tuple2;
-
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -82,27 +78,31 @@ public class LinkisErrorCodeHandler
 
   @Override
   public List<ErrorCode> handle(String log) {
-    // It also starts a thread, if it exceeds 2 seconds, it will directly report the timeout,
-    // and then return an empty List.
-    // List<ErrorCode> list = new ArrayList<>();
-    Set<ErrorCode> errorCodeSet = new HashSet<>();
-    Runnable runnable =
+    CompiledErrorCodeMatcher matcher = linkisErrorCodeManager.getErrorCodeMatcher();
+    Set<ErrorCode> errorCodeSet = ConcurrentHashMap.newKeySet();
+    return matchInTime(
         () -> {
-          List<LinkisErrorCode> errorCodes = linkisErrorCodeManager.getLinkisErrorCodes();
-          Arrays.stream(log.split("\n"))
-              .forEach(
-                  singleLog -> {
-                    Option<Tuple2<String, String>> match =
-                        ErrorCodeMatcher.errorMatch(errorCodes, singleLog);
-                    if (match.isDefined()) {
-                      errorCodeSet.add(new LinkisErrorCode(match.get()._1, match.get()._2));
-                    }
-                  });
-        };
-    Future<?> future = threadPool.submit(runnable);
+          matcher.matchLines(log, errorCodeSet);
+          return null;
+        },
+        errorCodeSet);
+  }
+
+  /**
+   * It also starts a thread, if it exceeds 2 seconds, the matching is interrupted and the error
+   * codes matched so far are returned.
+   */
+  private List<ErrorCode> matchInTime(Callable<Void> task, Set<ErrorCode> errorCodeSet) {
+    Future<?> future = threadPool.submit(task);
     try {
       future.get(futureTimeOut, TimeUnit.MILLISECONDS);
-    } catch (InterruptedException | ExecutionException | TimeoutException e) {
+    } catch (TimeoutException e) {
+      future.cancel(true);
+      LOGGER.warn(
+          "Failed to parse the whole log in {} ms, return {} error codes matched",
+          futureTimeOut,
+          errorCodeSet.size());
+    } catch (InterruptedException | ExecutionException e) {
       LOGGER.error("Failed to parse log in {} ms", futureTimeOut, e);
     }
     return new ArrayList<>(errorCodeSet);
@@ -133,15 +133,10 @@ public class LinkisErrorCodeHandler
           // Pass in the file address, and then start parsing.
           Set<LinkisErrorCode> errorCodeSet = new HashSet<>();
           LOGGER.info("start to parse error codes for {}", logFilePath);
-          try (BufferedReader bufferedReader = new BufferedReader(new FileReader(logFilePath))) {
-            List<LinkisErrorCode> errorCodes = linkisErrorCodeManager.getLinkisErrorCodes();
-            String log = null;
-            while ((log = bufferedReader.readLine()) != null) {
-              Option<Tuple2<String, String>> match = ErrorCodeMatcher.errorMatch(errorCodes, log);
-              if (match.isDefined()) {
-                errorCodeSet.add(new LinkisErrorCode(match.get()._1, match.get()._2));
-              }
-            }
+          try (InputStream inputStream = new FileInputStream(logFilePath)) {
+            linkisErrorCodeManager
+                .getErrorCodeMatcher()
+                .matchLines(inputStream, Charset.defaultCharset(), errorCodeSet);
           } catch (IOException e) {
             LOGGER.error("failed to handle log file {} ", logFilePath, e);
             return;
@@ -171,52 +166,49 @@ public class LinkisErrorCodeHandler
   }
 
   /**
-   * Read the last few lines of the file <br>
-   * Equivalent to the tail command in the Linux system, the read size limit is 2GB.
+   * Find the offset of the last few lines of the file <br>
+   * Equivalent to the tail command in the Linux system.
    *
-   * @param filename 文件名
-   * @param charset 文件编码格式,传null默认使用defaultCharset
+   * @param file 文件
    * @param rows 读取行数
    * @throws IOException
    */
-  private String readLastRows(String filename, Charset charset, int rows) throws IOException {
-    charset = charset == null ? Charset.defaultCharset() : charset;
-    String lineSeparator = NEW_LINE;
-    try (RandomAccessFile rf = new RandomAccessFile(filename, "r")) {
-      byte[] c = new byte[lineSeparator.getBytes().length];
-      for (long pointer = rf.length(), lineSeparatorNum = 0;
-          pointer >= 0 && lineSeparatorNum < rows; ) {
-        rf.seek(pointer--);
-        int readLength = rf.read(c);
-        if (readLength != -1 && new String(c, 0, readLength).equals(lineSeparator)) {
-          lineSeparatorNum++;
-        }
-        if (pointer == -1 && lineSeparatorNum < rows) {
-          rf.seek(0);
+  private long lastRowsOffset(RandomAccessFile file, int rows) throws IOException {
+    byte[] buffer = new byte[8192];
+    int lineSeparatorNum = 0;
+    long end = file.length();
+    while (end > 0) {
+      int len = (int) Math.min(buffer.length, end);
+      long start = end - len;
+      file.seek(start);
+      file.readFully(buffer, 0, len);
+      for (int i = len - 1; i >= 0; i--) {
+        if (buffer[i] == '\n' && ++lineSeparatorNum == rows) {
+          return start + i + 1;
         }
       }
-      byte[] tempbytes = new byte[(int) (rf.length() - rf.getFilePointer())];
-      rf.readFully(tempbytes);
-      return new String(tempbytes, charset);
+      end = start;
     }
+    return 0L;
   }
 
   @Override
   public List<ErrorCode> handleFileLines(String logFilePath, int line) {
-    if (line <= 0) {
-      line = 1000;
-    }
-    String todoLog = null;
-    try {
-      todoLog = readLastRows(logFilePath, Charsets.UTF_8, line);
-    } catch (Exception e) {
-      LOGGER.error("failed to read last {} lines in file {}", line, logFilePath, e);
-    }
-    if (StringUtils.isNotEmpty(todoLog)) {
-      return handle(todoLog);
-    } else {
-      return new ArrayList<>();
-    }
+    int rows = line <= 0 ? 1000 : line;
+    CompiledErrorCodeMatcher matcher = linkisErrorCodeManager.getErrorCodeMatcher();
+    Set<ErrorCode> errorCodeSet = ConcurrentHashMap.newKeySet();
+    return matchInTime(
+        () -> {
+          try (RandomAccessFile file = new RandomAccessFile(logFilePath, "r")) {
+            file.seek(lastRowsOffset(file, rows));
+            matcher.matchLines(
+                Channels.newInputStream(file.getChannel()), StandardCharsets.UTF_8, errorCodeSet);
+          } catch (IOException e) {
+            LOGGER.error("failed to read last {} lines in file {}", rows, logFilePath, e);
+          }
+          return null;
+        },
+        errorCodeSet);
   }
 
   @Override
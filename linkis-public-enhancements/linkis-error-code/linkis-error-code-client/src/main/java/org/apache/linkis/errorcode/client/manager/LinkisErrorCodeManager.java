@@ -18,6 +18,7 @@
 package org.apache.linkis.errorcode.client.manager;
 
 import org.apache.linkis.errorcode.client.synchronizer.LinkisErrorCodeSynchronizer;
+import org.apache.linkis.errorcode.client.utils.CompiledErrorCodeMatcher;
 import org.apache.linkis.errorcode.common.LinkisErrorCode;
 
 import java.util.List;
@@ -45,4 +46,8 @@ public class LinkisErrorCodeManager {
   public List<LinkisErrorCode> getLinkisErrorCodes() {
     return linkisErrorCodeSynchronizer.synchronizeErrorCodes();
   }
+
+  public CompiledErrorCodeMatcher getErrorCodeMatcher() {
+    return linkisErrorCodeSynchronizer.getErrorCodeMatcher();
+  }
 }
@@ -21,6 +21,7 @@ import org.apache.linkis.common.conf.CommonVars;
 import org.apache.linkis.common.utils.Utils;
 import org.apache.linkis.errorcode.client.ErrorCodeClientBuilder;
 import org.apache.linkis.errorcode.client.LinkisErrorCodeClient;
+import org.apache.linkis.errorcode.client.utils.CompiledErrorCodeMatcher;
 import org.apache.linkis.errorcode.common.LinkisErrorCode;
 
 import java.util.ArrayList;
@@ -41,6 +42,10 @@ public class LinkisErrorCodeSynchronizer {
 
   private List<LinkisErrorCode> linkisErrorCodeList = Arrays.asList(errorCode);
 
+  /** Rebuilt here when the error codes are refreshed, so that log handlers never compile regexes */
+  private volatile CompiledErrorCodeMatcher errorCodeMatcher =
+      new CompiledErrorCodeMatcher(linkisErrorCodeList);
+
   private final Object lock = new Object();
 
   private static final long PERIOD =
@@ -68,6 +73,7 @@ public class LinkisErrorCodeSynchronizer {
                   List<LinkisErrorCode> tmpList = errorCodeClient.getErrorCodesFromServer();
                   if (null != tmpList && !tmpList.isEmpty()) {
                     linkisErrorCodeList = tmpList;
+                    errorCodeMatcher = errorCodeMatcher.recompile(tmpList);
                   } else {
                     LOGGER.warn("Got empty errorCodeList.");
                   }
@@ -96,4 +102,8 @@ public class LinkisErrorCodeSynchronizer {
   public List<LinkisErrorCode> synchronizeErrorCodes() {
     return this.linkisErrorCodeList;
   }
+
+  public CompiledErrorCodeMatcher getErrorCodeMatcher() {
+    return this.errorCodeMatcher;
+  }
 }
@@ -0,0 +1,574 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.errorcode.client.utils;
+
+import org.apache.linkis.errorcode.common.LinkisErrorCode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import scala.util.matching.Regex;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Matches log lines against all error codes in one pass(多模式错误码匹配器). A literal which every match
+ * must contain is extracted from each error regex, and all literals are put into an Aho-Corasick
+ * automaton, so that a line is scanned once and only the regexes whose literal occurs in it are
+ * run. Regexes without such a literal are run on every line. Like ErrorCodeMatcher, the first
+ * matched error code in list order wins for each line, and empty lines are skipped.
+ *
+ * <p>The matcher is immutable and can be shared by threads. The compiled patterns are kept by regex
+ * string and reused by {@link #recompile(List)} when the error codes are refreshed.
+ */
+public class CompiledErrorCodeMatcher {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CompiledErrorCodeMatcher.class);
+
+  /** Shorter literals filter too few lines to be worth a lookup */
+  private static final int MIN_LITERAL_LENGTH = 3;
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /** A longer line is matched in pieces of this size */
+  private static final int MAX_LINE_LENGTH = 8 * 1024 * 1024;
+
+  private static final int[] NO_OUTPUT = new int[0];
+
+  private final List<LinkisErrorCode> errorCodes;
+
+  private final LinkisErrorCode[] codes;
+
+  private final Pattern[] patterns;
+
+  private final Map<String, Pattern> compiledPatterns = new HashMap<>();
+
+  /** Bit set of the codes which are checked on every line */
+  private final long[] alwaysCandidates;
+
+  /** Sorted edge chars and their target nodes of each automaton node, 0 is the root */
+  private final char[][] edgeChars;
+
+  private final int[][] edgeTargets;
+
+  private final int[] fail;
+
+  /** Codes whose literal ends at each node, including the ones reached by fail links */
+  private final int[][] outputs;
+
+  public CompiledErrorCodeMatcher(List<LinkisErrorCode> errorCodes) {
+    this(errorCodes, Collections.emptyMap());
+  }
+
+  private CompiledErrorCodeMatcher(
+      List<LinkisErrorCode> errorCodes, Map<String, Pattern> previousPatterns) {
+    this.errorCodes = errorCodes == null ? Collections.emptyList() : errorCodes;
+    int size = this.errorCodes.size();
+    codes = new LinkisErrorCode[size];
+    patterns = new Pattern[size];
+    alwaysCandidates = new long[(size + 63) >>> 6];
+
+    List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+    List<List<Integer>> trieOutputs = new ArrayList<>();
+    trie.add(new TreeMap<>());
+    trieOutputs.add(new ArrayList<>());
+    for (int i = 0; i < size; i++) {
+      codes[i] = this.errorCodes.get(i);
+      patterns[i] = compilePattern(codes[i], previousPatterns);
+      if (patterns[i] == null) {
+        continue;
+      }
+      String literal = requiredLiteral(patterns[i].pattern());
+      if (literal == null || literal.length() < MIN_LITERAL_LENGTH) {
+        alwaysCandidates[i >>> 6] |= 1L << i;
+        continue;
+      }
+      int node = 0;
+      for (int j = 0; j < literal.length(); j++) {
+        char c = Character.toLowerCase(literal.charAt(j));
+        Integer next = trie.get(node).get(c);
+        if (next == null) {
+          next = trie.size();
+          trie.get(node).put(c, next);
+          trie.add(new TreeMap<>());
+          trieOutputs.add(new ArrayList<>());
+        }
+        node = next;
+      }
+      trieOutputs.get(node).add(i);
+    }
+
+    int nodes = trie.size();
+    edgeChars = new char[nodes][];
+    edgeTargets = new int[nodes][];
+    for (int node = 0; node < nodes; node++) {
+      TreeMap<Character, Integer> edges = trie.get(node);
+      edgeChars[node] = new char[edges.size()];
+      edgeTargets[node] = new int[edges.size()];
+      int j = 0;
+      for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+        edgeChars[node][j] = edge.getKey();
+        edgeTargets[node][j++] = edge.getValue();
+      }
+    }
+    // Fail links in breadth first order, so that the fail node is done before its children
+    fail = new int[nodes];
+    outputs = new int[nodes][];
+    outputs[0] = toArray(trieOutputs.get(0));
+    Queue<Integer> queue = new ArrayDeque<>();
+    for (int child : edgeTargets[0]) {
+      queue.add(child);
+    }
+    while (!queue.isEmpty()) {
+      int node = queue.poll();
+      List<Integer> output = trieOutputs.get(node);
+      output.addAll(trieOutputs.get(fail[node]));
+      outputs[node] = toArray(output);
+      for (int j = 0; j < edgeChars[node].length; j++) {
+        int child = edgeTargets[node][j];
+        int state = fail[node];
+        int target;
+        while ((target = transition(state, edgeChars[node][j])) < 0 && state != 0) {
+          state = fail[state];
+        }
+        fail[child] = target < 0 ? 0 : target;
+        queue.add(child);
+      }
+    }
+  }
+
+  /**
+   * Build a matcher for the refreshed error codes, the patterns of unchanged regexes are reused
+   *
+   * @param errorCodes
+   * @return
+   */
+  public CompiledErrorCodeMatcher recompile(List<LinkisErrorCode> errorCodes) {
+    return new CompiledErrorCodeMatcher(errorCodes, compiledPatterns);
+  }
+
+  public List<LinkisErrorCode> getErrorCodes() {
+    return errorCodes;
+  }
+
+  /**
+   * Match one line
+   *
+   * @param line
+   * @return the matched error code with the formatted description, null if nothing matched
+   */
+  public LinkisErrorCode match(CharSequence line) {
+    List<LinkisErrorCode> result = new ArrayList<>(1);
+    new LineScanner(result).scan(line, 0, line.length(), true);
+    return result.isEmpty() ? null : result.get(0);
+  }
+
+  /**
+   * Match every line of the log, the matched error code of each line is added to the result
+   *
+   * @param log
+   * @param result
+   */
+  public void matchLines(CharSequence log, Collection<? super LinkisErrorCode> result) {
+    new LineScanner(result).scan(log, 0, log.length(), true);
+  }
+
+  /**
+   * Match every line of the stream, the stream is decoded in chunks and the lines are matched in
+   * the buffer without being copied into Strings. Stops when the thread is interrupted.
+   *
+   * @param inputStream
+   * @param charset
+   * @param result
+   * @throws IOException
+   */
+  public void matchLines(
+      InputStream inputStream, Charset charset, Collection<? super LinkisErrorCode> result)
+      throws IOException {
+    CharsetDecoder decoder =
+        charset
+            .newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    ReadableByteChannel channel = Channels.newChannel(inputStream);
+    ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+    CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+    LineScanner scanner = new LineScanner(result);
+    boolean endOfInput = false;
+    while (!Thread.currentThread().isInterrupted()) {
+      if (!endOfInput) {
+        endOfInput = channel.read(bytes) < 0;
+      }
+      bytes.flip();
+      CoderResult coderResult = decoder.decode(bytes, chars, endOfInput);
+      boolean done = endOfInput && !bytes.hasRemaining() && coderResult.isUnderflow();
+      if (done) {
+        decoder.flush(chars);
+      }
+      bytes.compact();
+      chars.flip();
+      chars.position(scanner.scan(chars, 0, chars.limit(), done));
+      chars.compact();
+      if (done) {
+        return;
+      }
+      if (!chars.hasRemaining()) {
+        // The buffer is filled by one line
+        if (chars.capacity() < MAX_LINE_LENGTH) {
+          chars.flip();
+          chars = CharBuffer.allocate(chars.capacity() << 1).put(chars);
+        } else {
+          chars.flip();
+          scanner.scan(chars, 0, chars.limit(), true);
+          chars.clear();
+        }
+      }
+    }
+  }
+
+  private int transition(int node, char c) {
+    int index = Arrays.binarySearch(edgeChars[node], c);
+    return index < 0 ? -1 : edgeTargets[node][index];
+  }
+
+  private int next(int node, char c) {
+    int target;
+    while ((target = transition(node, c)) < 0) {
+      if (node == 0) {
+        return 0;
+      }
+      node = fail[node];
+    }
+    return target;
+  }
+
+  private Pattern compilePattern(LinkisErrorCode errorCode, Map<String, Pattern> previousPatterns) {
+    String regex = errorCode.getErrorRegexStr();
+    if (regex == null) {
+      Regex errorRegex = errorCode.getErrorRegex();
+      return errorRegex == null ? null : errorRegex.pattern();
+    }
+    Pattern pattern = compiledPatterns.get(regex);
+    if (pattern == null) {
+      pattern = previousPatterns.get(regex);
+    }
+    if (pattern == null) {
+      try {
+        pattern = Pattern.compile(regex);
+      } catch (PatternSyntaxException e) {
+        LOGGER.warn("Skip error code {} with invalid regex {}", errorCode.getErrorCode(), regex, e);
+        return null;
+      }
+    }
+    compiledPatterns.put(regex, pattern);
+    return pattern;
+  }
+
+  private static int[] toArray(List<Integer> list) {
+    if (list.isEmpty()) {
+      return NO_OUTPUT;
+    }
+    return list.stream().distinct().sorted().mapToInt(Integer::intValue).toArray();
+  }
+
+  /**
+   * Find the longest literal which every match of the regex contains(提取正则必须包含的字面量). Groups,
+   * character classes, escaped letters and quantified characters end a literal; regexes with a
+   * top-level alternation or inline flags have none.
+   *
+   * @param regex
+   * @return the literal, null if there is none
+   */
+  static String requiredLiteral(String regex) {
+    String longest = "";
+    StringBuilder current = new StringBuilder();
+    int i = 0;
+    int length = regex.length();
+    while (i < length) {
+      char c = regex.charAt(i);
+      if (c == '\\') {
+        if (i + 1 >= length) {
+          return null;
+        }
+        char escaped = regex.charAt(i + 1);
+        i += 2;
+        if (Character.isLetterOrDigit(escaped)) {
+          // \d \s \Q \1 ..., \Q...\E is too rare to be worth parsing
+          if (escaped == 'Q') {
+            return null;
+          }
+          longest = longer(longest, current);
+          continue;
+        }
+        current.append(escaped);
+      } else if (c == '[') {
+        longest = longer(longest, current);
+        i = skipClass(regex, i);
+        if (i < 0) {
+          return null;
+        }
+        continue;
+      } else if (c == '(') {
+        if (i + 2 < length && regex.charAt(i + 1) == '?' && isFlag(regex.charAt(i + 2))) {
+          return null;
+        }
+        longest = longer(longest, current);
+        i = skipGroup(regex, i);
+        if (i < 0) {
+          return null;
+        }
+        continue;
+      } else if (c == '|' || c == ')') {
+        return null;
+      } else if (c == '.' || c == '^' || c == '$') {
+        longest = longer(longest, current);
+        i++;
+        continue;
+      } else if (c == '?' || c == '*' || c == '+' || c == '{') {
+        // Quantifier of a group, a class or an escape
+        i = skipQuantifier(regex, i);
+        if (i < 0) {
+          return null;
+        }
+        continue;
+      } else {
+        current.append(c);
+        i++;
+      }
+      // The char just appended may be repeated or optional
+      if (i < length) {
+        char quantifier = regex.charAt(i);
+        if (quantifier == '?' || quantifier == '*' || quantifier == '{') {
+          current.setLength(current.length() - 1);
+        }
+        if (quantifier == '?' || quantifier == '*' || quantifier == '{' || quantifier == '+') {
+          longest = longer(longest, current);
+          i = skipQuantifier(regex, i);
+          if (i < 0) {
+            return null;
+          }
+        }
+      }
+    }
+    longest = longer(longest, current);
+    return longest.isEmpty() ? null : longest;
+  }
+
+  private static String longer(String longest, StringBuilder current) {
+    String result = current.length() > longest.length() ? current.toString() : longest;
+    current.setLength(0);
+    return result;
+  }
+
+  private static boolean isFlag(char c) {
+    return c == '-' || "idmsuxU".indexOf(c) >= 0;
+  }
+
+  private static int skipQuantifier(String regex, int i) {
+    if (regex.charAt(i) == '{') {
+      i = regex.indexOf('}', i);
+      if (i < 0) {
+        return -1;
+      }
+    }
+    i++;
+    // Lazy or possessive
+    if (i < regex.length() && (regex.charAt(i) == '?' || regex.charAt(i) == '+')) {
+      i++;
+    }
+    return i;
+  }
+
+  private static int skipClass(String regex, int i) {
+    i++;
+    if (i < regex.length() && regex.charAt(i) == '^') {
+      i++;
+    }
+    if (i < regex.length() && regex.charAt(i) == ']') {
+      i++;
+    }
+    while (i < regex.length()) {
+      char c = regex.charAt(i);
+      if (c == '\\') {
+        i += 2;
+      } else if (c == '[') {
+        i = skipClass(regex, i);
+        if (i < 0) {
+          return -1;
+        }
+      } else if (c == ']') {
+        return i + 1;
+      } else {
+        i++;
+      }
+    }
+    return -1;
+  }
+
+  private static int skipGroup(String regex, int i) {
+    int depth = 0;
+    while (i < regex.length()) {
+      char c = regex.charAt(i);
+      if (c == '\\') {
+        i += 2;
+        continue;
+      } else if (c == '[') {
+        i = skipClass(regex, i);
+        if (i < 0) {
+          return -1;
+        }
+        continue;
+      } else if (c == '(') {
+        depth++;
+      } else if (c == ')' && --depth == 0) {
+        return i + 1;
+      }
+      i++;
+    }
+    return -1;
+  }
+
+  /** Matching state of one scan, not thread safe */
+  private final class LineScanner {
+
+    private final Collection<? super LinkisErrorCode> result;
+
+    private final long[] candidates = new long[alwaysCandidates.length];
+
+    private final Matcher[] matchers = new Matcher[patterns.length];
+
+    private int generation = 0;
+
+    private final int[] matcherGenerations = new int[patterns.length];
+
+    LineScanner(Collection<? super LinkisErrorCode> result) {
+      this.result = result;
+    }
+
+    /**
+     * Scan the lines in [from, to) of the text
+     *
+     * @param text
+     * @param from
+     * @param to
+     * @param endOfLine whether the text ends a line
+     * @return start of the unfinished last line, to if there is none
+     */
+    int scan(CharSequence text, int from, int to, boolean endOfLine) {
+      // The content of a buffer changes between scans
+      generation++;
+      int lineStart = from;
+      int state = 0;
+      System.arraycopy(alwaysCandidates, 0, candidates, 0, candidates.length);
+      for (int i = from; i < to; i++) {
+        char c = text.charAt(i);
+        if (c == '\n' || c == '\r') {
+          if (i > lineStart) {
+            matchLine(text, lineStart, i);
+            if (Thread.currentThread().isInterrupted()) {
+              return to;
+            }
+          }
+          lineStart = i + 1;
+          state = 0;
+        } else {
+          state = next(state, Character.toLowerCase(c));
+          for (int output : outputs[state]) {
+            candidates[output >>> 6] |= 1L << output;
+          }
+        }
+      }
+      if (endOfLine && to > lineStart) {
+        matchLine(text, lineStart, to);
+        lineStart = to;
+      }
+      return lineStart;
+    }
+
+    private void matchLine(CharSequence text, int start, int end) {
+      try {
+        for (int word = 0; word < candidates.length; word++) {
+          long bits = candidates[word];
+          while (bits != 0) {
+            int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+            bits &= bits - 1;
+            // The region hides the other lines from anchors and lookarounds
+            Matcher matcher = getMatcher(index, text).region(start, end);
+            if (matcher.find()) {
+              LinkisErrorCode errorCode = toErrorCode(codes[index], matcher);
+              if (errorCode != null) {
+                result.add(errorCode);
+              }
+              return;
+            }
+          }
+        }
+      } finally {
+        System.arraycopy(alwaysCandidates, 0, candidates, 0, candidates.length);
+      }
+    }
+
+    private Matcher getMatcher(int index, CharSequence text) {
+      Matcher matcher = matchers[index];
+      if (matcher == null) {
+        matcher = patterns[index].matcher(text);
+        matchers[index] = matcher;
+      } else if (matcherGenerations[index] != generation) {
+        matcher.reset(text);
+      }
+      matcherGenerations[index] = generation;
+      return matcher;
+    }
+
+    private LinkisErrorCode toErrorCode(LinkisErrorCode errorCode, Matcher matcher) {
+      Object[] groups = new Object[matcher.groupCount()];
+      for (int i = 0; i < groups.length; i++) {
+        groups[i] = matcher.group(i + 1);
+      }
+      try {
+        return new LinkisErrorCode(
+            errorCode.getErrorCode(), String.format(errorCode.getErrorDesc(), groups));
+      } catch (RuntimeException e) {
+        LOGGER.error("failed to match error code", e);
+        return null;
+      }
+    }
+  }
+}
@@ -24,18 +24,23 @@ import java.util
 
 object ErrorCodeMatcher extends Logging {
 
+  @volatile private var compiledMatcher: CompiledErrorCodeMatcher = _
+
+  /**
+   * Kept for the callers matching a single line, the matcher is only recompiled when another error
+   * code list is passed in
+   */
   def errorMatch(errorCodes: util.List[LinkisErrorCode], log: String): Option[(String, String)] = {
     Utils.tryCatch {
-      import scala.collection.JavaConverters._
-      errorCodes.asScala.foreach(e =>
-        if (e.getErrorRegex.findFirstIn(log).isDefined) {
-          val matched = e.getErrorRegex.unapplySeq(log)
-          if (matched.nonEmpty) {
-            return Some(e.getErrorCode -> e.getErrorDesc.format(matched.get: _*))
-          } else return Some(e.getErrorCode -> e.getErrorDesc)
-        }
-      )
-      None
+      var matcher = compiledMatcher
+      if (matcher == null) {
+        matcher = new CompiledErrorCodeMatcher(errorCodes)
+        compiledMatcher = matcher
+      } else if (matcher.getErrorCodes ne errorCodes) {
+        matcher = matcher.recompile(errorCodes)
+        compiledMatcher = matcher
+      }
+      Option(matcher.`match`(log)).map(e => e.getErrorCode -> e.getErrorDesc)
     } { t: Throwable =>
       logger.error("failed to match error code", t)
       None
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.errorcode.client.utils;
+
+import org.apache.linkis.errorcode.common.LinkisErrorCode;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class CompiledErrorCodeMatcherTest {
+
+  private static final List<LinkisErrorCode> ERROR_CODES =
+      Arrays.asList(
+          new LinkisErrorCode("01001", "您的任务没有路由到后台ECM", "The em of labels", 0),
+          new LinkisErrorCode("60001", "%s队列不存在", "queue (\\S+) does not exist in YARN", 0),
+          new LinkisErrorCode("60002", "内存不足", "Cannot allocate memory|OutOfMemoryError", 0),
+          new LinkisErrorCode("60003", "表%s不存在", "Table or view not found: ([\\w.]+)", 0),
+          new LinkisErrorCode("60004", "找不到函数", "[Uu]ndefined function:?\\s+'?(\\w+)", 0),
+          new LinkisErrorCode("60005", "语法错误", "(?i)syntax error", 0),
+          new LinkisErrorCode("60006", "数据库%s不存在", "Database '(\\S+)' not found", 0),
+          new LinkisErrorCode("60007", "队列资源不足", "queue.+is full", 0));
+
+  private static final String[] LINES = {
+    "2022-10-01 INFO queue root.dev does not exist in YARN",
+    "org.apache.spark.sql.AnalysisException: Table or view not found: db.tbl;",
+    "java.lang.OutOfMemoryError: Java heap space",
+    "Undefined function: 'my_udf'. This function is neither a registered temporary function",
+    "ParseException: SYNTAX ERROR near 'selec'",
+    "Database 'test_db' not found",
+    "the queue root.default is full",
+    "queue does not exist in YARN",
+    "nothing to see here",
+    ""
+  };
+
+  @Test
+  @DisplayName("requiredLiteralTest")
+  public void requiredLiteralTest() {
+    Assertions.assertEquals(
+        " does not exist in YARN",
+        CompiledErrorCodeMatcher.requiredLiteral("queue (\\S+) does not exist in YARN"));
+    Assertions.assertEquals(
+        "ndefined function", CompiledErrorCodeMatcher.requiredLiteral("[Uu]ndefined function:?"));
+    Assertions.assertEquals("a.b", CompiledErrorCodeMatcher.requiredLiteral("a\\.bc?d"));
+    Assertions.assertEquals("abc", CompiledErrorCodeMatcher.requiredLiteral("x*abc+d{2}"));
+    Assertions.assertNull(CompiledErrorCodeMatcher.requiredLiteral("Cannot allocate|OutOfMemory"));
+    Assertions.assertNull(CompiledErrorCodeMatcher.requiredLiteral("(?i)syntax error"));
+    Assertions.assertNull(CompiledErrorCodeMatcher.requiredLiteral("(a|b)\\d+"));
+  }
+
+  @Test
+  @DisplayName("sameAsRegexLoopTest")
+  public void sameAsRegexLoopTest() {
+    CompiledErrorCodeMatcher matcher = new CompiledErrorCodeMatcher(ERROR_CODES);
+    for (String line : LINES) {
+      LinkisErrorCode expected = regexLoop(line);
+      LinkisErrorCode matched = matcher.match(line);
+      if (expected == null) {
+        Assertions.assertNull(matched, line);
+      } else {
+        Assertions.assertNotNull(matched, line);
+        Assertions.assertEquals(expected.getErrorCode(), matched.getErrorCode());
+        Assertions.assertEquals(expected.getErrorDesc(), matched.getErrorDesc());
+      }
+    }
+    Assertions.assertEquals("root.dev队列不存在", matcher.match(LINES[0]).getErrorDesc());
+  }
+
+  @Test
+  @DisplayName("matchStreamTest")
+  public void matchStreamTest() throws IOException {
+    CompiledErrorCodeMatcher matcher = new CompiledErrorCodeMatcher(ERROR_CODES);
+    List<LinkisErrorCode> expected = new ArrayList<>();
+    StringBuilder log = new StringBuilder();
+    for (int i = 0; i < 20000; i++) {
+      String line = LINES[i % LINES.length];
+      log.append(line).append(i % 2 == 0 ? "\n" : "\r\n");
+      if (regexLoop(line) != null) {
+        expected.add(regexLoop(line));
+      }
+    }
+    // A long line across the buffers
+    char[] longLine = new char[200 * 1024];
+    Arrays.fill(longLine, 'x');
+    log.append(longLine).append(LINES[5]);
+    expected.add(regexLoop(LINES[5]));
+
+    List<LinkisErrorCode> fromString = new ArrayList<>();
+    matcher.matchLines(log, fromString);
+    Assertions.assertEquals(expected, fromString);
+
+    List<LinkisErrorCode> fromStream = new ArrayList<>();
+    matcher.matchLines(
+        new ByteArrayInputStream(log.toString().getBytes(StandardCharsets.UTF_8)),
+        StandardCharsets.UTF_8,
+        fromStream);
+    Assertions.assertEquals(expected, fromStream);
+  }
+
+  @Test
+  @DisplayName("recompileTest")
+  public void recompileTest() {
+    CompiledErrorCodeMatcher matcher = new CompiledErrorCodeMatcher(ERROR_CODES);
+    List<LinkisErrorCode> refreshed = new ArrayList<>(ERROR_CODES.subList(1, 3));
+    refreshed.add(new LinkisErrorCode("60008", "非法正则", "invalid (regex", 0));
+    CompiledErrorCodeMatcher recompiled = matcher.recompile(refreshed);
+    Assertions.assertSame(refreshed, recompiled.getErrorCodes());
+    Assertions.assertEquals("60001", recompiled.match(LINES[0]).getErrorCode());
+    Assertions.assertNull(recompiled.match(LINES[1]));
+  }
+
+  /** The way ErrorCodeMatcher matched a line before */
+  private static LinkisErrorCode regexLoop(String line) {
+    for (LinkisErrorCode errorCode : ERROR_CODES) {
+      Matcher matcher = Pattern.compile(errorCode.getErrorRegexStr()).matcher(line);
+      if (matcher.find()) {
+        Object[] groups = new Object[matcher.groupCount()];
+        for (int i = 0; i < groups.length; i++) {
+          groups[i] = matcher.group(i + 1);
+        }
+        return new LinkisErrorCode(
+            errorCode.getErrorCode(), String.format(errorCode.getErrorDesc(), groups));
+      }
+    }
+    return null;
+  }
+}
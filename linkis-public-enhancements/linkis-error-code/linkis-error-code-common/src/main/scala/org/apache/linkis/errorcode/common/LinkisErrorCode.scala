@@ -39,14 +39,22 @@ class LinkisErrorCode extends AbstractErrorCode {
     this.errorDesc = errorDesc
     this.errorType = errorType
     this.errorRegexStr = errorRegexStr
-    this.errorRegex = errorRegexStr.r.unanchored
   }
 
   override def getErrorCode: String = this.errorCode
 
   override def getErrorDesc: String = this.errorDesc
 
-  override def getErrorRegex: Regex = this.errorRegex
+  /**
+   * The regex is compiled on first use, the client matcher compiles and caches the regex strings by
+   * itself(正则在第一次使用时才编译)
+   */
+  override def getErrorRegex: Regex = {
+    if (this.errorRegex == null && this.errorRegexStr != null) {
+      this.errorRegex = this.errorRegexStr.r.unanchored
+    }
+    this.errorRegex
+  }
 
   def setErrorCode(errorCode: String): Unit = this.errorCode = errorCode
 
@@ -61,7 +69,7 @@ class LinkisErrorCode extends AbstractErrorCode {
   def setErrorRegexStr(errorRegexStr: String): Unit = {
     this.errorRegexStr = errorRegexStr
     // logger.info("error reg str is {}", errorRegexStr)
-    this.errorRegex = errorRegexStr.r.unanchored
+    this.errorRegex = null
   }
 
   override def getErrorRegexStr: String = this.errorRegexStr
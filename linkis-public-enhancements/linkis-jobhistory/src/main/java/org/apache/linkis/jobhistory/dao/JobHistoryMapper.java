@@ -104,6 +104,12 @@ public interface JobHistoryMapper {
 
   String selectJobHistoryStatusForUpdate(Long jobId);
 
+  /**
+   * Only the id and status are selected, to check the status transitions of a batch of jobs in one
+   * query. The rows are locked in the order of id, so two batches do not lock each other.
+   */
+  List<JobHistory> selectJobHistoryStatusForUpdateByIds(@Param("jobIds") List<Long> jobIds);
+
   void updateOberverById(@Param("taskid") Long taskid, @Param("observeInfo") String observeInfo);
 
   void updateJobHistoryCancelById(
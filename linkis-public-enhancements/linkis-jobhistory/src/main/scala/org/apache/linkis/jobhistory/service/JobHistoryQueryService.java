@@ -36,6 +36,12 @@ public interface JobHistoryQueryService {
 
     ArrayList<JobRespProtocol> batchChange(JobReqBatchUpdate jobReqUpdate);
 
+    /**
+     * The same as batchChange, but the responses are wrapped in one JobRespProtocol which can be
+     * transferred by RPC
+     */
+    JobRespProtocol batchChangeAndReply(JobReqBatchUpdate jobReqUpdate);
+
     JobRespProtocol query(JobReqQuery jobReqQuery);
 
     JobHistory getJobHistoryByIdAndName(Long jobID, String userName);
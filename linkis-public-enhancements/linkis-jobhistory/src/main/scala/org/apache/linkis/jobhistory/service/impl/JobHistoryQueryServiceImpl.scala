@@ -42,6 +42,7 @@ import org.apache.linkis.rpc.message.annotation.Receiver
 import org.apache.commons.lang3.StringUtils
 import org.apache.commons.lang3.exception.ExceptionUtils
 import org.apache.commons.lang3.time.DateUtils
+import org.apache.ibatis.session.{ExecutorType, SqlSessionFactory}
 
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.stereotype.Service
@@ -62,6 +63,9 @@ class JobHistoryQueryServiceImpl extends JobHistoryQueryService with Logging {
   @Autowired
   private var jobHistoryMapper: JobHistoryMapper = _
 
+  @Autowired
+  private var sqlSessionFactory: SqlSessionFactory = _
+
   private val unDoneTaskCache: Cache[String, Integer] = CacheBuilder
     .newBuilder()
     .concurrencyLevel(5)
@@ -158,66 +162,116 @@ class JobHistoryQueryServiceImpl extends JobHistoryQueryService with Logging {
     jobResp
   }
 
-  @Receiver
+  /**
+   * Update the jobs in batch: the rows of all the jobs are selected for update by one query, so
+   * that the status transitions are checked under the row locks like change, and the updates are
+   * executed as one jdbc batch in the same transaction. (批量更新：一次查询锁定并校验所有任务的状态流转，并在同一事务中以jdbc
+   * batch执行更新)
+   */
   override def batchChange(jobReqUpdate: JobReqBatchUpdate): util.ArrayList[JobRespProtocol] = {
     val jobReqList = jobReqUpdate.jobReq
     val jobRespList = new util.ArrayList[JobRespProtocol]()
-    if (jobReqList != null) {
-      jobReqList.asScala.foreach(jobReq => {
-        jobReq.setExecutionCode(null)
-        logger.info("Update data to the database(往数据库中更新数据)：status:" + jobReq.getStatus)
+    if (jobReqList == null || jobReqList.isEmpty) return jobRespList
+    logger.info(s"Batch update ${jobReqList.size()} jobs to the database(批量往数据库中更新数据)")
+    val jobIds = jobReqList.asScala
+      .filter(jobReq => jobReq.getId != null && jobReq.getStatus != null)
+      .map(_.getId)
+      .distinct
+    val sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH, false)
+    Utils.tryFinally {
+      val mapper = sqlSession.getMapper(classOf[JobHistoryMapper])
+      val jobStatus = new util.HashMap[lang.Long, String]()
+      var selectError: Throwable = null
+      if (jobIds.nonEmpty) Utils.tryCatch {
+        mapper
+          .selectJobHistoryStatusForUpdateByIds(jobIds.asJava)
+          .asScala
+          .foreach(jobHistory => jobStatus.put(jobHistory.getId, jobHistory.getStatus))
+      } { t =>
+        logger.error(s"Failed to select the status of jobs ${jobIds.mkString(",")}", t)
+        selectError = t
+      }
+      val jobUpdates = new util.ArrayList[JobHistory]()
+      val updatedResps = new util.ArrayList[JobRespProtocol]()
+      jobReqList.asScala.foreach { jobReq =>
         val jobResp = new JobRespProtocol
-        Utils.tryCatch {
-          if (jobReq.getErrorDesc != null) {
-            if (jobReq.getErrorDesc.length > GovernanceCommonConf.ERROR_CODE_DESC_LEN) {
-              logger.info(s"errorDesc is too long,we will cut some message")
-              jobReq.setErrorDesc(
-                jobReq.getErrorDesc
-                  .substring(0, GovernanceCommonConf.ERROR_CODE_DESC_LEN - 3) + "..."
-              )
-              logger.info(s"${jobReq.getErrorDesc}")
+        if (selectError != null) {
+          jobResp.setStatus(2)
+          jobResp.setMsg(ExceptionUtils.getRootCauseMessage(selectError))
+        } else {
+          Utils.tryCatch {
+            jobReq.setExecutionCode(null)
+            if (jobReq.getErrorDesc != null) {
+              if (jobReq.getErrorDesc.length > GovernanceCommonConf.ERROR_CODE_DESC_LEN) {
+                logger.info(s"errorDesc is too long,we will cut some message")
+                jobReq.setErrorDesc(
+                  jobReq.getErrorDesc
+                    .substring(0, GovernanceCommonConf.ERROR_CODE_DESC_LEN - 3) + "..."
+                )
+              }
             }
-          }
-          if (jobReq.getStatus != null) {
-            val oldStatus: String = jobHistoryMapper.selectJobHistoryStatusForUpdate(jobReq.getId)
-            if (oldStatus != null && !shouldUpdate(oldStatus, jobReq.getStatus)) {
-              throw new QueryException(
-                120001,
-                s"jobId:${jobReq.getId}，oldStatus(在数据库中的task状态为)：${oldStatus}，" +
-                  s"newStatus(更新的task状态为)：${jobReq.getStatus}，update failed(更新失败)！"
-              )
+            if (jobReq.getStatus != null && jobReq.getId != null) {
+              val oldStatus: String = jobStatus.get(jobReq.getId)
+              if (oldStatus != null && !shouldUpdate(oldStatus, jobReq.getStatus)) {
+                throw new QueryException(
+                  120001,
+                  s"jobId:${jobReq.getId}，oldStatus(在数据库中的task状态为)：${oldStatus}，" +
+                    s"newStatus(更新的task状态为)：${jobReq.getStatus}，update failed(更新失败)！"
+                )
+              }
+              // The later updates of the same job in this batch are checked against this one
+              jobStatus.put(jobReq.getId, jobReq.getStatus)
+            }
+            val jobUpdate = jobRequest2JobHistory(jobReq)
+            // Keep the update time of the request, so that a stale update is not written over a
+            // newer one
+            if (jobUpdate.getUpdatedTime == null) {
+              jobUpdate.setUpdatedTime(new Timestamp(System.currentTimeMillis()))
             }
+            jobUpdates.add(jobUpdate)
+            updatedResps.add(jobResp)
+            val map = new util.HashMap[String, Object]
+            map.put(JobRequestConstants.JOB_ID, jobReq.getId.asInstanceOf[Object])
+            jobResp.setStatus(0)
+            jobResp.setData(map)
+          } { case e: Exception =>
+            logger.error(
+              s"Failed to update JobReqUpdate ${jobReq.getId},status ${jobReq.getStatus}",
+              e
+            )
+            jobResp.setStatus(1)
+            jobResp.setMsg(ExceptionUtils.getRootCauseMessage(e))
           }
-          val jobUpdate = jobRequest2JobHistory(jobReq)
-          jobUpdate.setUpdatedTime(new Timestamp(System.currentTimeMillis()))
-          jobHistoryMapper.updateJobHistory(jobUpdate)
-
-          // todo
-          /* //to write cache
-            if (TaskStatus.Succeed.toString.equals(jobReq.getStatus) && queryCacheService.needCache(jobReq)) {
-              info("Write cache for task: " + jobReq.getId)
-              jobReq.setExecutionCode(executionCode)
-              queryCacheService.writeCache(jobReq)
-            } */
-
-          val map = new util.HashMap[String, Object]
-          map.put(JobRequestConstants.JOB_ID, jobReq.getId.asInstanceOf[Object])
-          jobResp.setStatus(0)
-          jobResp.setData(map)
-        } { case e: Exception =>
-          logger.error(
-            s"Failed to update JobReqUpdate ${jobReq.getId},status ${jobReq.getStatus}",
-            e
-          )
-          jobResp.setStatus(1)
-          jobResp.setMsg(ExceptionUtils.getRootCauseMessage(e))
         }
         jobRespList.add(jobResp)
-      })
-    }
+      }
+      // Also commits when nothing is updated, to release the row locks
+      Utils.tryCatch {
+        jobUpdates.asScala.foreach(mapper.updateJobHistory)
+        sqlSession.flushStatements()
+        sqlSession.commit()
+      } { case e: Exception =>
+        logger.error(s"Failed to batch update ${jobUpdates.size()} jobs, should be retry", e)
+        Utils.tryQuietly(sqlSession.rollback())
+        updatedResps.asScala.foreach { jobResp =>
+          jobResp.setStatus(2)
+          jobResp.setMsg(ExceptionUtils.getRootCauseMessage(e))
+        }
+      }
+    }(sqlSession.close())
     jobRespList
   }
 
+  @Receiver
+  override def batchChangeAndReply(jobReqUpdate: JobReqBatchUpdate): JobRespProtocol = {
+    val jobResp = new JobRespProtocol
+    val map = new util.HashMap[String, Object]
+    map.put(JobRequestConstants.JOB_RESP_LIST, batchChange(jobReqUpdate))
+    jobResp.setStatus(0)
+    jobResp.setData(map)
+    jobResp
+  }
+
   @Receiver
   override def query(jobReqQuery: JobReqQuery): JobRespProtocol = {
     logger.info("query history task：" + jobReqQuery.toString)
@@ -22,6 +22,7 @@ import org.apache.linkis.jobhistory.entity.JobHistory;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -166,4 +167,15 @@ public class JobHistoryMapperTest extends BaseDaoTest {
     String status = jobHistoryMapper.selectJobHistoryStatusForUpdate(1L);
     Assertions.assertEquals("Succeed", status);
   }
+
+  @Test
+  @DisplayName("selectJobHistoryStatusForUpdateByIdsTest")
+  public void selectJobHistoryStatusForUpdateByIdsTest() {
+
+    List<JobHistory> histories =
+        jobHistoryMapper.selectJobHistoryStatusForUpdateByIds(Arrays.asList(1L, -1L));
+    Assertions.assertEquals(1, histories.size());
+    Assertions.assertEquals(1L, histories.get(0).getId());
+    Assertions.assertEquals("Succeed", histories.get(0).getStatus());
+  }
 }
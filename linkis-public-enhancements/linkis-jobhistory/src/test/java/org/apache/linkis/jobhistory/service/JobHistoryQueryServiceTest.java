@@ -17,12 +17,17 @@
 
 package org.apache.linkis.jobhistory.service;
 
+import org.apache.linkis.governance.common.constant.job.JobRequestConstants;
 import org.apache.linkis.governance.common.entity.job.JobRequest;
 import org.apache.linkis.governance.common.protocol.job.*;
 import org.apache.linkis.jobhistory.dao.JobHistoryMapper;
 import org.apache.linkis.jobhistory.entity.JobHistory;
 import org.apache.linkis.jobhistory.service.impl.JobHistoryQueryServiceImpl;
 
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+
 import java.util.*;
 
 import org.junit.jupiter.api.Assertions;
@@ -31,6 +36,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +46,10 @@ public class JobHistoryQueryServiceTest {
 
   @Mock JobHistoryMapper jobRequestMapper;
 
+  @Mock SqlSessionFactory sqlSessionFactory;
+
+  @Mock SqlSession sqlSession;
+
   private JobRequest createJobRequest() {
     JobRequest jobRequest = new JobRequest();
     jobRequest.setReqId("LINKISCLI_hadoop_spark_1");
@@ -80,6 +90,8 @@ public class JobHistoryQueryServiceTest {
   @Test
   @DisplayName("batchChangeTest")
   public void batchChangeTest() {
+    Mockito.when(sqlSessionFactory.openSession(ExecutorType.BATCH, false)).thenReturn(sqlSession);
+    Mockito.when(sqlSession.getMapper(JobHistoryMapper.class)).thenReturn(jobRequestMapper);
 
     JobReqBatchUpdate jobReqBatchUpdate =
         new JobReqBatchUpdate(new ArrayList<>(Arrays.asList(createJobRequest())));
@@ -87,6 +99,46 @@ public class JobHistoryQueryServiceTest {
     Assertions.assertTrue(protocols.size() > 0);
   }
 
+  @Test
+  @DisplayName("batchChangeStatusTest")
+  public void batchChangeStatusTest() {
+    Mockito.when(sqlSessionFactory.openSession(ExecutorType.BATCH, false)).thenReturn(sqlSession);
+    Mockito.when(sqlSession.getMapper(JobHistoryMapper.class)).thenReturn(jobRequestMapper);
+    JobHistory succeed = new JobHistory();
+    succeed.setId(1L);
+    succeed.setStatus("Succeed");
+    JobHistory running = new JobHistory();
+    running.setId(2L);
+    running.setStatus("Running");
+    Mockito.when(jobRequestMapper.selectJobHistoryStatusForUpdateByIds(Mockito.anyList()))
+        .thenReturn(Arrays.asList(succeed, running));
+
+    JobRequest completed = createJobRequest();
+    completed.setId(1L);
+    completed.setStatus("Running");
+    JobRequest toSucceed = createJobRequest();
+    toSucceed.setId(2L);
+    JobRequest toRunning = createJobRequest();
+    toRunning.setId(2L);
+    toRunning.setStatus("Running");
+    JobReqBatchUpdate jobReqBatchUpdate =
+        new JobReqBatchUpdate(new ArrayList<>(Arrays.asList(completed, toSucceed, toRunning)));
+    JobRespProtocol reply = jobRequestQueryService.batchChangeAndReply(jobReqBatchUpdate);
+    List<JobRespProtocol> protocols =
+        (List<JobRespProtocol>) reply.getData().get(JobRequestConstants.JOB_RESP_LIST());
+    Assertions.assertEquals(1, protocols.get(0).getStatus());
+    Assertions.assertEquals(0, protocols.get(1).getStatus());
+    // Checked against the status updated earlier in the same batch
+    Assertions.assertEquals(1, protocols.get(2).getStatus());
+    Mockito.verify(jobRequestMapper, Mockito.times(1))
+        .selectJobHistoryStatusForUpdateByIds(Mockito.anyList());
+    Mockito.verify(jobRequestMapper, Mockito.times(1)).updateJobHistory(Mockito.any());
+    // The rows are locked and updated in one transaction
+    Mockito.verify(sqlSession, Mockito.times(1)).commit();
+    Mockito.verify(jobRequestMapper, Mockito.never())
+        .selectJobHistoryStatusForUpdate(Mockito.any());
+  }
+
   @Test
   @DisplayName("queryTest")
   public void queryTest() {
@@ -39,6 +39,8 @@ public class WorkSpaceConfiguration {
       CommonVars$.MODULE$.apply("wds.linkis.workspace.resultset.download.maxsize.csv", 5000);
   public static final CommonVars<Integer> RESULT_SET_DOWNLOAD_MAX_SIZE_EXCEL =
       CommonVars$.MODULE$.apply("wds.linkis.workspace.resultset.download.maxsize.excel", 5000);
+  public static final CommonVars<Integer> RESULT_SET_STREAM_MAX_PAGE_SIZE =
+      CommonVars$.MODULE$.apply("linkis.workspace.resultset.stream.max.page.size", 50000);
   public static final CommonVars<Long> FILESYSTEM_GET_TIMEOUT =
       CommonVars$.MODULE$.apply("wds.linkis.workspace.filesystem.get.timeout", 10000L);
   public static final CommonVars<Integer> FILESYSTEM_FS_THREAD_NUM =
@@ -71,6 +71,9 @@ public class WorkspaceExceptionManager {
           put("80029", "Empty dir(空目录)!");
           put("80030", "Creating user path: {0} failed(创建用户路径:{0}失败)");
           put("80031", "User: {0} not initialized(用户:{0}未初始化)");
+          put(
+              "80032",
+              "The parameter {0}:{1} is invalid, it should be between 1 and {2}(参数{0}:{1}不合法，应在1到{2}之间)");
         }
       };
 
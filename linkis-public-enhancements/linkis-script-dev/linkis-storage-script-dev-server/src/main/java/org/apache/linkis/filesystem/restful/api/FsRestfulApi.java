@@ -29,6 +29,10 @@ import org.apache.http.Consts;
 import org.apache.linkis.common.conf.Configuration;
 import org.apache.linkis.common.io.FsPath;
 import org.apache.linkis.common.io.FsWriter;
+import org.apache.linkis.common.io.MetaData;
+import org.apache.linkis.common.io.Record;
+import org.apache.linkis.common.io.resultset.ResultSet;
+import org.apache.linkis.common.io.resultset.ResultSetReader;
 import org.apache.linkis.filesystem.conf.WorkSpaceConfiguration;
 import org.apache.linkis.filesystem.entity.DirFileTree;
 import org.apache.linkis.filesystem.entity.LogLevel;
@@ -41,11 +45,17 @@ import org.apache.linkis.filesystem.validator.PathValidator$;
 import org.apache.linkis.server.Message;
 import org.apache.linkis.server.utils.ModuleUserUtils;
 import org.apache.linkis.storage.csv.CSVFsWriter;
+import org.apache.linkis.storage.domain.Dolphin;
 import org.apache.linkis.storage.domain.FsPathListWithError;
 import org.apache.linkis.storage.excel.ExcelFsWriter;
 import org.apache.linkis.storage.excel.ExcelStorageReader;
 import org.apache.linkis.storage.excel.StorageMultiExcelWriter;
 import org.apache.linkis.storage.fs.FileSystem;
+import org.apache.linkis.storage.resultset.ResultSetFactory;
+import org.apache.linkis.storage.resultset.ResultSetReaderFactory;
+import org.apache.linkis.storage.resultset.StorageResultSetIndex;
+import org.apache.linkis.storage.resultset.StorageResultSetReader;
+import org.apache.linkis.storage.resultset.table.TableBinaryResultSerializer;
 import org.apache.linkis.storage.script.*;
 import org.apache.linkis.storage.source.FileSource;
 import org.apache.linkis.storage.utils.StorageUtils;
@@ -60,6 +70,7 @@ import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
@@ -77,6 +88,9 @@ public class FsRestfulApi {
 
   private final Logger LOGGER = LoggerFactory.getLogger(getClass());
 
+  /** The empty line, the varint record count and the more pages flag */
+  private static final int RESULT_SET_STREAM_TRAILER_MAX_LEN = 7;
+
   /**
    * check 权限
    *
@@ -391,6 +405,10 @@ public class FsRestfulApi {
     FsPathListWithError fsPathListWithError = fileSystem.listPathWithError(fsPath);
     if (fsPathListWithError != null) {
       for (FsPath children : fsPathListWithError.getFsPaths()) {
+        // Row index files of result sets are internal to the readers
+        if (StorageResultSetIndex.isIndexPath(children.getPath())) {
+          continue;
+        }
         DirFileTree dirFileTreeChildren = new DirFileTree();
         dirFileTreeChildren.setName(new File(children.getPath()).getName());
         dirFileTreeChildren.setPath(children.getSchemaPath());
@@ -590,6 +608,119 @@ public class FsRestfulApi {
     }
   }
 
+  /**
+   * Stream a page of the table result set in the binary table format, which is the metadata line
+   * followed by at most pageSize record lines, each line is prefixed by its varint length, see
+   * TableBinaryResultSerializer. The records are written while read, and the values are not
+   * formatted as strings as openFile does. The page ends with a trailer: an empty line, the varint
+   * count of the records and a byte which is 1 if there are more pages, so that a truncated page is
+   * detected by the client. (以二进制格式流式返回表结果集的一页)
+   */
+  @ApiOperation(
+      value = "openResultSetStream",
+      notes = "open a page of table result set in binary stream")
+  @ApiImplicitParams({
+    @ApiImplicitParam(name = "path", required = true, dataType = "String", value = "Path"),
+    @ApiImplicitParam(name = "page", required = true, dataType = "Integer", defaultValue = "1"),
+    @ApiImplicitParam(
+        name = "pageSize",
+        required = true,
+        dataType = "Integer",
+        defaultValue = "5000")
+  })
+  @RequestMapping(path = "/openResultSetStream", method = RequestMethod.GET)
+  public void openResultSetStream(
+      HttpServletRequest req,
+      HttpServletResponse response,
+      @RequestParam(value = "path", required = false) String path,
+      @RequestParam(value = "page", defaultValue = "1") Integer page,
+      @RequestParam(value = "pageSize", defaultValue = "5000") Integer pageSize)
+      throws IOException {
+    ResultSetReader<? extends MetaData, ? extends Record> reader = null;
+    OutputStream outputStream = null;
+    PrintWriter writer = null;
+    try {
+      if (StringUtils.isEmpty(path)) {
+        throw WorkspaceExceptionManager.createException(80004, path);
+      }
+      int maxPageSize = WorkSpaceConfiguration.RESULT_SET_STREAM_MAX_PAGE_SIZE.getValue();
+      if (pageSize <= 0 || pageSize > maxPageSize) {
+        throw WorkspaceExceptionManager.createException(80032, "pageSize", pageSize, maxPageSize);
+      }
+      String userName = ModuleUserUtils.getOperationUser(req, "openResultSetStream " + path);
+      if (!checkIsUsersDirectory(path, userName)) {
+        throw WorkspaceExceptionManager.createException(80010, userName, path);
+      }
+      FsPath fsPath = new FsPath(path);
+      FileSystem fileSystem = fsService.getFileSystem(userName, fsPath);
+      // Throws an exception if the file does not have read access(如果文件没读权限，抛出异常)
+      if (!fileSystem.canRead(fsPath)) {
+        throw WorkspaceExceptionManager.createException(80012);
+      }
+      if (!FileSource.isResultSet(fsPath.getPath())) {
+        throw WorkspaceExceptionManager.createException(80015);
+      }
+      ResultSet<? extends MetaData, ? extends Record> resultSet =
+          ResultSetFactory.getInstance().getResultSetByPath(fsPath, fileSystem);
+      if (!ResultSetFactory.TABLE_TYPE.equals(resultSet.resultSetType())) {
+        throw WorkspaceExceptionManager.createException(80015);
+      }
+      reader = ResultSetReaderFactory.getResultSetReader(resultSet, fileSystem.read(fsPath));
+      if (reader instanceof StorageResultSetReader) {
+        ((StorageResultSetReader<?, ?>) reader).setRowIndex(fileSystem, fsPath);
+      }
+      TableBinaryResultSerializer serializer = new TableBinaryResultSerializer();
+      byte[] metaData = serializer.metaDataToBytes(reader.getMetaData());
+      // page * pageSize overflows an int for large pages, skip in int chunks(跳过行数按long计算)
+      long skip = Math.multiplyExact(Math.max(page, 1) - 1L, (long) pageSize);
+      while (skip > 0) {
+        int toSkip = (int) Math.min(skip, Integer.MAX_VALUE);
+        if (reader.skip(toSkip) < toSkip) {
+          break;
+        }
+        skip -= toSkip;
+      }
+      response.setContentType("application/octet-stream");
+      outputStream = new BufferedOutputStream(response.getOutputStream(), 64 * 1024);
+      outputStream.write(metaData);
+      int rowCount = 0;
+      while (rowCount < pageSize && reader.hasNext()) {
+        outputStream.write(serializer.recordToBytes(reader.getRecord()));
+        rowCount++;
+      }
+      ByteBuffer trailer = ByteBuffer.allocate(RESULT_SET_STREAM_TRAILER_MAX_LEN);
+      trailer.put((byte) 0);
+      Dolphin.writeVarInt(trailer, rowCount);
+      trailer.put((byte) (reader.hasNext() ? 1 : 0));
+      outputStream.write(trailer.array(), 0, trailer.position());
+    } catch (Exception e) {
+      LOGGER.error("open result set stream of {} failed", path, e);
+      if (response.isCommitted()) {
+        // Abort the connection rather than end the body on a row boundary, the page without the
+        // trailer is failed by the client
+        outputStream = null;
+        throw new IOException("open result set stream of " + path + " failed", e);
+      } else {
+        // Reset the binary content written, the client fails on the status
+        response.reset();
+        response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        response.setCharacterEncoding(Consts.UTF_8.toString());
+        response.setContentType("text/plain; charset=utf-8");
+        writer = response.getWriter();
+        writer.append("error(错误):" + e.getMessage());
+        writer.flush();
+        outputStream = null;
+      }
+    } finally {
+      if (outputStream != null) {
+        outputStream.flush();
+      }
+      IOUtils.closeQuietly(outputStream);
+      IOUtils.closeQuietly(reader);
+      IOUtils.closeQuietly(writer);
+    }
+  }
+
   /**
    * @param req
    * @param json
@@ -24,8 +24,16 @@ import org.apache.linkis.filesystem.WebApplicationServer;
 import org.apache.linkis.filesystem.service.FsService;
 import org.apache.linkis.server.Message;
 import org.apache.linkis.server.MessageStatus;
+import org.apache.linkis.storage.domain.Column;
+import org.apache.linkis.storage.domain.DataType;
+import org.apache.linkis.storage.domain.Dolphin;
 import org.apache.linkis.storage.fs.FileSystem;
 import org.apache.linkis.storage.fs.impl.LocalFileSystem;
+import org.apache.linkis.storage.resultset.StorageResultSetWriter;
+import org.apache.linkis.storage.resultset.table.TableBinaryResultDeserializer;
+import org.apache.linkis.storage.resultset.table.TableMetaData;
+import org.apache.linkis.storage.resultset.table.TableRecord;
+import org.apache.linkis.storage.resultset.table.TableResultSet;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -36,6 +44,8 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.attribute.PosixFileAttributes;
@@ -224,4 +234,89 @@ public class FsRestfulApiTest {
       LOG.info(mvcResult.getResponse().getContentAsString());
     }
   }
+
+  @Test
+  @DisplayName("openResultSetStreamTest")
+  public void openResultSetStreamTest() throws Exception {
+
+    FileSystem fs = new LocalFileSystem();
+    // The result set is written readable by its owner only
+    fs.setUser(System.getProperty("user.name"));
+    Mockito.when(fsService.getFileSystem(Mockito.anyString(), Mockito.any(FsPath.class)))
+        .thenReturn(fs);
+    String path = this.getClass().getResource("/").getPath() + "_0.dolphin";
+    StorageResultSetWriter<TableMetaData, TableRecord> writer =
+        new StorageResultSetWriter<>(new TableResultSet(), 0, new FsPath("file://" + path));
+    writer.setFormatVersion(Dolphin.FORMAT_VERSION_V2);
+    writer.addMetaData(
+        new TableMetaData(
+            new Column[] {
+              new Column("id", DataType.IntType, ""), new Column("name", DataType.StringType, "")
+            }));
+    for (int i = 0; i < 12; i++) {
+      writer.addRecord(new TableRecord(new Object[] {i, "name_" + i}));
+    }
+    writer.close();
+
+    MvcResult mvcResult =
+        mockMvc
+            .perform(
+                get("/filesystem/openResultSetStream")
+                    .param("path", path)
+                    .param("page", "3")
+                    .param("pageSize", "5"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+            .andReturn();
+
+    InputStream inputStream =
+        new ByteArrayInputStream(mvcResult.getResponse().getContentAsByteArray());
+    TableBinaryResultDeserializer deserializer = new TableBinaryResultDeserializer();
+    TableMetaData metaData = deserializer.createMetaData(readLine(inputStream));
+    assertEquals("id", metaData.columns[0].getColumnName());
+    assertEquals(DataType.IntType, metaData.columns[0].getDataType());
+    // The last page is shorter than pageSize
+    assertEquals(10, deserializer.createRecord(readLine(inputStream)).row[0]);
+    assertEquals("name_11", deserializer.createRecord(readLine(inputStream)).row[1]);
+    // The trailer: an empty line, the record count and no more pages
+    assertEquals(0, Dolphin.readVarInt(inputStream));
+    assertEquals(2, Dolphin.readVarInt(inputStream));
+    assertEquals(0, inputStream.read());
+    assertEquals(-1, Dolphin.readVarInt(inputStream));
+
+    mockMvc
+        .perform(get("/filesystem/openResultSetStream").param("path", path + ".txt"))
+        .andExpect(status().isInternalServerError());
+    // The page size must be positive and not above the configured max
+    for (String pageSize : new String[] {"0", "-5", "100000000"}) {
+      mockMvc
+          .perform(
+              get("/filesystem/openResultSetStream")
+                  .param("path", path)
+                  .param("pageSize", pageSize))
+          .andExpect(status().isInternalServerError());
+    }
+    // A page far past the end is empty rather than wrapping around to the first records
+    MvcResult lastResult =
+        mockMvc
+            .perform(
+                get("/filesystem/openResultSetStream")
+                    .param("path", path)
+                    .param("page", String.valueOf(Integer.MAX_VALUE))
+                    .param("pageSize", "5"))
+            .andExpect(status().isOk())
+            .andReturn();
+    inputStream = new ByteArrayInputStream(lastResult.getResponse().getContentAsByteArray());
+    deserializer.createMetaData(readLine(inputStream));
+    assertEquals(0, Dolphin.readVarInt(inputStream));
+    assertEquals(0, Dolphin.readVarInt(inputStream));
+    assertEquals(0, inputStream.read());
+  }
+
+  private static byte[] readLine(InputStream inputStream) throws Exception {
+    int len = Dolphin.readVarInt(inputStream);
+    byte[] line = new byte[len];
+    assertEquals(len, inputStream.read(line));
+    return line;
+  }
 }
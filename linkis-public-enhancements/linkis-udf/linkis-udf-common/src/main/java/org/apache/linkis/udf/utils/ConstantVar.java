@@ -40,4 +40,7 @@ public class ConstantVar {
 
   public static final String[] specialTypes =
       new String[] {SYS_USER, BDP_USER, SHARE_USER, EXPIRE_USER};
+
+  // group of the cached rpc replies of udf
+  public static final String RPC_CACHE_GROUP = "udf";
 }
@@ -18,8 +18,12 @@
 package org.apache.linkis.udf.api.rpc
 
 import org.apache.linkis.protocol.{CacheableProtocol, RetryableProtocol}
+import org.apache.linkis.udf.utils.ConstantVar
 
 case class RequestUdfIds(userName: String, udfIds: Array[Long], treeCategory: String)
     extends RetryableProtocol
     with CacheableProtocol
-    with UdfProtocol
+    with UdfProtocol {
+  override def cacheGroup: String = ConstantVar.RPC_CACHE_GROUP
+  override def cacheScope: String = userName
+}
@@ -18,10 +18,14 @@
 package org.apache.linkis.udf.api.rpc
 
 import org.apache.linkis.protocol.{CacheableProtocol, RetryableProtocol}
+import org.apache.linkis.udf.utils.ConstantVar
 
 trait UdfProtocol
 
 case class RequestUdfTree(userName: String, treeType: String, treeId: Long, treeCategory: String)
     extends RetryableProtocol
     with CacheableProtocol
-    with UdfProtocol
+    with UdfProtocol {
+  override def cacheGroup: String = ConstantVar.RPC_CACHE_GROUP
+  override def cacheScope: String = userName
+}
@@ -17,6 +17,7 @@
 
 package org.apache.linkis.udf.api;
 
+import org.apache.linkis.rpc.interceptor.common.CacheableRPCInterceptor;
 import org.apache.linkis.server.Message;
 import org.apache.linkis.server.utils.ModuleUserUtils;
 import org.apache.linkis.udf.entity.UDFInfo;
@@ -220,6 +221,7 @@ public class UDFRestfulApi {
       udfvo.setCreateTime(new Date());
       udfvo.setUpdateTime(new Date());
       message = Message.ok().data("udfId", udfService.addUDF(udfvo, userName));
+      clearUdfRpcCache();
     } catch (Exception e) {
       logger.error("Failed to add UDF: ", e);
       message = Message.error(e.getMessage());
@@ -275,6 +277,7 @@ public class UDFRestfulApi {
       String userName = ModuleUserUtils.getOperationUser(req, "update udf ");
       UDFUpdateVo udfUpdateVo = mapper.treeToValue(json.get("udfUpdateVo"), UDFUpdateVo.class);
       udfService.updateUDF(udfUpdateVo, userName);
+      clearUdfRpcCache();
       message = Message.ok();
       //            message.data("udf", udfUpdateVo);
     } catch (Exception e) {
@@ -295,6 +298,7 @@ public class UDFRestfulApi {
     try {
       verifyOperationUser(userName, id);
       udfService.deleteUDF(id, userName);
+      clearUdfRpcCache();
       message = Message.ok();
     } catch (Exception e) {
       logger.error("Failed to delete UDF: ", e);
@@ -321,6 +325,7 @@ public class UDFRestfulApi {
       } else {
         udfService.deleteLoadInfo(udfId, userName);
       }
+      clearUdfRpcCache();
       message = Message.ok();
     } catch (Exception e) {
       logger.error("Failed to isLoad UDF: ", e);
@@ -353,6 +358,7 @@ public class UDFRestfulApi {
       udfTree.setUpdateTime(new Date());
       udfTree.setUserName(userName);
       udfTree = udfTreeService.addTree(udfTree, userName);
+      clearUdfRpcCache();
       message = Message.ok();
       message.data("udfTree", udfTree);
     } catch (Exception e) {
@@ -386,6 +392,7 @@ public class UDFRestfulApi {
       udfTree.setUpdateTime(new Date());
       udfTree.setUserName(userName);
       udfTree = udfTreeService.updateTree(udfTree, userName);
+      clearUdfRpcCache();
       message = Message.ok();
       message.data("udfTree", udfTree);
     } catch (Exception e) {
@@ -406,6 +413,7 @@ public class UDFRestfulApi {
     Message message = null;
     try {
       udfTreeService.deleteTree(id, userName);
+      clearUdfRpcCache();
       message = Message.ok();
     } catch (Exception e) {
       logger.error("Failed to delete Tree: ", e);
@@ -455,6 +463,7 @@ public class UDFRestfulApi {
 
       verifyOperationUser(userName, udfId);
       udfService.setUdfExpire(udfId, userName);
+      clearUdfRpcCache();
       message = Message.ok();
     } catch (Exception e) {
       logger.error("Failed to setExpire: ", e);
@@ -520,6 +529,7 @@ public class UDFRestfulApi {
         udfService.publishLatestUdf(udfInfo.getId());
       }
       udfService.setUDFSharedInfo(true, udfInfo.getId());
+      clearUdfRpcCache();
       message = Message.ok();
     } catch (Exception e) {
       logger.error("Failed to share: ", e);
@@ -601,6 +611,7 @@ public class UDFRestfulApi {
             "Admin users cannot hand over UDFs to regular users.(管理员用户不能移交UDF给普通用户！)");
       }
       udfService.handoverUdf(udfId, handoverUser);
+      clearUdfRpcCache();
       message = Message.ok();
     } catch (Exception e) {
       logger.error("Failed to handover udf: ", e);
@@ -628,6 +639,14 @@ public class UDFRestfulApi {
     return udfInfo;
   }
 
+  /**
+   * Invalidate the cached rpc replies of udf in other services, since a shared udf or tree may be
+   * changed, the whole group is invalidated
+   */
+  private void clearUdfRpcCache() {
+    CacheableRPCInterceptor.broadcastInvalidation(ConstantVar.RPC_CACHE_GROUP, null);
+  }
+
   @ApiOperation(value = "publishUDF", notes = "publish UDF", response = Message.class)
   @ApiImplicitParams({
     @ApiImplicitParam(name = "udfId", required = true, dataType = "long", value = "udf id"),
@@ -649,6 +668,7 @@ public class UDFRestfulApi {
       String version = json.get("version").textValue();
       verifyOperationUser(userName, udfId);
       udfService.publishUdf(udfId, version);
+      clearUdfRpcCache();
       message = Message.ok();
     } catch (Exception e) {
       logger.error("Failed to publish udf: ", e);
@@ -687,6 +707,7 @@ public class UDFRestfulApi {
       }
       verifyOperationUser(userName, udfId);
       udfService.rollbackUDF(udfId, version, userName);
+      clearUdfRpcCache();
       message = Message.ok();
     } catch (Exception e) {
       logger.error("Failed to rollback udf: ", e);
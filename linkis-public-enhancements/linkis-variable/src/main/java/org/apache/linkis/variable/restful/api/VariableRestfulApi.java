@@ -85,6 +85,7 @@ public class VariableRestfulApi {
     List<VarKeyValueVO> userVariables = variableService.listGlobalVariable(userName);
     List globalVariables = mapper.treeToValue(json.get("globalVariables"), List.class);
     variableService.saveGlobalVaraibles(globalVariables, userVariables, userName);
+    variableService.clearVariableCache(userName);
     return Message.ok();
   }
 }
@@ -32,4 +32,7 @@ public interface VariableService {
 
   void saveGlobalVaraibles(
       List globalVariables, List<VarKeyValueVO> userVariables, String userName);
+
+  /** Invalidate the cached rpc replies of the variables of user in other services */
+  void clearVariableCache(String userName);
 }
@@ -18,7 +18,8 @@
 package org.apache.linkis.variable.service
 
 import org.apache.linkis.common.utils.Logging
-import org.apache.linkis.protocol.variable.ResponseQueryVariable
+import org.apache.linkis.protocol.variable.{ResponseQueryVariable, VariableProtocol}
+import org.apache.linkis.rpc.interceptor.common.CacheableRPCInterceptor
 import org.apache.linkis.server.BDPJettyServerHelper
 import org.apache.linkis.variable.dao.VarMapper
 import org.apache.linkis.variable.entity.{VarKey, VarKeyUser, VarKeyValueVO}
@@ -132,4 +133,7 @@ class VariableServiceImpl extends VariableService with Logging {
 
   }
 
+  override def clearVariableCache(userName: String): Unit =
+    CacheableRPCInterceptor.broadcastInvalidation(VariableProtocol.CACHE_GROUP, userName)
+
 }
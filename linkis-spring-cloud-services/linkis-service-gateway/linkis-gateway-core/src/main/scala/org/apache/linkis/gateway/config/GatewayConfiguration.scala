@@ -17,7 +17,7 @@
 
 package org.apache.linkis.gateway.config
 
-import org.apache.linkis.common.conf.CommonVars
+import org.apache.linkis.common.conf.{CommonVars, TimeType}
 
 object GatewayConfiguration {
 
@@ -108,4 +108,14 @@ object GatewayConfiguration {
 
   val IS_DOWNLOAD = CommonVars("linkis.web.result.set.export.enable", true)
 
+  val LABEL_ROUTE_CACHE_ENABLED = CommonVars("linkis.gateway.label.route.cache.enable", true)
+
+  val LABEL_ROUTE_CACHE_TTL = CommonVars(
+    "linkis.gateway.label.route.cache.ttl",
+    new TimeType("10s"),
+    "The max time to reuse the cached instances of route labels, even if the registry is unchanged"
+  )
+
+  val LABEL_ROUTE_CACHE_MAX_SIZE = CommonVars("linkis.gateway.label.route.cache.max.size", 10000)
+
 }
@@ -43,6 +43,8 @@ abstract class AbstractLabelGatewayRouter extends AbstractGatewayRouter with Log
   @Resource
   private var insLabelService: InsLabelService = _
 
+  protected lazy val labelRouteTable: LabelRouteTable = new LabelRouteTable(insLabelService)
+
   /**
    * Add to the last of router chain
    *
@@ -70,7 +72,11 @@ abstract class AbstractLabelGatewayRouter extends AbstractGatewayRouter with Log
     val canSelectInstances = if (null == routeLabels || routeLabels.isEmpty) {
       getDefaultInstances(applicationName)
     } else {
-      val candidateServices = insLabelService.searchInstancesByLabels(routeLabels)
+      val candidateServices = labelRouteTable.searchInstancesByLabels(
+        applicationName,
+        routeLabels,
+        ServiceInstanceUtils.getRPCServerLoader.getServiceInstances(applicationName)
+      )
       if (null == candidateServices || candidateServices.isEmpty) {
         throw new GatewayErrorException(
           CANNOT_ROETE_SERVICE.getErrorCode,
@@ -103,7 +109,7 @@ abstract class AbstractLabelGatewayRouter extends AbstractGatewayRouter with Log
     val instances = ServiceInstanceUtils.getRPCServerLoader.getServiceInstances(applicationName)
     val allInstances = new util.ArrayList[ServiceInstance]()
     if (null != instances && instances.nonEmpty) allInstances.addAll(instances.toList.asJava)
-    val labelInstances = insLabelService.getInstancesByNames(applicationName)
+    val labelInstances = labelRouteTable.getInstancesByNames(applicationName, instances)
     allInstances.removeAll(labelInstances)
     allInstances
   }
@@ -23,6 +23,7 @@ import org.apache.linkis.gateway.exception.GatewayErrorException
 import org.apache.linkis.gateway.http.GatewayContext
 import org.apache.linkis.gateway.parser.RouteLabelParser
 import org.apache.linkis.manager.label.entity.route.RouteLabel
+import org.apache.linkis.rpc.interceptor.ServiceInstanceUtils
 
 import org.apache.commons.lang3.StringUtils
 
@@ -84,10 +85,19 @@ class DefaultLabelGatewayRouter(var routeLabelParsers: util.List[RouteLabelParse
       throw new GatewayErrorException(NO_ROUTE_SERVICE.getErrorCode, NO_ROUTE_SERVICE.getErrorDesc)
     }
 
-    val serviceIds = serviceInstances.asScala.map(_.getApplicationName).distinct
+    val registryInstances = new util.HashMap[String, util.Set[ServiceInstance]]()
     val filteredInstances = new util.ArrayList[ServiceInstance]()
-    for (serviceId <- serviceIds) {
-      filteredInstances.addAll(retainAllInRegistry(serviceId, serviceInstances))
+    serviceInstances.asScala.foreach { serviceInstance =>
+      val serviceId = serviceInstance.getApplicationName
+      var instancesInRegistry = registryInstances.get(serviceId)
+      if (null == instancesInRegistry) {
+        val instances = ServiceInstanceUtils.getRPCServerLoader.getServiceInstances(serviceId)
+        instancesInRegistry =
+          if (null == instances) util.Collections.emptySet()
+          else new util.HashSet(util.Arrays.asList(instances: _*))
+        registryInstances.put(serviceId, instancesInRegistry)
+      }
+      if (instancesInRegistry.contains(serviceInstance)) filteredInstances.add(serviceInstance)
     }
 
     if (filteredInstances.size() > 0) {
@@ -95,7 +105,10 @@ class DefaultLabelGatewayRouter(var routeLabelParsers: util.List[RouteLabelParse
     } else {
       throw new GatewayErrorException(
         CANNOT_INSTANCE.getErrorCode,
-        MessageFormat.format(CANNOT_INSTANCE.getErrorDesc, serviceIds.mkString(","))
+        MessageFormat.format(
+          CANNOT_INSTANCE.getErrorDesc,
+          registryInstances.keySet().asScala.mkString(",")
+        )
       )
     }
   }
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.gateway.ujes.route
+
+import org.apache.linkis.common.ServiceInstance
+import org.apache.linkis.common.utils.Logging
+import org.apache.linkis.gateway.config.GatewayConfiguration
+import org.apache.linkis.instance.label.service.InsLabelService
+import org.apache.linkis.manager.label.entity.route.RouteLabel
+
+import java.util
+import java.util.concurrent.ConcurrentHashMap
+
+import scala.collection.JavaConverters._
+
+import LabelRouteTable._
+import io.micrometer.core.instrument.{Counter, Metrics}
+
+/**
+ * The local routing table of the label gateway router, which keeps the instances searched by the
+ * route labels, so the gateway does not query the instance labels for every routed request.
+ * (网关本地的标签路由表，避免每次路由都查询实例标签)
+ *
+ * An entry is reloaded when the registry instances of its application changed (an instance is
+ * registered or went offline), or it has been cached longer than the ttl, which covers the label
+ * changes of the instances already registered.
+ */
+class LabelRouteTable(insLabelService: InsLabelService, ttl: Long, maxSize: Int, enabled: Boolean)
+    extends Logging {
+
+  def this(insLabelService: InsLabelService) = this(
+    insLabelService,
+    GatewayConfiguration.LABEL_ROUTE_CACHE_TTL.getValue.toLong,
+    GatewayConfiguration.LABEL_ROUTE_CACHE_MAX_SIZE.getValue,
+    GatewayConfiguration.LABEL_ROUTE_CACHE_ENABLED.getValue
+  )
+
+  private val routeTable = new ConcurrentHashMap[String, RouteEntry]
+
+  private val labelInstancesTable = new ConcurrentHashMap[String, RouteEntry]
+
+  private val routeHit = counter("route", "hit")
+  private val routeMiss = counter("route", "miss")
+  private val labelInstancesHit = counter("label_instances", "hit")
+  private val labelInstancesMiss = counter("label_instances", "miss")
+
+  /**
+   * The instances with the route labels, the same as InsLabelService.searchInstancesByLabels
+   * @param applicationName
+   *   the application to route to
+   * @param routeLabels
+   *   route labels
+   * @param registryInstances
+   *   instances of the application in registry
+   */
+  def searchInstancesByLabels(
+      applicationName: String,
+      routeLabels: util.List[RouteLabel],
+      registryInstances: Array[ServiceInstance]
+  ): util.List[ServiceInstance] = {
+    if (!enabled) return insLabelService.searchInstancesByLabels(routeLabels)
+    lookup(
+      routeTable,
+      toRouteKey(applicationName, routeLabels),
+      registryInstances,
+      routeHit,
+      routeMiss
+    )(insLabelService.searchInstancesByLabels(routeLabels))
+  }
+
+  /**
+   * The instances of the application which have labels, the same as
+   * InsLabelService.getInstancesByNames
+   */
+  def getInstancesByNames(
+      applicationName: String,
+      registryInstances: Array[ServiceInstance]
+  ): util.List[ServiceInstance] = {
+    if (!enabled) return insLabelService.getInstancesByNames(applicationName)
+    lookup(
+      labelInstancesTable,
+      applicationName,
+      registryInstances,
+      labelInstancesHit,
+      labelInstancesMiss
+    )(insLabelService.getInstancesByNames(applicationName))
+  }
+
+  def invalidate(applicationName: String): Unit = {
+    labelInstancesTable.remove(applicationName)
+    val prefix = applicationName + ROUTE_KEY_SEPARATOR
+    routeTable.keySet().asScala.filter(_.startsWith(prefix)).foreach(routeTable.remove)
+  }
+
+  def invalidateAll(): Unit = {
+    routeTable.clear()
+    labelInstancesTable.clear()
+  }
+
+  def size(): Int = routeTable.size() + labelInstancesTable.size()
+
+  private def lookup(
+      table: ConcurrentHashMap[String, RouteEntry],
+      key: String,
+      registryInstances: Array[ServiceInstance],
+      hit: Counter,
+      miss: Counter
+  )(load: => util.List[ServiceInstance]): util.List[ServiceInstance] = {
+    val entry = table.get(key)
+    if (null != entry && entry.isValid(registryInstances)) {
+      hit.increment()
+      return entry.instances
+    }
+    miss.increment()
+    val instances = load
+    if (null == instances) {
+      table.remove(key)
+    } else {
+      if (table.size() >= maxSize) {
+        logger.info(s"Label route table is full(size: ${table.size()}), clear it")
+        table.clear()
+      }
+      table.put(key, new RouteEntry(instances, registryInstances))
+    }
+    instances
+  }
+
+  /**
+   * The route labels are sorted, so that the same label set in any order shares the entry
+   */
+  private def toRouteKey(applicationName: String, routeLabels: util.List[RouteLabel]): String =
+    routeLabels.asScala
+      .map(label => label.getLabelKey + "=" + label.getStringValue)
+      .sorted
+      .mkString(applicationName + ROUTE_KEY_SEPARATOR, ROUTE_KEY_SEPARATOR, "")
+
+  private def counter(table: String, result: String): Counter =
+    Counter
+      .builder(LabelRouteTable.METRIC)
+      .description("Lookups of the gateway label route table")
+      .tag("table", table)
+      .tag("result", result)
+      .register(Metrics.globalRegistry)
+
+  private class RouteEntry(
+      val instances: util.List[ServiceInstance],
+      registryInstances: Array[ServiceInstance]
+  ) {
+
+    private val loadTime = System.currentTimeMillis()
+
+    private val registrySnapshot: util.Set[ServiceInstance] =
+      if (null == registryInstances) util.Collections.emptySet()
+      else new util.HashSet(util.Arrays.asList(registryInstances: _*))
+
+    def isValid(currentInstances: Array[ServiceInstance]): Boolean =
+      System.currentTimeMillis() - loadTime < ttl && isRegistryUnchanged(currentInstances)
+
+    private def isRegistryUnchanged(currentInstances: Array[ServiceInstance]): Boolean =
+      if (null == currentInstances) registrySnapshot.isEmpty
+      else {
+        currentInstances.length == registrySnapshot.size() && currentInstances.forall(
+          registrySnapshot.contains
+        )
+      }
+
+  }
+
+}
+
+object LabelRouteTable {
+
+  val METRIC = "linkis_gateway_label_route_cache"
+
+  private val ROUTE_KEY_SEPARATOR = "\u0001"
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.linkis.gateway.ujes.route
+
+import org.apache.linkis.common.ServiceInstance
+import org.apache.linkis.instance.label.service.InsLabelService
+import org.apache.linkis.manager.label.entity.route.RouteLabel
+
+import java.util
+
+import org.junit.jupiter.api.{Assertions, BeforeEach, DisplayName, Test}
+import org.mockito.ArgumentMatchers.{any, anyString}
+import org.mockito.Mockito
+
+class LabelRouteTableTest {
+
+  private val entrance1 = ServiceInstance("linkis-cg-entrance", "host1:9104")
+  private val entrance2 = ServiceInstance("linkis-cg-entrance", "host2:9104")
+
+  private var insLabelService: InsLabelService = _
+
+  @BeforeEach
+  def before(): Unit = {
+    insLabelService = Mockito.mock(classOf[InsLabelService])
+    Mockito
+      .when(insLabelService.searchInstancesByLabels(any()))
+      .thenReturn(util.Arrays.asList(entrance1))
+    Mockito
+      .when(insLabelService.getInstancesByNames(anyString()))
+      .thenReturn(util.Arrays.asList(entrance1))
+  }
+
+  @Test
+  @DisplayName("searchInstancesByLabelsTest")
+  def searchInstancesByLabelsTest(): Unit = {
+    val routeTable = new LabelRouteTable(insLabelService, 60000L, 100, true)
+    val registry = Array(entrance1, entrance2)
+    Assertions.assertEquals(
+      util.Arrays.asList(entrance1),
+      routeTable.searchInstancesByLabels("linkis-cg-entrance", routeLabels("a", "b"), registry)
+    )
+    // The same label set in another order
+    routeTable.searchInstancesByLabels("linkis-cg-entrance", routeLabels("b", "a"), registry)
+    Mockito.verify(insLabelService, Mockito.times(1)).searchInstancesByLabels(any())
+
+    routeTable.searchInstancesByLabels("linkis-cg-entrance", routeLabels("c"), registry)
+    Mockito.verify(insLabelService, Mockito.times(2)).searchInstancesByLabels(any())
+
+    // An instance went offline
+    routeTable.searchInstancesByLabels(
+      "linkis-cg-entrance",
+      routeLabels("a", "b"),
+      Array(entrance1)
+    )
+    Mockito.verify(insLabelService, Mockito.times(3)).searchInstancesByLabels(any())
+
+    routeTable.invalidate("linkis-cg-entrance")
+    routeTable.searchInstancesByLabels(
+      "linkis-cg-entrance",
+      routeLabels("a", "b"),
+      Array(entrance1)
+    )
+    Mockito.verify(insLabelService, Mockito.times(4)).searchInstancesByLabels(any())
+  }
+
+  @Test
+  @DisplayName("getInstancesByNamesTest")
+  def getInstancesByNamesTest(): Unit = {
+    val routeTable = new LabelRouteTable(insLabelService, 60000L, 100, true)
+    routeTable.getInstancesByNames("linkis-cg-entrance", Array(entrance1))
+    routeTable.getInstancesByNames("linkis-cg-entrance", Array(entrance1))
+    Mockito.verify(insLabelService, Mockito.times(1)).getInstancesByNames("linkis-cg-entrance")
+    // A new instance registered
+    routeTable.getInstancesByNames("linkis-cg-entrance", Array(entrance2, entrance1))
+    Mockito.verify(insLabelService, Mockito.times(2)).getInstancesByNames("linkis-cg-entrance")
+  }
+
+  @Test
+  @DisplayName("ttlAndDisabledTest")
+  def ttlAndDisabledTest(): Unit = {
+    val expired = new LabelRouteTable(insLabelService, 0L, 100, true)
+    expired.getInstancesByNames("linkis-cg-entrance", Array(entrance1))
+    expired.getInstancesByNames("linkis-cg-entrance", Array(entrance1))
+    Mockito.verify(insLabelService, Mockito.times(2)).getInstancesByNames("linkis-cg-entrance")
+
+    val disabled = new LabelRouteTable(insLabelService, 60000L, 100, false)
+    disabled.getInstancesByNames("linkis-cg-entrance", Array(entrance1))
+    Assertions.assertEquals(0, disabled.size())
+    Mockito.verify(insLabelService, Mockito.times(3)).getInstancesByNames("linkis-cg-entrance")
+  }
+
+  private def routeLabels(routePaths: String*): util.List[RouteLabel] = {
+    val labels = new util.ArrayList[RouteLabel]()
+    routePaths.foreach { routePath =>
+      val label = new RouteLabel
+      label.setRoutePath(routePath)
+      labels.add(label)
+    }
+    labels
+  }
+
+}